@@ -0,0 +1,226 @@
+package com.sunlight.linker.exercises.edge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sunlight.linker.application.RedirectTarget;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.edge.EdgeRedirectHandler;
+import com.sunlight.linker.edge.EdgeRouterConfig;
+import com.sunlight.linker.edge.ReactiveShortLinkRepository;
+import com.sunlight.linker.edge.ReactiveShortLinkRepository.EdgeShortLink;
+import com.sunlight.linker.edge.ReactiveShortLinkResolver;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】响应式边缘节点重定向测试
+ *
+ * 【WebFlux测试】
+ *
+ * 学习目标：
+ * ✅ 使用WebTestClient直接绑定RouterFunction，不启动Netty
+ * ✅ Mock ReactiveRedisTemplate 与 R2DBC仓库，验证缓存命中/未命中两条路径
+ * ✅ 验证缓存键布局与Servlet服务一致（shortlink:/access_count:）
+ * ✅ 验证缓存值中的expiresAt与数据库过期时间都会被检查
+ */
+@DisplayName("【练习】响应式边缘节点重定向测试")
+class EdgeRedirectExercise {
+
+    private static final String LONG_URL = "https://www.example.com/products/123";
+
+    private ReactiveRedisTemplate<String, JsonNode> redisTemplate;
+    private ReactiveValueOperations<String, JsonNode> valueOperations;
+    private ReactiveShortLinkRepository repository;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveRedisTemplate.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        repository = mock(ReactiveShortLinkRepository.class);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.increment(anyString())).thenReturn(Mono.just(1L));
+        when(valueOperations.set(anyString(), any(JsonNode.class), any(Duration.class))).thenReturn(Mono.just(true));
+
+        ReactiveShortLinkResolver resolver = new ReactiveShortLinkResolver(redisTemplate, repository);
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new EdgeRouterConfig().redirectRoutes(new EdgeRedirectHandler(resolver, Duration.ofDays(1))))
+                .build();
+    }
+
+    @Test
+    @DisplayName("缓存命中时直接重定向，不查询数据库")
+    void shouldRedirectFromCache() {
+        JsonNode cached = JsonNodeFactory.instance.objectNode()
+                .put("@class", "com.sunlight.linker.domain.ShortLink")
+                .put("longUrl", LONG_URL)
+                .put("shortCode", "abc123");
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.just(cached));
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isFound()
+                .expectHeader().location(LONG_URL);
+
+        verifyNoInteractions(repository);
+        verify(valueOperations).increment("access_count:abc123");
+    }
+
+    @Test
+    @DisplayName("缓存未命中时查询数据库并按主应用格式回填缓存")
+    void shouldLoadFromDatabaseAndPopulateCache() {
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.empty());
+        when(repository.findByShortCode("abc123"))
+                .thenReturn(Mono.just(new EdgeShortLink(7L, LONG_URL, "abc123", false, 3L, RedirectPolicy.FOUND, null)));
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isFound()
+                .expectHeader().location(LONG_URL);
+
+        ArgumentCaptor<JsonNode> cachedNode = ArgumentCaptor.forClass(JsonNode.class);
+        verify(valueOperations).set(eq("shortlink:abc123"), cachedNode.capture(), any(Duration.class));
+        assertThat(cachedNode.getValue().get("@class").asText()).isEqualTo("com.sunlight.linker.domain.ShortLink");
+        assertThat(cachedNode.getValue().get("longUrl").asText()).isEqualTo(LONG_URL);
+        assertThat(cachedNode.getValue().get("redirectPolicy").asText()).isEqualTo("FOUND");
+        verify(valueOperations).increment("access_count:abc123");
+    }
+
+    @Test
+    @DisplayName("Redis异常时回退到数据库")
+    void shouldFallBackToDatabaseWhenRedisFails() {
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.error(new IllegalStateException("redis down")));
+        when(repository.findByShortCode("abc123"))
+                .thenReturn(Mono.just(new EdgeShortLink(7L, LONG_URL, "abc123", false, 0L, RedirectPolicy.FOUND, null)));
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isFound()
+                .expectHeader().location(LONG_URL);
+    }
+
+    @Test
+    @DisplayName("缓存或数据库中已过期的链接返回404，不计数也不回填缓存")
+    void shouldReturnNotFoundForExpiredLink() {
+        JsonNode cached = JsonNodeFactory.instance.objectNode()
+                .put("longUrl", LONG_URL)
+                .put("expiresAt", LocalDateTime.now().minusMinutes(1).toString());
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.just(cached));
+        when(repository.findByShortCode("abc123"))
+                .thenReturn(Mono.just(new EdgeShortLink(7L, LONG_URL, "abc123", false, 0L, RedirectPolicy.FOUND,
+                        LocalDateTime.now().minusMinutes(1))));
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isNotFound();
+
+        verify(valueOperations, never()).set(anyString(), any(JsonNode.class), any(Duration.class));
+        verify(valueOperations, never()).increment(anyString());
+    }
+
+    @Test
+    @DisplayName("不存在的短码返回404且不计数")
+    void shouldReturnNotFoundForUnknownCode() {
+        when(valueOperations.get("shortlink:nothere")).thenReturn(Mono.empty());
+        when(repository.findByShortCode("nothere")).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/s/nothere").exchange()
+                .expectStatus().isNotFound();
+
+        verify(valueOperations, never()).increment(anyString());
+    }
+
+    @Test
+    @DisplayName("快照命中时直接重定向，不读取Redis缓存和数据库；墓碑和已过期的记录返回404")
+    void shouldRedirectFromSnapshot(@TempDir Path snapshotDir) {
+        LinkSnapshotStore store = new LinkSnapshotStore(snapshotDir);
+        try (LinkSnapshotWriter writer = store.newBase(3)) {
+            writer.add("snap01", LONG_URL, RedirectPolicy.FOUND);
+            writer.add("gone01", LONG_URL, RedirectPolicy.FOUND);
+            writer.add("old01", LONG_URL, RedirectPolicy.FOUND, LocalDateTime.now().minusMinutes(1));
+            writer.commit();
+        }
+        try (LinkSnapshotWriter writer = store.newDelta(1)) {
+            writer.addTombstone("gone01");
+            writer.commit();
+        }
+        store.refresh();
+        ReactiveShortLinkResolver resolver = new ReactiveShortLinkResolver(redisTemplate, repository, store);
+        WebTestClient client = WebTestClient
+                .bindToRouterFunction(new EdgeRouterConfig().redirectRoutes(new EdgeRedirectHandler(resolver, Duration.ofDays(1))))
+                .build();
+
+        client.get().uri("/s/snap01").exchange()
+                .expectStatus().isFound()
+                .expectHeader().location(LONG_URL);
+        client.get().uri("/s/gone01").exchange()
+                .expectStatus().isNotFound();
+        client.get().uri("/s/old01").exchange()
+                .expectStatus().isNotFound();
+
+        verifyNoInteractions(repository);
+        verify(valueOperations, never()).get(anyString());
+        verify(valueOperations).increment("access_count:snap01");
+    }
+
+    @Test
+    @DisplayName("非Base62短码直接返回404，不访问Redis和数据库")
+    void shouldRejectMalformedCodeWithoutIo() {
+        webTestClient.get().uri("/s/bad-code").exchange()
+                .expectStatus().isNotFound();
+
+        verifyNoInteractions(repository);
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("缓存中的永久重定向策略应该生成可缓存的301并支持条件请求")
+    void shouldHonourCachedPermanentPolicy() {
+        JsonNode cached = JsonNodeFactory.instance.objectNode()
+                .put("longUrl", LONG_URL)
+                .put("redirectPolicy", "MOVED_PERMANENTLY");
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.just(cached));
+        String etag = new RedirectTarget(LONG_URL, RedirectPolicy.MOVED_PERMANENTLY).etag();
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isEqualTo(301)
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .expectHeader().valueEquals("ETag", etag);
+
+        webTestClient.get().uri("/s/abc123").header("If-None-Match", etag).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("有过期时间的永久重定向缓存时长不应该超过剩余有效期")
+    void shouldCapMaxAgeAtRemainingLifetime() {
+        JsonNode cached = JsonNodeFactory.instance.objectNode()
+                .put("longUrl", LONG_URL)
+                .put("redirectPolicy", "PERMANENT_REDIRECT")
+                .put("expiresAt", LocalDateTime.now().plusHours(1).toString());
+        when(valueOperations.get("shortlink:abc123")).thenReturn(Mono.just(cached));
+
+        webTestClient.get().uri("/s/abc123").exchange()
+                .expectStatus().isEqualTo(308)
+                .expectHeader().value(HttpHeaders.CACHE_CONTROL, value ->
+                        assertThat(value).matches("max-age=(3599|3600), public"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.sunlight.linker.edge;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 响应式边缘节点主类
+ *
+ * 【进阶挑战 - 响应式重定向】
+ *
+ * 边缘节点只负责 /s/{shortCode} 重定向，不加载Servlet + JPA栈：
+ * <pre>
+ *   Netty ──▶ EdgeRedirectHandler ──▶ ReactiveShortLinkResolver
+ *                                         ├──▶ ReactiveRedisTemplate（shortlink:{code}）
+ *                                         └──▶ R2DBC（缓存未命中）
+ * </pre>
+ *
+ * 【启动方式】：
+ * mvn -Pedge package 后运行本类，自动激活 edge profile
+ * （WebFlux应用类型、R2DBC连接、排除JDBC/JPA自动配置，见application.yml）
+ *
+ * 【注意】：
+ * 所有边缘节点组件都标注 @Profile("edge")，
+ * 与主应用打在同一个包里时不会被主应用的组件扫描加载
+ *
+ * 【点击计数】：
+ * 边缘节点只对Redis中的 access_count:{code} 执行INCR，不写数据库；
+ * 部署边缘节点时主应用必须开启 app.access-count-drain.enabled，由AccessCountDrainer定期累加到
+ * short_links.access_count，否则边缘点击会在计数键1小时过期后丢失
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@SpringBootApplication
+@Profile(EdgeApplication.PROFILE)
+public class EdgeApplication {
+
+    public static final String PROFILE = "edge";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(EdgeApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sunlight.linker.edge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.sunlight.linker.application.RedirectTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 响应式重定向处理器
+ *
+ * 【HTTP设计】：
+ * 与Servlet版RedirectController保持一致：
+ * - 存在的短码按重定向策略返回302/307/301/308 + Location，缓存头规则相同（可缓存时长不超过链接剩余有效期）
+ * - 永久重定向命中If-None-Match时返回304
+ * - 不存在的短码返回404
+ * - 解析异常返回500
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@Profile(EdgeApplication.PROFILE)
+public class EdgeRedirectHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EdgeRedirectHandler.class);
+
+    private final ReactiveShortLinkResolver resolver;
+    private final Duration permanentMaxAge;
+
+    public EdgeRedirectHandler(ReactiveShortLinkResolver resolver,
+                               @Value("${app.short-link.redirect.permanent-max-age:1d}") Duration permanentMaxAge) {
+        this.resolver = resolver;
+        this.permanentMaxAge = permanentMaxAge;
+    }
+
+    public Mono<ServerResponse> redirect(ServerRequest request) {
+        String shortCode = request.pathVariable("shortCode");
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return resolver.resolve(shortCode)
+                .flatMap(target -> toResponse(target, ifNoneMatch))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                .onErrorResume(e -> {
+                    logger.warn("重定向失败: shortCode={}, error={}", shortCode, e.getMessage());
+                    return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    private Mono<ServerResponse> toResponse(RedirectTarget target, String ifNoneMatch) {
+        URI location = URI.create(target.longUrl());
+        if (!target.policy().isCacheable()) {
+            return ServerResponse.status(target.policy().getStatusCode())
+                    .location(location)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        Duration maxAge = target.cacheMaxAge(permanentMaxAge, LocalDateTime.now());
+        CacheControl cacheControl = maxAge.isZero()
+                ? CacheControl.noStore()
+                : CacheControl.maxAge(maxAge).cachePublic();
+        HttpStatus status = target.matchesIfNoneMatch(ifNoneMatch)
+                ? HttpStatus.NOT_MODIFIED
+                : HttpStatus.valueOf(target.policy().getStatusCode());
+        return ServerResponse.status(status)
+                .location(location)
+                .cacheControl(cacheControl)
+                .eTag(target.etag())
+                .build();
+    }
+}
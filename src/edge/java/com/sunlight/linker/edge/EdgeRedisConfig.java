@@ -0,0 +1,47 @@
+package com.sunlight.linker.edge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * 边缘节点Redis配置
+ *
+ * 【设计说明】：
+ * 主应用用GenericJackson2JsonRedisSerializer把ShortLink实体写成带@class的JSON，
+ * 边缘节点不依赖JPA实体，按JSON树读写同一份数据，只取出longUrl字段
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile(EdgeApplication.PROFILE)
+public class EdgeRedisConfig {
+
+    /**
+     * 替换自动配置的reactiveRedisTemplate：键为字符串，值为JSON树
+     *
+     * @param connectionFactory 响应式Redis连接工厂
+     * @return 响应式RedisTemplate
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, JsonNode> reactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+        Jackson2JsonRedisSerializer<JsonNode> valueSerializer = new Jackson2JsonRedisSerializer<>(JsonNode.class);
+
+        RedisSerializationContext<String, JsonNode> context = RedisSerializationContext
+                .<String, JsonNode>newSerializationContext(keySerializer)
+                .value(valueSerializer)
+                .hashKey(keySerializer)
+                .hashValue(valueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
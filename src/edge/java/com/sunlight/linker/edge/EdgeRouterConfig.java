@@ -0,0 +1,36 @@
+package com.sunlight.linker.edge;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * 边缘节点Web配置
+ *
+ * 【说明】：
+ * 与主应用同一个classpath时Tomcat也在其中，响应式自动配置会优先选择Tomcat，
+ * 这里显式声明Netty服务器工厂
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile(EdgeApplication.PROFILE)
+public class EdgeRouterConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> redirectRoutes(EdgeRedirectHandler handler) {
+        return RouterFunctions.route(GET("/s/{shortCode}"), handler::redirect);
+    }
+}
@@ -0,0 +1,73 @@
+package com.sunlight.linker.edge;
+
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 边缘节点快照配置
+ *
+ * 【设计说明】：
+ * app.edge.snapshot.directory 指向主应用 LinkSnapshotExporter 的输出目录（共享卷或同步副本），
+ * 配置后 ReactiveShortLinkResolver 先查内存映射快照，快照命中时不访问Redis和数据库；
+ * 后台按 refresh-interval 扫描目录，发现新的增量或压实后的全量文件时重新映射
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile(EdgeApplication.PROFILE)
+@ConditionalOnExpression("!'${app.edge.snapshot.directory:}'.isEmpty()")
+public class EdgeSnapshotConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EdgeSnapshotConfig.class);
+
+    @Bean
+    public LinkSnapshotStore linkSnapshotStore(@Value("${app.edge.snapshot.directory}") String directory) {
+        LinkSnapshotStore store = new LinkSnapshotStore(Path.of(directory));
+        store.refresh();
+        return store;
+    }
+
+    @Bean
+    public SnapshotRefresher snapshotRefresher(LinkSnapshotStore store,
+                                               @Value("${app.edge.snapshot.refresh-interval:10s}") Duration interval) {
+        return new SnapshotRefresher(store, interval);
+    }
+
+    /**
+     * 定期刷新快照目录，扫描与映射在boundedElastic线程上执行，不占用事件循环
+     */
+    public static class SnapshotRefresher implements DisposableBean {
+
+        private final Disposable subscription;
+
+        SnapshotRefresher(LinkSnapshotStore store, Duration interval) {
+            this.subscription = Flux.interval(interval, interval, Schedulers.boundedElastic())
+                    .subscribe(tick -> {
+                        try {
+                            store.refresh();
+                        } catch (RuntimeException e) {
+                            logger.warn("刷新快照失败，继续使用已加载的版本: {}", e.getMessage());
+                        }
+                    });
+        }
+
+        @Override
+        public void destroy() {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sunlight.linker.edge;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * 短链接响应式只读仓库（R2DBC）
+ *
+ * 【设计说明】：
+ * 边缘节点只需要按短码查询，直接使用DatabaseClient，
+ * 表结构沿用主应用的short_links表（由JPA实体定义）
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Repository
+@Profile(EdgeApplication.PROFILE)
+public class ReactiveShortLinkRepository {
+
+    private static final String FIND_BY_SHORT_CODE_SQL =
+            "SELECT id, long_url, short_code, is_custom_alias, access_count, redirect_policy, expires_at "
+                    + "FROM short_links WHERE short_code = :shortCode";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveShortLinkRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * 根据短码查询短链接
+     *
+     * @param shortCode 短码
+     * @return 查询结果，不存在时为空
+     */
+    public Mono<EdgeShortLink> findByShortCode(String shortCode) {
+        return databaseClient.sql(FIND_BY_SHORT_CODE_SQL)
+                .bind("shortCode", shortCode)
+                .map((row, metadata) -> new EdgeShortLink(
+                        row.get("id", Long.class),
+                        row.get("long_url", String.class),
+                        row.get("short_code", String.class),
+                        Boolean.TRUE.equals(row.get("is_custom_alias", Boolean.class)),
+                        row.get("access_count", Long.class),
+                        RedirectPolicy.valueOf(row.get("redirect_policy", String.class)),
+                        row.get("expires_at", LocalDateTime.class)))
+                .one();
+    }
+
+    /**
+     * 边缘节点使用的短链接只读视图
+     *
+     * @param expiresAt 过期时间，null表示永不过期
+     */
+    public record EdgeShortLink(Long id, String longUrl, String shortCode, boolean customAlias, Long accessCount,
+                                RedirectPolicy redirectPolicy, LocalDateTime expiresAt) {
+
+        public boolean isExpiredAt(LocalDateTime now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+}
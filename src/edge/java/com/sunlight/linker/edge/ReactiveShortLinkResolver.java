@@ -0,0 +1,172 @@
+package com.sunlight.linker.edge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sunlight.linker.application.RedirectTarget;
+import com.sunlight.linker.application.ShortLinkCacheKeys;
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.edge.ReactiveShortLinkRepository.EdgeShortLink;
+import com.sunlight.linker.infrastructure.snapshot.LayeredLinkSnapshot;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 响应式短链接解析
+ *
+ * 【解析流程】：
+ * 1. 短码格式不合法（非Base62或超过20字符）直接返回空，不访问Redis和数据库
+ * 2. 配置了快照目录时先查内存映射快照：命中直接返回，命中墓碑或记录的expires_at已过返回空，未收录继续下一步
+ * 3. 读取 shortlink:{code}，命中则取出longUrl与redirectPolicy；expiresAt已过则返回空
+ * 4. 未命中或Redis出错时查询R2DBC，并按主应用的格式回填缓存（TTL不超过剩余有效期），过期行返回空
+ * 5. 解析成功后对 access_count:{code} 执行INCR，与CachedShortLinkService的计数方式一致，
+ *    由主应用的AccessCountDrainer定期写回数据库
+ *
+ * 【非阻塞】：
+ * 回填缓存和点击计数都是"发射后不管"，不增加重定向延迟，失败只记日志
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Service
+@Profile(EdgeApplication.PROFILE)
+public class ReactiveShortLinkResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveShortLinkResolver.class);
+
+    private static final int MAX_SHORT_CODE_LENGTH = 20;
+    private static final String TYPE_PROPERTY = "@class";
+
+    private final ReactiveRedisTemplate<String, JsonNode> redisTemplate;
+    private final ReactiveShortLinkRepository repository;
+
+    /**
+     * 内存映射快照，未配置快照目录时为null
+     */
+    private final LinkSnapshotStore snapshotStore;
+
+    public ReactiveShortLinkResolver(ReactiveRedisTemplate<String, JsonNode> redisTemplate,
+                                     ReactiveShortLinkRepository repository) {
+        this(redisTemplate, repository, (LinkSnapshotStore) null);
+    }
+
+    @Autowired
+    public ReactiveShortLinkResolver(ReactiveRedisTemplate<String, JsonNode> redisTemplate,
+                                     ReactiveShortLinkRepository repository,
+                                     ObjectProvider<LinkSnapshotStore> snapshotStore) {
+        this(redisTemplate, repository, snapshotStore.getIfAvailable());
+    }
+
+    public ReactiveShortLinkResolver(ReactiveRedisTemplate<String, JsonNode> redisTemplate,
+                                     ReactiveShortLinkRepository repository,
+                                     LinkSnapshotStore snapshotStore) {
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * 解析短码对应的重定向目标
+     *
+     * @param shortCode 短码
+     * @return 重定向目标，短码不存在时为空
+     */
+    public Mono<RedirectTarget> resolve(String shortCode) {
+        if (shortCode.length() > MAX_SHORT_CODE_LENGTH || !Base62Converter.isValidBase62(shortCode)) {
+            return Mono.empty();
+        }
+
+        if (snapshotStore != null) {
+            LayeredLinkSnapshot snapshot = snapshotStore.current();
+            long handle = snapshot.find(shortCode);
+            if (handle >= 0) {
+                if (snapshot.isTombstone(handle) || snapshot.isExpiredAt(handle, LocalDateTime.now())) {
+                    return Mono.empty();
+                }
+                return Mono.just(new RedirectTarget(snapshot.urlAt(handle), snapshot.policyAt(handle),
+                                snapshot.expiresAt(handle)))
+                        .doOnNext(target -> recordClick(shortCode));
+            }
+        }
+
+        return readCache(shortCode)
+                .switchIfEmpty(Mono.defer(() -> loadAndCache(shortCode)))
+                .doOnNext(target -> recordClick(shortCode));
+    }
+
+    private Mono<RedirectTarget> readCache(String shortCode) {
+        return redisTemplate.opsForValue().get(ShortLinkCacheKeys.shortLink(shortCode))
+                .flatMap(node -> {
+                    JsonNode longUrl = node.get("longUrl");
+                    if (longUrl == null || !longUrl.isTextual()) {
+                        return Mono.empty();
+                    }
+                    // 主应用以ISO-8601字符串写入过期时间
+                    JsonNode expiresAtNode = node.get("expiresAt");
+                    LocalDateTime expiresAt = expiresAtNode != null && expiresAtNode.isTextual()
+                            ? LocalDateTime.parse(expiresAtNode.asText())
+                            : null;
+                    if (expiresAt != null && !expiresAt.isAfter(LocalDateTime.now())) {
+                        return Mono.empty();
+                    }
+                    // 旧版本写入的缓存没有策略字段，按默认302处理
+                    JsonNode policy = node.get("redirectPolicy");
+                    RedirectPolicy redirectPolicy = policy != null && policy.isTextual()
+                            ? RedirectPolicy.valueOf(policy.asText())
+                            : RedirectPolicy.FOUND;
+                    return Mono.just(new RedirectTarget(longUrl.asText(), redirectPolicy, expiresAt));
+                })
+                .onErrorResume(e -> {
+                    logger.warn("读取缓存失败，回退数据库: shortCode={}, error={}", shortCode, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<RedirectTarget> loadAndCache(String shortCode) {
+        return repository.findByShortCode(shortCode)
+                .filter(link -> !link.isExpiredAt(LocalDateTime.now()))
+                .doOnNext(this::cacheShortLink)
+                .map(link -> new RedirectTarget(link.longUrl(), link.redirectPolicy(), link.expiresAt()));
+    }
+
+    private void cacheShortLink(EdgeShortLink link) {
+        ObjectNode node = JsonNodeFactory.instance.objectNode()
+                .put(TYPE_PROPERTY, ShortLink.class.getName())
+                .put("id", link.id())
+                .put("longUrl", link.longUrl())
+                .put("shortCode", link.shortCode())
+                .put("isCustomAlias", link.customAlias())
+                .put("accessCount", link.accessCount())
+                .put("redirectPolicy", link.redirectPolicy().name());
+        if (link.expiresAt() != null) {
+            node.put("expiresAt", link.expiresAt().toString());
+        }
+        Duration ttl = Duration.ofMillis(ShortLinkCacheKeys.shortLinkTtlMillis(link.expiresAt(), LocalDateTime.now()));
+
+        redisTemplate.opsForValue().set(ShortLinkCacheKeys.shortLink(link.shortCode()), node, ttl)
+                .subscribe(null, e -> logger.warn("回填缓存失败: shortCode={}, error={}",
+                        link.shortCode(), e.getMessage()));
+    }
+
+    private void recordClick(String shortCode) {
+        String countKey = ShortLinkCacheKeys.accessCount(shortCode);
+        redisTemplate.opsForValue().increment(countKey)
+                .flatMap(count -> count == 1
+                        ? redisTemplate.expire(countKey, Duration.ofHours(ShortLinkCacheKeys.ACCESS_COUNT_TTL_HOURS))
+                        : Mono.just(true))
+                .subscribe(null, e -> logger.warn("点击计数失败: shortCode={}, error={}",
+                        shortCode, e.getMessage()));
+    }
+}
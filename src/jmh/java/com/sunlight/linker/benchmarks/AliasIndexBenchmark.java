@@ -0,0 +1,138 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.RadixTrie;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 别名可用性检查与别名建议的开销
+ *
+ * 【对比项】：
+ * - trieHit / trieMiss：RadixTrie.contains，已占用 / 未占用的别名
+ * - hashSetHit / hashSetMiss：HashSet.contains 基线
+ * - serviceAvailable：ShortLinkService.isShortCodeAvailable 的内存路径（索引未命中、不可能是系统短码）
+ * - suggest5：别名与其前10个数字变体都已占用时推荐5个
+ *
+ * 【说明】：
+ * 语料为 1000个品牌 × 1000个活动 共100万个别名（brandNNNcampaignMMM），大量共享前缀；
+ * 仓储是Mockito桩，最大行主键设为100万，基准中的别名都不会回退到数据库
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AliasIndexBenchmark {
+
+    private static final int BRANDS = 1000;
+    private static final int CAMPAIGNS = 1000;
+
+    private RadixTrie trie;
+    private Set<String> hashSet;
+    private ShortLinkService service;
+    private String hit;
+    private String miss;
+
+    @Setup
+    public void setUp() {
+        List<String> aliases = new ArrayList<>(BRANDS * CAMPAIGNS);
+        for (int brand = 0; brand < BRANDS; brand++) {
+            for (int campaign = 0; campaign < CAMPAIGNS; campaign++) {
+                aliases.add("brand" + brand + "campaign" + campaign);
+            }
+        }
+        for (int suffix = 1; suffix <= 10; suffix++) {
+            aliases.add("brand500campaign500" + suffix);
+        }
+        trie = new RadixTrie();
+        aliases.forEach(trie::add);
+        hashSet = new HashSet<>(aliases);
+        hit = "brand500campaign500";
+        miss = "brand500campaign5000";
+
+        ShortLinkRepository repository = Mockito.mock(ShortLinkRepository.class);
+        Mockito.when(repository.findCustomAliasCodes()).thenReturn(aliases);
+        Mockito.when(repository.findMaxId()).thenReturn(1_000_000L);
+        AliasIndex index = new AliasIndex(repository);
+        index.start();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("aliasIndex", index);
+        service = new ShortLinkService(repository,
+                beans.getBeanProvider(ClickEventPublisher.class),
+                beans.getBeanProvider(RedirectMetrics.class),
+                beans.getBeanProvider(ShortCodeCodec.class),
+                beans.getBeanProvider(NearLinkCache.class),
+                beans.getBeanProvider(ShortLinkPartitions.class),
+                beans.getBeanProvider(ReplicaRouting.class),
+                beans.getBeanProvider(IdGenerator.class),
+                beans.getBeanProvider(ShortCodePool.class),
+                beans.getBeanProvider(AliasIndex.class),
+                beans.getBeanProvider(ReservedWords.class),
+                beans.getBeanProvider(UrlCanonicalizer.class),
+                beans.getBeanProvider(StringRedisTemplate.class));
+    }
+
+    @Benchmark
+    public boolean trieHit() {
+        return trie.contains(hit);
+    }
+
+    @Benchmark
+    public boolean trieMiss() {
+        return trie.contains(miss);
+    }
+
+    @Benchmark
+    public boolean hashSetHit() {
+        return hashSet.contains(hit);
+    }
+
+    @Benchmark
+    public boolean hashSetMiss() {
+        return hashSet.contains(miss);
+    }
+
+    @Benchmark
+    public boolean serviceAvailable() {
+        return service.isShortCodeAvailable(miss);
+    }
+
+    @Benchmark
+    public List<String> suggest5() {
+        return service.suggestAliases(hit, 5);
+    }
+}
@@ -0,0 +1,92 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.Base62Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base62Converter 基准测试
+ *
+ * 【测量对象】：
+ * encode / decode / isValidBase62 在不同短码长度下的单次耗时
+ *
+ * 【参数说明】：
+ * codeLength 为编码结果的字符数，对应的ID取 62^(codeLength-1) 起的一段数值，
+ * 6位约为当前线上短码长度，11位是Long.MAX_VALUE的编码长度
+ *
+ * 【注意】：
+ * 每次调用从预先生成的数组中轮换取值，避免JIT把常量输入折叠掉
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Base62ConverterBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"1", "4", "6", "8", "11"})
+    private int codeLength;
+
+    private long[] ids;
+    private String[] codes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        long lowest = codeLength == 1 ? 0 : pow62(codeLength - 1);
+        ids = new long[SAMPLES];
+        codes = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            ids[i] = lowest + i * 7_919L;
+            codes[i] = Base62Converter.encode(ids[i]);
+            if (codes[i].length() != codeLength) {
+                throw new IllegalStateException("样本长度不符合参数: " + codes[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return Base62Converter.encode(ids[next()]);
+    }
+
+    @Benchmark
+    public long decode() {
+        return Base62Converter.decode(codes[next()]);
+    }
+
+    @Benchmark
+    public boolean isValidBase62() {
+        return Base62Converter.isValidBase62(codes[next()]);
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+
+    private static long pow62(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 62;
+        }
+        return result;
+    }
+}
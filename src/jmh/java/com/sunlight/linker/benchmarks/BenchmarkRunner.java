@@ -0,0 +1,41 @@
+package com.sunlight.linker.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH基准入口
+ *
+ * 【使用方式】：
+ * <pre>
+ *   mvn -Pjmh test-compile exec:exec
+ *   mvn -Pjmh test-compile exec:exec -Djmh.include=Base62 -Djmh.result=target/jmh-base62.json
+ * </pre>
+ * 结果以JSON格式写入，可以用 jmh.morethan.io 等工具或脚本对比两次运行
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * @param args [0] 基准类名正则（默认全部），[1] JSON结果文件路径（默认 target/jmh-result.json）
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        String result = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+    }
+}
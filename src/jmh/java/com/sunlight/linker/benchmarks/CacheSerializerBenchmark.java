@@ -0,0 +1,76 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.application.ShortLinkCacheKeys;
+import com.sunlight.linker.config.CacheConfig;
+import com.sunlight.linker.domain.ShortLink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis缓存序列化器基准测试
+ *
+ * 【测量对象】：
+ * CacheConfig 中缓存管理器与RedisTemplate共用的键、值序列化器，
+ * 值为 CachedShortLinkService 实际写入的 ShortLink 对象
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CacheSerializerBenchmark {
+
+    private final RedisSerializer<String> keySerializer = CacheConfig.keySerializer();
+    private final RedisSerializer<Object> valueSerializer = CacheConfig.valueSerializer();
+
+    private ShortLink shortLink;
+    private byte[] serializedShortLink;
+    private String cacheKey;
+    private byte[] serializedKey;
+
+    @Setup
+    public void setUp() {
+        shortLink = new ShortLink("https://www.example.com/articles/2024/performance?utm_source=newsletter", "aB3xY9");
+        ReflectionTestUtils.setField(shortLink, "id", 13_532_437_553L);
+        shortLink.setAccessCount(1_024L);
+        serializedShortLink = valueSerializer.serialize(shortLink);
+        cacheKey = ShortLinkCacheKeys.shortLink(shortLink.getShortCode());
+        serializedKey = keySerializer.serialize(cacheKey);
+    }
+
+    @Benchmark
+    public byte[] serializeValue() {
+        return valueSerializer.serialize(shortLink);
+    }
+
+    @Benchmark
+    public Object deserializeValue() {
+        return valueSerializer.deserialize(serializedShortLink);
+    }
+
+    @Benchmark
+    public byte[] serializeKey() {
+        return keySerializer.serialize(cacheKey);
+    }
+
+    @Benchmark
+    public String deserializeKey() {
+        return keySerializer.deserialize(serializedKey);
+    }
+}
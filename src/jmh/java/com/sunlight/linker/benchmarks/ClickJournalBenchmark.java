@@ -0,0 +1,88 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.infrastructure.ClickJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 点击预写日志的追加吞吐
+ *
+ * 【对比项】：
+ * - append：每次调用追加一条记录，每 batchSize 条组提交一次（force刷盘）
+ *
+ * 【说明】：
+ * batchSize=1 即每次点击一次fsync，结果主要取决于磁盘；
+ * 每写满一个段推进一次检查点，删除已确认的段文件，基准运行期间磁盘占用保持在两三个段以内
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClickJournalBenchmark {
+
+    private static final long SEGMENT_SIZE = 8L * 1024 * 1024;
+    private static final long RECORDS_PER_SEGMENT = SEGMENT_SIZE / ClickJournal.RECORD_SIZE;
+    private static final int CODES = 1 << 10;
+
+    @Param({"1", "100", "1000"})
+    int batchSize;
+
+    private Path directory;
+    private ClickJournal journal;
+    private String[] codes;
+    private long appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("click-journal-bench");
+        journal = new ClickJournal(directory, SEGMENT_SIZE);
+        codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = "bench" + i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        long position = journal.append(codes[(int) (appended & (CODES - 1))], appended);
+        appended++;
+        if (appended % batchSize == 0) {
+            journal.commit();
+        }
+        if (appended % RECORDS_PER_SEGMENT == 0) {
+            journal.checkpoint(journal.getWritePosition());
+        }
+        return position;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.infrastructure.snapshot.CompactLinkTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 紧凑短码表查找基准
+ *
+ * 【对比项】：
+ * - compactFindAndCopy：最小完美哈希 + 指纹校验 + 复制URL字节，不分配对象
+ * - compactMiss：查找不存在的短码（由指纹拒绝）
+ * - hashMapGet：HashMap&lt;String, String&gt;.get 作为基线
+ *
+ * 【说明】：
+ * setUp结束时打印两种结构的堆占用（紧凑表为精确值，HashMap为GC前后的堆差值估算），
+ * 与吞吐一起记录到 doc/性能基准.md 第7节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CompactLinkTableBenchmark {
+
+    private static final int CODE_SAMPLE = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class TableState {
+
+        @Param({"1000000", "10000000"})
+        int entries;
+
+        CompactLinkTable table;
+        Map<String, String> hashMap;
+        String[] codes;
+        String[] missingCodes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long start = System.nanoTime();
+            table = CompactLinkTable.build(sink -> {
+                for (int i = 0; i < entries; i++) {
+                    sink.accept(code(i), url(i), RedirectPolicy.FOUND);
+                }
+            });
+            long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            long before = usedHeap();
+            hashMap = new HashMap<>(entries * 2);
+            for (int i = 0; i < entries; i++) {
+                hashMap.put(code(i), url(i));
+            }
+            long hashMapBytes = usedHeap() - before;
+
+            System.out.printf("%n[compact] entries=%d, build=%dms, memory=%d, urlBytes=%d, overhead/link=%.1fB%n",
+                    entries, buildMillis, table.getMemoryBytes(), table.getUrlBytes(),
+                    (double) (table.getMemoryBytes() - table.getUrlBytes()) / entries);
+            System.out.printf("[hashMap] entries=%d, memory≈%d, bytes/link≈%.1f%n",
+                    entries, hashMapBytes, (double) hashMapBytes / entries);
+
+            SplittableRandom random = new SplittableRandom(42);
+            codes = new String[CODE_SAMPLE];
+            missingCodes = new String[CODE_SAMPLE];
+            for (int i = 0; i < CODE_SAMPLE; i++) {
+                codes[i] = code(random.nextInt(entries));
+                missingCodes[i] = "x" + code(random.nextInt(entries));
+            }
+        }
+
+        private static String code(int i) {
+            return Integer.toString(i, 36);
+        }
+
+        private static String url(int i) {
+            return "https://www.example.com/articles/" + i + "?utm_source=newsletter&utm_medium=email";
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final byte[] buffer = new byte[8192];
+        int index;
+
+        int next() {
+            index = (index + 1) & (CODE_SAMPLE - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public int compactFindAndCopy(TableState state, ThreadState thread) {
+        long record = state.table.find(state.codes[thread.next()]);
+        return state.table.copyUrl(record, thread.buffer);
+    }
+
+    @Benchmark
+    public long compactMiss(TableState state, ThreadState thread) {
+        return state.table.find(state.missingCodes[thread.next()]);
+    }
+
+    @Benchmark
+    public String hashMapGet(TableState state, ThreadState thread) {
+        return state.hashMap.get(state.codes[thread.next()]);
+    }
+}
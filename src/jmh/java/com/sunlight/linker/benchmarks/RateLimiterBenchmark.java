@@ -0,0 +1,121 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.application.RateLimiter;
+import com.sunlight.linker.config.RateLimitProperties;
+import com.sunlight.linker.core.TokenBucketTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本机模式限流的单次请求开销
+ *
+ * 【对比项】：
+ * - tableHit：1024个活跃客户端，桶都在表中
+ * - tableScan：每次都是新客户端（模拟随机IP扫描），表已满，每次都要淘汰一个桶
+ * - limiterRedirect：RateLimiter.check 完整路径（方法匹配、路径解析、模式匹配、取令牌），GET /s/{code}
+ * - limiterUnmatched：不匹配任何规则的请求（方法匹配、路径解析、两次模式匹配）
+ *
+ * 【说明】：
+ * 规则与 application.yml 的默认 create / redirect 一致，补充速率调到足够大，
+ * 测的是放行路径的开销；结果记录到 doc/性能基准.md 第18节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int MAX_CLIENTS = 100_000;
+    private static final int HOT_CLIENTS = 1 << 10;
+    private static final int SCAN_CLIENTS = 1 << 20;
+
+    @State(Scope.Benchmark)
+    public static class LimiterState {
+
+        TokenBucketTable table;
+        RateLimiter limiter;
+        String[] hot;
+        String[] scan;
+        String[] paths;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            table = new TokenBucketTable(200, 1e9, MAX_CLIENTS, System::nanoTime);
+            RateLimitProperties properties = new RateLimitProperties();
+            properties.getEndpoints().put("create", endpoint("POST", "/api/v1/links"));
+            properties.getEndpoints().put("redirect", endpoint("GET", "/s/*"));
+            limiter = new RateLimiter(properties, null, System::nanoTime);
+
+            hot = new String[HOT_CLIENTS];
+            paths = new String[HOT_CLIENTS];
+            for (int i = 0; i < HOT_CLIENTS; i++) {
+                hot[i] = "10.0." + (i >> 8) + "." + (i & 0xFF);
+                paths[i] = "/s/" + Integer.toString(i * 7919 + 1_000_000, 36);
+            }
+            scan = new String[SCAN_CLIENTS];
+            for (int i = 0; i < SCAN_CLIENTS; i++) {
+                scan[i] = (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF) + ".1";
+            }
+            // 先把表填满，tableScan 从第一次调用开始就走淘汰路径
+            for (int i = 0; i < MAX_CLIENTS; i++) {
+                table.tryAcquire("warm-" + i);
+            }
+        }
+
+        private static RateLimitProperties.Endpoint endpoint(String method, String pattern) {
+            RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+            endpoint.setMethod(method);
+            endpoint.setPattern(pattern);
+            endpoint.setCapacity(200);
+            endpoint.setRefillPerSecond(1e9);
+            return endpoint;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        int index;
+
+        int next(int mask) {
+            index = (index + 7919) & mask;
+            return index;
+        }
+    }
+
+    @Benchmark
+    public long tableHit(LimiterState state, ThreadState thread) {
+        return state.table.tryAcquire(state.hot[thread.next(HOT_CLIENTS - 1)]);
+    }
+
+    @Benchmark
+    public long tableScan(LimiterState state, ThreadState thread) {
+        return state.table.tryAcquire(state.scan[thread.next(SCAN_CLIENTS - 1)]);
+    }
+
+    @Benchmark
+    public long limiterRedirect(LimiterState state, ThreadState thread) {
+        int i = thread.next(HOT_CLIENTS - 1);
+        return state.limiter.check("GET", state.paths[i], state.hot[i]);
+    }
+
+    @Benchmark
+    public long limiterUnmatched(LimiterState state, ThreadState thread) {
+        return state.limiter.check("GET", "/api/v1/stats", state.hot[thread.next(HOT_CLIENTS - 1)]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.config.CodePoolProperties;
+import com.sunlight.linker.infrastructure.CodeReservations;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建时取得随机短码的开销
+ *
+ * 【对比项】：
+ * - pooled：池已补满，take() 只是无锁队列出队
+ * - synchronous：池为空，take() 在调用线程上生成、预留（INSERT）并检查 short_links（SELECT）
+ *
+ * 【说明】：
+ * 每轮迭代新建H2内存库并补满 BATCH 个短码，一轮恰好取完，结果为取 BATCH 个短码的总耗时；
+ * H2在进程内执行，synchronous 不含网络往返，真实数据库上差距只会更大
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = ShortCodePoolBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = ShortCodePoolBenchmark.BATCH)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShortCodePoolBenchmark {
+
+    static final int BATCH = 10_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private ShortCodePool pooled;
+    private ShortCodePool empty;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:code-pool-bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE short_links (id BIGINT PRIMARY KEY, short_code VARCHAR(20) NOT NULL)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX idx_short_code ON short_links (short_code)");
+        CodeReservations reservations = new CodeReservations(jdbcTemplate);
+        reservations.initializeSchema();
+
+        CodePoolProperties properties = new CodePoolProperties();
+        properties.setCapacity(BATCH);
+        pooled = new ShortCodePool(reservations, properties);
+        pooled.refill();
+        empty = new ShortCodePool(reservations, properties);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public String pooled() {
+        return pooled.take();
+    }
+
+    @Benchmark
+    public String synchronous() {
+        return empty.take();
+    }
+}
@@ -0,0 +1,50 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.domain.ShortLink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShortLink.generateFullShortUrl 基准测试
+ *
+ * 【参数说明】：
+ * domain 覆盖三种输入：已经规范的域名、需要补协议的域名、带结尾斜杠的域名，
+ * 分别对应方法里不同的字符串处理分支
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ShortLinkBenchmark {
+
+    @Param({"https://sho.rt", "sho.rt", "https://sho.rt/"})
+    private String domain;
+
+    private ShortLink shortLink;
+
+    @Setup
+    public void setUp() {
+        shortLink = new ShortLink("https://www.example.com/articles/2024/performance", "aB3xY9");
+    }
+
+    @Benchmark
+    public String generateFullShortUrl() {
+        return shortLink.generateFullShortUrl(domain);
+    }
+}
@@ -0,0 +1,112 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.QualityGateLinkerApplication;
+import com.sunlight.linker.application.ShortLinkLookup;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短码索引查找与主键查找对比基准
+ *
+ * 【对比项】：
+ * - shortCodeIndex：findByShortCode，经过idx_short_code二级索引
+ * - primaryKey：ShortLinkLookup解码系统短码后findById
+ * - customAlias：自定义别名经ShortLinkLookup回退到短码索引（含一次未命中的主键查找）
+ *
+ * 【说明】：
+ * 内存H2的两种索引都在内存中，差距远小于大表上的PostgreSQL，
+ * 这里只用于确认代码路径的相对开销；页读取次数的对比见 doc/性能基准.md 第5节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortLinkLookupBenchmark {
+
+    private static final String LONG_URL = "https://www.example.com/articles/2024/lookup";
+    private static final int LINK_COUNT = 1024;
+
+    @State(Scope.Benchmark)
+    public static class H2State {
+
+        ConfigurableApplicationContext context;
+        ShortLinkRepository repository;
+        ShortLinkLookup lookup;
+        String[] systemCodes;
+        String[] aliases;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SpringApplication application = new SpringApplication(QualityGateLinkerApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            application.setAdditionalProfiles("test");
+            context = application.run();
+            repository = context.getBean(ShortLinkRepository.class);
+            lookup = new ShortLinkLookup(repository, context.getBeanProvider(ShortCodeCodec.class)
+                    .getIfAvailable(ShortCodeCodec::sequential));
+
+            ShortLinkService service = context.getBean(ShortLinkService.class);
+            systemCodes = new String[LINK_COUNT];
+            aliases = new String[LINK_COUNT];
+            for (int i = 0; i < LINK_COUNT; i++) {
+                systemCodes[i] = service.createShortLink(LONG_URL + "/" + i).getShortCode();
+                aliases[i] = service.createCustomShortLink(LONG_URL + "/alias/" + i, "alias" + i, null).getShortCode();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CodeCursor {
+
+        int index;
+
+        int next() {
+            index = (index + 1) & (LINK_COUNT - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Optional<ShortLink> shortCodeIndex(H2State state, CodeCursor cursor) {
+        return state.repository.findByShortCode(state.systemCodes[cursor.next()]);
+    }
+
+    @Benchmark
+    public Optional<ShortLink> primaryKey(H2State state, CodeCursor cursor) {
+        return state.lookup.find(state.systemCodes[cursor.next()]);
+    }
+
+    @Benchmark
+    public Optional<ShortLink> customAlias(H2State state, CodeCursor cursor) {
+        return state.lookup.find(state.aliases[cursor.next()]);
+    }
+}
@@ -0,0 +1,116 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.QualityGateLinkerApplication;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ShortLinkService.getLongUrl 基准测试
+ *
+ * 【两种仓储】：
+ * - mockedRepository：Mockito模拟仓储，测量Service自身的开销（含Mockito的调用分派，结果偏保守）
+ * - h2Repository：以test profile启动Spring上下文，经过事务代理、Hibernate与内存H2的完整路径
+ *
+ * 【说明】：
+ * 未启用点击流水线时每次调用都会 incrementAccessCount + save，
+ * 因此h2Repository测量的是"读一次、写一次"的同步计数路径
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortLinkServiceBenchmark {
+
+    private static final String LONG_URL = "https://www.example.com/articles/2024/performance";
+    private static final int LINK_COUNT = 1024;
+
+    @State(Scope.Benchmark)
+    public static class MockedRepositoryState {
+
+        ShortLinkService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            ShortLink shortLink = new ShortLink(LONG_URL, "aB3xY9");
+            when(repository.findByShortCode(anyString())).thenReturn(Optional.of(shortLink));
+            when(repository.save(shortLink)).thenReturn(shortLink);
+            service = new ShortLinkService(repository);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2RepositoryState {
+
+        ConfigurableApplicationContext context;
+        ShortLinkService service;
+        String[] shortCodes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SpringApplication application = new SpringApplication(QualityGateLinkerApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            application.setAdditionalProfiles("test");
+            context = application.run();
+            service = context.getBean(ShortLinkService.class);
+
+            shortCodes = new String[LINK_COUNT];
+            for (int i = 0; i < LINK_COUNT; i++) {
+                shortCodes[i] = service.createShortLink(LONG_URL + "/" + i).getShortCode();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CodeCursor {
+
+        int index;
+
+        int next() {
+            index = (index + 1) & (LINK_COUNT - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Optional<String> mockedRepository(MockedRepositoryState state) {
+        return state.service.getLongUrl("aB3xY9");
+    }
+
+    @Benchmark
+    public Optional<String> h2Repository(H2RepositoryState state, CodeCursor cursor) {
+        return state.service.getLongUrl(state.shortCodes[cursor.next()]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake ID生成器发号开销
+ *
+ * 【对比项】：
+ * - snowflake / snowflakeContended：单线程与4线程共享一个生成器（CAS竞争）
+ * - atomicCounter / atomicCounterContended：AtomicLong.incrementAndGet，作为CAS下限参照
+ *
+ * 【说明】：
+ * 默认12位序列即每毫秒4096个ID，发号速度超过约4.1M/s时会自旋等待下一毫秒，
+ * 此时结果约为 1ms/4096 ≈ 244ns，反映的是序列上限而不是CAS开销
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator =
+            new SnowflakeIdGenerator(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli(), 1);
+    private final AtomicLong counter = new AtomicLong();
+
+    @Benchmark
+    public long snowflake() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long snowflakeContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public long atomicCounter() {
+        return counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long atomicCounterContended() {
+        return counter.incrementAndGet();
+    }
+}
@@ -0,0 +1,110 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间轮与ScheduledThreadPoolExecutor对比基准
+ *
+ * 【对比项】：
+ * 两边都预先放入1000万个1~24小时后到期的定时器，然后测量：
+ * - wheelScheduleCancel / stpeScheduleCancel：新增一个定时器再取消它（缓存条目被覆盖的典型路径）
+ * - wheelAdvanceTick：时间轮推进一个tick（10ms），到期的定时器在回调里重新放到1~24小时后，
+ *   待触发数量保持1000万，结果是每tick（平均约1.2个到期）的处理与降级的均摊开销
+ *
+ * 【说明】：
+ * STPE开启 setRemoveOnCancelPolicy(true)，取消时从堆中移除，否则取消的任务会留在堆里直到到期；
+ * 1000万个待触发任务约占1~2GB堆，所以单独fork并给4g堆
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimingWheelBenchmark {
+
+    private static final int PENDING = 10_000_000;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Runnable NOOP = () -> { };
+
+    @State(Scope.Benchmark)
+    public static class WheelState {
+
+        TimingWheel<Integer> wheel;
+        long start;
+        long now;
+        final SplittableRandom random = new SplittableRandom(7);
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            start = System.currentTimeMillis();
+            now = start;
+            wheel = new TimingWheel<>(10, start);
+            for (int i = 0; i < PENDING; i++) {
+                wheel.schedule(i, start + random.nextLong(HOUR_MILLIS, 24 * HOUR_MILLIS));
+            }
+            System.out.printf("%n[timingWheel] pending=%d%n", wheel.size());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutorState {
+
+        ScheduledThreadPoolExecutor executor;
+        final SplittableRandom random = new SplittableRandom(7);
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = new ScheduledThreadPoolExecutor(1);
+            executor.setRemoveOnCancelPolicy(true);
+            for (int i = 0; i < PENDING; i++) {
+                executor.schedule(NOOP, random.nextLong(HOUR_MILLIS, 24 * HOUR_MILLIS), TimeUnit.MILLISECONDS);
+            }
+            System.out.printf("%n[stpe] pending=%d%n", executor.getQueue().size());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public boolean wheelScheduleCancel(WheelState state) {
+        long deadline = state.now + state.random.nextLong(HOUR_MILLIS, 24 * HOUR_MILLIS);
+        return state.wheel.schedule(-1, deadline).cancel();
+    }
+
+    @Benchmark
+    public boolean stpeScheduleCancel(ExecutorState state) {
+        ScheduledFuture<?> future = state.executor.schedule(NOOP,
+                state.random.nextLong(HOUR_MILLIS, 24 * HOUR_MILLIS), TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+
+    @Benchmark
+    public int wheelAdvanceTick(WheelState state) {
+        long now = state.now += 10;
+        return state.wheel.advance(now, payload ->
+                state.wheel.schedule(payload, now + state.random.nextLong(HOUR_MILLIS, 24 * HOUR_MILLIS)));
+    }
+}
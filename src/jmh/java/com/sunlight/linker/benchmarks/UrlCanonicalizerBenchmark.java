@@ -0,0 +1,109 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.corpus.UrlCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 长链接规范化的开销与去重效果
+ *
+ * 【对比项】：
+ * - lossless：只执行不改变语义的规则
+ * - stripTracking：另外删除 utm_*、fbclid、gclid、msclkid（app.url-canonical 的默认值）
+ * - stripAndSort：再按参数名排序查询参数
+ *
+ * 【说明】：
+ * 语料来自测试源码的 UrlCorpus，把10万条看作10万次创建请求；
+ * setUp结束时打印每种配置去重后的行数与长链接字节数（Redis缓存条目与行一一对应），
+ * 与ns/op一起记录到 doc/性能基准.md 第17节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlCanonicalizerBenchmark {
+
+    private static final int CORPUS_SIZE = 1 << 17;
+    private static final int SUBMISSIONS = 100_000;
+
+    private static final List<String> TRACKING_PARAMS = List.of("utm_*", "fbclid", "gclid", "msclkid");
+
+    @State(Scope.Benchmark)
+    public static class CorpusState {
+
+        final UrlCanonicalizer lossless = UrlCanonicalizer.lossless();
+        final UrlCanonicalizer stripTracking = new UrlCanonicalizer(TRACKING_PARAMS, false);
+        final UrlCanonicalizer stripAndSort = new UrlCanonicalizer(TRACKING_PARAMS, true);
+        String[] urls;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<String> submissions = UrlCorpus.generate(SUBMISSIONS, 3);
+            report("raw", submissions, UnaryOperator.identity());
+            report("lossless", submissions, lossless::canonicalize);
+            report("stripTracking", submissions, stripTracking::canonicalize);
+            report("stripAndSort", submissions, stripAndSort::canonicalize);
+            urls = UrlCorpus.generate(CORPUS_SIZE, 4).toArray(new String[0]);
+        }
+
+        private static void report(String name, List<String> submissions, UnaryOperator<String> canonicalizer) {
+            Set<String> rows = new HashSet<>();
+            long bytes = 0;
+            for (String url : submissions) {
+                String stored = canonicalizer.apply(url);
+                if (rows.add(stored)) {
+                    bytes += stored.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            System.out.printf("%n[urlCanonical] %s: submissions=%d, rows=%d, urlBytes=%d%n",
+                    name, submissions.size(), rows.size(), bytes);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        int index;
+
+        int next() {
+            index = (index + 7919) & (CORPUS_SIZE - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public String lossless(CorpusState state, ThreadState thread) {
+        return state.lossless.canonicalize(state.urls[thread.next()]);
+    }
+
+    @Benchmark
+    public String stripTracking(CorpusState state, ThreadState thread) {
+        return state.stripTracking.canonicalize(state.urls[thread.next()]);
+    }
+
+    @Benchmark
+    public String stripAndSort(CorpusState state, ThreadState thread) {
+        return state.stripAndSort.canonicalize(state.urls[thread.next()]);
+    }
+}
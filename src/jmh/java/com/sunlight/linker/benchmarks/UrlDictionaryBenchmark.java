@@ -0,0 +1,100 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.UrlDictionary;
+import com.sunlight.linker.corpus.UrlCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URL字典解码基准
+ *
+ * 【对比项】：
+ * - decode：字典解码到调用方缓冲区，不分配对象
+ * - decodeToString：字典解码并构造String
+ * - rawCopy：未压缩URL的数组复制，作为下限
+ *
+ * 【说明】：
+ * 语料来自测试源码的 UrlCorpus，字典用另一个种子生成的2万条训练；
+ * setUp结束时打印压缩率，与ns/op一起记录到 doc/性能基准.md 第8节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlDictionaryBenchmark {
+
+    private static final int CORPUS_SIZE = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class CorpusState {
+
+        UrlDictionary dictionary;
+        byte[][] encoded;
+        byte[][] raw;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dictionary = UrlDictionary.train(UrlCorpus.generate(20_000, 1));
+            List<String> corpus = UrlCorpus.generate(CORPUS_SIZE, 2);
+            encoded = new byte[CORPUS_SIZE][];
+            raw = new byte[CORPUS_SIZE][];
+            long rawBytes = 0;
+            long encodedBytes = 0;
+            for (int i = 0; i < CORPUS_SIZE; i++) {
+                raw[i] = corpus.get(i).getBytes(StandardCharsets.UTF_8);
+                encoded[i] = dictionary.encode(corpus.get(i));
+                rawBytes += raw[i].length;
+                encodedBytes += encoded[i].length;
+            }
+            System.out.printf("%n[urlDictionary] %s, raw=%d, encoded=%d, ratio=%.3f%n",
+                    dictionary, rawBytes, encodedBytes, (double) encodedBytes / rawBytes);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final byte[] buffer = new byte[8192];
+        int index;
+
+        int next() {
+            index = (index + 7919) & (CORPUS_SIZE - 1);
+            return index;
+        }
+    }
+
+    @Benchmark
+    public int decode(CorpusState state, ThreadState thread) {
+        byte[] bytes = state.encoded[thread.next()];
+        return state.dictionary.decode(bytes, 0, bytes.length, thread.buffer);
+    }
+
+    @Benchmark
+    public String decodeToString(CorpusState state, ThreadState thread) {
+        return state.dictionary.decode(state.encoded[thread.next()]);
+    }
+
+    @Benchmark
+    public int rawCopy(CorpusState state, ThreadState thread) {
+        byte[] bytes = state.raw[thread.next()];
+        System.arraycopy(bytes, 0, thread.buffer, 0, bytes.length);
+        return bytes.length;
+    }
+}
@@ -0,0 +1,153 @@
+package com.sunlight.linker.benchmarks;
+
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.UrlValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 长链接校验与保留词检查的开销
+ *
+ * 【对比项】：
+ * - legacyValid / legacyMalicious：原实现，new URL(...) 后检查协议，格式错误时捕获MalformedURLException
+ * - fastValid / fastMalicious：UrlValidator.check 单遍扫描
+ * - legacyReserved：原实现，toLowerCase() 后线性扫描每次新建的22个保留词数组
+ * - perfectHashReserved：ReservedWords.contains
+ *
+ * 【说明】：
+ * 每组语料8条，结果按单条计（@OperationsPerInvocation）；
+ * 恶意语料包含伪协议、用户信息伪装、头注入、双向控制符、非法转义等，
+ * 其中一部分原实现会判定为合法（例如 http://bank.com@evil.com），这里只比较耗时；
+ * Service层对非法链接抛出IllegalArgumentException的开销两种实现相同，不计入
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlValidationBenchmark {
+
+    private static final int CORPUS_SIZE = 8;
+
+    private static final String[] VALID = {
+            "https://www.example.com",
+            "https://www.example.com/products/12345?utm_source=newsletter&utm_medium=email#reviews",
+            "http://blog.example.org/2026/10/19/a-rather-long-article-slug-for-benchmarking",
+            "https://shop.example.com:8443/cart?items=3&coupon=SAVE10",
+            "https://例子.测试/路径?查询=值",
+            "http://127.0.0.1:8080/actuator/health",
+            "https://docs.example.com/search?q=%E7%9F%AD%E9%93%BE%E6%8E%A5&page=2",
+            "https://cdn.example.net/assets/img/banner-1920x1080.webp"
+    };
+
+    private static final String[] MALICIOUS = {
+            "javascript:alert(document.cookie)",
+            "data:text/html,<script>alert('xss')</script>",
+            "http://bank.example.com@evil.example.net/login",
+            "http://example.com/a\r\nSet-Cookie:session=attacker",
+            "https://example.com/invoice\u202Efdp.exe",
+            "http://example.com/%E0%A4%A",
+            "http:/\\evil.example.net",
+            "not a url at all"
+    };
+
+    private static final String[] ALIASES = {
+            "promo2026", "Admin", "summerSale", "api", "docs2", "HELP", "brand500", "x"
+    };
+
+    private final ReservedWords reservedWords = ReservedWords.defaults();
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void legacyValid(Blackhole blackhole) {
+        for (String url : VALID) {
+            blackhole.consume(legacyIsValid(url));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void fastValid(Blackhole blackhole) {
+        for (String url : VALID) {
+            blackhole.consume(UrlValidator.check(url));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void legacyMalicious(Blackhole blackhole) {
+        for (String url : MALICIOUS) {
+            blackhole.consume(legacyIsValid(url));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void fastMalicious(Blackhole blackhole) {
+        for (String url : MALICIOUS) {
+            blackhole.consume(UrlValidator.check(url));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void legacyReserved(Blackhole blackhole) {
+        for (String alias : ALIASES) {
+            blackhole.consume(legacyIsReserved(alias));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void perfectHashReserved(Blackhole blackhole) {
+        for (String alias : ALIASES) {
+            blackhole.consume(reservedWords.contains(alias));
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    @SuppressWarnings("deprecation")
+    private static boolean legacyIsValid(String longUrl) {
+        String trimmedUrl = longUrl.trim();
+        try {
+            String protocol = new URL(trimmedUrl).getProtocol().toLowerCase();
+            return "http".equals(protocol) || "https".equals(protocol);
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    private static boolean legacyIsReserved(String alias) {
+        String lowerAlias = alias.toLowerCase();
+        String[] reservedWords = {
+            "api", "admin", "health", "metrics", "docs", "swagger",
+            "actuator", "management", "error", "login", "logout",
+            "index", "home", "about", "help", "contact", "privacy",
+            "terms", "www", "ftp", "mail", "email"
+        };
+        for (String reserved : reservedWords) {
+            if (reserved.equals(lowerAlias)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
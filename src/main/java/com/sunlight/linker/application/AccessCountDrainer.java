@@ -0,0 +1,160 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.shard.ShardedShortLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Redis访问计数写回任务
+ *
+ * 【问题】：
+ * 边缘节点（以及未启用点击流水线的CachedShortLinkService）只对 access_count:{code} 执行INCR，
+ * 这些计数不会自己进入 short_links.access_count，1小时过期后就丢失了
+ *
+ * 【写回流程】：
+ * <pre>
+ *   SCAN access_count:*     每次取 scan-count 个键，不用KEYS阻塞Redis
+ *   GETDEL 键               原子地取走计数，之后的INCR从新键重新开始，不会重复计数
+ *   UPDATE ... + delta      按短码累加到数据库；写库失败时INCRBY放回，下个周期重试
+ * </pre>
+ * 开启 app.sharding 时短链接存放在各分片上，先按短码找到所在分片再累加
+ *
+ * 【限制】：
+ * 写回间隔必须明显短于计数键的1小时过期时间；GETDEL需要Redis 6.2及以上
+ *
+ * 【启用方式】：
+ * app.access-count-drain.enabled=true，由任意一个主应用实例执行（多实例同时执行也不会重复计数）
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.access-count-drain", name = "enabled", havingValue = "true")
+public class AccessCountDrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessCountDrainer.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ShortLinkRepository shortLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int scanCount;
+
+    /**
+     * 分片存储（开启 app.sharding 时），为null时写回单库
+     */
+    private final ShardedShortLinkRepository shards;
+
+    /**
+     * 启动以来写回的总点击数
+     */
+    private volatile long totalDrained;
+
+    public AccessCountDrainer(StringRedisTemplate redisTemplate,
+                              ShortLinkRepository shortLinkRepository,
+                              PlatformTransactionManager transactionManager,
+                              int scanCount) {
+        this(redisTemplate, shortLinkRepository, transactionManager, scanCount, null);
+    }
+
+    @Autowired
+    public AccessCountDrainer(StringRedisTemplate redisTemplate,
+                              ShortLinkRepository shortLinkRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.access-count-drain.scan-count:500}") int scanCount,
+                              ObjectProvider<ShardedShortLinkRepository> shards) {
+        if (scanCount <= 0) {
+            throw new IllegalArgumentException("scan-count 必须为正数");
+        }
+        this.redisTemplate = redisTemplate;
+        this.shortLinkRepository = shortLinkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scanCount = scanCount;
+        this.shards = shards == null ? null : shards.getIfAvailable();
+    }
+
+    /**
+     * 定时写回
+     *
+     * @return 本次写回的点击数
+     */
+    @Scheduled(fixedDelayString = "${app.access-count-drain.interval:PT1M}")
+    public long drain() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(ShortLinkCacheKeys.ACCESS_COUNT_PREFIX + "*")
+                .count(scanCount)
+                .build();
+        long drained = 0;
+        int codes = 0;
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext() && !Thread.currentThread().isInterrupted()) {
+                long delta = drainKey(keys.next());
+                if (delta > 0) {
+                    drained += delta;
+                    codes++;
+                }
+            }
+        }
+        totalDrained += drained;
+        if (drained > 0) {
+            logger.info("访问计数写回完成: codes={}, clicks={}", codes, drained);
+        }
+        return drained;
+    }
+
+    public long getTotalDrained() {
+        return totalDrained;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 取走一个计数键并累加到数据库
+     *
+     * @param key access_count:{code}
+     * @return 写回的点击数，键已被其他实例取走或短码已不存在时为0
+     */
+    private long drainKey(String key) {
+        String value = redisTemplate.opsForValue().getAndDelete(key);
+        if (value == null) {
+            return 0;
+        }
+        long delta;
+        try {
+            delta = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.warn("忽略无法解析的访问计数: key={}, value={}", key, value);
+            return 0;
+        }
+        if (delta <= 0) {
+            return 0;
+        }
+        String shortCode = key.substring(ShortLinkCacheKeys.ACCESS_COUNT_PREFIX.length());
+        try {
+            int updated = shards == null
+                    ? transactionTemplate.execute(status -> shortLinkRepository.incrementAccessCount(shortCode, delta))
+                    : shards.findByShortCode(shortCode).map(link -> shards.incrementAccessCount(link, delta)).orElse(0);
+            // 短码已被删除时计数直接丢弃
+            return updated > 0 ? delta : 0;
+        } catch (RuntimeException e) {
+            redisTemplate.opsForValue().increment(key, delta);
+            redisTemplate.expire(key, Duration.ofHours(ShortLinkCacheKeys.ACCESS_COUNT_TTL_HOURS));
+            logger.warn("访问计数写回失败，已放回Redis: shortCode={}, delta={}, error={}",
+                    shortCode, delta, e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.core.RadixTrie;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自定义别名的内存索引
+ *
+ * 【进阶挑战 - 前缀树】
+ *
+ * 别名可用性检查（前端每次按键都会调用）和别名建议只读内存，不查Redis和数据库；
+ * 别名建议用前缀树列出同前缀的已有别名，生成变体时直接跳过：
+ * <pre>
+ *   start()      全量加载自定义别名到 RadixTrie，并记录当前最大行主键
+ *   add()        本节点创建别名后立即加入
+ *   reload()     每 refresh-interval 全量重建，同步其他节点创建的别名和已被清理的过期别名
+ * </pre>
+ * 重建期间本节点新增的别名会在切换前补入新索引，不会丢失
+ *
+ * 【系统短码】：
+ * 索引只包含自定义别名。系统短码由行主键编码，能解码且不大于 maxRowId 的串可能已被系统短码占用，
+ * 这部分由 ShortLinkService 回退到数据库检查；用户输入的别名大多解码后远大于 maxRowId，不需要回退
+ *
+ * 【一致性】：
+ * 索引只用于提示，创建别名时仍以数据库唯一索引为准；
+ * 其他节点刚创建的别名在下次重建前会被提示为可用，提交时才被拒绝
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.alias-index", name = "enabled", havingValue = "true")
+public class AliasIndex implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AliasIndex.class);
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final AtomicLong maxRowId = new AtomicLong();
+
+    private volatile RadixTrie aliases = new RadixTrie();
+    private volatile boolean running;
+
+    /**
+     * 重建期间本节点新增的别名，非重建期间为null；由lock保护
+     */
+    private List<String> addedDuringReload;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AliasIndex(ShortLinkRepository shortLinkRepository) {
+        this.shortLinkRepository = shortLinkRepository;
+    }
+
+    /**
+     * @param alias 别名
+     * @return 别名已被占用时返回true
+     */
+    public boolean contains(String alias) {
+        return aliases.contains(alias);
+    }
+
+    /**
+     * @param prefix 前缀
+     * @param limit 最多返回的别名数
+     * @return 以 prefix 开头的已有别名，按字典序排列
+     */
+    public List<String> findWithPrefix(String prefix, int limit) {
+        return aliases.keysWithPrefix(prefix, limit);
+    }
+
+    /**
+     * 登记本节点新创建的别名
+     *
+     * @param alias 别名
+     */
+    public void add(String alias) {
+        lock.lock();
+        try {
+            aliases.add(alias);
+            if (addedDuringReload != null) {
+                addedDuringReload.add(alias);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 登记本节点新创建行的主键
+     *
+     * @param id 行主键
+     */
+    public void noteRowId(long id) {
+        maxRowId.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * 从数据库全量重建索引
+     */
+    @Scheduled(fixedDelayString = "${app.alias-index.refresh-interval:PT5M}",
+            initialDelayString = "${app.alias-index.refresh-interval:PT5M}")
+    public void reload() {
+        lock.lock();
+        try {
+            addedDuringReload = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            RadixTrie fresh = new RadixTrie();
+            for (String alias : shortLinkRepository.findCustomAliasCodes()) {
+                fresh.add(alias);
+            }
+            noteRowId(shortLinkRepository.findMaxId());
+            lock.lock();
+            try {
+                addedDuringReload.forEach(fresh::add);
+                aliases = fresh;
+            } finally {
+                lock.unlock();
+            }
+            logger.debug("别名索引已重建: aliases={}, maxRowId={}", fresh.size(), maxRowId.get());
+        } finally {
+            lock.lock();
+            try {
+                addedDuringReload = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        reload();
+        running = true;
+        logger.info("别名索引已加载: aliases={}, maxRowId={}", aliases.size(), maxRowId.get());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 在Web服务器（默认相位）之前加载完成
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public int size() {
+        return aliases.size();
+    }
+
+    public long getMaxRowId() {
+        return maxRowId.get();
+    }
+}
@@ -1,10 +1,23 @@
 package com.sunlight.linker.application;
 
-import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.ShortCodeCodec;
 import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.application.ShortLinkService.ShortLinkCreatedEvent;
+import com.sunlight.linker.application.ShortLinkService.ShortLinkResolvedEvent;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
 import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -14,7 +27,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 带缓存功能的短链接服务
@@ -33,6 +48,11 @@ import java.util.concurrent.TimeUnit;
  * - 访问计数：Write-Behind模式，异步批量更新数据库
  * - 热点数据：LRU策略，自动淘汰冷数据
  * 
+ * 【JFR事件】：
+ * 除ShortLinkService中的解析/创建事件外，这里声明：
+ * - CacheStampedeEvent：同一短码的缓存未命中在数据库加载期间再次发生（多个请求同时回源）
+ * - CounterFlushEvent：点击计数批量写回数据库（由点击流水线的计数处理器发出）
+ * 
  * @author 测试实践学习项目
  * @version 1.0
  */
@@ -42,18 +62,49 @@ public class CachedShortLinkService {
     
     private static final Logger logger = LoggerFactory.getLogger(CachedShortLinkService.class);
     
+    /**
+     * 缓存指标中短链接缓存的名称
+     */
+    private static final String SHORT_LINK_CACHE = "shortlinks";
+    
+    private static final EventType CACHE_STAMPEDE_EVENT_TYPE = EventType.getEventType(CacheStampedeEvent.class);
+    
     private final ShortLinkRepository shortLinkRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ClickEventPublisher clickEventPublisher;
+    private final RedirectMetrics redirectMetrics;
+    private final ShortCodeCodec shortCodeCodec;
+    private final ShortLinkLookup shortLinkLookup;
     
-    // 缓存键前缀
-    private static final String CACHE_KEY_SHORT_LINK = "shortlink:";
-    private static final String CACHE_KEY_ACCESS_COUNT = "access_count:";
-    private static final String CACHE_KEY_STATS = "stats:system";
+    /**
+     * 正在回源加载的短码及并发加载数，仅在CacheStampede事件启用时维护
+     */
+    private final ConcurrentHashMap<String, AtomicInteger> inflightLoads = new ConcurrentHashMap<>();
     
+    // 缓存键布局与响应式边缘节点共用，见ShortLinkCacheKeys
+    
+    public CachedShortLinkService(ShortLinkRepository shortLinkRepository, 
+                                 RedisTemplate<String, Object> redisTemplate,
+                                 ObjectProvider<ClickEventPublisher> clickEventPublisher,
+                                 ObjectProvider<RedirectMetrics> redirectMetrics,
+                                 ObjectProvider<ShortCodeCodec> shortCodeCodec) {
+        this(shortLinkRepository, redisTemplate, clickEventPublisher, redirectMetrics, shortCodeCodec, null);
+    }
+    
+    @Autowired
     public CachedShortLinkService(ShortLinkRepository shortLinkRepository, 
-                                 RedisTemplate<String, Object> redisTemplate) {
+                                 RedisTemplate<String, Object> redisTemplate,
+                                 ObjectProvider<ClickEventPublisher> clickEventPublisher,
+                                 ObjectProvider<RedirectMetrics> redirectMetrics,
+                                 ObjectProvider<ShortCodeCodec> shortCodeCodec,
+                                 ObjectProvider<ShortLinkPartitions> partitions) {
         this.shortLinkRepository = shortLinkRepository;
         this.redisTemplate = redisTemplate;
+        this.clickEventPublisher = clickEventPublisher.getIfAvailable();
+        this.redirectMetrics = redirectMetrics.getIfAvailable(RedirectMetrics::noop);
+        this.shortCodeCodec = shortCodeCodec.getIfAvailable(ShortCodeCodec::sequential);
+        this.shortLinkLookup = new ShortLinkLookup(shortLinkRepository, this.shortCodeCodec,
+                partitions == null ? null : partitions.getIfAvailable());
     }
     
     /**
@@ -77,11 +128,14 @@ public class CachedShortLinkService {
     @CacheEvict(value = "stats", allEntries = true) // 清除统计缓存
     public ShortLink createShortLink(String longUrl, String customAlias) {
         logger.debug("创建短链接: longUrl={}, customAlias={}", longUrl, customAlias);
+        ShortLinkCreatedEvent event = new ShortLinkCreatedEvent();
+        event.begin();
         
         // 检查是否已存在
         Optional<ShortLink> existing = shortLinkRepository.findByLongUrl(longUrl);
         if (existing.isPresent()) {
             logger.debug("长链接已存在，返回现有记录: {}", existing.get().getShortCode());
+            event.complete(existing.get(), true);
             return existing.get();
         }
         
@@ -101,15 +155,16 @@ public class CachedShortLinkService {
         // 保存到数据库获取ID
         ShortLink saved = shortLinkRepository.save(shortLink);
         
-        // 如果不是自定义别名，生成Base62短码
+        // 如果不是自定义别名，由编解码器基于ID生成短码
         if (customAlias == null || customAlias.trim().isEmpty()) {
-            String shortCode = Base62Converter.encode(saved.getId());
+            String shortCode = shortCodeCodec.encode(saved.getId());
             saved.setShortCode(shortCode);
             saved = shortLinkRepository.save(saved);
         }
         
         // 将新创建的短链接加入缓存
         cacheShortLink(saved);
+        event.complete(saved, false);
         
         logger.info("短链接创建成功: id={}, shortCode={}, longUrl={}", 
                    saved.getId(), saved.getShortCode(), saved.getLongUrl());
@@ -119,44 +174,80 @@ public class CachedShortLinkService {
     /**
      * 获取长链接（带缓存）
      * 
+     * 【过期检查】：
+     * 缓存的是完整的ShortLink，命中时同样检查expiresAt，过期则删除缓存键并按不存在处理；
+     * 写入缓存时TTL不超过剩余有效期。这里不再使用@Cacheable：
+     * 它缓存的Optional&lt;String&gt;不带过期时间，会在链接过期后继续返回长链接
+     * 
      * @param shortCode 短码
      * @return 长链接（可能为空）
      */
-    @Cacheable(value = "shortlinks", key = "#shortCode")
     public Optional<String> getLongUrl(String shortCode) {
         logger.debug("查询长链接: shortCode={}", shortCode);
         
+        ShortLinkResolvedEvent event = new ShortLinkResolvedEvent();
+        event.begin();
+        
         // 先从缓存查询
-        String cacheKey = CACHE_KEY_SHORT_LINK + shortCode;
+        String cacheKey = ShortLinkCacheKeys.shortLink(shortCode);
+        long redisStart = System.nanoTime();
         Object cached = redisTemplate.opsForValue().get(cacheKey);
+        long redisEnd = System.nanoTime();
+        redirectMetrics.record(RedirectMetrics.Tier.REDIS, redisEnd - redisStart);
         
         if (cached != null) {
             logger.debug("缓存命中: shortCode={}", shortCode);
+            redirectMetrics.cacheAccess(SHORT_LINK_CACHE, RedirectMetrics.CacheResult.HIT);
             ShortLink cachedLink = (ShortLink) cached;
+            if (cachedLink.isExpiredAt(LocalDateTime.now())) {
+                redisTemplate.delete(cacheKey);
+                logger.debug("缓存的短链接已过期: shortCode={}", shortCode);
+                event.complete(shortCode, ShortLinkService.TIER_REDIS, false);
+                return Optional.empty();
+            }
             // 异步更新访问计数
             updateAccessCountAsync(shortCode);
+            redirectMetrics.record(RedirectMetrics.Tier.COUNTER, System.nanoTime() - redisEnd);
+            event.complete(shortCode, ShortLinkService.TIER_REDIS, true);
             return Optional.of(cachedLink.getLongUrl());
         }
+        redirectMetrics.cacheAccess(SHORT_LINK_CACHE, RedirectMetrics.CacheResult.MISS);
         
-        // 缓存未命中，查询数据库
-        Optional<ShortLink> shortLink = shortLinkRepository.findByShortCode(shortCode);
+        // 缓存未命中，查询数据库（系统短码走主键）
+        AtomicInteger loads = beginLoad(shortCode);
+        Optional<ShortLink> shortLink;
+        try {
+            shortLink = shortLinkLookup.find(shortCode);
+        } finally {
+            endLoad(shortCode, loads);
+        }
+        long counterStart = System.nanoTime();
+        redirectMetrics.record(RedirectMetrics.Tier.DATABASE, counterStart - redisEnd);
         
-        if (shortLink.isPresent()) {
+        if (shortLink.isPresent() && !shortLink.get().isExpiredAt(LocalDateTime.now())) {
             ShortLink link = shortLink.get();
             
-            // 更新访问计数
-            link.setAccessCount(link.getAccessCount() + 1);
-            // 注意：lastUpdatedAt会由@UpdateTimestamp自动更新
-            shortLinkRepository.save(link);
+            if (clickEventPublisher != null) {
+                // 交给点击事件流水线批量计数
+                clickEventPublisher.publish(shortCode);
+            } else {
+                // 更新访问计数
+                link.setAccessCount(link.getAccessCount() + 1);
+                // 注意：lastUpdatedAt会由@UpdateTimestamp自动更新
+                shortLinkRepository.save(link);
+            }
+            redirectMetrics.record(RedirectMetrics.Tier.COUNTER, System.nanoTime() - counterStart);
             
             // 加入缓存
             cacheShortLink(link);
             
             logger.debug("数据库查询成功: shortCode={}, longUrl={}", shortCode, link.getLongUrl());
+            event.complete(shortCode, ShortLinkService.TIER_DATABASE, true);
             return Optional.of(link.getLongUrl());
         }
         
         logger.debug("短码不存在: shortCode={}", shortCode);
+        event.complete(shortCode, ShortLinkService.TIER_DATABASE, false);
         return Optional.empty();
     }
     
@@ -201,7 +292,7 @@ public class CachedShortLinkService {
      */
     public boolean isShortCodeAvailable(String shortCode) {
         // 先检查缓存
-        String cacheKey = CACHE_KEY_SHORT_LINK + shortCode;
+        String cacheKey = ShortLinkCacheKeys.shortLink(shortCode);
         Boolean cached = redisTemplate.hasKey(cacheKey);
         
         if (Boolean.TRUE.equals(cached)) {
@@ -212,19 +303,55 @@ public class CachedShortLinkService {
         return !shortLinkRepository.existsByShortCode(shortCode);
     }
     
+    /**
+     * 登记一次回源加载；已有同一短码的加载在进行时发出CacheStampede事件
+     * 
+     * 【说明】：
+     * 事件未启用时直接返回null，不触碰共享Map；
+     * 计数只用于诊断，加载结束与新加载开始交错时可能少算一次
+     * 
+     * @return 该短码的并发加载计数，事件未启用时为null
+     */
+    private AtomicInteger beginLoad(String shortCode) {
+        if (!CACHE_STAMPEDE_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        AtomicInteger loads = inflightLoads.computeIfAbsent(shortCode, key -> new AtomicInteger());
+        int concurrentLoads = loads.incrementAndGet();
+        if (concurrentLoads > 1) {
+            CacheStampedeEvent event = new CacheStampedeEvent();
+            if (event.shouldCommit()) {
+                event.cacheName = SHORT_LINK_CACHE;
+                event.shortCode = shortCode;
+                event.concurrentLoads = concurrentLoads;
+                event.commit();
+            }
+        }
+        return loads;
+    }
+    
+    private void endLoad(String shortCode, AtomicInteger loads) {
+        if (loads != null && loads.decrementAndGet() == 0) {
+            inflightLoads.remove(shortCode, loads);
+        }
+    }
+    
     /**
      * 缓存短链接对象
      * 
      * @param shortLink 短链接对象
      */
     private void cacheShortLink(ShortLink shortLink) {
-        String cacheKey = CACHE_KEY_SHORT_LINK + shortLink.getShortCode();
+        String cacheKey = ShortLinkCacheKeys.shortLink(shortLink.getShortCode());
         
-        // 设置随机过期时间（25-35分钟），防止缓存雪崩
-        long expireMinutes = 25 + (long) (Math.random() * 10);
+        // 设置随机过期时间（25-35分钟），防止缓存雪崩；不超过链接自身的剩余有效期
+        long expireMillis = ShortLinkCacheKeys.shortLinkTtlMillis(shortLink.getExpiresAt(), LocalDateTime.now());
+        if (expireMillis <= 0) {
+            return;
+        }
         
-        redisTemplate.opsForValue().set(cacheKey, shortLink, expireMinutes, TimeUnit.MINUTES);
-        logger.debug("短链接已缓存: shortCode={}, expireMinutes={}", shortLink.getShortCode(), expireMinutes);
+        redisTemplate.opsForValue().set(cacheKey, shortLink, expireMillis, TimeUnit.MILLISECONDS);
+        logger.debug("短链接已缓存: shortCode={}, expireMillis={}", shortLink.getShortCode(), expireMillis);
     }
     
     /**
@@ -233,15 +360,21 @@ public class CachedShortLinkService {
      * @param shortCode 短码
      */
     private void updateAccessCountAsync(String shortCode) {
+        if (clickEventPublisher != null) {
+            // 启用流水线时由后台处理器批量写回数据库
+            clickEventPublisher.publish(shortCode);
+            return;
+        }
+        
         // 使用Redis计数器实现异步计数
-        String countKey = CACHE_KEY_ACCESS_COUNT + shortCode;
+        String countKey = ShortLinkCacheKeys.accessCount(shortCode);
         
         // 增加Redis中的计数
         Long count = redisTemplate.opsForValue().increment(countKey);
         
         // 设置计数器过期时间
         if (count == 1) {
-            redisTemplate.expire(countKey, 1, TimeUnit.HOURS);
+            redisTemplate.expire(countKey, ShortLinkCacheKeys.ACCESS_COUNT_TTL_HOURS, TimeUnit.HOURS);
         }
         
         // 当计数达到一定值时，批量更新数据库
@@ -258,11 +391,71 @@ public class CachedShortLinkService {
      */
     @CacheEvict(value = {"shortlinks", "hotlinks", "stats"}, allEntries = true)
     public void evictCache(String shortCode) {
-        String cacheKey = CACHE_KEY_SHORT_LINK + shortCode;
+        String cacheKey = ShortLinkCacheKeys.shortLink(shortCode);
         redisTemplate.delete(cacheKey);
         logger.info("缓存已清除: shortCode={}", shortCode);
     }
     
+    /**
+     * JFR事件：缓存击穿（同一短码被多个请求同时回源加载）
+     */
+    @Name("com.sunlight.linker.CacheStampede")
+    @Label("Cache Stampede")
+    @Category({ShortLinkService.JFR_CATEGORY, "Cache"})
+    @Description("同一缓存键的未命中在回源加载期间再次发生")
+    public static class CacheStampedeEvent extends Event {
+        
+        @Label("Cache Name")
+        String cacheName;
+        
+        @Label("Short Code")
+        String shortCode;
+        
+        @Label("Concurrent Loads")
+        @Description("包括本次在内，同时回源的请求数")
+        int concurrentLoads;
+    }
+    
+    /**
+     * JFR事件：点击计数批量写回数据库
+     * 
+     * 【说明】：
+     * 持续时间为一次写回事务的耗时；写回失败时 succeeded=false，聚合数据保留到下个周期
+     */
+    @Name("com.sunlight.linker.CounterFlush")
+    @Label("Counter Flush")
+    @Category({ShortLinkService.JFR_CATEGORY, "Click Pipeline"})
+    @Description("点击计数批量写回数据库")
+    @StackTrace(false)
+    public static class CounterFlushEvent extends Event {
+        
+        @Label("Short Codes")
+        int shortCodes;
+        
+        @Label("Clicks")
+        long clicks;
+        
+        @Label("Succeeded")
+        boolean succeeded;
+        
+        /**
+         * 结束计时，满足阈值时填充字段并提交
+         * 
+         * @param shortCodes 本批次的短码数
+         * @param clicks 本批次的点击总数
+         * @param succeeded 是否写回成功
+         */
+        public void complete(int shortCodes, long clicks, boolean succeeded) {
+            end();
+            if (shouldCommit()) {
+                this.shortCodes = shortCodes;
+                this.clicks = clicks;
+                this.succeeded = succeeded;
+                commit();
+            }
+        }
+    }
+    
     /**
      * 系统统计信息数据类
      */
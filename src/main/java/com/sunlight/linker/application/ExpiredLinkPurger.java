@@ -0,0 +1,206 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.PurgeProperties;
+import com.sunlight.linker.infrastructure.ExpiredLinkKey;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.shard.ShardedShortLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 过期链接清理任务
+ *
+ * 【进阶挑战 - 增量清理】
+ *
+ * 解析路径已经把过期链接当作不存在，这里只负责回收存储。
+ * 与一条 DELETE ... WHERE expires_at &lt;= now 相比，按键集分批删除：
+ * <pre>
+ *   每批一个事务   读取 (expiresAt, id) 在游标之后的 batch-size 行 → 按主键删除
+ *   批间停顿       batch-pause，限制删除速率，复制延迟不会持续累积
+ *   单次上限       max-batches-per-run 批，积压分摊到后续周期
+ * </pre>
+ * 开启 app.sharding 时短链接存放在各分片上，改为逐个分片执行同样的分批删除
+ *
+ * 【为什么用游标而不是每批从头查】：
+ * PostgreSQL删除后索引项要等VACUUM才清除，每批都从最早的过期时间开始扫，
+ * 会反复跨过前面批次留下的死元组；游标从上一批最后一行之后开始，每批扫描量固定
+ *
+ * 【启用方式】：
+ * app.purge.enabled=true，其余参数见 PurgeProperties
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.purge", name = "enabled", havingValue = "true")
+public class ExpiredLinkPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredLinkPurger.class);
+
+    /**
+     * 第一批的游标起点：早于任何可能的过期时间（创建时要求过期时间晚于当前时间）
+     */
+    static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+
+    /**
+     * 分片存储（开启 app.sharding 时），为null时清理单库
+     */
+    private final ShardedShortLinkRepository shards;
+
+    /**
+     * 启动以来删除的总行数
+     */
+    private volatile long totalPurged;
+
+    public ExpiredLinkPurger(ShortLinkRepository shortLinkRepository,
+                             PlatformTransactionManager transactionManager,
+                             PurgeProperties properties) {
+        this(shortLinkRepository, transactionManager, properties, null);
+    }
+
+    @Autowired
+    public ExpiredLinkPurger(ShortLinkRepository shortLinkRepository,
+                             PlatformTransactionManager transactionManager,
+                             PurgeProperties properties,
+                             ObjectProvider<ShardedShortLinkRepository> shards) {
+        if (properties.getBatchSize() <= 0 || properties.getMaxBatchesPerRun() <= 0) {
+            throw new IllegalArgumentException("batch-size 与 max-batches-per-run 必须为正数");
+        }
+        this.shortLinkRepository = shortLinkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shards = shards == null ? null : shards.getIfAvailable();
+    }
+
+    /**
+     * 定时清理
+     */
+    @Scheduled(fixedDelayString = "${app.purge.interval:PT1M}")
+    public void purge() {
+        purgeExpiredBefore(LocalDateTime.now());
+    }
+
+    /**
+     * 删除过期时间不晚于给定时刻的链接
+     *
+     * 【分片模式】：
+     * 短链接不在单库中，逐个分片按各自的 (expiresAt, id) 游标分批删除，
+     * max-batches-per-run 对每个分片分别计数
+     *
+     * @param now 截止时间
+     * @return 本次删除的行数
+     */
+    public long purgeExpiredBefore(LocalDateTime now) {
+        long purged = 0;
+        if (shards == null) {
+            purged = purge("database", (afterExpiresAt, afterId) -> transactionTemplate.execute(status -> {
+                List<ExpiredLinkKey> keys =
+                        shortLinkRepository.findExpiredLinkKeys(afterExpiresAt, afterId, now, properties.getBatchSize());
+                if (keys.isEmpty()) {
+                    return new Batch(keys, 0);
+                }
+                List<Long> ids = keys.stream().map(ExpiredLinkKey::id).toList();
+                return new Batch(keys, shortLinkRepository.deleteExpiredByIdIn(ids, now));
+            }));
+        } else {
+            for (int shard = 0; shard < shards.getShardCount() && !Thread.currentThread().isInterrupted(); shard++) {
+                int target = shard;
+                purged += purge("shard-" + shard, (afterExpiresAt, afterId) -> {
+                    List<ExpiredLinkKey> keys = shards.findExpiredLinkKeys(
+                            target, afterExpiresAt, afterId, now, properties.getBatchSize());
+                    if (keys.isEmpty()) {
+                        return new Batch(keys, 0);
+                    }
+                    List<Long> ids = keys.stream().map(ExpiredLinkKey::id).toList();
+                    return new Batch(keys, shards.deleteExpiredByIdIn(target, ids, now));
+                });
+            }
+        }
+        totalPurged += purged;
+        return purged;
+    }
+
+    public long getTotalPurged() {
+        return totalPurged;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 从最早的游标开始分批删除，直到遇到不满的批次、达到单次批数上限或被中断
+     *
+     * @param scope 日志中的清理范围（单库或分片名）
+     * @param step 读取并删除游标之后的一批
+     * @return 删除的行数
+     */
+    private long purge(String scope, BatchStep step) {
+        int batchSize = properties.getBatchSize();
+        LocalDateTime cursorExpiresAt = CURSOR_START;
+        long cursorId = 0;
+        long purged = 0;
+        int batches = 0;
+
+        while (batches < properties.getMaxBatchesPerRun()) {
+            Batch batch = step.next(cursorExpiresAt, cursorId);
+            batches++;
+            purged += batch.deleted();
+            if (batch.keys().size() < batchSize) {
+                break;
+            }
+            ExpiredLinkKey last = batch.keys().get(batch.keys().size() - 1);
+            cursorExpiresAt = last.expiresAt();
+            cursorId = last.id();
+            if (!pause()) {
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            logger.info("过期链接清理完成: scope={}, deleted={}, batches={}, cursor=({}, {})",
+                    scope, purged, batches, cursorExpiresAt, cursorId);
+        }
+        return purged;
+    }
+
+    /**
+     * 批间停顿
+     *
+     * @return 被中断时返回false，调用方结束本次清理
+     */
+    private boolean pause() {
+        long millis = properties.getBatchPause().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchStep {
+
+        Batch next(LocalDateTime afterExpiresAt, long afterId);
+    }
+
+    private record Batch(List<ExpiredLinkKey> keys, int deleted) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.IdGeneratorProperties;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.SnowflakeIdGenerator;
+import com.sunlight.linker.infrastructure.NodeIdLeases;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 持有节点号租约的Snowflake ID生成器
+ *
+ * 【进阶挑战 - 分布式ID】
+ *
+ * 生命周期：
+ * <pre>
+ *   start()   在Web服务器接收请求之前占用节点号（固定 node-id 时跳过租约）
+ *   renew()   每 lease-renew-interval 续约一次
+ *   nextId()  距上次成功续约超过 lease-ttl/2 时拒绝发号
+ *   stop()    删除租约行，节点号立即可被复用
+ * </pre>
+ *
+ * 【为什么是 lease-ttl/2】：
+ * 其他节点在 expires_at（= 续约时间 + lease-ttl，按续约方的时钟）之后才能接管；
+ * 本节点提前一半时间停止发号，节点间时钟偏差不超过 lease-ttl/2 时不会出现两个节点同时使用一个节点号
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.id-generator", name = "enabled", havingValue = "true")
+public class LeasedIdGenerator implements IdGenerator, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasedIdGenerator.class);
+
+    private final NodeIdLeases leases;
+    private final IdGeneratorProperties properties;
+    private final Clock clock;
+    private final String owner;
+
+    private volatile SnowflakeIdGenerator delegate;
+    private volatile int nodeId = -1;
+    private volatile long validUntilMillis;
+
+    @Autowired
+    public LeasedIdGenerator(NodeIdLeases leases, IdGeneratorProperties properties) {
+        this(leases, properties, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param leases 租约表
+     * @param properties 配置
+     * @param clock 时钟（测试时可替换）
+     */
+    public LeasedIdGenerator(NodeIdLeases leases, IdGeneratorProperties properties, Clock clock) {
+        if (properties.getLeaseRenewInterval().compareTo(properties.getLeaseTtl().dividedBy(2)) >= 0) {
+            throw new IllegalArgumentException("lease-renew-interval 必须小于 lease-ttl 的一半");
+        }
+        this.leases = leases;
+        this.properties = properties;
+        this.clock = clock;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    @Override
+    public long nextId() {
+        SnowflakeIdGenerator generator = delegate;
+        if (generator == null) {
+            throw new IllegalStateException("尚未取得节点号");
+        }
+        if (properties.getNodeId() < 0 && clock.millis() > validUntilMillis) {
+            throw new IllegalStateException("节点号租约已失效: nodeId=" + nodeId);
+        }
+        return generator.nextId();
+    }
+
+    /**
+     * 定时续约；续约失败（租约被接管）后停止发号，直到重启
+     */
+    @Scheduled(fixedDelayString = "${app.id-generator.lease-renew-interval:PT20S}")
+    public void renew() {
+        if (delegate == null || properties.getNodeId() >= 0) {
+            return;
+        }
+        long renewedAt = clock.millis();
+        try {
+            if (leases.renew(nodeId, owner, LocalDateTime.now(clock), properties.getLeaseTtl())) {
+                validUntilMillis = renewedAt + properties.getLeaseTtl().toMillis() / 2;
+            } else {
+                validUntilMillis = 0;
+                logger.error("节点号租约已被接管，停止发号: nodeId={}", nodeId);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("节点号续约失败，租约将在 {} 后失效: {}", properties.getLeaseTtl().dividedBy(2), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (properties.getNodeId() >= 0) {
+            nodeId = properties.getNodeId();
+        } else {
+            if (properties.isInitializeSchema()) {
+                leases.initializeSchema();
+            }
+            long acquiredAt = clock.millis();
+            nodeId = leases.acquire(owner, 1 << properties.getNodeBits(), LocalDateTime.now(clock),
+                    properties.getLeaseTtl());
+            validUntilMillis = acquiredAt + properties.getLeaseTtl().toMillis() / 2;
+        }
+        delegate = new SnowflakeIdGenerator(properties.getEpoch().toEpochMilli(), nodeId,
+                properties.getNodeBits(), properties.getSequenceBits(),
+                properties.getMaxClockBackward().toMillis(), clock::millis);
+        logger.info("Snowflake ID生成器已启动: nodeId={}, owner={}", nodeId, owner);
+    }
+
+    @Override
+    public void stop() {
+        SnowflakeIdGenerator generator = delegate;
+        delegate = null;
+        if (generator != null && properties.getNodeId() < 0) {
+            leases.release(nodeId, owner);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delegate != null;
+    }
+
+    /**
+     * 在Web服务器（默认相位）之前启动、之后停止
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+}
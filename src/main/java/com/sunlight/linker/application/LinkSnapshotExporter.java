@@ -0,0 +1,185 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotWriter;
+import com.sunlight.linker.infrastructure.snapshot.SnapshotRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * 短码快照导出任务
+ *
+ * 【进阶挑战 - 堆外快照】
+ *
+ * 为只读边缘节点生成 LinkSnapshotStore 目录中的文件：
+ * <pre>
+ *   首次运行          全量导出 base
+ *   之后每个周期      导出 last_updated_at ≥ 水位线 的行作为 delta
+ *   delta超过上限     compact() 合并为新的 base（丢弃已过期的记录）
+ *   距上次全量超过    full-interval 时重新全量导出
+ * </pre>
+ *
+ * 【一致性】：
+ * 计数与流式读取在同一个REPEATABLE READ只读事务中执行，
+ * 槽位表大小与实际写入行数一致；水位线取"≥"，同一毫秒内的更新会在下一个delta中重复出现，不会遗漏
+ *
+ * 【删除与过期】：
+ * 快照记录带有 expires_at，边缘节点解析时检查，链接到期后立即不再生效，不依赖清理任务；
+ * 增量只能发现新建和更新的行，其他物理删除（如清理从未访问的旧链接）在下一次全量导出后
+ * 从快照中消失，最长延迟 full-interval。进程重启后的第一次导出总是全量
+ *
+ * 【启用方式】：
+ * app.snapshot.enabled=true，目录由 app.snapshot.directory 指定
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class LinkSnapshotExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkSnapshotExporter.class);
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LinkSnapshotStore store;
+    private final int maxDeltas;
+    private final long fullIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * 上一次全量导出的时间（单调纳秒），进程启动后尚未全量导出时为null
+     */
+    private Long lastFullExportAt;
+
+    @Autowired
+    public LinkSnapshotExporter(ShortLinkRepository shortLinkRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.snapshot.directory:data/snapshots}") String directory,
+                                @Value("${app.snapshot.max-deltas:24}") int maxDeltas,
+                                @Value("${app.snapshot.full-interval:PT6H}") Duration fullInterval) {
+        this(shortLinkRepository, transactionManager, new LinkSnapshotStore(Path.of(directory)), maxDeltas,
+                fullInterval, System::nanoTime);
+    }
+
+    /**
+     * @param shortLinkRepository 短链接仓储
+     * @param transactionManager 事务管理器
+     * @param store 快照目录
+     * @param maxDeltas 增量层数上限，超过时压实
+     * @param fullInterval 两次全量导出的最长间隔
+     * @param nanoClock 单调纳秒时钟（测试时可替换）
+     */
+    public LinkSnapshotExporter(ShortLinkRepository shortLinkRepository,
+                                PlatformTransactionManager transactionManager,
+                                LinkSnapshotStore store,
+                                int maxDeltas,
+                                Duration fullInterval,
+                                LongSupplier nanoClock) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.store = store;
+        this.maxDeltas = maxDeltas;
+        this.fullIntervalNanos = fullInterval.toNanos();
+        this.nanoClock = nanoClock;
+        store.refresh();
+    }
+
+    /**
+     * 定时导出：没有base或距上次全量超过full-interval时全量导出，否则导出增量，增量过多时压实
+     */
+    @Scheduled(fixedDelayString = "${app.snapshot.delta-interval:PT1M}")
+    public void export() {
+        if (store.current().getLayerCount() == 0 || lastFullExportAt == null
+                || nanoClock.getAsLong() - lastFullExportAt >= fullIntervalNanos) {
+            exportFull();
+            return;
+        }
+        exportDelta();
+        if (store.current().getLayerCount() > maxDeltas + 1) {
+            store.compact();
+        }
+    }
+
+    /**
+     * 全量导出
+     *
+     * @return 新base文件
+     */
+    public Path exportFull() {
+        long startedAt = nanoClock.getAsLong();
+        Path file = transactionTemplate.execute(status -> {
+            long count = shortLinkRepository.count();
+            try (Stream<SnapshotRow> rows = shortLinkRepository.streamSnapshotRows()) {
+                return write(store.newBase(count), rows, 0L);
+            }
+        });
+        store.refresh();
+        store.deleteSuperseded();
+        lastFullExportAt = startedAt;
+        logger.info("快照全量导出完成: file={}", file);
+        return file;
+    }
+
+    /**
+     * 增量导出：水位线之后新建或更新的行
+     *
+     * @return 新delta文件；没有变化时为null
+     */
+    public Path exportDelta() {
+        long watermark = store.current().getWatermark();
+        LocalDateTime since = LocalDateTime.ofEpochSecond(watermark / 1000, (int) (watermark % 1000) * 1_000_000, ZoneOffset.UTC);
+        Path file = transactionTemplate.execute(status -> {
+            long count = shortLinkRepository.countByLastUpdatedAtGreaterThanEqual(since);
+            if (count == 0) {
+                return null;
+            }
+            try (Stream<SnapshotRow> rows = shortLinkRepository.streamSnapshotRowsUpdatedSince(since)) {
+                return write(store.newDelta(count), rows, watermark);
+            }
+        });
+        if (file != null) {
+            store.refresh();
+            logger.info("快照增量导出完成: file={}", file);
+        }
+        return file;
+    }
+
+    public LinkSnapshotStore getStore() {
+        return store;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Path write(LinkSnapshotWriter writer, Stream<SnapshotRow> rows, long initialWatermark) {
+        try (writer) {
+            long[] watermark = {initialWatermark};
+            rows.forEach(row -> {
+                writer.add(row.shortCode(), row.longUrl(), row.redirectPolicy(), row.expiresAt());
+                if (row.lastUpdatedAt() != null) {
+                    watermark[0] = Math.max(watermark[0], row.lastUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+            });
+            writer.setWatermark(watermark[0]);
+            return writer.commit();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.NearCacheProperties;
+import com.sunlight.linker.core.TimingWheel;
+import com.sunlight.linker.domain.ShortLink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内短链接缓存（近端缓存）
+ *
+ * 【进阶挑战 - 时间轮】
+ *
+ * 位于ShortLinkService与数据库之间，条目的到期全部交给一个 TimingWheel，
+ * 由单个驱动线程每个tick批量处理，不扫描Map，也不依赖读取时的惰性检查：
+ * <pre>
+ *   put(link)           到期时间 = min(now + ttl, link.expiresAt)
+ *   ttl先到              条目移除，下次访问回源
+ *   expiresAt先到        条目转为"已过期"标记（410），再保留 gone-ttl
+ *   gone-ttl到           标记移除，之后按数据库结果返回（清理后为404）
+ * </pre>
+ *
+ * 【一致性】：
+ * 到期回调只做条件删除/替换（remove(key, entry)），被覆盖或已取消的旧定时器触发时不会误删新条目；
+ * 多实例部署时修改重定向策略只会失效本机条目，其他实例最多在ttl之后看到新值
+ *
+ * 【启用方式】：
+ * app.near-cache.enabled=true，其余参数见 NearCacheProperties
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.near-cache", name = "enabled", havingValue = "true")
+public class NearLinkCache implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearLinkCache.class);
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TimingWheel<Entry> wheel;
+    private final long ttlMillis;
+    private final long goneTtlMillis;
+    private final int maxEntries;
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder goneTransitions = new LongAdder();
+
+    private volatile Thread ticker;
+
+    public NearLinkCache(NearCacheProperties properties) {
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), System.currentTimeMillis());
+        this.ttlMillis = properties.getTtl().toMillis();
+        this.goneTtlMillis = properties.getGoneTtl().toMillis();
+        this.maxEntries = properties.getMaxEntries();
+    }
+
+    /**
+     * 查询缓存条目
+     *
+     * @param shortCode 短码
+     * @return 条目；未缓存时为null，已过期的链接返回isGone()为true的标记
+     */
+    public Entry get(String shortCode) {
+        return entries.get(shortCode);
+    }
+
+    /**
+     * 缓存一个未过期的链接，已过期的链接直接记为"已过期"标记
+     *
+     * @param link 短链接
+     * @param nowMillis 当前时间（毫秒）
+     */
+    public void put(ShortLink link, long nowMillis) {
+        long expiresAtMillis = link.getExpiresAt() == null ? Long.MAX_VALUE : toEpochMillis(link.getExpiresAt());
+        if (expiresAtMillis <= nowMillis) {
+            markGone(link.getShortCode(), nowMillis);
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(link.getShortCode())) {
+            return;
+        }
+        long ttlDeadline = nowMillis + ttlMillis;
+        boolean linkExpiry = expiresAtMillis <= ttlDeadline;
+        Entry entry = new Entry(link.getShortCode(),
+                new RedirectTarget(link.getLongUrl(), link.getRedirectPolicy(), link.getExpiresAt()), linkExpiry);
+        install(entry, linkExpiry ? expiresAtMillis : ttlDeadline);
+    }
+
+    /**
+     * 把短码记为"已过期"，在gone-ttl内返回410
+     *
+     * @param shortCode 短码
+     * @param nowMillis 当前时间（毫秒）
+     */
+    public void markGone(String shortCode, long nowMillis) {
+        goneTransitions.increment();
+        install(new Entry(shortCode, null, false), nowMillis + goneTtlMillis);
+    }
+
+    /**
+     * 使条目失效（重定向策略修改等）
+     *
+     * @param shortCode 短码
+     */
+    public void invalidate(String shortCode) {
+        Entry removed = entries.remove(shortCode);
+        if (removed != null && removed.timeout != null) {
+            removed.timeout.cancel();
+        }
+    }
+
+    /**
+     * 推进时间轮并处理到期条目，由驱动线程周期调用
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @return 本次到期的条目数
+     */
+    public int advance(long nowMillis) {
+        return wheel.advance(nowMillis, entry -> onExpired(entry, nowMillis));
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::runTicker, "near-cache-wheel");
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+        logger.info("近端缓存已启动: tickMillis={}, ttlMillis={}, maxEntries={}",
+                wheel.getTickMillis(), ttlMillis, maxEntries);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = ticker;
+        ticker = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getPendingTimers() {
+        return wheel.size();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getGoneTransitions() {
+        return goneTransitions.sum();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void install(Entry entry, long deadlineMillis) {
+        Entry previous = entries.put(entry.shortCode, entry);
+        if (previous != null && previous.timeout != null) {
+            previous.timeout.cancel();
+        }
+        entry.timeout = wheel.schedule(entry, deadlineMillis);
+    }
+
+    private void onExpired(Entry entry, long nowMillis) {
+        if (entry.linkExpiry) {
+            Entry gone = new Entry(entry.shortCode, null, false);
+            if (entries.replace(entry.shortCode, entry, gone)) {
+                goneTransitions.increment();
+                gone.timeout = wheel.schedule(gone, nowMillis + goneTtlMillis);
+            }
+        } else if (entries.remove(entry.shortCode, entry)) {
+            evictions.increment();
+        }
+    }
+
+    private void runTicker() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(wheel.getTickMillis());
+        while (ticker == Thread.currentThread()) {
+            try {
+                advance(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                logger.warn("近端缓存到期处理失败: {}", e.getMessage());
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 缓存条目
+     */
+    public static final class Entry {
+
+        private final String shortCode;
+
+        /**
+         * 重定向目标，"已过期"标记为null
+         */
+        private final RedirectTarget target;
+
+        /**
+         * 定时器对应链接自身的过期时间（而不是缓存ttl）
+         */
+        private final boolean linkExpiry;
+
+        private volatile TimingWheel.Timeout<Entry> timeout;
+
+        private Entry(String shortCode, RedirectTarget target, boolean linkExpiry) {
+            this.shortCode = shortCode;
+            this.target = target;
+            this.linkExpiry = linkExpiry;
+        }
+
+        public boolean isGone() {
+            return target == null;
+        }
+
+        public RedirectTarget target() {
+            return target;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.PartitioningProperties;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * short_links 月分区维护任务
+ *
+ * 【进阶挑战 - 分区表】
+ *
+ * 每次运行：
+ * <pre>
+ *   1. 预建分区    当月 .. 当月 + months-ahead，CREATE TABLE IF NOT EXISTS，可重复执行
+ *   2. 分离分区    早于保留窗口的分区 DETACH CONCURRENTLY（不阻塞父表读写）
+ *   3. 删除分区    DROP TABLE，同时处理上次中断后遗留的已分离分区
+ *   4. 清理登记    删除这些月份的别名登记
+ * </pre>
+ *
+ * 【与逐行删除的区别】：
+ * 保留策略从"DELETE ... WHERE created_at &lt; ?"变成删除整张分区表：
+ * 不产生死元组、不需要VACUUM、WAL只有几条DDL记录；
+ * ExpiredLinkPurger仍按 expires_at 分批删除保留窗口内已过期的链接
+ *
+ * 【启用方式】：
+ * app.partitioning.enabled=true，其余参数见 PartitioningProperties
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.partitioning", name = "enabled", havingValue = "true")
+public class PartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private final ShortLinkPartitions partitions;
+    private final PartitioningProperties properties;
+
+    public PartitionMaintenance(ShortLinkPartitions partitions, PartitioningProperties properties) {
+        if (properties.getMonthsAhead() < 1 || properties.getRetentionMonths() < 0) {
+            throw new IllegalArgumentException("months-ahead 必须为正数，retention-months 不能为负数");
+        }
+        this.partitions = partitions;
+        this.properties = properties;
+    }
+
+    /**
+     * 定时维护，启动后立即执行一次
+     */
+    @Scheduled(fixedDelayString = "${app.partitioning.interval:PT6H}", initialDelay = 0)
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    /**
+     * 以给定日期为"今天"执行一次维护
+     *
+     * @param today 当前日期
+     * @return 本次删除的分区数
+     */
+    public int maintain(LocalDate today) {
+        YearMonth current = YearMonth.from(today);
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            partitions.create(current.plusMonths(i));
+        }
+        if (properties.getRetentionMonths() == 0) {
+            return 0;
+        }
+
+        YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths() - 1L);
+        int dropped = 0;
+        for (ShortLinkPartitions.Partition partition : partitions.listAttached()) {
+            if (isBefore(partition.name(), oldestKept)) {
+                try {
+                    partitions.detach(partition);
+                    partitions.drop(partition.name());
+                    dropped++;
+                } catch (DataAccessException e) {
+                    // 留给下一次运行：pending状态会被FINALIZE，已分离的表会在listDetached中出现
+                    logger.warn("删除分区失败: partition={}, error={}", partition.name(), e.getMessage());
+                }
+            }
+        }
+        for (String table : partitions.listDetached()) {
+            if (isBefore(table, oldestKept)) {
+                partitions.drop(table);
+                dropped++;
+            }
+        }
+        int aliases = partitions.deleteAliasesCreatedBefore(oldestKept.atDay(1).atStartOfDay());
+
+        if (dropped > 0) {
+            logger.info("分区维护完成: dropped={}, aliases={}, oldestKept={}", dropped, aliases, oldestKept);
+        }
+        return dropped;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static boolean isBefore(String tableName, YearMonth oldestKept) {
+        Optional<YearMonth> month = ShortLinkPartitions.monthOf(tableName);
+        return month.isPresent() && month.get().isBefore(oldestKept);
+    }
+}
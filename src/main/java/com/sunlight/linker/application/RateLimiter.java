@@ -0,0 +1,203 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.RateLimitProperties;
+import com.sunlight.linker.core.TokenBucketTable;
+import com.sunlight.linker.infrastructure.RedisTokenBuckets;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 按客户端、按端点的令牌桶限流
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 单个客户端连续创建短链接或扫描随机短码时，每个请求都要占用一个数据库连接，
+ * 连接池只有 maximum-pool-size 个连接，很快就会让所有客户端一起排队。
+ * 限流在请求进入控制器之前按客户端计数，超出速率的请求直接返回429：
+ * <pre>
+ *   check(method, path, client)
+ *     ├── 按配置顺序找第一个匹配的端点规则，没有匹配的直接放行
+ *     ├── local：该端点的 TokenBucketTable（分段加锁，近似LRU淘汰空闲桶）
+ *     └── redis：RedisTokenBuckets（所有实例共享）；Redis不可用时退回本机令牌桶
+ * </pre>
+ * Redis调用失败后的 REDIS_RETRY_INTERVAL 内不再访问Redis，直接使用本机令牌桶，
+ * 避免Redis故障期间每个请求都等待一次连接超时
+ *
+ * 【指标】：
+ * <pre>
+ *   linker.rate-limit.rejected{endpoint}   被拒绝的请求数
+ *   linker.rate-limit.clients{endpoint}    本机保存的令牌桶数
+ *   linker.rate-limit.redis-fallbacks      Redis不可用时退回本机令牌桶的次数
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimiter implements MeterBinder {
+
+    public static final String REJECTED = "linker.rate-limit.rejected";
+    public static final String CLIENTS = "linker.rate-limit.clients";
+    public static final String REDIS_FALLBACKS = "linker.rate-limit.redis-fallbacks";
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final long REDIS_RETRY_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<Rule> rules;
+    private final RedisTokenBuckets redisBuckets;
+    private final LongSupplier nanoClock;
+    private final LongAdder redisFallbacks = new LongAdder();
+
+    private volatile long redisRetryAt;
+    private volatile boolean redisDown;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, ObjectProvider<RedisTokenBuckets> redisBuckets) {
+        this(properties, properties.getMode() == RateLimitProperties.Mode.REDIS ? redisBuckets.getIfAvailable() : null,
+                System::nanoTime);
+    }
+
+    /**
+     * @param properties 配置
+     * @param redisBuckets 全局令牌桶，为null时只使用本机令牌桶
+     * @param nanoClock 单调纳秒时钟（测试时可替换）
+     */
+    public RateLimiter(RateLimitProperties properties, RedisTokenBuckets redisBuckets, LongSupplier nanoClock) {
+        List<Rule> parsed = new ArrayList<>();
+        for (Map.Entry<String, RateLimitProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            RateLimitProperties.Endpoint endpoint = entry.getValue();
+            if (endpoint.getPattern() == null || endpoint.getPattern().isBlank()) {
+                throw new IllegalArgumentException("限流端点 " + entry.getKey() + " 缺少 pattern");
+            }
+            parsed.add(new Rule(entry.getKey(), endpoint, properties.getMaxClients(), nanoClock));
+        }
+        this.rules = List.copyOf(parsed);
+        this.redisBuckets = redisBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 为请求取一个令牌
+     *
+     * @param method HTTP方法
+     * @param path 请求路径（不含上下文路径）
+     * @param client 客户端标识
+     * @return 0表示放行；否则为建议客户端等待的纳秒数
+     */
+    public long check(String method, String path, String client) {
+        Rule rule = match(method, path);
+        if (rule == null) {
+            return 0;
+        }
+        long wait = acquire(rule, client);
+        if (wait > 0) {
+            rule.rejected.increment();
+        }
+        return wait;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Rule rule : rules) {
+            FunctionCounter.builder(REJECTED, rule.rejected, LongAdder::sum)
+                    .tag("endpoint", rule.name)
+                    .description("被限流拒绝的请求数")
+                    .register(registry);
+            Gauge.builder(CLIENTS, rule.buckets, TokenBucketTable::size)
+                    .tag("endpoint", rule.name)
+                    .description("本机保存的令牌桶数")
+                    .register(registry);
+        }
+        FunctionCounter.builder(REDIS_FALLBACKS, redisFallbacks, LongAdder::sum)
+                .description("Redis不可用时退回本机令牌桶的次数")
+                .register(registry);
+    }
+
+    public long getRejected(String endpoint) {
+        return rules.stream().filter(rule -> rule.name.equals(endpoint))
+                .mapToLong(rule -> rule.rejected.sum()).sum();
+    }
+
+    public long getRedisFallbacks() {
+        return redisFallbacks.sum();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Rule match(String method, String path) {
+        PathContainer container = null;
+        for (Rule rule : rules) {
+            if (rule.method != null && !rule.method.equalsIgnoreCase(method)) {
+                continue;
+            }
+            // 只有方法匹配时才解析路径，多数请求在这里就跳过了
+            if (container == null) {
+                container = PathContainer.parsePath(path);
+            }
+            if (rule.pattern.matches(container)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private long acquire(Rule rule, String client) {
+        if (redisBuckets != null) {
+            if (!redisDown || nanoClock.getAsLong() - redisRetryAt >= 0) {
+                try {
+                    long wait = redisBuckets.tryAcquire(rule.name, client, rule.capacity, rule.refillPerSecond);
+                    redisDown = false;
+                    return wait;
+                } catch (DataAccessException e) {
+                    redisRetryAt = nanoClock.getAsLong() + REDIS_RETRY_INTERVAL;
+                    redisDown = true;
+                    logger.warn("Redis限流不可用，{}ms内使用本机令牌桶: endpoint={}, error={}",
+                            TimeUnit.NANOSECONDS.toMillis(REDIS_RETRY_INTERVAL), rule.name, e.getMessage());
+                }
+            }
+            redisFallbacks.increment();
+        }
+        return rule.buckets.tryAcquire(client);
+    }
+
+    private static final class Rule {
+
+        private final String name;
+        private final String method;
+        private final PathPattern pattern;
+        private final long capacity;
+        private final double refillPerSecond;
+        private final TokenBucketTable buckets;
+        private final LongAdder rejected = new LongAdder();
+
+        private Rule(String name, RateLimitProperties.Endpoint endpoint, int maxClients, LongSupplier nanoClock) {
+            this.name = name;
+            this.method = endpoint.getMethod() == null || endpoint.getMethod().isBlank() ? null : endpoint.getMethod();
+            this.pattern = PathPatternParser.defaultInstance.parse(endpoint.getPattern());
+            this.capacity = endpoint.getCapacity();
+            this.refillPerSecond = endpoint.getRefillPerSecond();
+            this.buckets = new TokenBucketTable(capacity, refillPerSecond, maxClients, nanoClock);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sunlight.linker.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重定向路径分层耗时指标
+ *
+ * 【进阶挑战 - 可观测性】
+ *
+ * 一次慢重定向可能慢在Redis、Hibernate、事务提交或Tomcat，
+ * 这里把 getLongUrl / resolveRedirect 拆成若干层分别计时：
+ * <pre>
+ *   linker.redirect.tier{tier=service}    Service调用整体（含事务代理的开启与提交）
+ *   linker.redirect.tier{tier=redis}      Redis GET
+ *   linker.redirect.tier{tier=database}   按短码查询数据库
+ *   linker.redirect.tier{tier=counter}    访问计数（同步写库或发布点击事件）
+ *   linker.redirect.tier{tier=response}   构建重定向响应
+ *   linker.cache.requests{cache, result=hit|miss|coalesced}
+ * </pre>
+ * Tomcat层的整体耗时由Actuator的 http.server.requests 提供；
+ * 各计时器发布 p50/p99/p99.9 与直方图桶，可以在 /actuator/prometheus 上直接查询
+ *
+ * 【热路径无分配】：
+ * 所有Timer与Counter在构造时注册并按枚举缓存，调用方用 System.nanoTime() 取起止时间
+ * 后调用 record(Tier, long)，不使用 Timer.Sample 或lambda
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+public class RedirectMetrics {
+
+    public static final String TIER_TIMER = "linker.redirect.tier";
+    public static final String CACHE_COUNTER = "linker.cache.requests";
+
+    /**
+     * 重定向路径上的计时层
+     */
+    public enum Tier {
+        SERVICE,
+        REDIS,
+        DATABASE,
+        COUNTER,
+        RESPONSE;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * 缓存访问结果
+     */
+    public enum CacheResult {
+        HIT,
+        MISS,
+        /**
+         * 与正在进行的同键加载合并（未单独访问后端）
+         */
+        COALESCED;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final RedirectMetrics NOOP = new RedirectMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Map<Tier, Timer> timers = new EnumMap<>(Tier.class);
+    private final Map<String, Counter[]> cacheCounters = new ConcurrentHashMap<>();
+
+    public RedirectMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Tier tier : Tier.values()) {
+            timers.put(tier, Timer.builder(TIER_TIMER)
+                    .description("重定向路径各层耗时")
+                    .tag("tier", tier.tagValue())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(5))
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 不向任何注册表输出的实例，供脱离Spring容器构造的Service使用
+     */
+    public static RedirectMetrics noop() {
+        return NOOP;
+    }
+
+    /**
+     * 记录一层的耗时
+     *
+     * @param tier 计时层
+     * @param elapsedNanos System.nanoTime() 差值
+     */
+    public void record(Tier tier, long elapsedNanos) {
+        timers.get(tier).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次缓存访问
+     *
+     * 【说明】：
+     * 每个缓存名第一次出现时注册三个计数器，之后只做一次Map查找和数组下标访问
+     *
+     * @param cacheName 缓存名
+     * @param result 访问结果
+     */
+    public void cacheAccess(String cacheName, CacheResult result) {
+        Counter[] counters = cacheCounters.get(cacheName);
+        if (counters == null) {
+            counters = cacheCounters.computeIfAbsent(cacheName, this::registerCacheCounters);
+        }
+        counters[result.ordinal()].increment();
+    }
+
+    private Counter[] registerCacheCounters(String cacheName) {
+        CacheResult[] results = CacheResult.values();
+        Counter[] counters = new Counter[results.length];
+        for (CacheResult result : results) {
+            counters[result.ordinal()] = Counter.builder(CACHE_COUNTER)
+                    .description("缓存访问次数")
+                    .tag("cache", cacheName)
+                    .tag("result", result.tagValue())
+                    .register(registry);
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,100 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+
+/**
+ * 重定向目标：长链接 + 重定向策略 + 过期时间
+ *
+ * @param longUrl 原始长链接
+ * @param policy 重定向策略
+ * @param expiresAt 链接过期时间，永不过期为null
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public record RedirectTarget(String longUrl, RedirectPolicy policy, LocalDateTime expiresAt) {
+
+    /**
+     * 永不过期的重定向目标
+     *
+     * @param longUrl 原始长链接
+     * @param policy 重定向策略
+     */
+    public RedirectTarget(String longUrl, RedirectPolicy policy) {
+        this(longUrl, policy, null);
+    }
+
+    /**
+     * 默认策略（302）的重定向目标
+     *
+     * @param longUrl 原始长链接
+     * @return 重定向目标
+     */
+    public static RedirectTarget temporary(String longUrl) {
+        return new RedirectTarget(longUrl, RedirectPolicy.FOUND);
+    }
+
+    /**
+     * 永久重定向响应允许被缓存的时长
+     *
+     * 【说明】：
+     * 不超过链接的剩余有效期，否则浏览器和CDN会在链接过期后继续跳转；
+     * 按整秒向下取整，剩余不足1秒时返回0，调用方应改为no-store
+     *
+     * @param permanentMaxAge 配置的永久重定向缓存时长
+     * @param now 当前时间
+     * @return 可缓存时长，不会为负
+     */
+    public Duration cacheMaxAge(Duration permanentMaxAge, LocalDateTime now) {
+        if (expiresAt == null) {
+            return permanentMaxAge;
+        }
+        Duration remaining = Duration.ofSeconds(Math.max(0, Duration.between(now, expiresAt).getSeconds()));
+        return remaining.compareTo(permanentMaxAge) < 0 ? remaining : permanentMaxAge;
+    }
+
+    /**
+     * 响应的实体标签，用于条件请求（If-None-Match）
+     *
+     * 【说明】：
+     * 只由长链接和策略决定；访问计数等字段变化不影响重定向响应本身
+     *
+     * @return 带引号的强ETag
+     */
+    public String etag() {
+        CRC32 crc = new CRC32();
+        crc.update(policy.name().getBytes(StandardCharsets.US_ASCII));
+        crc.update(longUrl.getBytes(StandardCharsets.UTF_8));
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(longUrl.length()) + "\"";
+    }
+
+    /**
+     * 判断条件请求头If-None-Match是否命中（弱比较，支持多个标签和*）
+     *
+     * @param ifNoneMatch 请求头的值，可以为null
+     * @return 命中返回true，此时可以响应304
+     */
+    public boolean matchesIfNoneMatch(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String etag = etag();
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
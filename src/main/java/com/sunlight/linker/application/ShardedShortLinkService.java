@@ -0,0 +1,312 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import com.sunlight.linker.infrastructure.shard.ShardedShortLinkRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 分片存储的短链接业务服务
+ *
+ * 【进阶挑战 - 水平分片】
+ *
+ * 开启 app.sharding 后替代 ShortLinkService 注入到控制器，
+ * 短链接的读写全部经过 ShardedShortLinkRepository：
+ * <pre>
+ *   创建系统短链接   ring(longUrl) 分片上取序列号，ID内嵌分片号，一条INSERT完成
+ *   创建自定义别名   ring(alias) 分片上INSERT，分片内唯一即全局唯一
+ *   解析重定向       短码解码出分片号直达；别名按哈希定位
+ *   统计/热点/区间   scatter-gather
+ * </pre>
+ * 校验规则（URL、别名、过期时间）与 ShortLinkService 相同
+ *
+ * 【与单库版本的差异】：
+ * - 每个方法只使用分片的本地事务，不参与spring.datasource上的JPA事务；
+ *   Spring解析事务属性时先找方法（包括被覆盖的父类方法）上的注解，类上的注解不会生效，
+ *   所以每个覆盖方法都单独标注 NOT_SUPPORTED
+ * - 访问计数直接在所在分片上UPDATE；点击流水线、近端缓存、短码池、别名索引、
+ *   快照导出、读写分离和分区表只面向单库，与分片同时开启时 ShardingConfig 拒绝启动
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardedShortLinkService extends ShortLinkService {
+
+    private final ShardedShortLinkRepository shards;
+
+    public ShardedShortLinkService(ShortLinkRepository shortLinkRepository, ShardedShortLinkRepository shards) {
+        super(shortLinkRepository);
+        this.shards = shards;
+    }
+
+    /**
+     * Spring使用的构造方法
+     *
+     * 【说明】：
+     * 可选组件原样交给父类，保留词、长链接规范化等配置与单库版本一致；
+     * 只面向单库的组件（点击流水线、近端缓存、短码池、别名索引等）与分片同时开启时
+     * ShardingConfig 拒绝启动，这里拿到的都是空
+     */
+    @Autowired
+    public ShardedShortLinkService(ShortLinkRepository shortLinkRepository, ShardedShortLinkRepository shards,
+                                   ObjectProvider<ClickEventPublisher> clickEventPublisher,
+                                   ObjectProvider<RedirectMetrics> redirectMetrics,
+                                   ObjectProvider<ShortCodeCodec> shortCodeCodec,
+                                   ObjectProvider<NearLinkCache> nearLinkCache,
+                                   ObjectProvider<ShortLinkPartitions> partitions,
+                                   ObjectProvider<ReplicaRouting> replicaRouting,
+                                   ObjectProvider<IdGenerator> idGenerator,
+                                   ObjectProvider<ShortCodePool> codePool,
+                                   ObjectProvider<AliasIndex> aliasIndex,
+                                   ObjectProvider<ReservedWords> reservedWords,
+                                   ObjectProvider<UrlCanonicalizer> urlCanonicalizer,
+                                   ObjectProvider<StringRedisTemplate> redisTemplate) {
+        super(shortLinkRepository, clickEventPublisher, redirectMetrics, shortCodeCodec, nearLinkCache, partitions,
+                replicaRouting, idGenerator, codePool, aliasIndex, reservedWords, urlCanonicalizer, redisTemplate);
+        this.shards = shards;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShortLink createShortLink(String longUrl) {
+        return createShortLink(longUrl, null);
+    }
+
+    /**
+     * 创建带过期时间的系统短链接，去重只查 ring(longUrl) 一个分片（开启规范化时按规范形式路由）
+     *
+     * @param longUrl 原始长链接
+     * @param expiresAt 过期时间，null表示永不过期
+     * @return 创建或已存在的短链接对象
+     * @throws IllegalArgumentException 当长链接无效或过期时间不晚于当前时间时抛出
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShortLink createShortLink(String longUrl, LocalDateTime expiresAt) {
+        validateLongUrl(longUrl);
+        validateExpiresAt(expiresAt);
+        String targetUrl = canonicalize(longUrl);
+
+        ShortLinkCreatedEvent event = new ShortLinkCreatedEvent();
+        event.begin();
+        Optional<ShortLink> existingLink = shards.findByLongUrl(targetUrl);
+        if (existingLink.isPresent()) {
+            if (!existingLink.get().isExpiredAt(LocalDateTime.now())) {
+                event.complete(existingLink.get(), true);
+                return existingLink.get();
+            }
+            shards.delete(existingLink.get());
+        }
+
+        ShortLink shortLink = new ShortLink(targetUrl, null);
+        shortLink.setExpiresAt(expiresAt);
+        ShortLink created = shards.insert(shortLink);
+        event.complete(created, false);
+        return created;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShortLink createCustomShortLink(String longUrl, String customAlias, String description) {
+        return createCustomShortLink(longUrl, customAlias, description, null);
+    }
+
+    /**
+     * 创建带过期时间的自定义别名短链接
+     *
+     * @param longUrl 原始长链接
+     * @param customAlias 用户自定义的别名
+     * @param description 可选的描述信息
+     * @param expiresAt 过期时间，null表示永不过期
+     * @return 创建的短链接对象
+     * @throws IllegalArgumentException 当参数无效、别名冲突或过期时间不晚于当前时间时抛出
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShortLink createCustomShortLink(String longUrl, String customAlias, String description,
+                                           LocalDateTime expiresAt) {
+        validateLongUrl(longUrl);
+        validateCustomAlias(customAlias);
+        validateExpiresAt(expiresAt);
+
+        // 同时检查系统短码所在分片，避免别名遮住已有的系统短码
+        if (shards.existsByShortCode(customAlias)) {
+            throw new IllegalArgumentException("自定义别名已被占用: " + customAlias);
+        }
+
+        String targetUrl = canonicalize(longUrl);
+
+        ShortLinkCreatedEvent event = new ShortLinkCreatedEvent();
+        event.begin();
+        ShortLink shortLink = new ShortLink(targetUrl, customAlias, description);
+        shortLink.setExpiresAt(expiresAt);
+        try {
+            ShortLink created = shards.insert(shortLink);
+            event.complete(created, false);
+            return created;
+        } catch (DuplicateKeyException e) {
+            // 并发创建同名别名：两次INSERT落在同一分片，由唯一索引裁决
+            throw new IllegalArgumentException("自定义别名已被占用: " + customAlias, e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<String> getLongUrl(String shortCode) {
+        return resolveRedirect(shortCode).map(RedirectTarget::longUrl);
+    }
+
+    /**
+     * 解析重定向目标并在所在分片上记录一次访问
+     *
+     * @param shortCode 短码字符串
+     * @return 重定向目标，短码不存在或已过期时为empty
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<RedirectTarget> resolveRedirect(String shortCode) {
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        String code = shortCode.trim();
+
+        ShortLinkResolvedEvent event = new ShortLinkResolvedEvent();
+        event.begin();
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ShortLink> shortLink = shards.findByShortCode(code).filter(link -> !link.isExpiredAt(now));
+        shortLink.ifPresent(link -> shards.incrementAccessCount(link, 1));
+        event.complete(shortCode, TIER_DATABASE, shortLink.isPresent());
+        return shortLink.map(link -> new RedirectTarget(link.getLongUrl(), link.getRedirectPolicy(), link.getExpiresAt()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ShortLink> updateRedirectPolicy(String shortCode, RedirectPolicy redirectPolicy) {
+        if (redirectPolicy == null) {
+            throw new IllegalArgumentException("重定向策略不能为空");
+        }
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return shards.findByShortCode(shortCode.trim())
+                .map(link -> shards.updateRedirectPolicy(link, redirectPolicy));
+    }
+
+    /**
+     * 分片模式不使用近端缓存，没有"已过期"标记
+     *
+     * @param shortCode 短码字符串
+     * @return 总是false
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean isExpired(String shortCode) {
+        return false;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ShortLink> getShortLinkInfo(String shortCode) {
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return shards.findByShortCode(shortCode.trim());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ShortLink> getHotLinks(Long minAccessCount) {
+        if (minAccessCount == null || minAccessCount < 0) {
+            minAccessCount = 1000L;
+        }
+        return shards.findHotLinks(minAccessCount);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SystemStats getSystemStats() {
+        ShardedShortLinkRepository.ShardStats stats = shards.stats();
+        return new SystemStats(stats.totalLinks(), stats.totalAccess(), stats.customAliases());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ShortLink> getLinksCreatedBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("开始时间和结束时间不能为null");
+        }
+        if (startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("开始时间不能晚于结束时间");
+        }
+        return shards.findByCreatedAtBetween(startTime, endTime);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean isShortCodeAvailable(String shortCode) {
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return false;
+        }
+        if (!Base62Converter.isValidBase62(shortCode.trim())) {
+            return false;
+        }
+        return !shards.existsByShortCode(shortCode.trim());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Set<String> findUnavailable(Collection<String> shortCodes) {
+        Set<String> unavailable = new HashSet<>();
+        Map<String, String> toQuery = new LinkedHashMap<>();
+        for (String shortCode : shortCodes) {
+            String code = shortCode == null ? "" : shortCode.trim();
+            if (code.isEmpty() || !Base62Converter.isValidBase62(code)) {
+                unavailable.add(shortCode);
+            } else {
+                toQuery.put(shortCode, code);
+            }
+        }
+        Set<String> taken = shards.findExistingShortCodes(toQuery.values());
+        toQuery.forEach((shortCode, code) -> {
+            if (taken.contains(code)) {
+                unavailable.add(shortCode);
+            }
+        });
+        return unavailable;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggestAliases(String customAlias, int count) {
+        return super.suggestAliases(customAlias, count);
+    }
+}
@@ -0,0 +1,360 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.config.CodePoolProperties;
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.infrastructure.CodeReservations;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预生成的随机短码池
+ *
+ * 【进阶挑战 - 预生成短码】
+ *
+ * 开启后系统短码改为随机Base62串，创建时直接从内存池取出，不再生成、不再检查冲突：
+ * <pre>
+ *   take()       无锁队列出队 O(1)；低于 low-water-mark 时唤醒补充线程
+ *   补充线程     接管遗留预留 ──▶ 随机生成一批 ──▶ 批量INSERT预留表 ──▶ 剔除已在short_links中的 ──▶ 入队
+ *                同时批量删除已被取走的短码的预留行、定期刷新本节点预留行的心跳
+ *   stop()       删除池中剩余短码的预留行，短码立即可被其他节点使用
+ * </pre>
+ *
+ * 【唯一性】：
+ * 节点之间靠预留表主键互斥，与已有短链接靠入队前的 short_links 查询排除；
+ * 自定义别名创建时同时检查预留表（见 ShortLinkService），不会占用池中的短码
+ *
+ * 【崩溃回收】：
+ * 节点崩溃后其预留行不再有心跳，reserved_at 超过 reclaim-after 后由其他节点在补充时接管，
+ * 其中已写入short_links的（取出后崩溃前已创建成功）直接删除，其余重新入池
+ *
+ * 【池为空】：
+ * 补充跟不上时 take() 在调用线程上同步生成并预留一个短码，计入 misses 指标
+ *
+ * 【指标】：
+ * <pre>
+ *   linker.code-pool.depth       池中可用短码数
+ *   linker.code-pool.refill      每批补充的耗时（生成+预留+检查）
+ *   linker.code-pool.misses      池为空时同步生成的次数
+ *   linker.code-pool.reclaimed   从崩溃节点接管并重新入池的短码数
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.code-pool", name = "enabled", havingValue = "true")
+public class ShortCodePool implements SmartLifecycle, MeterBinder {
+
+    public static final String DEPTH = "linker.code-pool.depth";
+    public static final String REFILL = "linker.code-pool.refill";
+    public static final String MISSES = "linker.code-pool.misses";
+    public static final String RECLAIMED = "linker.code-pool.reclaimed";
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortCodePool.class);
+
+    private static final String CHARSET = Base62Converter.getCharset();
+
+    private final CodeReservations reservations;
+    private final CodePoolProperties properties;
+    private final Clock clock;
+    private final String owner;
+    private final SecureRandom random = new SecureRandom();
+
+    private final ConcurrentLinkedQueue<String> available = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> taken = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder refillNanos = new LongAdder();
+
+    private volatile Thread producer;
+    private long lastHeartbeatMillis;
+    private List<String> consumed = List.of();
+
+    @Autowired
+    public ShortCodePool(CodeReservations reservations, CodePoolProperties properties) {
+        this(reservations, properties, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param reservations 预留表
+     * @param properties 配置
+     * @param clock 时钟（测试时可替换）
+     */
+    public ShortCodePool(CodeReservations reservations, CodePoolProperties properties, Clock clock) {
+        if (properties.getCodeLength() <= 0 || properties.getCodeLength() > 20) {
+            throw new IllegalArgumentException("code-length 必须在1到20之间");
+        }
+        if (properties.getLowWaterMark() >= properties.getCapacity() || properties.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("low-water-mark 必须小于 capacity，batch-size 必须为正数");
+        }
+        if (properties.getReclaimAfter().compareTo(properties.getHeartbeatInterval().multipliedBy(2)) <= 0) {
+            throw new IllegalArgumentException("reclaim-after 必须大于 heartbeat-interval 的两倍");
+        }
+        this.reservations = reservations;
+        this.properties = properties;
+        this.clock = clock;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * 取出一个已预留且未被使用的短码
+     *
+     * @return 短码
+     */
+    public String take() {
+        String code = available.poll();
+        if (code == null) {
+            misses.increment();
+            code = reserveOne();
+        } else if (depth.decrementAndGet() < properties.getLowWaterMark()) {
+            Thread thread = producer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        taken.add(code);
+        return code;
+    }
+
+    /**
+     * @param code 短码
+     * @return 短码在预留表中（池中待用或被其他节点预留）时返回true
+     */
+    public boolean isReserved(String code) {
+        return reservations.isReserved(code);
+    }
+
+    /**
+     * @param codes 待检查的短码
+     * @return 其中已被某个节点预留的短码
+     */
+    public Set<String> findReserved(Collection<String> codes) {
+        return reservations.findReserved(codes);
+    }
+
+    /**
+     * 执行一轮补充：按心跳周期清理已取走短码的预留行并刷新心跳，再补满到 capacity；由补充线程调用
+     *
+     * @return 本轮入池的短码数
+     */
+    public int refill() {
+        long nowMillis = clock.millis();
+        if (nowMillis - lastHeartbeatMillis >= properties.getHeartbeatInterval().toMillis()) {
+            // 取走的短码晚一个心跳周期再删除预留行，此时创建它的事务早已提交，short_links中可见
+            reservations.release(consumed);
+            consumed = drain(taken);
+            reservations.heartbeat(owner, LocalDateTime.now(clock));
+            lastHeartbeatMillis = nowMillis;
+        }
+
+        int added = 0;
+        int missing;
+        while ((missing = properties.getCapacity() - depth.get()) > 0) {
+            long start = System.nanoTime();
+            int batch = fillBatch(Math.min(missing, properties.getBatchSize()));
+            refillNanos.add(System.nanoTime() - start);
+            refills.increment();
+            added += batch;
+            if (batch == 0) {
+                break;
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public void start() {
+        if (properties.isInitializeSchema()) {
+            reservations.initializeSchema();
+        }
+        Thread thread = new Thread(this::runProducer, "short-code-pool");
+        thread.setDaemon(true);
+        producer = thread;
+        thread.start();
+        logger.info("短码池已启动: codeLength={}, capacity={}, owner={}",
+                properties.getCodeLength(), properties.getCapacity(), owner);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = producer;
+        producer = null;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<String> unused = drain(available);
+        depth.addAndGet(-unused.size());
+        unused.addAll(consumed);
+        unused.addAll(drain(taken));
+        consumed = List.of();
+        reservations.release(unused);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return producer != null;
+    }
+
+    /**
+     * 在Web服务器（默认相位）之前启动、之后停止，停止时已没有进行中的创建请求
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(DEPTH, depth, AtomicInteger::get)
+                .description("短码池中可用的短码数")
+                .register(registry);
+        FunctionTimer.builder(REFILL, this, ShortCodePool::getRefills, ShortCodePool::getRefillNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("每批补充短码的耗时")
+                .register(registry);
+        FunctionCounter.builder(MISSES, misses, LongAdder::sum)
+                .description("池为空时同步生成短码的次数")
+                .register(registry);
+        FunctionCounter.builder(RECLAIMED, reclaimed, LongAdder::sum)
+                .description("从崩溃节点接管并重新入池的短码数")
+                .register(registry);
+    }
+
+    public int getCodeLength() {
+        return properties.getCodeLength();
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getReclaimed() {
+        return reclaimed.sum();
+    }
+
+    public long getRefills() {
+        return refills.sum();
+    }
+
+    public double getRefillNanos() {
+        return refillNanos.sum();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int fillBatch(int size) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<String> adopted = reservations.adoptOrphans(owner, now,
+                now.minus(properties.getReclaimAfter()), size);
+
+        Set<String> fresh = new LinkedHashSet<>();
+        while (fresh.size() < size - adopted.size()) {
+            fresh.add(randomCode());
+        }
+        List<String> candidates = new ArrayList<>(adopted);
+        candidates.addAll(reservations.reserve(fresh, owner, now));
+
+        // 预留之后再查short_links：查询之后写入的系统短码必然来自某个池，已被预留表排除
+        Set<String> used = reservations.findUsed(candidates);
+        reservations.release(used);
+        int added = 0;
+        for (String code : candidates) {
+            if (!used.contains(code)) {
+                available.add(code);
+                added++;
+            }
+        }
+        depth.addAndGet(added);
+        for (String code : adopted) {
+            if (!used.contains(code)) {
+                reclaimed.increment();
+            }
+        }
+        return added;
+    }
+
+    private String reserveOne() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        while (true) {
+            String code = randomCode();
+            if (reservations.reserve(List.of(code), owner, now).isEmpty()) {
+                continue;
+            }
+            if (reservations.findUsed(List.of(code)).isEmpty()) {
+                return code;
+            }
+            reservations.release(List.of(code));
+        }
+    }
+
+    private String randomCode() {
+        char[] chars = new char[properties.getCodeLength()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = CHARSET.charAt(random.nextInt(CHARSET.length()));
+        }
+        return new String(chars);
+    }
+
+    private static List<String> drain(ConcurrentLinkedQueue<String> queue) {
+        List<String> codes = new ArrayList<>();
+        String code;
+        while ((code = queue.poll()) != null) {
+            codes.add(code);
+        }
+        return codes;
+    }
+
+    private void runProducer() {
+        long parkNanos = properties.getHeartbeatInterval().toNanos();
+        while (producer == Thread.currentThread()) {
+            try {
+                refill();
+            } catch (RuntimeException e) {
+                logger.warn("短码池补充失败: {}", e.getMessage());
+            }
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+}
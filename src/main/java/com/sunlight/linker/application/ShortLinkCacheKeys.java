@@ -0,0 +1,80 @@
+package com.sunlight.linker.application;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短链接Redis缓存键布局
+ *
+ * 【设计说明】：
+ * 同一个Redis会被Servlet服务（CachedShortLinkService）和响应式边缘节点同时读写，
+ * 键前缀、值格式和过期时间必须一致，因此集中定义在这里
+ *
+ * 【键布局】：
+ * <pre>
+ *   shortlink:{shortCode}     → ShortLink（GenericJackson2JsonRedisSerializer，带@class类型信息）
+ *   access_count:{shortCode}  → 访问计数（INCR，1小时过期，由AccessCountDrainer写回数据库）
+ *   stats:system              → 系统统计
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class ShortLinkCacheKeys {
+
+    public static final String SHORT_LINK_PREFIX = "shortlink:";
+    public static final String ACCESS_COUNT_PREFIX = "access_count:";
+    public static final String SYSTEM_STATS = "stats:system";
+
+    /**
+     * 短链接缓存的过期时间范围（分钟），随机取值防止缓存雪崩
+     */
+    public static final long SHORT_LINK_TTL_MIN_MINUTES = 25;
+    public static final long SHORT_LINK_TTL_MAX_MINUTES = 35;
+
+    /**
+     * 访问计数键的过期时间（小时）
+     */
+    public static final long ACCESS_COUNT_TTL_HOURS = 1;
+
+    private ShortLinkCacheKeys() {
+    }
+
+    public static String shortLink(String shortCode) {
+        return SHORT_LINK_PREFIX + shortCode;
+    }
+
+    public static String accessCount(String shortCode) {
+        return ACCESS_COUNT_PREFIX + shortCode;
+    }
+
+    /**
+     * 随机生成短链接缓存的过期分钟数
+     *
+     * @return [25, 35) 之间的分钟数
+     */
+    public static long randomShortLinkTtlMinutes() {
+        return ThreadLocalRandom.current().nextLong(SHORT_LINK_TTL_MIN_MINUTES, SHORT_LINK_TTL_MAX_MINUTES);
+    }
+
+    /**
+     * 计算短链接缓存的过期毫秒数：随机TTL与链接剩余有效期取较小值
+     *
+     * 【说明】：
+     * 缓存键与链接同时到期，过期链接不会在缓存中多停留；
+     * 命中缓存时仍然要检查expiresAt，防止时钟偏差或旧版本写入的缓存
+     *
+     * @param expiresAt 链接过期时间，null表示永不过期
+     * @param now 当前时间
+     * @return 过期毫秒数，链接已过期时为0
+     */
+    public static long shortLinkTtlMillis(LocalDateTime expiresAt, LocalDateTime now) {
+        long ttlMillis = TimeUnit.MINUTES.toMillis(randomShortLinkTtlMinutes());
+        if (expiresAt == null) {
+            return ttlMillis;
+        }
+        return Math.max(0, Math.min(ttlMillis, Duration.between(now, expiresAt).toMillis()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.sunlight.linker.application;
+
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * 按短码查找短链接：系统短码走主键，自定义别名走短码索引
+ *
+ * 【进阶挑战 - 主键查找】
+ *
+ * 系统短码满足 shortCode == codec.encode(id)，可以直接解码出主键：
+ * <pre>
+ *   短码 ──tryDecode──▶ id ──findById──▶ 记录.shortCode == 短码？ ──是──▶ 返回
+ *     │                                        │否/未找到
+ *     └──不在编码空间─────────────────────────┴──▶ findByShortCode（idx_short_code）
+ * </pre>
+ * 主键查找只需走一次主键B树（PostgreSQL为主键索引 + 堆表，InnoDB为聚簇索引），
+ * 不再经过varchar二级索引
+ *
+ * 【为什么要核对短码】：
+ * 自定义别名同样由Base62字符组成，可能恰好落在编码空间内并解码出另一条记录的ID，
+ * 核对不一致时回退到短码索引，结果与只用短码索引完全一致；
+ * 代价是这类别名多一次主键查找
+ *
+ * 【分区表】：
+ * short_links按created_at月分区时（app.partitioning.enabled=true），短码索引只在分区内唯一，
+ * 回退查找先从 short_link_aliases 取出别名的创建时间，再带上created_at查询，只访问一个分区；
+ * 别名登记中不存在的短码直接返回empty，不再逐个分区探测。
+ * 主键是 (id, created_at)，findById仍要探测每个分区的主键索引，分区数有限时代价可接受
+ *
+ * 【应用侧ID】：
+ * 开启Snowflake ID（app.id-generator.enabled=true）后系统短码由生成器的ID编码，
+ * 与行的自增主键无关，所有短码都直接走短码索引；别名登记里没有系统短码，此时也不使用
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ShortLinkLookup {
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final ShortCodeCodec shortCodeCodec;
+
+    /**
+     * 分区表的别名登记，未启用分区时为null
+     */
+    private final ShortLinkPartitions partitions;
+
+    /**
+     * 系统短码是否由行主键编码而来
+     */
+    private final boolean codesEncodeRowIds;
+
+    public ShortLinkLookup(ShortLinkRepository shortLinkRepository, ShortCodeCodec shortCodeCodec) {
+        this(shortLinkRepository, shortCodeCodec, null);
+    }
+
+    public ShortLinkLookup(ShortLinkRepository shortLinkRepository, ShortCodeCodec shortCodeCodec,
+                           ShortLinkPartitions partitions) {
+        this(shortLinkRepository, shortCodeCodec, partitions, true);
+    }
+
+    /**
+     * @param shortLinkRepository 短链接仓储
+     * @param shortCodeCodec 系统短码编解码器
+     * @param partitions 分区表的别名登记，未启用分区时为null
+     * @param codesEncodeRowIds 系统短码是否由行主键编码；false时只按短码索引查找
+     */
+    public ShortLinkLookup(ShortLinkRepository shortLinkRepository, ShortCodeCodec shortCodeCodec,
+                           ShortLinkPartitions partitions, boolean codesEncodeRowIds) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.shortCodeCodec = shortCodeCodec;
+        this.partitions = partitions;
+        this.codesEncodeRowIds = codesEncodeRowIds;
+    }
+
+    /**
+     * 按短码查找短链接
+     *
+     * @param shortCode 已去除首尾空白的短码
+     * @return 包含ShortLink的Optional，不存在时为empty
+     */
+    public Optional<ShortLink> find(String shortCode) {
+        if (!codesEncodeRowIds) {
+            return shortLinkRepository.findByShortCode(shortCode);
+        }
+        OptionalLong id = shortCodeCodec.tryDecode(shortCode);
+        if (id.isPresent()) {
+            Optional<ShortLink> byId = shortLinkRepository.findById(id.getAsLong());
+            if (byId.isPresent() && shortCode.equals(byId.get().getShortCode())) {
+                return byId;
+            }
+        }
+        if (partitions != null) {
+            return partitions.findAliasCreatedAt(shortCode)
+                    .flatMap(createdAt -> shortLinkRepository.findByShortCodeAndCreatedAt(shortCode, createdAt));
+        }
+        return shortLinkRepository.findByShortCode(shortCode);
+    }
+}
@@ -1,17 +1,46 @@
 package com.sunlight.linker.application;
 
+import com.sunlight.linker.application.click.ClickEventPublisher;
 import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.core.UrlValidator;
+import com.sunlight.linker.domain.RedirectPolicy;
 import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
 import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.net.URL;
-import java.net.MalformedURLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 /**
  * 短链接业务服务类
@@ -39,6 +68,10 @@ import java.util.Optional;
  * - 自定义别名的冲突处理
  * - 访问统计和业务规则验证
  * 
+ * 【JFR事件】：
+ * 解析与创建短链接时发出 ShortLinkResolvedEvent / ShortLinkCreatedEvent，
+ * 未开启飞行记录或事件被禁用时，shouldCommit()为false，只剩begin/end两次时间读取
+ * 
  * @author 测试实践学习项目
  * @version 1.0
  */
@@ -46,8 +79,107 @@ import java.util.Optional;
 @Transactional
 public class ShortLinkService {
     
+    private static final Logger logger = LoggerFactory.getLogger(ShortLinkService.class);
+    
+    /**
+     * JFR事件分类，与GC、分配等JDK事件放在同一个记录中查看
+     */
+    public static final String JFR_CATEGORY = "Quality Gate Linker";
+    
+    /**
+     * 短链接解析事件中的命中层
+     */
+    public static final String TIER_REDIS = "redis";
+    public static final String TIER_DATABASE = "database";
+    public static final String TIER_NEAR_CACHE = "near-cache";
+    
+    /**
+     * 自定义别名的最大长度，与 short_code 列宽一致
+     */
+    static final int MAX_ALIAS_LENGTH = 20;
+    
+    /**
+     * 单次别名建议的数量上限
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    /**
+     * 别名建议的候选数为建议数的倍数，所有候选一次批量检查
+     */
+    private static final int CANDIDATES_PER_SUGGESTION = 3;
+    
+    /**
+     * 别名建议时从索引中列出的同前缀别名数上限
+     */
+    private static final int MAX_PREFIX_SCAN = 1_000;
+    
     private final ShortLinkRepository shortLinkRepository;
     
+    /**
+     * 点击事件发布器（可选）
+     * 
+     * 【设计说明】：
+     * 启用点击事件流水线时，访问计数交给后台批量处理；
+     * 未启用时为null，保持同步计数行为
+     */
+    private final ClickEventPublisher clickEventPublisher;
+    
+    /**
+     * 重定向路径分层耗时指标
+     */
+    private final RedirectMetrics redirectMetrics;
+    
+    /**
+     * 系统短码编解码器，未开启混淆时为顺序Base62编码
+     */
+    private final ShortCodeCodec shortCodeCodec;
+    
+    /**
+     * 系统短码走主键、自定义别名走短码索引的查找器
+     */
+    private final ShortLinkLookup shortLinkLookup;
+    
+    /**
+     * 进程内近端缓存（可选），未启用时为null
+     */
+    private final NearLinkCache nearLinkCache;
+    
+    /**
+     * 读写分离的路由决策（可选），未启用时为null
+     */
+    private final ReplicaRouting replicaRouting;
+    
+    /**
+     * 应用侧ID生成器（可选），未启用时为null，系统短码由数据库自增ID编码
+     */
+    private final IdGenerator idGenerator;
+    
+    /**
+     * 预生成的随机短码池（可选），启用时系统短码从池中取出
+     */
+    private final ShortCodePool codePool;
+    
+    /**
+     * 自定义别名的内存索引（可选），启用时可用性检查大多不访问数据库
+     */
+    private final AliasIndex aliasIndex;
+    
+    /**
+     * 系统保留词，未配置 app.short-link.reserved-words 时使用默认列表
+     */
+    private final ReservedWords reservedWords;
+    
+    /**
+     * 长链接规范化（可选），启用时系统短链接按规范形式去重和保存
+     */
+    private final UrlCanonicalizer urlCanonicalizer;
+    
+    /**
+     * 共享Redis（可选），修改短链接后删除 ShortLinkCacheKeys.shortLink 键，
+     * 边缘节点和 CachedShortLinkService 下次未命中时按新值回填
+     */
+    private final StringRedisTemplate redisTemplate;
+    
     /**
      * 构造方法依赖注入
      * 
@@ -55,9 +187,71 @@ public class ShortLinkService {
      * 使用构造方法注入而不是字段注入，便于单元测试时手动创建实例
      * final关键字确保依赖不可变，提高代码安全性
      */
-    @Autowired
     public ShortLinkService(ShortLinkRepository shortLinkRepository) {
         this.shortLinkRepository = shortLinkRepository;
+        this.clickEventPublisher = null;
+        this.redirectMetrics = RedirectMetrics.noop();
+        this.shortCodeCodec = ShortCodeCodec.sequential();
+        this.shortLinkLookup = new ShortLinkLookup(shortLinkRepository, shortCodeCodec);
+        this.nearLinkCache = null;
+        this.replicaRouting = null;
+        this.idGenerator = null;
+        this.codePool = null;
+        this.aliasIndex = null;
+        this.reservedWords = ReservedWords.defaults();
+        this.urlCanonicalizer = null;
+        this.redisTemplate = null;
+    }
+    
+    /**
+     * Spring使用的构造方法
+     * 
+     * 【说明】：
+     * 可选组件都以ObjectProvider传入，不存在时按未启用处理；
+     * 单元测试用StaticListableBeanFactory只登记需要的组件，其余的getBeanProvider返回空
+     * 
+     * @param shortLinkRepository 短链接仓储
+     * @param clickEventPublisher 点击事件发布器，未启用流水线时不存在
+     * @param redirectMetrics 分层耗时指标，切片测试中不存在时不记录
+     * @param shortCodeCodec 系统短码编解码器，未开启混淆时使用顺序编码
+     * @param nearLinkCache 进程内近端缓存，未启用时不存在
+     * @param partitions 分区表的别名登记，未启用分区时不存在
+     * @param replicaRouting 读写分离的路由决策，未启用时不存在
+     * @param idGenerator 应用侧ID生成器，未启用时系统短码由数据库自增ID编码
+     * @param codePool 预生成的随机短码池，启用时优先于idGenerator
+     * @param aliasIndex 自定义别名的内存索引，未启用时可用性检查直接查询数据库
+     * @param reservedWords 系统保留词，不存在时使用默认列表
+     * @param urlCanonicalizer 长链接规范化，未启用时按原样去重
+     * @param redisTemplate 共享Redis，不存在时只失效近端缓存
+     */
+    @Autowired
+    public ShortLinkService(ShortLinkRepository shortLinkRepository,
+                            ObjectProvider<ClickEventPublisher> clickEventPublisher,
+                            ObjectProvider<RedirectMetrics> redirectMetrics,
+                            ObjectProvider<ShortCodeCodec> shortCodeCodec,
+                            ObjectProvider<NearLinkCache> nearLinkCache,
+                            ObjectProvider<ShortLinkPartitions> partitions,
+                            ObjectProvider<ReplicaRouting> replicaRouting,
+                            ObjectProvider<IdGenerator> idGenerator,
+                            ObjectProvider<ShortCodePool> codePool,
+                            ObjectProvider<AliasIndex> aliasIndex,
+                            ObjectProvider<ReservedWords> reservedWords,
+                            ObjectProvider<UrlCanonicalizer> urlCanonicalizer,
+                            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.clickEventPublisher = clickEventPublisher.getIfAvailable();
+        this.redirectMetrics = redirectMetrics.getIfAvailable(RedirectMetrics::noop);
+        this.shortCodeCodec = shortCodeCodec.getIfAvailable(ShortCodeCodec::sequential);
+        this.idGenerator = idGenerator.getIfAvailable();
+        this.codePool = codePool.getIfAvailable();
+        this.aliasIndex = aliasIndex.getIfAvailable();
+        this.reservedWords = reservedWords.getIfAvailable(ReservedWords::defaults);
+        this.urlCanonicalizer = urlCanonicalizer.getIfAvailable();
+        this.shortLinkLookup = new ShortLinkLookup(shortLinkRepository, this.shortCodeCodec,
+                partitions.getIfAvailable(), this.idGenerator == null && this.codePool == null);
+        this.nearLinkCache = nearLinkCache.getIfAvailable();
+        this.replicaRouting = replicaRouting.getIfAvailable();
+        this.redisTemplate = redisTemplate.getIfAvailable();
     }
     
     /**
@@ -68,8 +262,10 @@ public class ShortLinkService {
      * 2. 检查是否已存在相同的长链接
      * 3. 如果存在，直接返回已有的短链接
      * 4. 如果不存在，创建新的短链接记录
-     * 5. 基于数据库ID生成Base62短码
+     * 5. 基于数据库ID生成短码（顺序Base62，或开启混淆时先做置换）
      * 6. 更新短码字段并保存
+     * 开启应用侧ID生成器时，4-6合并为：生成ID并编码出短码，一次保存
+     * 开启预生成短码池时，4-6合并为：从池中取出随机短码，一次保存
      * 
      * 【测试要点】：
      * - 有效长链接的正常处理流程
@@ -84,25 +280,84 @@ public class ShortLinkService {
      * @throws RuntimeException 当系统出现异常时抛出
      */
     public ShortLink createShortLink(String longUrl) {
+        return createShortLink(longUrl, null);
+    }
+    
+    /**
+     * 创建带过期时间的短链接（系统自动生成短码）
+     * 
+     * 【去重规则】：
+     * 已存在且未过期的相同长链接直接返回，其过期时间保持不变；
+     * 已过期但尚未被清理的旧记录先删除，再创建新记录；
+     * 开启 app.url-canonical 时先规范化，按规范形式比较和保存
+     * 
+     * @param longUrl 原始长链接
+     * @param expiresAt 过期时间，null表示永不过期
+     * @return 创建或已存在的短链接对象
+     * @throws IllegalArgumentException 当长链接无效或过期时间不晚于当前时间时抛出
+     */
+    public ShortLink createShortLink(String longUrl, LocalDateTime expiresAt) {
         // 【参数验证】：确保输入的有效性
         validateLongUrl(longUrl);
+        validateExpiresAt(expiresAt);
+        
+        // 【规范化】：同一资源的不同写法按同一个长链接去重
+        String targetUrl = canonicalize(longUrl);
+        
+        ShortLinkCreatedEvent event = new ShortLinkCreatedEvent();
+        event.begin();
         
         // 【防重复逻辑】：检查是否已存在相同的长链接
-        Optional<ShortLink> existingLink = shortLinkRepository.findByLongUrl(longUrl);
+        Optional<ShortLink> existingLink = shortLinkRepository.findByLongUrl(targetUrl);
         if (existingLink.isPresent()) {
-            return existingLink.get();
+            if (!existingLink.get().isExpiredAt(LocalDateTime.now())) {
+                event.complete(existingLink.get(), true);
+                return existingLink.get();
+            }
+            // 过期记录不能复用，先删除以免同一长链接出现两行
+            shortLinkRepository.delete(existingLink.get());
+            shortLinkRepository.flush();
+        }
+        
+        if (codePool != null) {
+            // 【预生成短码】：池中短码已预留且确认未被使用，不需要生成或检查冲突
+            String shortCode = codePool.take();
+            ShortLink shortLink = new ShortLink(targetUrl, shortCode);
+            shortLink.setExpiresAt(expiresAt);
+            ShortLink created = shortLinkRepository.save(shortLink);
+            recordWrite(shortCode);
+            indexCreated(created);
+            event.complete(created, false);
+            return created;
+        }
+        
+        if (idGenerator != null) {
+            // 【应用侧ID】：先生成ID和短码，一条INSERT写入
+            String shortCode = shortCodeCodec.encode(idGenerator.nextId());
+            ShortLink shortLink = new ShortLink(targetUrl, shortCode);
+            shortLink.setExpiresAt(expiresAt);
+            ShortLink created = shortLinkRepository.save(shortLink);
+            recordWrite(shortCode);
+            indexCreated(created);
+            event.complete(created, false);
+            return created;
         }
         
         // 【创建新记录】：先保存获取数据库生成的ID
-        ShortLink shortLink = new ShortLink(longUrl, "temporary");
+        ShortLink shortLink = new ShortLink(targetUrl, "temporary");
+        shortLink.setExpiresAt(expiresAt);
         ShortLink savedLink = shortLinkRepository.save(shortLink);
         
-        // 【生成短码】：基于ID生成Base62短码
-        String shortCode = Base62Converter.encode(savedLink.getId());
+        // 【生成短码】：编解码器是双射，不需要检查短码是否已存在
+        String shortCode = shortCodeCodec.encode(savedLink.getId());
         savedLink.setShortCode(shortCode);
         
         // 【最终保存】：更新短码字段
-        return shortLinkRepository.save(savedLink);
+        ShortLink created = shortLinkRepository.save(savedLink);
+        recordWrite(shortCode);
+        indexCreated(created);
+        event.complete(created, false);
+        return created;
     }
     
     /**
@@ -127,25 +382,61 @@ public class ShortLinkService {
      * @throws IllegalArgumentException 当参数无效或别名冲突时抛出
      */
     public ShortLink createCustomShortLink(String longUrl, String customAlias, String description) {
+        return createCustomShortLink(longUrl, customAlias, description, null);
+    }
+    
+    /**
+     * 创建带过期时间的自定义别名短链接
+     * 
+     * 【注意】：
+     * 过期的别名在被清理任务删除之前仍然占用短码；
+     * 开启 app.url-canonical 时长链接同样先规范化再保存
+     * 
+     * @param longUrl 原始长链接
+     * @param customAlias 用户自定义的别名
+     * @param description 可选的描述信息
+     * @param expiresAt 过期时间，null表示永不过期
+     * @return 创建的短链接对象
+     * @throws IllegalArgumentException 当参数无效、别名冲突或过期时间不晚于当前时间时抛出
+     */
+    public ShortLink createCustomShortLink(String longUrl, String customAlias, String description,
+                                           LocalDateTime expiresAt) {
         // 【参数验证】
         validateLongUrl(longUrl);
         validateCustomAlias(customAlias);
+        validateExpiresAt(expiresAt);
         
-        // 【别名冲突检查】
-        if (shortLinkRepository.existsByShortCode(customAlias)) {
+        // 【别名冲突检查】：短码池中预留的随机短码同样视为已占用；别名索引命中时不必查询
+        if ((aliasIndex != null && aliasIndex.contains(customAlias))
+                || shortLinkRepository.existsByShortCode(customAlias)
+                || (codePool != null && codePool.isReserved(customAlias))) {
             throw new IllegalArgumentException("自定义别名已被占用: " + customAlias);
         }
         
+        // 【规范化】：与 createShortLink 相同，按规范形式比较和保存
+        String targetUrl = canonicalize(longUrl);
+        
         // 【重复长链接检查】：如果长链接已存在，需要考虑业务策略
-        Optional<ShortLink> existingLink = shortLinkRepository.findByLongUrl(longUrl);
+        Optional<ShortLink> existingLink = shortLinkRepository.findByLongUrl(targetUrl);
         if (existingLink.isPresent() && !existingLink.get().getIsCustomAlias()) {
             // 如果已存在系统生成的短链接，允许用户创建自定义别名
             // 这样可以满足用户的个性化需求
         }
         
         // 【创建自定义别名短链接】
-        ShortLink shortLink = new ShortLink(longUrl, customAlias, description);
-        return shortLinkRepository.save(shortLink);
+        ShortLinkCreatedEvent event = new ShortLinkCreatedEvent();
+        event.begin();
+        ShortLink shortLink = new ShortLink(targetUrl, customAlias, description);
+        shortLink.setExpiresAt(expiresAt);
+        ShortLink created = shortLinkRepository.save(shortLink);
+        if (nearLinkCache != null) {
+            // 别名可能属于一条刚被清理的过期链接，清掉本机残留的"已过期"标记
+            nearLinkCache.invalidate(customAlias);
+        }
+        recordWrite(customAlias);
+        indexCreated(created);
+        event.complete(created, false);
+        return created;
     }
     
     /**
@@ -153,7 +444,7 @@ public class ShortLinkService {
      * 
      * 【核心业务逻辑】：
      * 1. 根据短码查找短链接记录
-     * 2. 如果找到，增加访问计数
+     * 2. 如果找到，增加访问计数（启用流水线时仅发布点击事件，由后台批量计数）
      * 3. 返回对应的长链接
      * 
      * 【测试要点】：
@@ -167,30 +458,134 @@ public class ShortLinkService {
      */
     @Transactional
     public Optional<String> getLongUrl(String shortCode) {
+        return resolveRedirect(shortCode).map(RedirectTarget::longUrl);
+    }
+    
+    /**
+     * 解析重定向目标并记录一次访问
+     * 
+     * 【业务逻辑】：
+     * 与getLongUrl相同，额外返回短链接的重定向策略，
+     * 供重定向控制器决定状态码和缓存头；
+     * 已过期但尚未被清理的链接按不存在处理，不计数
+     * 
+     * 【近端缓存】：
+     * 启用时先查进程内缓存，命中后用一条UPDATE计数（或发布点击事件），不再读库；
+     * 数据库命中的链接写入缓存，已过期的链接记为"已过期"标记，供isExpired返回410
+     * 
+     * @param shortCode 短码字符串
+     * @return 重定向目标，短码不存在或已过期时为empty
+     */
+    @Transactional
+    public Optional<RedirectTarget> resolveRedirect(String shortCode) {
         if (shortCode == null || shortCode.trim().isEmpty()) {
             return Optional.empty();
         }
+        String code = shortCode.trim();
+        
+        ShortLinkResolvedEvent event = new ShortLinkResolvedEvent();
+        event.begin();
+        if (nearLinkCache != null) {
+            NearLinkCache.Entry cached = nearLinkCache.get(code);
+            if (cached != null) {
+                return resolveFromNearCache(code, cached, event);
+            }
+        }
         
-        Optional<ShortLink> shortLink = shortLinkRepository.findByShortCode(shortCode.trim());
+        long lookupStart = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ShortLink> found = shortLinkLookup.find(code);
+        if (nearLinkCache != null) {
+            found.ifPresent(link -> nearLinkCache.put(link, System.currentTimeMillis()));
+        }
+        Optional<ShortLink> shortLink = found.filter(link -> !link.isExpiredAt(now));
+        long counterStart = System.nanoTime();
+        redirectMetrics.record(RedirectMetrics.Tier.DATABASE, counterStart - lookupStart);
         
         if (shortLink.isPresent()) {
-            // 【访问统计】：增加访问次数
             ShortLink link = shortLink.get();
-            link.incrementAccessCount();
-            shortLinkRepository.save(link);
             
-            return Optional.of(link.getLongUrl());
+            if (clickEventPublisher != null) {
+                // 【异步统计】：只发布点击事件，不在请求线程上写库
+                clickEventPublisher.publish(link.getShortCode());
+            } else {
+                // 【访问统计】：增加访问次数（UPDATE在事务提交时执行，计入service层）
+                link.incrementAccessCount();
+                shortLinkRepository.save(link);
+            }
+            redirectMetrics.record(RedirectMetrics.Tier.COUNTER, System.nanoTime() - counterStart);
+            event.complete(shortCode, TIER_DATABASE, true);
+            
+            return Optional.of(new RedirectTarget(link.getLongUrl(), link.getRedirectPolicy(), link.getExpiresAt()));
         }
         
+        event.complete(shortCode, TIER_DATABASE, false);
         return Optional.empty();
     }
     
+    /**
+     * 修改短链接的重定向策略
+     * 
+     * 【注意】：
+     * 从302改为301/308后，已经缓存了旧响应的客户端不受影响；
+     * 反方向修改要等客户端缓存的max-age过期后才会生效
+     * 
+     * 【缓存失效】：
+     * 事务提交后删除Redis中的短链接键并失效近端缓存；提交前删除的话，
+     * 并发的解析可能在提交前读到旧策略并重新回填
+     * 
+     * @param shortCode 短码字符串
+     * @param redirectPolicy 新的重定向策略
+     * @return 修改后的短链接，短码不存在时为empty
+     * @throws IllegalArgumentException 当策略为空时抛出
+     */
+    public Optional<ShortLink> updateRedirectPolicy(String shortCode, RedirectPolicy redirectPolicy) {
+        if (redirectPolicy == null) {
+            throw new IllegalArgumentException("重定向策略不能为空");
+        }
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        
+        String code = shortCode.trim();
+        recordWrite(code);
+        Optional<ShortLink> updated = shortLinkLookup.find(code)
+                .map(link -> {
+                    link.setRedirectPolicy(redirectPolicy);
+                    return shortLinkRepository.save(link);
+                });
+        updated.ifPresent(link -> afterCommit(() -> evictCached(code)));
+        return updated;
+    }
+    
+    /**
+     * 判断短码是否为已过期的链接
+     * 
+     * 【说明】：
+     * 只根据近端缓存中的"已过期"标记判断：标记保留 gone-ttl，
+     * 期间重定向返回410，之后（链接多半已被清理）返回404；未启用近端缓存时总是false
+     * 
+     * @param shortCode 短码字符串
+     * @return 近端缓存记录该短码已过期时返回true
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean isExpired(String shortCode) {
+        if (nearLinkCache == null || shortCode == null) {
+            return false;
+        }
+        NearLinkCache.Entry cached = nearLinkCache.get(shortCode.trim());
+        return cached != null && cached.isGone();
+    }
+    
     /**
      * 获取短链接详细信息（不增加访问计数）
      * 
      * 【业务价值】：
      * 用于管理后台查看短链接信息，不影响访问统计
      * 
+     * 【读写分离】：
+     * 启用时从副本读取；短码刚创建或修改过时仍读主库，保证创建者立即能查到
+     * 
      * @param shortCode 短码字符串
      * @return 包含短链接对象的Optional
      */
@@ -200,7 +595,8 @@ public class ShortLinkService {
             return Optional.empty();
         }
         
-        return shortLinkRepository.findByShortCode(shortCode.trim());
+        pinPrimaryIfRecent(shortCode.trim());
+        return shortLinkLookup.find(shortCode.trim());
     }
     
     /**
@@ -267,10 +663,14 @@ public class ShortLinkService {
      * 【业务价值】：
      * 用于自定义别名的可用性检查
      * 
+     * 【别名内存索引】：
+     * 启用时先查索引，只有可能与系统短码重名时才查询数据库；
+     * 不开启事务（SUPPORTS），内存判断的路径不占用数据库连接
+     * 
      * @param shortCode 要检查的短码
      * @return 如果可用返回true，否则返回false
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isShortCodeAvailable(String shortCode) {
         if (shortCode == null || shortCode.trim().isEmpty()) {
             return false;
@@ -281,17 +681,221 @@ public class ShortLinkService {
             return false;
         }
         
+        if (aliasIndex != null) {
+            if (aliasIndex.contains(shortCode.trim())) {
+                return false;
+            }
+            if (!mayBeSystemCode(shortCode.trim())) {
+                return true;
+            }
+        }
+        
+        pinPrimaryIfRecent(shortCode.trim());
+        if (codePool != null && codePool.isReserved(shortCode.trim())) {
+            return false;
+        }
         return !shortLinkRepository.existsByShortCode(shortCode.trim());
     }
     
+    /**
+     * 批量检查短码是否可用
+     * 
+     * 【数据库访问】：
+     * 规则与 isShortCodeAvailable 相同，但需要查库的短码合并为一条 short_code IN (...) 查询
+     * （启用短码池时再加一条预留表的 IN 查询），查询次数与短码个数无关
+     * 
+     * @param shortCodes 要检查的短码
+     * @return 其中不可用的短码（原样返回，包括格式无效的）
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Set<String> findUnavailable(Collection<String> shortCodes) {
+        Set<String> unavailable = new HashSet<>();
+        Map<String, String> toQuery = new LinkedHashMap<>();
+        for (String shortCode : shortCodes) {
+            String code = shortCode == null ? "" : shortCode.trim();
+            if (code.isEmpty() || !Base62Converter.isValidBase62(code)) {
+                unavailable.add(shortCode);
+            } else if (aliasIndex != null && aliasIndex.contains(code)) {
+                unavailable.add(shortCode);
+            } else if (aliasIndex == null || mayBeSystemCode(code)) {
+                pinPrimaryIfRecent(code);
+                toQuery.put(shortCode, code);
+            }
+        }
+        if (!toQuery.isEmpty()) {
+            List<String> codes = List.copyOf(toQuery.values());
+            Set<String> taken = new HashSet<>(shortLinkRepository.findExistingShortCodes(codes));
+            if (codePool != null) {
+                taken.addAll(codePool.findReserved(codes));
+            }
+            toQuery.forEach((shortCode, code) -> {
+                if (taken.contains(code)) {
+                    unavailable.add(shortCode);
+                }
+            });
+        }
+        return unavailable;
+    }
+    
+    /**
+     * 为已被占用的别名推荐可用的变体
+     * 
+     * 【推荐规则】：
+     * 依次在别名后追加 1、2、3…，超过长度上限时截短别名为数字后缀让位；
+     * 跳过系统保留词，最多生成 count × 3 个候选，一次批量检查（见 findUnavailable）
+     * 
+     * 【别名内存索引】：
+     * 启用时先在前缀树中列出以该别名开头的已有别名（前缀子树遍历），
+     * 生成候选时直接跳过，已被占用的变体再多也不会挤掉可用的候选
+     * 
+     * @param customAlias 用户想要的别名
+     * @param count 推荐数量，超过 MAX_SUGGESTIONS 时按 MAX_SUGGESTIONS 处理
+     * @return 可用的别名，按与原别名的接近程度排序；别名格式无效时为空列表
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<String> suggestAliases(String customAlias, int count) {
+        if (customAlias == null || count <= 0) {
+            return List.of();
+        }
+        String base = customAlias.trim();
+        if (base.isEmpty() || !Base62Converter.isValidBase62(base)) {
+            return List.of();
+        }
+        int limit = Math.min(count, MAX_SUGGESTIONS);
+        
+        Set<String> indexed = aliasIndex == null
+                ? Set.of() : new HashSet<>(aliasIndex.findWithPrefix(base, MAX_PREFIX_SCAN));
+        List<String> candidates = new ArrayList<>(limit * CANDIDATES_PER_SUGGESTION);
+        int maxSuffix = indexed.size() + reservedWords.size() + limit * CANDIDATES_PER_SUGGESTION;
+        for (int suffix = 1; suffix <= maxSuffix && candidates.size() < limit * CANDIDATES_PER_SUGGESTION; suffix++) {
+            String digits = Integer.toString(suffix);
+            String stem = base.length() + digits.length() > MAX_ALIAS_LENGTH
+                    ? base.substring(0, MAX_ALIAS_LENGTH - digits.length()) : base;
+            String candidate = stem + digits;
+            if (!indexed.contains(candidate) && !isReservedWord(candidate)) {
+                candidates.add(candidate);
+            }
+        }
+        
+        Set<String> unavailable = findUnavailable(candidates);
+        return candidates.stream()
+                .filter(candidate -> !unavailable.contains(candidate))
+                .limit(limit)
+                .toList();
+    }
+    
     // ========== 私有辅助方法 ==========
     
+    /**
+     * 读写分离：记录写入的短码，窗口内按该短码的读取走主库
+     */
+    private void recordWrite(String shortCode) {
+        if (replicaRouting != null) {
+            replicaRouting.recordWrite(shortCode);
+        }
+    }
+    
+    /**
+     * 当前事务提交后执行；没有事务同步时（单元测试直接调用）立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    /**
+     * 删除共享Redis中的短链接键并失效近端缓存
+     * 
+     * 【说明】：
+     * 其他节点的近端缓存最多在 near-cache 的TTL内仍返回旧策略；
+     * Redis删除失败只记录日志，缓存键按TTL过期
+     */
+    private void evictCached(String shortCode) {
+        if (nearLinkCache != null) {
+            nearLinkCache.invalidate(shortCode);
+        }
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(ShortLinkCacheKeys.shortLink(shortCode));
+            } catch (DataAccessException e) {
+                logger.warn("删除短链接缓存失败，等待TTL过期: shortCode={}, error={}", shortCode, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 别名内存索引：登记新别名和新行主键
+     */
+    private void indexCreated(ShortLink created) {
+        if (aliasIndex == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(created.getIsCustomAlias())) {
+            aliasIndex.add(created.getShortCode());
+        }
+        if (created.getId() != null) {
+            aliasIndex.noteRowId(created.getId());
+        }
+    }
+    
+    /**
+     * 别名内存索引未收录系统短码：短码可能是已发出的系统短码时返回true，需要查询数据库确认
+     * 
+     * 【判断规则】：
+     * - 短码池：长度等于池中短码长度
+     * - 行主键编码：能解码，且解码结果不大于已知的最大行主键（开启ID生成器时不比较大小）
+     */
+    private boolean mayBeSystemCode(String code) {
+        if (codePool != null && code.length() == codePool.getCodeLength()) {
+            return true;
+        }
+        OptionalLong id = shortCodeCodec.tryDecode(code);
+        return id.isPresent() && (idGenerator != null || id.getAsLong() <= aliasIndex.getMaxRowId());
+    }
+    
+    /**
+     * 读写分离：短码刚写入过时把当前只读事务固定到主库（须在第一条查询之前调用）
+     */
+    private void pinPrimaryIfRecent(String shortCode) {
+        if (replicaRouting != null) {
+            replicaRouting.pinPrimaryIfRecent(shortCode);
+        }
+    }
+    
+    /**
+     * 近端缓存命中：已过期标记直接返回empty，否则只做计数
+     */
+    private Optional<RedirectTarget> resolveFromNearCache(String shortCode, NearLinkCache.Entry cached,
+                                                          ShortLinkResolvedEvent event) {
+        if (cached.isGone()) {
+            event.complete(shortCode, TIER_NEAR_CACHE, false);
+            return Optional.empty();
+        }
+        long counterStart = System.nanoTime();
+        if (clickEventPublisher != null) {
+            clickEventPublisher.publish(shortCode);
+        } else {
+            shortLinkRepository.incrementAccessCount(shortCode, 1);
+        }
+        redirectMetrics.record(RedirectMetrics.Tier.COUNTER, System.nanoTime() - counterStart);
+        event.complete(shortCode, TIER_NEAR_CACHE, true);
+        return Optional.of(cached.target());
+    }
+    
     /**
      * 验证长链接的有效性
      * 
      * 【验证规则】：
      * 1. 不能为null或空字符串
-     * 2. 必须是有效的URL格式
+     * 2. 必须是有效的URL格式（具体规则见 UrlValidator，单遍扫描，不创建URL对象）
      * 3. 协议必须是http或https
      * 4. 长度不能超过限制
      * 
@@ -303,29 +907,40 @@ public class ShortLinkService {
      * @param longUrl 要验证的长链接
      * @throws IllegalArgumentException 当URL无效时抛出
      */
-    private void validateLongUrl(String longUrl) {
-        if (longUrl == null || longUrl.trim().isEmpty()) {
-            throw new IllegalArgumentException("长链接不能为空");
-        }
-        
-        String trimmedUrl = longUrl.trim();
-        
-        // 长度验证
-        if (trimmedUrl.length() > 2048) {
-            throw new IllegalArgumentException("长链接长度不能超过2048字符");
-        }
-        
-        // URL格式验证
-        try {
-            URL url = new URL(trimmedUrl);
-            String protocol = url.getProtocol().toLowerCase();
-            
-            if (!"http".equals(protocol) && !"https".equals(protocol)) {
+    void validateLongUrl(String longUrl) {
+        switch (UrlValidator.check(longUrl)) {
+            case VALID:
+                return;
+            case EMPTY:
+                throw new IllegalArgumentException("长链接不能为空");
+            case TOO_LONG:
+                throw new IllegalArgumentException("长链接长度不能超过2048字符");
+            case UNSUPPORTED_SCHEME:
                 throw new IllegalArgumentException("仅支持HTTP和HTTPS协议的链接");
-            }
-            
-        } catch (MalformedURLException e) {
-            throw new IllegalArgumentException("无效的URL格式: " + trimmedUrl, e);
+            default:
+                throw new IllegalArgumentException("无效的URL格式: " + longUrl.trim());
+        }
+    }
+    
+    /**
+     * 长链接规范化，未启用 app.url-canonical 时原样返回
+     * 
+     * @param longUrl 已通过校验的长链接
+     * @return 用于去重和保存的长链接
+     */
+    String canonicalize(String longUrl) {
+        return urlCanonicalizer == null ? longUrl : urlCanonicalizer.canonicalize(longUrl);
+    }
+    
+    /**
+     * 验证过期时间
+     * 
+     * @param expiresAt 过期时间，null表示永不过期
+     * @throws IllegalArgumentException 当过期时间不晚于当前时间时抛出
+     */
+    void validateExpiresAt(LocalDateTime expiresAt) {
+        if (expiresAt != null && !expiresAt.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("过期时间必须晚于当前时间");
         }
     }
     
@@ -341,7 +956,7 @@ public class ShortLinkService {
      * @param customAlias 要验证的自定义别名
      * @throws IllegalArgumentException 当别名无效时抛出
      */
-    private void validateCustomAlias(String customAlias) {
+    void validateCustomAlias(String customAlias) {
         if (customAlias == null || customAlias.trim().isEmpty()) {
             throw new IllegalArgumentException("自定义别名不能为空");
         }
@@ -349,7 +964,7 @@ public class ShortLinkService {
         String trimmedAlias = customAlias.trim();
         
         // 长度验证
-        if (trimmedAlias.length() > 20) {
+        if (trimmedAlias.length() > MAX_ALIAS_LENGTH) {
             throw new IllegalArgumentException("自定义别名长度不能超过20字符");
         }
         
@@ -369,28 +984,87 @@ public class ShortLinkService {
      * 
      * 【业务考虑】：
      * 避免与系统API路径冲突，如 /api, /admin, /health 等
+     * 保留词列表可通过 app.short-link.reserved-words 配置，查找不区分大小写
      * 
      * @param alias 要检查的别名
      * @return 如果是保留词返回true
      */
     private boolean isReservedWord(String alias) {
-        String lowerAlias = alias.toLowerCase();
-        
-        // 系统保留词列表
-        String[] reservedWords = {
-            "api", "admin", "health", "metrics", "docs", "swagger", 
-            "actuator", "management", "error", "login", "logout",
-            "index", "home", "about", "help", "contact", "privacy",
-            "terms", "www", "ftp", "mail", "email"
-        };
-        
-        for (String reserved : reservedWords) {
-            if (reserved.equals(lowerAlias)) {
-                return true;
+        return reservedWords.contains(alias);
+    }
+    
+    /**
+     * JFR事件：一次短码解析
+     * 
+     * 【字段】：
+     * 短码、命中层（redis/database）、是否找到；持续时间由JFR记录
+     * 默认阈值1ms，只记录慢解析，排查时可以用 #threshold=0ms 记录全部
+     */
+    @Name("com.sunlight.linker.ShortLinkResolved")
+    @Label("Short Link Resolved")
+    @Category({JFR_CATEGORY, "Short Link"})
+    @Description("解析短码并返回长链接")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static class ShortLinkResolvedEvent extends Event {
+        
+        @Label("Short Code")
+        String shortCode;
+        
+        @Label("Tier")
+        @Description("命中的存储层：redis 或 database")
+        String tier;
+        
+        @Label("Found")
+        boolean found;
+        
+        /**
+         * 结束计时，满足阈值时填充字段并提交
+         */
+        void complete(String shortCode, String tier, boolean found) {
+            end();
+            if (shouldCommit()) {
+                this.shortCode = shortCode;
+                this.tier = tier;
+                this.found = found;
+                commit();
             }
         }
+    }
+    
+    /**
+     * JFR事件：创建短链接（含命中去重直接返回已有链接的情况）
+     */
+    @Name("com.sunlight.linker.ShortLinkCreated")
+    @Label("Short Link Created")
+    @Category({JFR_CATEGORY, "Short Link"})
+    @Description("创建短链接或返回已存在的短链接")
+    @StackTrace(false)
+    public static class ShortLinkCreatedEvent extends Event {
+        
+        @Label("Short Code")
+        String shortCode;
+        
+        @Label("Custom Alias")
+        boolean customAlias;
+        
+        @Label("Deduplicated")
+        @Description("长链接已存在，直接返回已有短链接")
+        boolean deduplicated;
         
-        return false;
+        @Label("Long URL Length")
+        int longUrlLength;
+        
+        void complete(ShortLink shortLink, boolean deduplicated) {
+            end();
+            if (shouldCommit()) {
+                this.shortCode = shortLink.getShortCode();
+                this.customAlias = Boolean.TRUE.equals(shortLink.getIsCustomAlias());
+                this.deduplicated = deduplicated;
+                this.longUrlLength = shortLink.getLongUrl() == null ? 0 : shortLink.getLongUrl().length();
+                commit();
+            }
+        }
     }
     
     /**
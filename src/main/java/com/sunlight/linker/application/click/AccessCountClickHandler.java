@@ -0,0 +1,197 @@
+package com.sunlight.linker.application.click;
+
+import com.sunlight.linker.application.CachedShortLinkService.CounterFlushEvent;
+import com.sunlight.linker.core.ring.EventHandler;
+import com.sunlight.linker.infrastructure.ClickJournal;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 访问计数处理器
+ *
+ * 【Write-Behind计数】：
+ * 在内存中按短码聚合点击次数，按时间间隔或聚合数量批量写回数据库
+ * 一个热点短码在一个刷新周期内无论被访问多少次，只产生一条UPDATE语句
+ *
+ * 【线程模型】：
+ * 只由单个处理线程调用，内部HashMap无需同步
+ *
+ * 【失败处理】：
+ * 写库失败时保留聚合数据，下一个周期重试
+ * 
+ * 【持久化（可选）】：
+ * 配置了ClickJournal时，每次点击先追加到预写日志，批次结束时组提交刷盘；
+ * 聚合数据写回数据库后再推进日志检查点。进程崩溃后通过recover()重放
+ * 检查点之后的记录，语义为至少一次（写库成功但检查点未落盘时会重复计数）；
+ * 日志在本处理线程上写入，仍在环形缓冲区中或被DROP策略丢弃的点击不受保护，见ClickJournal
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class AccessCountClickHandler implements EventHandler<ClickEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessCountClickHandler.class);
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMillis;
+    private final int maxPendingCodes;
+    private final ClickJournal journal;
+    private final long commitIntervalMillis;
+
+    private final Map<String, long[]> pendingDeltas = new HashMap<>();
+    private long lastFlushMillis = System.currentTimeMillis();
+    private long lastCommitMillis = System.currentTimeMillis();
+
+    public AccessCountClickHandler(ShortLinkRepository shortLinkRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   long flushIntervalMillis,
+                                   int maxPendingCodes) {
+        this(shortLinkRepository, transactionTemplate, flushIntervalMillis, maxPendingCodes, null, 0L);
+    }
+
+    /**
+     * @param journal 点击预写日志，为null时不做持久化
+     * @param commitIntervalMillis 组提交最小间隔，0表示每个批次都刷盘
+     */
+    public AccessCountClickHandler(ShortLinkRepository shortLinkRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   long flushIntervalMillis,
+                                   int maxPendingCodes,
+                                   ClickJournal journal,
+                                   long commitIntervalMillis) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPendingCodes = maxPendingCodes;
+        this.journal = journal;
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    /**
+     * 重放预写日志中尚未写回数据库的点击
+     * 
+     * 【调用时机】：
+     * 处理线程启动之前，在调用线程上同步执行
+     */
+    public void recover() {
+        if (journal == null) {
+            return;
+        }
+        Map<String, Long> deltas = journal.readUncheckpointedDeltas();
+        if (!deltas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach(shortLinkRepository::incrementAccessCount));
+            logger.info("已从点击日志重放未写回的访问计数: codes={}, clicks={}",
+                    deltas.size(), deltas.values().stream().mapToLong(Long::longValue).sum());
+        }
+        journal.checkpoint(journal.getWritePosition());
+    }
+
+    @Override
+    public void onEvent(ClickEvent event, long sequence, boolean endOfBatch) {
+        if (journal != null) {
+            journal.append(event.getShortCode(), event.getTimestampMillis());
+        }
+        pendingDeltas.computeIfAbsent(event.getShortCode(), code -> new long[1])[0]++;
+
+        if (endOfBatch) {
+            commitJournal(false);
+            if (shouldFlush()) {
+                flush();
+            }
+        }
+    }
+
+    @Override
+    public void onTimeout() {
+        commitJournal(true);
+        if (shouldFlush()) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onShutdown() {
+        commitJournal(true);
+        flush();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 组提交：批次结束时刷盘，但两次刷盘之间至少间隔commitIntervalMillis
+     */
+    private void commitJournal(boolean force) {
+        if (journal == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (force || now - lastCommitMillis >= commitIntervalMillis) {
+            journal.commit();
+            lastCommitMillis = now;
+        }
+    }
+
+    private boolean shouldFlush() {
+        return pendingDeltas.size() >= maxPendingCodes
+                || System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis;
+    }
+
+    /**
+     * 把聚合的访问次数批量写回数据库
+     */
+    void flush() {
+        lastFlushMillis = System.currentTimeMillis();
+        if (pendingDeltas.isEmpty()) {
+            return;
+        }
+
+        CounterFlushEvent event = new CounterFlushEvent();
+        event.begin();
+        int shortCodes = pendingDeltas.size();
+        long clicks = event.isEnabled() ? countPendingClicks() : 0L;
+        boolean succeeded = false;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    pendingDeltas.forEach((shortCode, delta) ->
+                            shortLinkRepository.incrementAccessCount(shortCode, delta[0])));
+            logger.debug("访问计数已批量写回: codes={}", pendingDeltas.size());
+            pendingDeltas.clear();
+            succeeded = true;
+            if (journal != null) {
+                // 日志中此前的记录都已写回数据库
+                journal.commit();
+                journal.checkpoint(journal.getWritePosition());
+            }
+        } catch (Exception e) {
+            logger.warn("访问计数写回失败，下个周期重试: codes={}, error={}",
+                    pendingDeltas.size(), e.getMessage());
+        } finally {
+            event.complete(shortCodes, clicks, succeeded);
+        }
+    }
+
+    private long countPendingClicks() {
+        long clicks = 0;
+        for (long[] delta : pendingDeltas.values()) {
+            clicks += delta[0];
+        }
+        return clicks;
+    }
+
+    /**
+     * 当前尚未写回的短码数量（测试辅助）
+     *
+     * @return 聚合中的短码数量
+     */
+    int getPendingCodeCount() {
+        return pendingDeltas.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.sunlight.linker.application.click;
+
+import com.sunlight.linker.core.ring.EventHandler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 点击分析处理器
+ *
+ * 【统计内容】：
+ * - 累计点击总数
+ * - 最近60分钟的每分钟点击数（滚动窗口）
+ *
+ * 【线程模型】：
+ * 写入只发生在处理线程，读取可来自任意线程（监控、管理接口）
+ * 因此计数器使用原子类型保证可见性
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ClickAnalyticsHandler implements EventHandler<ClickEvent> {
+
+    private static final int WINDOW_MINUTES = 60;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final LongAdder totalClicks = new LongAdder();
+    private final AtomicLongArray minuteCounts = new AtomicLongArray(WINDOW_MINUTES);
+    private final AtomicLongArray minuteEpochs = new AtomicLongArray(WINDOW_MINUTES);
+
+    @Override
+    public void onEvent(ClickEvent event, long sequence, boolean endOfBatch) {
+        totalClicks.increment();
+
+        long minute = event.getTimestampMillis() / MILLIS_PER_MINUTE;
+        int slot = (int) (minute % WINDOW_MINUTES);
+        if (minuteEpochs.get(slot) != minute) {
+            // 槽位属于旧的分钟，重置后复用
+            minuteCounts.set(slot, 0);
+            minuteEpochs.set(slot, minute);
+        }
+        minuteCounts.incrementAndGet(slot);
+    }
+
+    /**
+     * 累计点击总数
+     *
+     * @return 点击总数
+     */
+    public long getTotalClicks() {
+        return totalClicks.sum();
+    }
+
+    /**
+     * 最近若干分钟的点击数
+     *
+     * @param minutes 分钟数（1-60）
+     * @return 点击数
+     */
+    public long getClicksInLastMinutes(int minutes) {
+        int window = Math.max(1, Math.min(minutes, WINDOW_MINUTES));
+        long currentMinute = System.currentTimeMillis() / MILLIS_PER_MINUTE;
+        long sum = 0;
+        for (int i = 0; i < window; i++) {
+            long minute = currentMinute - i;
+            int slot = (int) (minute % WINDOW_MINUTES);
+            if (minuteEpochs.get(slot) == minute) {
+                sum += minuteCounts.get(slot);
+            }
+        }
+        return sum;
+    }
+}
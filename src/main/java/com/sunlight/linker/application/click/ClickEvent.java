@@ -0,0 +1,36 @@
+package com.sunlight.linker.application.click;
+
+/**
+ * 点击事件（预分配、可复用）
+ *
+ * 【设计说明】：
+ * 事件对象由环形缓冲区在启动时一次性创建，发布时只改写字段
+ * 因此这里使用可变字段，且处理器不应在回调之外持有事件引用
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ClickEvent {
+
+    private String shortCode;
+    private long timestampMillis;
+
+    /**
+     * 填充事件字段
+     *
+     * @param shortCode 被访问的短码
+     * @param timestampMillis 访问时间（毫秒）
+     */
+    void set(String shortCode, long timestampMillis) {
+        this.shortCode = shortCode;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+}
@@ -0,0 +1,168 @@
+package com.sunlight.linker.application.click;
+
+import com.sunlight.linker.config.ClickPipelineProperties;
+import com.sunlight.linker.core.ring.BatchEventProcessor;
+import com.sunlight.linker.core.ring.EventHandler;
+import com.sunlight.linker.core.ring.EventTranslator;
+import com.sunlight.linker.core.ring.RingBuffer;
+import com.sunlight.linker.core.ring.Sequence;
+import com.sunlight.linker.infrastructure.ClickJournal;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 点击事件流水线
+ *
+ * 【进阶挑战 - 异步点击处理】
+ *
+ * 重定向请求线程只做一件事：把短码写入预分配的环形缓冲区槽位
+ * 计数、分析、日志由各自独立的后台线程批量消费：
+ * <pre>
+ *   Tomcat线程 ──publish──▶ [RingBuffer] ──▶ AccessCountClickHandler（批量写库）
+ *                                       ├──▶ ClickAnalyticsHandler（滚动统计）
+ *                                       └──▶ ClickLogHandler（批次日志）
+ * </pre>
+ *
+ * 【性能目标】：
+ * 发布路径只有一次CAS、两次字段写入和一次release写，无锁、无分配，
+ * 在非阻塞等待策略下单次发布开销在100ns以内
+ *
+ * 【启用方式】：
+ * app.click-pipeline.enabled=true，未启用时Service层保持同步计数
+ * app.click-pipeline.journal.enabled=true 时计数处理器先写预写日志，
+ * 启动时重放上次崩溃前未写回数据库的点击
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.click-pipeline", name = "enabled", havingValue = "true")
+public class ClickEventPipeline implements ClickEventPublisher, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickEventPipeline.class);
+
+    /**
+     * 无捕获的静态填充器，发布时不产生lambda实例
+     */
+    private static final EventTranslator<ClickEvent, String> CLICK_TRANSLATOR =
+            (event, sequence, shortCode) -> event.set(shortCode, System.currentTimeMillis());
+
+    private static final long PROCESSOR_JOIN_TIMEOUT_MILLIS = 5_000L;
+
+    private final RingBuffer<ClickEvent> ringBuffer;
+    private final List<BatchEventProcessor<ClickEvent>> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final ClickAnalyticsHandler analyticsHandler = new ClickAnalyticsHandler();
+    private final AccessCountClickHandler accessCountHandler;
+
+    private volatile boolean running;
+
+    public ClickEventPipeline(ClickPipelineProperties properties,
+                              ShortLinkRepository shortLinkRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.ringBuffer = new RingBuffer<>(ClickEvent::new, properties.getBufferSize(),
+                properties.getWaitStrategy().create(), properties.getOverflowPolicy());
+
+        long flushIntervalMillis = properties.getFlushInterval().toMillis();
+        ClickPipelineProperties.Journal journalProperties = properties.getJournal();
+        ClickJournal journal = journalProperties.isEnabled()
+                ? new ClickJournal(Path.of(journalProperties.getDirectory()), journalProperties.getSegmentSize().toBytes())
+                : null;
+        this.accessCountHandler = new AccessCountClickHandler(shortLinkRepository,
+                new TransactionTemplate(transactionManager), flushIntervalMillis, properties.getMaxPendingCodes(),
+                journal, journalProperties.getCommitInterval().toMillis());
+        addHandler(accessCountHandler, flushIntervalMillis);
+        addHandler(analyticsHandler, flushIntervalMillis);
+        addHandler(new ClickLogHandler(), flushIntervalMillis);
+
+        logger.info("点击事件流水线已创建: bufferSize={}, waitStrategy={}, overflowPolicy={}",
+                properties.getBufferSize(), properties.getWaitStrategy(), properties.getOverflowPolicy());
+    }
+
+    private void addHandler(EventHandler<ClickEvent> handler, long timeoutMillis) {
+        BatchEventProcessor<ClickEvent> processor = new BatchEventProcessor<>(ringBuffer, handler, timeoutMillis);
+        processors.add(processor);
+    }
+
+    /**
+     * 发布一次点击（在请求线程上调用）
+     *
+     * @param shortCode 被访问的短码
+     * @return 发布成功返回true
+     */
+    @Override
+    public boolean publish(String shortCode) {
+        return ringBuffer.publishEvent(CLICK_TRANSLATOR, shortCode);
+    }
+
+    @Override
+    public void start() {
+        // 先重放预写日志，再开始接收新的点击
+        accessCountHandler.recover();
+
+        Sequence[] gatingSequences = processors.stream()
+                .map(BatchEventProcessor::getSequence)
+                .toArray(Sequence[]::new);
+        ringBuffer.addGatingSequences(gatingSequences);
+
+        for (int i = 0; i < processors.size(); i++) {
+            Thread thread = new Thread(processors.get(i), "click-pipeline-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        running = true;
+        logger.info("点击事件流水线已启动: processors={}", processors.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        processors.forEach(BatchEventProcessor::halt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(PROCESSOR_JOIN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        logger.info("点击事件流水线已停止: droppedEvents={}", ringBuffer.getDroppedEvents());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 在数据源等基础设施关闭之前停止，确保剩余计数能够写回
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    public ClickAnalyticsHandler getAnalytics() {
+        return analyticsHandler;
+    }
+
+    public long getDroppedEvents() {
+        return ringBuffer.getDroppedEvents();
+    }
+
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+}
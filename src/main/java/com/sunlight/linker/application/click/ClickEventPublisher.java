@@ -0,0 +1,22 @@
+package com.sunlight.linker.application.click;
+
+/**
+ * 点击事件发布接口
+ *
+ * 【使用场景】：
+ * 重定向线程只负责发布事件，计数、分析、日志等副作用由后台消费者批量处理
+ * Service层依赖该接口而非具体实现，未启用流水线时不注入任何实现
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public interface ClickEventPublisher {
+
+    /**
+     * 发布一次点击
+     *
+     * @param shortCode 被访问的短码
+     * @return 发布成功返回true；缓冲区已满且策略为丢弃时返回false
+     */
+    boolean publish(String shortCode);
+}
@@ -0,0 +1,40 @@
+package com.sunlight.linker.application.click;
+
+import com.sunlight.linker.core.ring.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 点击日志处理器
+ *
+ * 【设计说明】：
+ * 按批次输出汇总日志，而不是每次点击一行，避免日志I/O成为瓶颈
+ * 日志级别为DEBUG时才会拼接日志内容
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ClickLogHandler implements EventHandler<ClickEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickLogHandler.class);
+
+    private int batchSize;
+    private long batchStartSequence = -1;
+
+    @Override
+    public void onEvent(ClickEvent event, long sequence, boolean endOfBatch) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        if (batchSize == 0) {
+            batchStartSequence = sequence;
+        }
+        batchSize++;
+
+        if (endOfBatch) {
+            logger.debug("点击事件批次: sequence=[{}, {}], size={}, lastShortCode={}",
+                    batchStartSequence, sequence, batchSize, event.getShortCode());
+            batchSize = 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 自定义别名内存索引配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   alias-index:
+ *     enabled: true
+ *     refresh-interval: PT5M
+ *     suggestions: 5
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后别名可用性检查先查内存索引，只有可能与系统短码重名时才查询数据库
+ * - refresh-interval：从数据库全量重建索引的间隔，用于同步其他节点创建的别名和已清理的过期别名
+ * - suggestions：别名已被占用时默认返回的建议数
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.alias-index")
+public class AliasIndexProperties {
+
+    private boolean enabled = false;
+
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    private int suggestions = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(int suggestions) {
+        this.suggestions = suggestions;
+    }
+}
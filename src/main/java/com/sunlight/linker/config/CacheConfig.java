@@ -1,5 +1,7 @@
 package com.sunlight.linker.config;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +12,7 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -50,10 +53,10 @@ public class CacheConfig {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 // 设置键的序列化方式 - 使用String
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new StringRedisSerializer()))
+                        .fromSerializer(keySerializer()))
                 // 设置值的序列化方式 - 使用JSON
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                        .fromSerializer(valueSerializer()))
                 // 设置默认过期时间 - 30分钟
                 .entryTtl(Duration.ofMinutes(30))
                 // 不缓存null值
@@ -77,17 +80,41 @@ public class CacheConfig {
         template.setConnectionFactory(redisConnectionFactory);
         
         // 设置键的序列化器
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setKeySerializer(keySerializer());
+        template.setHashKeySerializer(keySerializer());
         
         // 设置值的序列化器
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(valueSerializer());
+        template.setHashValueSerializer(valueSerializer());
         
         // 设置默认序列化器
-        template.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setDefaultSerializer(valueSerializer());
         
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 键序列化器：纯字符串
+     * 
+     * @return 缓存管理器与RedisTemplate共用的键序列化器
+     */
+    public static RedisSerializer<String> keySerializer() {
+        return new StringRedisSerializer();
+    }
+
+    /**
+     * 值序列化器：带@class类型信息的JSON
+     * 
+     * 【说明】：
+     * 缓存管理器与RedisTemplate使用同一种格式，基准测试（jmh profile）也直接测量该序列化器；
+     * 注册JavaTimeModule，LocalDateTime写成ISO-8601字符串（如expiresAt），边缘节点按字符串解析
+     * 
+     * @return 缓存管理器与RedisTemplate共用的值序列化器
+     */
+    public static RedisSerializer<Object> valueSerializer() {
+        return new GenericJackson2JsonRedisSerializer()
+                .configure(mapper -> mapper.registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
 }
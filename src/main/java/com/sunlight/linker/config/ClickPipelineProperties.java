@@ -0,0 +1,155 @@
+package com.sunlight.linker.config;
+
+import com.sunlight.linker.core.ring.OverflowPolicy;
+import com.sunlight.linker.core.ring.WaitStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 点击事件流水线配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   click-pipeline:
+ *     enabled: true
+ *     buffer-size: 65536
+ *     wait-strategy: sleeping
+ *     overflow-policy: drop
+ *     flush-interval: 1s
+ *     journal:
+ *       enabled: true
+ *       directory: data/click-journal
+ *       segment-size: 64MB
+ *       commit-interval: 10ms
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：关闭时保持原有的同步计数行为
+ * - buffer-size：环形缓冲区槽位数，必须为2的幂
+ * - wait-strategy：消费者等待策略（blocking/sleeping/yielding/busy-spin）
+ * - overflow-policy：缓冲区写满时丢弃（drop）还是阻塞请求线程（block）
+ * - flush-interval：访问计数聚合后写回数据库的间隔
+ * - max-pending-codes：聚合中的短码数量达到该值时提前刷新
+ * - journal：点击预写日志，保证进程崩溃后计数可恢复
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.click-pipeline")
+public class ClickPipelineProperties {
+
+    private boolean enabled = false;
+
+    private int bufferSize = 65536;
+
+    private WaitStrategy.Type waitStrategy = WaitStrategy.Type.SLEEPING;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private int maxPendingCodes = 10_000;
+
+    private final Journal journal = new Journal();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public WaitStrategy.Type getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(WaitStrategy.Type waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxPendingCodes() {
+        return maxPendingCodes;
+    }
+
+    public void setMaxPendingCodes(int maxPendingCodes) {
+        this.maxPendingCodes = maxPendingCodes;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * 点击预写日志配置
+     */
+    public static class Journal {
+
+        private boolean enabled = false;
+
+        private String directory = "data/click-journal";
+
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        private Duration commitInterval = Duration.ofMillis(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public Duration getCommitInterval() {
+            return commitInterval;
+        }
+
+        public void setCommitInterval(Duration commitInterval) {
+            this.commitInterval = commitInterval;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 预生成短码池配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   code-pool:
+ *     enabled: true
+ *     code-length: 7
+ *     capacity: 10000
+ *     low-water-mark: 2500
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后系统短码改为随机短码，从内存池中取出，创建时不再生成或检查冲突
+ * - code-length：随机短码长度，7位约3.5万亿种组合
+ * - capacity / low-water-mark：池容量与补充阈值，取出后低于阈值时唤醒后台补充
+ * - batch-size：每次生成、检查与插入预留表的短码数
+ * - heartbeat-interval：刷新本节点预留行 reserved_at 的间隔
+ * - reclaim-after：预留行超过这么久未刷新即视为崩溃节点遗留，由其他节点接管；须远大于心跳间隔
+ * - initialize-schema：启动时执行 db/code_reservations.sql
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.code-pool")
+public class CodePoolProperties {
+
+    private boolean enabled = false;
+
+    private int codeLength = 7;
+
+    private int capacity = 10_000;
+
+    private int lowWaterMark = 2_500;
+
+    private int batchSize = 1_000;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    private Duration reclaimAfter = Duration.ofMinutes(5);
+
+    private boolean initializeSchema = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    public void setCodeLength(int codeLength) {
+        this.codeLength = codeLength;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    public void setLowWaterMark(int lowWaterMark) {
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getReclaimAfter() {
+        return reclaimAfter;
+    }
+
+    public void setReclaimAfter(Duration reclaimAfter) {
+        this.reclaimAfter = reclaimAfter;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sunlight.linker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 异步与定时任务执行配置
+ *
+ * 【进阶挑战 - 虚拟线程】
+ *
+ * 执行器本身交给Spring Boot自动配置，由 spring.threads.virtual.enabled 决定线程类型：
+ * <pre>
+ *                       平台线程（默认）                 虚拟线程
+ *   Tomcat请求处理      200线程的固定池                 每个请求一个虚拟线程
+ *   @Async              ThreadPoolTaskExecutor          SimpleAsyncTaskExecutor
+ *   @Scheduled          ThreadPoolTaskScheduler         SimpleAsyncTaskScheduler
+ * </pre>
+ *
+ * 【固定（pinning）审计】：
+ * 虚拟线程在synchronized块内阻塞时会占住载体线程，审计结论如下：
+ * - 应用代码：请求路径上没有synchronized；环形缓冲区的阻塞等待策略、限流的TokenBucketTable分段、
+ *   AliasIndex和RadixTrie的写入都使用ReentrantLock；RingBuffer.addGatingSequences的synchronized
+ *   只在启动时调用，LinkSnapshotStore的synchronized只在后台导出任务中调用
+ * - HikariCP 5.0.1：获取连接走ConcurrentBag + SynchronousQueue，不固定；
+ *   ProxyConnection跟踪Statement的synchronized方法只操作内存列表，不阻塞
+ * - PostgreSQL驱动 42.6.0：I/O路径已改用ReentrantLock
+ * - Lettuce：基于Netty异步I/O，请求线程只等待Future
+ * - H2：内部大量synchronized，仅用于开发和测试，不作为虚拟线程压测的数据库
+ * 运行时可以加 -Djdk.tracePinnedThreads=short 复查
+ *
+ * 【注意】：
+ * 点击流水线的消费线程是长期运行的平台线程，不随该开关切换，
+ * 忙等/让出类等待策略放在虚拟线程上会长期占用载体线程
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfig {
+}
@@ -0,0 +1,126 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Snowflake ID生成器配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   id-generator:
+ *     enabled: true
+ *     epoch: 2026-01-01T00:00:00Z
+ *     lease-ttl: PT60S
+ *     lease-renew-interval: PT20S
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后系统短码由 Snowflake ID 编码，创建短链接只需一条INSERT
+ * - epoch：自定义纪元，上线后不能修改（改早会与已发出的ID重叠）；越接近上线时间短码越短
+ * - node-bits / sequence-bits：节点号与毫秒内序列的位数，之和不超过22
+ * - max-clock-backward：容忍的时钟回拨，范围内沿用上一毫秒继续发号，超出则拒绝发号
+ * - node-id：固定节点号；-1（默认）表示从 id_node_leases 租约表分配
+ * - lease-ttl / lease-renew-interval：租约时长与续约间隔；
+ *   距上次续约超过 lease-ttl 的一半即停止发号，留出另一半吸收节点间的时钟偏差
+ * - initialize-schema：启动时执行 db/id_node_leases.sql
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.id-generator")
+public class IdGeneratorProperties {
+
+    private boolean enabled = false;
+
+    private Instant epoch = Instant.parse("2026-01-01T00:00:00Z");
+
+    private int nodeBits = 10;
+
+    private int sequenceBits = 12;
+
+    private Duration maxClockBackward = Duration.ofSeconds(1);
+
+    private int nodeId = -1;
+
+    private Duration leaseTtl = Duration.ofSeconds(60);
+
+    private Duration leaseRenewInterval = Duration.ofSeconds(20);
+
+    private boolean initializeSchema = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Instant getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(Instant epoch) {
+        this.epoch = epoch;
+    }
+
+    public int getNodeBits() {
+        return nodeBits;
+    }
+
+    public void setNodeBits(int nodeBits) {
+        this.nodeBits = nodeBits;
+    }
+
+    public int getSequenceBits() {
+        return sequenceBits;
+    }
+
+    public void setSequenceBits(int sequenceBits) {
+        this.sequenceBits = sequenceBits;
+    }
+
+    public Duration getMaxClockBackward() {
+        return maxClockBackward;
+    }
+
+    public void setMaxClockBackward(Duration maxClockBackward) {
+        this.maxClockBackward = maxClockBackward;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(int nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        this.leaseTtl = leaseTtl;
+    }
+
+    public Duration getLeaseRenewInterval() {
+        return leaseRenewInterval;
+    }
+
+    public void setLeaseRenewInterval(Duration leaseRenewInterval) {
+        this.leaseRenewInterval = leaseRenewInterval;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+}
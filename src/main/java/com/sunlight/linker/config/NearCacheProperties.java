@@ -0,0 +1,83 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 进程内短链接缓存（近端缓存）配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   near-cache:
+ *     enabled: true
+ *     ttl: 10s
+ *     gone-ttl: 10m
+ *     max-entries: 100000
+ *     tick: 100ms
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：关闭时每次解析都查询数据库，过期链接返回404
+ * - ttl：缓存条目的存活时间，也是多实例之间修改重定向策略后的最长不一致时间
+ * - gone-ttl：链接到期后返回410的时长，之后条目移除，再访问按数据库结果返回404
+ * - max-entries：条目上限，写满后新链接不再进入缓存
+ * - tick：时间轮的tick，即到期精度
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.near-cache")
+public class NearCacheProperties {
+
+    private boolean enabled = false;
+
+    private Duration ttl = Duration.ofSeconds(10);
+
+    private Duration goneTtl = Duration.ofMinutes(10);
+
+    private int maxEntries = 100_000;
+
+    private Duration tick = Duration.ofMillis(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getGoneTtl() {
+        return goneTtl;
+    }
+
+    public void setGoneTtl(Duration goneTtl) {
+        this.goneTtl = goneTtl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * short_links 月分区配置（仅PostgreSQL）
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   partitioning:
+ *     enabled: true
+ *     interval: PT6H
+ *     months-ahead: 3
+ *     retention-months: 24
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：表结构须先按 db/postgresql/short_links_partitioned.sql 建好；
+ *   开启后别名查找走 short_link_aliases 裁剪到单个分区，并启动分区维护任务
+ * - interval：两次维护之间的间隔
+ * - months-ahead：除当月外预建的月分区数，维护任务停止超过这么多个月后插入会失败
+ * - retention-months：保留的月数（含当月），更早的分区整体DETACH并DROP；0表示不删除
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.partitioning")
+public class PartitioningProperties {
+
+    private boolean enabled = false;
+
+    private Duration interval = Duration.ofHours(6);
+
+    private int monthsAhead = 3;
+
+    private int retentionMonths = 0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+}
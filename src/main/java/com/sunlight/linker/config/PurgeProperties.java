@@ -0,0 +1,83 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 过期链接清理配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   purge:
+ *     enabled: true
+ *     interval: PT1M
+ *     batch-size: 500
+ *     batch-pause: 200ms
+ *     max-batches-per-run: 100
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：关闭时过期链接只在解析时被拒绝，不会被物理删除
+ * - interval：两次清理之间的间隔（上一次结束后开始计时）
+ * - batch-size：每个事务删除的最大行数，决定单次持锁范围和单个WAL事务大小
+ * - batch-pause：两批之间的停顿，删除速率上限约为 batch-size / batch-pause，给复制留出追赶时间
+ * - max-batches-per-run：单次清理的最大批数，积压较多时分摊到后续周期
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.purge")
+public class PurgeProperties {
+
+    private boolean enabled = false;
+
+    private Duration interval = Duration.ofMinutes(1);
+
+    private int batchSize = 500;
+
+    private Duration batchPause = Duration.ofMillis(200);
+
+    private int maxBatchesPerRun = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getBatchPause() {
+        return batchPause;
+    }
+
+    public void setBatchPause(Duration batchPause) {
+        this.batchPause = batchPause;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+}
@@ -0,0 +1,170 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按客户端限流配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   rate-limit:
+ *     enabled: true
+ *     mode: local
+ *     max-clients: 100000
+ *     client-header: X-Api-Key
+ *     trust-forwarded-for: false
+ *     trusted-proxies: 1
+ *     endpoints:
+ *       create:
+ *         method: POST
+ *         pattern: /api/v1/links
+ *         capacity: 20
+ *         refill-per-second: 2
+ *       redirect:
+ *         method: GET
+ *         pattern: /s/*
+ *         capacity: 200
+ *         refill-per-second: 50
+ * </pre>
+ *
+ * 【配置说明】：
+ * - mode：local为进程内令牌桶，每个实例各自计数；redis为所有实例共享的令牌桶（Lua脚本），
+ *   Redis不可用时退回本机令牌桶
+ * - max-clients：每个端点在本机保存的令牌桶数上限，超出时淘汰最久未访问的桶
+ * - client-header：按该请求头区分客户端（如API Key），请求没有该头时使用客户端IP
+ * - trust-forwarded-for：按X-Forwarded-For确定客户端IP，只应在可信的反向代理之后开启
+ * - trusted-proxies：应用前面的可信代理层数，取X-Forwarded-For从右数第trusted-proxies个地址；
+ *   代理只在头后面追加地址，更左侧的地址由客户端控制，不能用来区分客户端
+ * - endpoints：按配置顺序匹配，第一个匹配的规则生效；method为空时匹配所有方法，
+ *   pattern使用Spring MVC的路径模式；capacity为允许的突发请求数，refill-per-second为持续速率
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 令牌桶的存放位置
+     */
+    public enum Mode {
+        LOCAL, REDIS
+    }
+
+    private boolean enabled = false;
+
+    private Mode mode = Mode.LOCAL;
+
+    private int maxClients = 100_000;
+
+    private String clientHeader;
+
+    private boolean trustForwardedFor = false;
+
+    private int trustedProxies = 1;
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+
+        private String method;
+
+        private String pattern;
+
+        private long capacity = 20;
+
+        private double refillPerSecond = 10;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sunlight.linker.config;
+
+import com.sunlight.linker.infrastructure.replica.DataSourcePoolMetrics;
+import com.sunlight.linker.infrastructure.replica.ReadWriteRoutingDataSource;
+import com.sunlight.linker.infrastructure.replica.ReplicaLagMonitor;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ *
+ * 【设计说明】：
+ * 开启后由这里代替Spring Boot创建DataSource：
+ * <pre>
+ *   primaryDataSource   spring.datasource + spring.datasource.hikari，池名 primary
+ *   replicaDataSource   app.read-replica.hikari，池名 replica，连接默认只读
+ *   dataSource(@Primary) LazyConnectionDataSourceProxy ──▶ ReadWriteRoutingDataSource
+ * </pre>
+ * JPA、JdbcTemplate 都使用 @Primary 的路由DataSource；
+ * 两个连接池仍是HikariDataSource类型的Bean，hikaricp.connections.* 按池名自动注册
+ *
+ * 【注意】：
+ * 分片模式（app.sharding）不经过这里，两者不要同时开启
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.read-replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(ReadReplicaProperties properties) {
+        return new ReplicaRouting(properties.getReadYourWritesWindow(), properties.getMaxTrackedWrites());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 @Qualifier("replicaDataSource") HikariDataSource replica,
+                                 ReplicaRouting routing) {
+        logger.info("读写分离已开启: primary={}, replica={}", primary.getJdbcUrl(), replica.getJdbcUrl());
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, routing));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") HikariDataSource replica,
+                                               ReadReplicaProperties properties, ReplicaRouting routing) {
+        return new ReplicaLagMonitor(replica, properties.getLagQuery(), routing);
+    }
+
+    @Bean
+    public DataSourcePoolMetrics dataSourcePoolMetrics(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                       @Qualifier("replicaDataSource") HikariDataSource replica,
+                                                       ReplicaRouting routing) {
+        return new DataSourcePoolMetrics(List.of(primary, replica), routing);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 只读副本路由配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   read-replica:
+ *     enabled: true
+ *     read-your-writes-window: PT5S
+ *     lag-check-interval: PT1S
+ *     hikari:
+ *       jdbc-url: jdbc:postgresql://replica:5432/linkerprod
+ *       username: ${DB_USERNAME}
+ *       password: ${DB_PASSWORD}
+ *       maximum-pool-size: 20
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后 @Transactional(readOnly = true) 的方法从副本连接池读取
+ * - read-your-writes-window：短码创建或修改后的这段时间内，按该短码的读取仍走主库；
+ *   测得的复制延迟超过该窗口时，所有读取回退到主库
+ * - lag-check-interval：复制延迟的检查间隔
+ * - lag-query：在副本上执行、返回延迟毫秒数的SQL；为空时不检查（视为无延迟）
+ * - max-tracked-writes：记录的最近写入短码数上限，超出后整个窗口内的读取都走主库
+ * - hikari：副本连接池，与 spring.datasource.hikari 相同的属性，独立设置池大小
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.read-replica")
+public class ReadReplicaProperties {
+
+    /**
+     * PostgreSQL流复制：已接收的WAL全部回放完时为0，否则为最后回放事务距今的毫秒数
+     */
+    public static final String POSTGRESQL_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private boolean enabled = false;
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    private String lagQuery = POSTGRESQL_LAG_QUERY;
+
+    private int maxTrackedWrites = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public int getMaxTrackedWrites() {
+        return maxTrackedWrites;
+    }
+
+    public void setMaxTrackedWrites(int maxTrackedWrites) {
+        this.maxTrackedWrites = maxTrackedWrites;
+    }
+}
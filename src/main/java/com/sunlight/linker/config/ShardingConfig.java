@@ -0,0 +1,106 @@
+package com.sunlight.linker.config;
+
+import com.sunlight.linker.core.ConsistentHashRing;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.infrastructure.shard.ShardRoutingDataSource;
+import com.sunlight.linker.infrastructure.shard.ShardedShortLinkRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * 水平分片配置
+ *
+ * 【设计说明】：
+ * 每个分片一个HikariCP连接池（池名 shard-0、shard-1 …），由 ShardRoutingDataSource 按分片号路由；
+ * 这些连接池不注册为DataSource类型的Bean，否则Spring Boot会放弃自动配置 spring.datasource，
+ * JPA 和其余组件仍使用原来的单库。连接池的生命周期归 ShardedShortLinkRepository 管理，
+ * 连接池指标也因此直接交给HikariCP的Micrometer跟踪器注册（hikaricp.connections.*，pool标签为池名）
+ *
+ * scatter-gather 查询在虚拟线程上并行访问各分片
+ *
+ * 【不兼容的功能】：
+ * 短码池、近端缓存、别名索引、点击流水线、边缘快照导出、读写分离和分区表都直接读写单库，
+ * 分片模式下会返回错误结果（池中短码与分片ID冲突、别名索引为空、计数写回单库、
+ * 快照只含单库中的链接），同时开启时拒绝启动
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    /**
+     * 与分片模式不兼容的功能开关前缀
+     */
+    public static final List<String> INCOMPATIBLE_FEATURES =
+            List.of("app.code-pool", "app.near-cache", "app.alias-index", "app.click-pipeline",
+                    "app.snapshot", "app.read-replica", "app.partitioning");
+
+    @Bean
+    public ShardedShortLinkRepository shardedShortLinkRepository(ShardingProperties properties,
+                                                                 ObjectProvider<ShortCodeCodec> shortCodeCodec,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 Environment environment) {
+        checkCompatibility(environment);
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("已开启分片但未配置 app.sharding.shards");
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        List<HikariDataSource> pools = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            if (registry != null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            pools.add(pool);
+        }
+        ShardedShortLinkRepository repository = new ShardedShortLinkRepository(
+                new ShardRoutingDataSource(pools),
+                new ConsistentHashRing(shards.size(), properties.getVirtualNodes()),
+                shortCodeCodec.getIfAvailable(ShortCodeCodec::sequential),
+                Executors.newVirtualThreadPerTaskExecutor());
+        if (properties.isInitializeSchema()) {
+            repository.initializeSchema();
+        }
+        logger.info("短链接分片已开启: shards={}, virtualNodes={}", shards.size(), properties.getVirtualNodes());
+        return repository;
+    }
+
+    /**
+     * 检查与分片模式同时开启的不兼容功能
+     *
+     * @param environment 配置
+     * @throws IllegalStateException 当任一不兼容功能已开启时抛出
+     */
+    public static void checkCompatibility(Environment environment) {
+        List<String> enabled = INCOMPATIBLE_FEATURES.stream()
+                .filter(prefix -> environment.getProperty(prefix + ".enabled", Boolean.class, false))
+                .toList();
+        if (!enabled.isEmpty()) {
+            throw new IllegalStateException("以下功能不支持分片存储，请关闭后再开启 app.sharding: "
+                    + enabled.stream().map(prefix -> prefix + ".enabled").toList());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * short_links 水平分片配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   sharding:
+ *     enabled: true
+ *     initialize-schema: false
+ *     virtual-nodes: 160
+ *     shards:
+ *       - url: jdbc:postgresql://shard0:5432/linker
+ *         username: linker
+ *         password: ${SHARD0_PASSWORD}
+ *       - url: jdbc:postgresql://shard1:5432/linker
+ *         username: linker
+ *         password: ${SHARD1_PASSWORD}
+ *         maximum-pool-size: 20
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后短链接的读写由 ShardedShortLinkService 接管，按分片访问 shards 中的数据库；
+ *   spring.datasource 仍保留给其余依赖单库的组件
+ * - initialize-schema：启动时在每个分片上执行 db/sharding/short_links_shard.sql
+ * - virtual-nodes：一致性哈希环上每个分片的虚拟节点数
+ * - shards：分片列表，顺序即分片号，上线后只能在末尾追加，不能调整顺序
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private boolean initializeSchema = false;
+
+    private int virtualNodes = 160;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * 单个分片的连接配置
+     */
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
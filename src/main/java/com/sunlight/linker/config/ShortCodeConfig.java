@@ -0,0 +1,65 @@
+package com.sunlight.linker.config;
+
+import com.sunlight.linker.core.FeistelShortCodeCodec;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 系统短码编解码与保留词配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   short-link:
+ *     default-length: 6
+ *     obfuscation:
+ *       enabled: true
+ *       key: ${SHORT_CODE_KEY}
+ *     reserved-words: api,admin,health,docs
+ * </pre>
+ *
+ * 【配置说明】：
+ * - obfuscation.enabled：开启后系统短码由FeistelShortCodeCodec生成，
+ *   未开启时不注册编解码器，Service层使用顺序Base62编码
+ * - obfuscation.key：置换密钥，应通过环境变量注入，不要提交到仓库
+ * - default-length：混淆短码的最短长度，ID超出该长度的区间后短码逐位变长
+ * - reserved-words：不能用作自定义别名的保留词（逗号分隔，不区分大小写），
+ *   未配置时使用 ReservedWords.DEFAULT_WORDS
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration
+public class ShortCodeConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortCodeConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.short-link.obfuscation", name = "enabled", havingValue = "true")
+    public ShortCodeCodec feistelShortCodeCodec(@Value("${app.short-link.obfuscation.key:}") String key,
+                                                @Value("${app.short-link.default-length:6}") int minLength) {
+        if (key.isBlank()) {
+            throw new IllegalStateException("已开启短码混淆但未配置 app.short-link.obfuscation.key");
+        }
+        logger.info("短码混淆已开启: minLength={}", minLength);
+        return new FeistelShortCodeCodec(key, minLength);
+    }
+
+    @Bean
+    public ReservedWords reservedWords(@Value("${app.short-link.reserved-words:}") String[] words) {
+        if (words.length == 0) {
+            return ReservedWords.defaults();
+        }
+        ReservedWords reservedWords = ReservedWords.of(List.of(words));
+        logger.info("系统保留词: {}个", reservedWords.size());
+        return reservedWords;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sunlight.linker.config;
+
+import com.sunlight.linker.core.UrlCanonicalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 长链接规范化配置
+ *
+ * 开启 app.url-canonical 后注册 UrlCanonicalizer，
+ * ShortLinkService / ShardedShortLinkService 在创建系统短链接时用它规范化长链接再去重
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.url-canonical", name = "enabled", havingValue = "true")
+public class UrlCanonicalConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlCanonicalConfig.class);
+
+    @Bean
+    public UrlCanonicalizer urlCanonicalizer(UrlCanonicalProperties properties) {
+        logger.info("长链接规范化已开启: stripParams={}, sortQuery={}",
+                properties.getStripParams(), properties.isSortQuery());
+        return new UrlCanonicalizer(properties.getStripParams(), properties.isSortQuery());
+    }
+}
@@ -0,0 +1,62 @@
+package com.sunlight.linker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 长链接规范化配置
+ *
+ * 【配置示例】：
+ * <pre>
+ * app:
+ *   url-canonical:
+ *     enabled: true
+ *     strip-params: utm_*,fbclid,gclid
+ *     sort-query: true
+ * </pre>
+ *
+ * 【配置说明】：
+ * - enabled：开启后系统短链接在去重查询之前先规范化长链接，保存的也是规范形式；
+ *   协议/主机小写、去默认端口、百分号转义规范化总是执行
+ * - strip-params：去重前删除的跟踪参数，'*' 结尾表示前缀匹配；置空则保留全部参数
+ * - sort-query：按参数名排序查询参数，参数顺序不同的同一链接只保存一次；
+ *   少数站点依赖参数顺序，默认关闭
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.url-canonical")
+public class UrlCanonicalProperties {
+
+    private boolean enabled = false;
+
+    private List<String> stripParams = new ArrayList<>(List.of("utm_*", "fbclid", "gclid", "msclkid"));
+
+    private boolean sortQuery = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getStripParams() {
+        return stripParams;
+    }
+
+    public void setStripParams(List<String> stripParams) {
+        this.stripParams = stripParams;
+    }
+
+    public boolean isSortQuery() {
+        return sortQuery;
+    }
+
+    public void setSortQuery(boolean sortQuery) {
+        this.sortQuery = sortQuery;
+    }
+}
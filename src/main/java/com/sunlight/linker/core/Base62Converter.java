@@ -78,6 +78,34 @@ public class Base62Converter {
         return result.reverse().toString();
     }
     
+    /**
+     * 将长整型ID编码为定长Base62字符串，不足部分在左侧补'0'
+     * 
+     * 【使用场景】：
+     * 混淆短码（FeistelShortCodeCodec）用长度区分编码区间，需要保留前导零；
+     * decode可以直接解析带前导零的结果
+     * 
+     * @param id 要编码的ID，必须为非负数
+     * @param length 目标长度
+     * @return 长度恰好为length的Base62字符串
+     * @throws IllegalArgumentException 当id为负数或编码结果超过length时抛出
+     */
+    public static String encode(long id, int length) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID不能为负数，输入值: " + id);
+        }
+        
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = BASE62_CHARS.charAt((int) (id % BASE));
+            id /= BASE;
+        }
+        if (id > 0) {
+            throw new IllegalArgumentException("ID超出" + length + "位Base62的表示范围");
+        }
+        return new String(chars);
+    }
+    
     /**
      * 将Base62字符串解码为长整型ID
      * 
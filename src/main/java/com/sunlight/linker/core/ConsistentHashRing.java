@@ -0,0 +1,107 @@
+package com.sunlight.linker.core;
+
+import java.util.Arrays;
+
+/**
+ * 一致性哈希环
+ *
+ * 【设计说明】：
+ * 每个分片在环上放置 virtualNodes 个虚拟节点，键顺时针归属于遇到的第一个虚拟节点；
+ * 新增第N+1个分片时只有约 1/(N+1) 的键改变归属，其余键的分片不变
+ * <pre>
+ *   points  [p0 &lt; p1 &lt; ... &lt; pk]   虚拟节点的哈希值，排序后二分查找
+ *   owners  [s0,  s1,  ...,  sk]   对应的分片号
+ * </pre>
+ *
+ * 【使用场景】：
+ * 自定义别名和长链接没有内嵌分片号，按哈希决定分片：
+ * 别名按别名本身路由，保证同一别名只会落在一个分片上（分片内唯一即全局唯一）；
+ * 系统短链接按长链接路由，去重查询只需访问一个分片
+ *
+ * 【线程安全】：
+ * 构造后不可变
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+    private final int shardCount;
+
+    /**
+     * 创建哈希环
+     *
+     * @param shardCount 分片数
+     * @param virtualNodes 每个分片的虚拟节点数，越多分布越均匀，常用100-200
+     * @throws IllegalArgumentException 当参数不是正数时抛出
+     */
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("分片数与虚拟节点数必须为正数");
+        }
+        this.shardCount = shardCount;
+        int total = shardCount * virtualNodes;
+        long[] hashes = new long[total];
+        for (int shard = 0, i = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++, i++) {
+                hashes[i] = hash("shard-" + shard + "#" + node);
+            }
+        }
+        // 按哈希（无符号）排序，owners记录每个位置的分片号
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(hashes[a], hashes[b]));
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * 计算键所属的分片
+     *
+     * @param key 键（别名或长链接）
+     * @return 分片号，范围 [0, shardCount)
+     */
+    public int shardFor(CharSequence key) {
+        long h = hash(key);
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], h) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // 超过最后一个虚拟节点时回到环的起点
+        return owners[low == points.length ? 0 : low];
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * FNV-1a后接SplitMix64终结混合
+     */
+    private static long hash(CharSequence key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,226 @@
+package com.sunlight.linker.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.OptionalLong;
+
+/**
+ * 带密钥的Feistel置换短码编解码器
+ *
+ * 【进阶挑战 - 短码混淆】
+ *
+ * 顺序短码（ID的Base62表示）可以被逐个枚举；
+ * 该编解码器先在ID所在的区间内做一次带密钥的可逆置换，再按定长Base62编码：
+ * <pre>
+ *   id ──▶ 确定长度L ──▶ Feistel置换（在[0, 62^L)内循环行走）──▶ L位Base62
+ * </pre>
+ *
+ * 【长度分层】：
+ * <pre>
+ *   L = minLength          编码区间 [0, 62^L)
+ *   minLength < L <= 10    编码区间 [62^(L-1), 62^L)
+ *   L = 11                 编码区间 [62^10, 2^63)，62^11超出long，最后一层截到long的上限
+ * </pre>
+ * 同一长度内置换是双射，不同长度的短码字符串必然不同，因此整体不会冲突，
+ * 生成时不需要查询短码是否存在；解码时由长度确定区间，逆置换后检查ID是否落在该区间
+ *
+ * 【循环行走（cycle walking）】：
+ * Feistel网络只能在2^b（b为偶数）的空间上置换，
+ * 结果不小于62^L时继续置换直到落回区间内，62^L与2^b之比小于4，期望迭代次数很小；
+ * 十一位在2^64上置换，结果为负数（不小于2^63）时继续行走，期望迭代约2次
+ *
+ * 【与Snowflake ID的配合】：
+ * Snowflake ID约为 (毫秒数 - 纪元) × 2^22，按默认位数在纪元之后约6.3年超过62^10
+ * （62^10 / 2^22 ≈ 2.0×10^11 毫秒），此后混淆短码为11位；任何非负long都能编码，不会因ID增长而无法创建
+ *
+ * 【注意】：
+ * - 轮函数是64位混合函数而不是分组密码，目的是防枚举，不提供密码学强度
+ * - 更换密钥或最小长度会改变所有新短码的映射，已经发出的短码需要按原配置解码
+ * - 与顺序短码共存时两者的编码空间会重叠，应在数据产生之前选定方案
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class FeistelShortCodeCodec implements ShortCodeCodec {
+
+    /**
+     * 支持的最大短码长度：62^10 < 2^63 < 62^11，十一位覆盖其余的全部非负long
+     */
+    public static final int MAX_LENGTH = 11;
+
+    /**
+     * 可配置的最大最短长度：十一位一层只接纳不小于62^10的ID
+     */
+    public static final int MAX_MIN_LENGTH = MAX_LENGTH - 1;
+
+    private static final int ROUNDS = 8;
+    private static final int BASE = 62;
+
+    /**
+     * POWERS[L] = 62^L（L <= 10）
+     */
+    private static final long[] POWERS = new long[MAX_LENGTH];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < MAX_LENGTH; i++) {
+            POWERS[i] = POWERS[i - 1] * BASE;
+        }
+    }
+
+    private final long[] roundKeys = new long[ROUNDS];
+    private final int minLength;
+
+    /**
+     * HALF_BITS[L]：覆盖[0, 62^L)所需的Feistel半块位数
+     */
+    private final int[] halfBits = new int[MAX_LENGTH + 1];
+
+    /**
+     * @param secret 置换密钥，不能为空
+     * @param minLength 最短短码长度（1-MAX_MIN_LENGTH）
+     * @throws IllegalArgumentException 当密钥为空或长度超出范围时抛出
+     */
+    public FeistelShortCodeCodec(String secret, int minLength) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("短码置换密钥不能为空");
+        }
+        if (minLength < 1 || minLength > MAX_MIN_LENGTH) {
+            throw new IllegalArgumentException("最短短码长度必须在1-" + MAX_MIN_LENGTH + "之间: " + minLength);
+        }
+        this.minLength = minLength;
+
+        ByteBuffer digest = ByteBuffer.wrap(sha256(secret));
+        long[] seeds = new long[digest.remaining() / Long.BYTES];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = digest.getLong();
+        }
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = mix(seeds[i % seeds.length] + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+
+        for (int length = 1; length < MAX_LENGTH; length++) {
+            int bits = 64 - Long.numberOfLeadingZeros(POWERS[length] - 1);
+            halfBits[length] = (bits + 1) / 2;
+        }
+        halfBits[MAX_LENGTH] = Long.SIZE / 2;
+    }
+
+    @Override
+    public String encode(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID不能为负数，输入值: " + id);
+        }
+        int length = lengthFor(id);
+        return Base62Converter.encode(permute(id, length), length);
+    }
+
+    @Override
+    public long decode(String shortCode) {
+        OptionalLong id = tryDecode(shortCode);
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("不是系统生成的短码: " + shortCode);
+        }
+        return id.getAsLong();
+    }
+
+    @Override
+    public OptionalLong tryDecode(String shortCode) {
+        if (shortCode == null || shortCode.length() < minLength || shortCode.length() > MAX_LENGTH
+                || !Base62Converter.isValidBase62(shortCode)) {
+            return OptionalLong.empty();
+        }
+        int length = shortCode.length();
+        long value;
+        try {
+            value = Base62Converter.decode(shortCode);
+        } catch (NumberFormatException e) {
+            // 十一位中不小于2^63的字符串
+            return OptionalLong.empty();
+        }
+        long id = unpermute(value, length);
+        // 逆置换结果落在更短的区间时，该短码不可能由encode产生
+        long lowerBound = length == minLength ? 0 : POWERS[length - 1];
+        return id >= lowerBound ? OptionalLong.of(id) : OptionalLong.empty();
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int lengthFor(long id) {
+        int length = minLength;
+        while (length < MAX_LENGTH && id >= POWERS[length]) {
+            length++;
+        }
+        return length;
+    }
+
+    private long permute(long value, int length) {
+        int half = halfBits[length];
+        do {
+            value = encrypt(value, half);
+        } while (!inRange(value, length));
+        return value;
+    }
+
+    private long unpermute(long value, int length) {
+        int half = halfBits[length];
+        do {
+            value = decrypt(value, half);
+        } while (!inRange(value, length));
+        return value;
+    }
+
+    /**
+     * 是否落在[0, 62^L)内；十一位的上界是2^63，即非负
+     */
+    private static boolean inRange(long value, int length) {
+        return value >= 0 && (length == MAX_LENGTH || value < POWERS[length]);
+    }
+
+    private long encrypt(long value, int half) {
+        long mask = (1L << half) - 1;
+        long left = value >>> half;
+        long right = value & mask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ roundKeys[round]) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << half) | right;
+    }
+
+    private long decrypt(long value, int half) {
+        long mask = (1L << half) - 1;
+        long left = value >>> half;
+        long right = value & mask;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ (mix(left ^ roundKeys[round]) & mask);
+            right = left;
+            left = previous;
+        }
+        return (left << half) | right;
+    }
+
+    /**
+     * SplitMix64的终结混合函数
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JDK缺少SHA-256实现", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sunlight.linker.core;
+
+/**
+ * 应用侧ID生成器
+ *
+ * 【设计说明】：
+ * 系统短码默认由数据库自增ID编码而来，创建时必须先INSERT拿到ID；
+ * 注册了IdGenerator后，Service层先生成ID并编码出短码，再用一条INSERT写入，
+ * 多个写节点之间不再共享数据库序列
+ *
+ * 【契约】：
+ * - 返回正数，同一实现的所有节点之间全局唯一
+ * - 线程安全，不阻塞（时钟追赶时允许短暂自旋）
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public interface IdGenerator {
+
+    /**
+     * @return 下一个ID
+     * @throws IllegalStateException 当生成器暂时无法保证唯一性时抛出（时钟大幅回拨、节点号租约失效等）
+     */
+    long nextId();
+}
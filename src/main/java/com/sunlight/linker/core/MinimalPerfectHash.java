@@ -0,0 +1,232 @@
+package com.sunlight.linker.core;
+
+import java.util.Arrays;
+
+/**
+ * 最小完美哈希函数（hash-and-displace，CHD/PTHash同类算法）
+ *
+ * 【进阶挑战 - 紧凑索引】
+ *
+ * 对构建时给定的n个互不相同的64位键哈希，把每个键映射到 [0, n) 中唯一的位置，
+ * 不需要保存键本身，也没有空槽位：
+ * <pre>
+ *   bucket = skew(h)                 60%的键落入前30%的桶
+ *   pilot  = pilots[bucket]
+ *   slot   = pilot ≥ 0 ? ⌊mix(h + pilot × φ) × n / 2^64⌋ : ~pilot
+ * </pre>
+ *
+ * 【构建】：
+ * 键按桶分组（平均每桶4个，分布倾斜），从大桶到小桶依次为每个桶寻找一个pilot，
+ * 使桶内所有键落在彼此不同且尚未占用的位置；
+ * 只有一个键的桶排在最后，直接把空闲位置取反后存为pilot，不需要搜索
+ *
+ * 【查找】：
+ * 一次读pilots数组（一条缓存行）加一次混合计算，没有分支循环；
+ * 不在构建集合中的哈希同样会得到 [0, n) 中的某个位置，成员校验由调用方用指纹完成
+ *
+ * 【内存】：
+ * 每个桶一个int，约每键1字节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class MinimalPerfectHash {
+
+    /**
+     * 平均桶大小，越大pilots越小，但构建时后段的pilot搜索越慢
+     */
+    static final int AVERAGE_BUCKET_SIZE = 4;
+
+    private static final double DENSE_BUCKET_FRACTION = 0.3;
+    private static final long DENSE_KEY_THRESHOLD = (long) (0.6 * (1L << 32));
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * 多键桶的pilot搜索上限，超过说明哈希质量异常
+     */
+    private static final int MAX_PILOT = Integer.MAX_VALUE;
+
+    private static final MinimalPerfectHash EMPTY = new MinimalPerfectHash(0, new int[1]);
+
+    private final int size;
+    private final int[] pilots;
+
+    private MinimalPerfectHash(int size, int[] pilots) {
+        this.size = size;
+        this.pilots = pilots;
+    }
+
+    /**
+     * 为一组键哈希构建最小完美哈希
+     *
+     * @param keyHashes 键的64位哈希，构建过程中不会被修改
+     * @return 最小完美哈希
+     * @throws IllegalArgumentException 当存在相同的哈希值时抛出（调用方应换种子重新哈希）
+     */
+    public static MinimalPerfectHash build(long[] keyHashes) {
+        int n = keyHashes.length;
+        if (n == 0) {
+            return EMPTY;
+        }
+        int bucketCount = Math.max(1, (n + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+
+        // 按桶做计数排序：bucketStart[b] .. bucketStart[b+1] 为桶b的键
+        int[] bucketStart = new int[bucketCount + 1];
+        for (long h : keyHashes) {
+            bucketStart[bucketOf(h, bucketCount) + 1]++;
+        }
+        int maxBucketSize = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maxBucketSize = Math.max(maxBucketSize, bucketStart[b + 1]);
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        long[] grouped = new long[n];
+        int[] fill = Arrays.copyOf(bucketStart, bucketCount);
+        for (long h : keyHashes) {
+            grouped[fill[bucketOf(h, bucketCount)]++] = h;
+        }
+
+        // 桶按大小降序排列（同样是计数排序）
+        int[] sizeStart = new int[maxBucketSize + 2];
+        for (int b = 0; b < bucketCount; b++) {
+            sizeStart[maxBucketSize - (bucketStart[b + 1] - bucketStart[b]) + 1]++;
+        }
+        for (int s = 0; s <= maxBucketSize; s++) {
+            sizeStart[s + 1] += sizeStart[s];
+        }
+        int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[sizeStart[maxBucketSize - (bucketStart[b + 1] - bucketStart[b])]++] = b;
+        }
+
+        int[] pilots = new int[bucketCount];
+        long[] taken = new long[(n + 63) >>> 6];
+        int[] positions = new int[maxBucketSize];
+        int freeCursor = 0;
+
+        for (int bucket : order) {
+            int from = bucketStart[bucket];
+            int bucketSize = bucketStart[bucket + 1] - from;
+            if (bucketSize == 0) {
+                break;
+            }
+            if (bucketSize == 1) {
+                while (isTaken(taken, freeCursor)) {
+                    freeCursor++;
+                }
+                setTaken(taken, freeCursor);
+                pilots[bucket] = ~freeCursor;
+                continue;
+            }
+            rejectDuplicates(grouped, from, bucketSize);
+            pilots[bucket] = searchPilot(grouped, from, bucketSize, n, taken, positions);
+        }
+        return new MinimalPerfectHash(n, pilots);
+    }
+
+    /**
+     * 查找键哈希对应的位置
+     *
+     * @param keyHash 键的64位哈希
+     * @return 构建集合中的键返回其唯一位置；其他哈希返回 [0, n) 中的任意位置；空集合返回-1
+     */
+    public int slotOf(long keyHash) {
+        if (size == 0) {
+            return -1;
+        }
+        int pilot = pilots[bucketOf(keyHash, pilots.length)];
+        return pilot < 0 ? ~pilot : position(keyHash, pilot, size);
+    }
+
+    /**
+     * 键数量，同时也是位置的取值范围
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * pilots数组占用的字节数
+     */
+    public long memoryBytes() {
+        return (long) pilots.length * Integer.BYTES;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static int searchPilot(long[] grouped, int from, int bucketSize, int n, long[] taken, int[] positions) {
+        for (int pilot = 0; pilot < MAX_PILOT; pilot++) {
+            if (tryPlace(grouped, from, bucketSize, pilot, n, taken, positions)) {
+                for (int i = 0; i < bucketSize; i++) {
+                    setTaken(taken, positions[i]);
+                }
+                return pilot;
+            }
+        }
+        throw new IllegalStateException("找不到可用的pilot，桶大小: " + bucketSize);
+    }
+
+    private static boolean tryPlace(long[] grouped, int from, int bucketSize, int pilot, int n,
+                                    long[] taken, int[] positions) {
+        for (int i = 0; i < bucketSize; i++) {
+            int position = position(grouped[from + i], pilot, n);
+            if (isTaken(taken, position)) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (positions[j] == position) {
+                    return false;
+                }
+            }
+            positions[i] = position;
+        }
+        return true;
+    }
+
+    private static void rejectDuplicates(long[] grouped, int from, int bucketSize) {
+        for (int i = 1; i < bucketSize; i++) {
+            for (int j = 0; j < i; j++) {
+                if (grouped[from + i] == grouped[from + j]) {
+                    throw new IllegalArgumentException("存在相同的键哈希: " + Long.toHexString(grouped[from + i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * 倾斜分桶：大桶更大、数量更少，在表还空的时候优先放置，减少高负载阶段的pilot搜索
+     */
+    private static int bucketOf(long keyHash, int bucketCount) {
+        int denseBuckets = (int) (bucketCount * DENSE_BUCKET_FRACTION);
+        if (denseBuckets == 0) {
+            return (int) Math.unsignedMultiplyHigh(keyHash, bucketCount);
+        }
+        // 低32位决定落入哪一段，高位决定段内的桶，两者相互独立
+        if ((keyHash & 0xFFFFFFFFL) < DENSE_KEY_THRESHOLD) {
+            return (int) Math.unsignedMultiplyHigh(keyHash, denseBuckets);
+        }
+        return denseBuckets + (int) Math.unsignedMultiplyHigh(keyHash, bucketCount - denseBuckets);
+    }
+
+    private static int position(long keyHash, int pilot, int n) {
+        return (int) Math.unsignedMultiplyHigh(mix(keyHash + pilot * GOLDEN_GAMMA), n);
+    }
+
+    /**
+     * SplitMix64终结混合，保证不同pilot得到相互独立的位置
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static boolean isTaken(long[] taken, int position) {
+        return (taken[position >>> 6] & (1L << position)) != 0;
+    }
+
+    private static void setTaken(long[] taken, int position) {
+        taken[position >>> 6] |= 1L << position;
+    }
+}
@@ -0,0 +1,329 @@
+package com.sunlight.linker.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 压缩前缀树（Radix Tree）实现的字符串集合
+ *
+ * 【设计说明】：
+ * 只有一个子节点的链被压缩到一条边上，边上保存整段标签：
+ * <pre>
+ *   插入 promo, promo2026, profile
+ *
+ *   (root) ── "pro" ─┬─ "file"•
+ *                    └─ "mo"• ── "2026"•          • 表示键在此结束
+ * </pre>
+ * 查找时每层按首字符二分查找子节点，再比较整段标签，步数只与键长有关，与集合大小无关；
+ * 前缀查询先沿前缀走到子树的根，再按字典序遍历子树，不访问子树以外的节点
+ *
+ * 【线程安全】：
+ * 节点不可变，写入时复制从根到修改点的路径并替换volatile根（写入之间由ReentrantLock串行），
+ * 读取不加锁，总是看到某个完整版本
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class RadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Node root = new Node("", false, NO_CHILDREN);
+    private volatile int size;
+
+    /**
+     * @param key 键
+     * @return 集合中包含该键时返回true
+     */
+    public boolean contains(CharSequence key) {
+        Node node = locate(root, key);
+        return node != null && node.terminal;
+    }
+
+    /**
+     * 添加键
+     *
+     * @param key 键，不能为空串
+     * @return 键原本不存在时返回true
+     */
+    public boolean add(String key) {
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("键不能为空串");
+        }
+        writeLock.lock();
+        try {
+            Node current = root;
+            Node updated = insert(current, key, 0);
+            if (updated == current) {
+                return false;
+            }
+            root = updated;
+            size++;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 删除键
+     *
+     * @param key 键
+     * @return 键原本存在时返回true
+     */
+    public boolean remove(String key) {
+        writeLock.lock();
+        try {
+            Node current = root;
+            Node updated = delete(current, key, 0);
+            if (updated == current) {
+                return false;
+            }
+            root = updated == null ? new Node("", false, NO_CHILDREN) : updated;
+            size--;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 按字典序列出以 prefix 开头的键
+     *
+     * @param prefix 前缀，空串表示全部键
+     * @param limit 最多返回的键数
+     * @return 以 prefix 开头的键（包括 prefix 本身），最多 limit 个
+     */
+    public List<String> keysWithPrefix(CharSequence prefix, int limit) {
+        List<String> keys = new ArrayList<>();
+        if (limit <= 0) {
+            return keys;
+        }
+        Node node = root;
+        StringBuilder path = new StringBuilder(prefix.length() + 8);
+        int i = 0;
+        int length = prefix.length();
+        while (i < length) {
+            int index = indexOf(node.children, prefix.charAt(i));
+            if (index < 0) {
+                return keys;
+            }
+            Node child = node.children[index];
+            String label = child.label;
+            // 前缀可以停在边的中间，此时整棵子树都以前缀开头
+            if (!regionMatches(label, prefix, i, Math.min(label.length(), length - i))) {
+                return keys;
+            }
+            path.append(label);
+            i += label.length();
+            node = child;
+        }
+        collect(node, path, keys, limit);
+        return keys;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 沿键向下查找
+     *
+     * @return 键恰好结束处的节点，键停在某条边中间或不存在时为null
+     */
+    private static Node locate(Node node, CharSequence key) {
+        int i = 0;
+        int length = key.length();
+        while (i < length) {
+            int index = indexOf(node.children, key.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            String label = child.label;
+            if (length - i < label.length() || !regionMatches(label, key, i, label.length())) {
+                return null;
+            }
+            i += label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * 按字典序收集子树中的键，path 为从根到 node 的完整标签
+     */
+    private static void collect(Node node, StringBuilder path, List<String> keys, int limit) {
+        if (node.terminal) {
+            keys.add(path.toString());
+        }
+        for (Node child : node.children) {
+            if (keys.size() >= limit) {
+                return;
+            }
+            int mark = path.length();
+            path.append(child.label);
+            collect(child, path, keys, limit);
+            path.setLength(mark);
+        }
+    }
+
+    private static Node insert(Node node, String key, int from) {
+        if (from == key.length()) {
+            return node.terminal ? node : new Node(node.label, true, node.children);
+        }
+        int index = indexOf(node.children, key.charAt(from));
+        if (index < 0) {
+            Node leaf = new Node(key.substring(from), true, NO_CHILDREN);
+            return node.withChildAt(-index - 1, leaf, false);
+        }
+        Node child = node.children[index];
+        String label = child.label;
+        int common = commonPrefixLength(label, key, from);
+        if (common == label.length()) {
+            Node updated = insert(child, key, from + common);
+            return updated == child ? node : node.withChildAt(index, updated, true);
+        }
+        // 在标签中间分裂：公共部分成为新的中间节点，原子节点保留剩余标签
+        Node tail = new Node(label.substring(common), child.terminal, child.children);
+        Node middle;
+        if (from + common == key.length()) {
+            middle = new Node(label.substring(0, common), true, new Node[]{tail});
+        } else {
+            Node leaf = new Node(key.substring(from + common), true, NO_CHILDREN);
+            Node[] pair = tail.label.charAt(0) < leaf.label.charAt(0)
+                    ? new Node[]{tail, leaf} : new Node[]{leaf, tail};
+            middle = new Node(label.substring(0, common), false, pair);
+        }
+        return node.withChildAt(index, middle, true);
+    }
+
+    /**
+     * @return 删除后的节点；节点不再需要时为null；键不存在时原样返回
+     */
+    private static Node delete(Node node, String key, int from) {
+        if (from == key.length()) {
+            if (!node.terminal) {
+                return node;
+            }
+            return compact(new Node(node.label, false, node.children));
+        }
+        int index = indexOf(node.children, key.charAt(from));
+        if (index < 0) {
+            return node;
+        }
+        Node child = node.children[index];
+        String label = child.label;
+        if (key.length() - from < label.length() || !key.startsWith(label, from)) {
+            return node;
+        }
+        Node updated = delete(child, key, from + label.length());
+        if (updated == child) {
+            return node;
+        }
+        Node[] children;
+        if (updated == null) {
+            children = new Node[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        } else {
+            children = node.children.clone();
+            children[index] = updated;
+        }
+        return compact(new Node(node.label, node.terminal, children));
+    }
+
+    /**
+     * 删除后恢复压缩：非终止的空节点移除，非终止且只有一个子节点的节点与子节点合并（根节点除外）
+     */
+    private static Node compact(Node node) {
+        if (node.label.isEmpty() || node.terminal) {
+            return node;
+        }
+        if (node.children.length == 0) {
+            return null;
+        }
+        if (node.children.length == 1) {
+            Node only = node.children[0];
+            return new Node(node.label + only.label, only.terminal, only.children);
+        }
+        return node;
+    }
+
+    /**
+     * 按首字符二分查找子节点
+     *
+     * @return 下标；不存在时为 -(插入点) - 1
+     */
+    private static int indexOf(Node[] children, char first) {
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = children[mid].label.charAt(0);
+            if (c < first) {
+                low = mid + 1;
+            } else if (c > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefixLength(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean regionMatches(String label, CharSequence key, int from, int length) {
+        for (int i = 0; i < length; i++) {
+            if (label.charAt(i) != key.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 不可变节点，label是从父节点到本节点的边上的标签（根节点为空串）
+     */
+    private static final class Node {
+
+        private final String label;
+        private final boolean terminal;
+        private final Node[] children;
+
+        private Node(String label, boolean terminal, Node[] children) {
+            this.label = label;
+            this.terminal = terminal;
+            this.children = children;
+        }
+
+        /**
+         * @param replace true时替换下标处的子节点，false时在下标处插入
+         */
+        private Node withChildAt(int index, Node child, boolean replace) {
+            Node[] copy;
+            if (replace) {
+                copy = children.clone();
+            } else {
+                copy = Arrays.copyOf(children, children.length + 1);
+                System.arraycopy(children, index, copy, index + 1, children.length - index);
+            }
+            copy[index] = child;
+            return new Node(label, terminal, copy);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.sunlight.linker.core;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 系统保留词集合（不区分大小写）
+ *
+ * 【进阶挑战 - 校验快速路径】
+ *
+ * 构建时为全部保留词建立最小完美哈希，每个位置保存对应的小写保留词：
+ * <pre>
+ *   contains("Admin")
+ *     ├── 长度不在保留词长度集合中 ──▶ false
+ *     ├── 边折叠大小写边哈希 ──▶ slotOf ──▶ words[slot]
+ *     └── 与 words[slot] 逐字符忽略大小写比较
+ * </pre>
+ * 查询不调用 toLowerCase()、不分配对象，耗时与保留词数量无关
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class ReservedWords {
+
+    /**
+     * 默认保留词：与系统路径和常见子域名冲突的别名
+     */
+    public static final List<String> DEFAULT_WORDS = List.of(
+            "api", "admin", "health", "metrics", "docs", "swagger",
+            "actuator", "management", "error", "login", "logout",
+            "index", "home", "about", "help", "contact", "privacy",
+            "terms", "www", "ftp", "mail", "email");
+
+    private static final int MAX_SEED_ATTEMPTS = 16;
+
+    private static final ReservedWords DEFAULTS = of(DEFAULT_WORDS);
+
+    private final MinimalPerfectHash hash;
+    private final long seed;
+    private final String[] words;
+
+    /**
+     * 第i位为1表示存在长度为i的保留词，长度不小于64的保留词统一记在第63位
+     */
+    private final long lengths;
+
+    private ReservedWords(MinimalPerfectHash hash, long seed, String[] words, long lengths) {
+        this.hash = hash;
+        this.seed = seed;
+        this.words = words;
+        this.lengths = lengths;
+    }
+
+    /**
+     * @return 默认保留词集合
+     */
+    public static ReservedWords defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 构建保留词集合
+     *
+     * @param reserved 保留词，大小写不敏感，重复项合并
+     * @return 保留词集合
+     * @throws IllegalArgumentException 当包含空白保留词时抛出
+     */
+    public static ReservedWords of(Collection<String> reserved) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String word : reserved) {
+            if (word == null || word.isBlank()) {
+                throw new IllegalArgumentException("保留词不能为空");
+            }
+            unique.add(foldAll(word.trim()));
+        }
+        String[] distinct = unique.toArray(new String[0]);
+        long lengths = 0;
+        for (String word : distinct) {
+            lengths |= 1L << Math.min(word.length(), 63);
+        }
+
+        long[] hashes = new long[distinct.length];
+        for (long seed = 0; ; seed++) {
+            for (int i = 0; i < distinct.length; i++) {
+                hashes[i] = hash(distinct[i], seed);
+            }
+            try {
+                MinimalPerfectHash mph = MinimalPerfectHash.build(hashes);
+                String[] words = new String[distinct.length];
+                for (int i = 0; i < distinct.length; i++) {
+                    words[mph.slotOf(hashes[i])] = distinct[i];
+                }
+                return new ReservedWords(mph, seed, words, lengths);
+            } catch (IllegalArgumentException e) {
+                if (seed == MAX_SEED_ATTEMPTS - 1) {
+                    throw new IllegalArgumentException("保留词哈希冲突，无法构建完美哈希", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断是否为保留词（不区分大小写，不分配对象）
+     *
+     * @param alias 别名
+     * @return 是保留词时返回true
+     */
+    public boolean contains(CharSequence alias) {
+        int length = alias.length();
+        if ((lengths & (1L << Math.min(length, 63))) == 0) {
+            return false;
+        }
+        int slot = hash.slotOf(hash(alias, seed));
+        if (slot < 0) {
+            return false;
+        }
+        String word = words[slot];
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (fold(alias.charAt(i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 折叠大小写后的FNV-1a哈希，接SplitMix64终结混合
+     */
+    private static long hash(CharSequence text, long seed) {
+        long h = 0xCBF29CE484222325L ^ (seed * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < text.length(); i++) {
+            h ^= fold(text.charAt(i));
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private static String foldAll(String word) {
+        char[] chars = new char[word.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(word.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 逐字符折叠大小写：ASCII用位运算，其他字符用 Character.toLowerCase，不受默认Locale影响
+     */
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c | 0x20);
+        }
+        return c < 0x80 ? c : Character.toLowerCase(c);
+    }
+}
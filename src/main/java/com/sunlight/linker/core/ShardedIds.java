@@ -0,0 +1,66 @@
+package com.sunlight.linker.core;
+
+/**
+ * 带分片号的全局ID
+ *
+ * 【布局】：
+ * <pre>
+ *   63                     10 9        0
+ *   ┌────────────────────────┬──────────┐
+ *   │  分片内序列号（53位）    │ 分片号    │
+ *   └────────────────────────┴──────────┘
+ * </pre>
+ * 系统短码是全局ID经 ShortCodeCodec 编码的结果，解码后取低10位即可得到分片号，
+ * 解析路径不需要任何路由表；分片号放在低位，每个分片各自的序列号互不冲突
+ *
+ * 【容量】：
+ * 最多1024个分片，每个分片 2^53 个ID；顺序编码下短码比单库多约2个字符
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class ShardedIds {
+
+    public static final int SHARD_BITS = 10;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+    private static final long MAX_LOCAL_ID = Long.MAX_VALUE >>> SHARD_BITS;
+
+    private ShardedIds() {
+    }
+
+    /**
+     * 组合全局ID
+     *
+     * @param localId 分片内序列号，正数
+     * @param shard 分片号
+     * @return 全局ID
+     * @throws IllegalArgumentException 当序列号或分片号超出范围时抛出
+     */
+    public static long compose(long localId, int shard) {
+        if (localId <= 0 || localId > MAX_LOCAL_ID) {
+            throw new IllegalArgumentException("分片内序列号超出范围: " + localId);
+        }
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("分片号超出范围: " + shard);
+        }
+        return (localId << SHARD_BITS) | shard;
+    }
+
+    /**
+     * @param id 全局ID
+     * @return 分片号
+     */
+    public static int shardOf(long id) {
+        return (int) (id & SHARD_MASK);
+    }
+
+    /**
+     * @param id 全局ID
+     * @return 分片内序列号
+     */
+    public static long localIdOf(long id) {
+        return id >>> SHARD_BITS;
+    }
+}
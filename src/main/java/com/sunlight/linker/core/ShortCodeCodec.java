@@ -0,0 +1,94 @@
+package com.sunlight.linker.core;
+
+import java.util.OptionalLong;
+
+/**
+ * 系统短码编解码器：数据库ID与短码之间的双射
+ *
+ * 【实现】：
+ * - sequential()：直接Base62编码ID，短码随ID递增，可以被顺序枚举
+ * - FeistelShortCodeCodec：先对ID做带密钥的置换再编码，短码看起来随机但仍然唯一
+ *
+ * 两种实现都是双射，生成短码时不需要再查询短码是否已存在
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public interface ShortCodeCodec {
+
+    /**
+     * 把ID编码为短码
+     *
+     * @param id 数据库ID，非负
+     * @return 短码
+     * @throws IllegalArgumentException 当ID为负数或超出编码范围时抛出
+     */
+    String encode(long id);
+
+    /**
+     * 把短码还原为ID
+     *
+     * @param shortCode 短码
+     * @return 生成该短码的ID
+     * @throws IllegalArgumentException 当短码不属于该编解码器的编码空间时抛出
+     */
+    long decode(String shortCode);
+
+    /**
+     * 判断短码是否可能由该编解码器生成，是则返回对应ID
+     *
+     * 【使用场景】：
+     * 重定向路径上区分系统短码与自定义别名，不使用异常做控制流；
+     * 自定义别名也可能恰好落在编码空间内，调用方需要用查到的记录再核对短码
+     *
+     * @param shortCode 短码
+     * @return 对应的ID；不属于编码空间（含非规范形式，如带前导零）时为empty
+     */
+    OptionalLong tryDecode(String shortCode);
+
+    /**
+     * 顺序编码：短码即ID的Base62表示
+     *
+     * @return 无状态的共享实例
+     */
+    static ShortCodeCodec sequential() {
+        return Sequential.INSTANCE;
+    }
+
+    /**
+     * 顺序编码实现
+     */
+    enum Sequential implements ShortCodeCodec {
+        INSTANCE;
+
+        @Override
+        public String encode(long id) {
+            return Base62Converter.encode(id);
+        }
+
+        /**
+         * Long.MAX_VALUE的Base62表示为11位
+         */
+        private static final int MAX_LENGTH = 11;
+
+        @Override
+        public long decode(String shortCode) {
+            return Base62Converter.decode(shortCode);
+        }
+
+        @Override
+        public OptionalLong tryDecode(String shortCode) {
+            if (shortCode == null || shortCode.isEmpty() || shortCode.length() > MAX_LENGTH
+                    || (shortCode.length() > 1 && shortCode.charAt(0) == '0')
+                    || !Base62Converter.isValidBase62(shortCode)) {
+                return OptionalLong.empty();
+            }
+            try {
+                return OptionalLong.of(Base62Converter.decode(shortCode));
+            } catch (NumberFormatException e) {
+                // 11位中超出long范围的部分
+                return OptionalLong.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.sunlight.linker.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake风格的ID生成器
+ *
+ * 【进阶挑战 - 分布式ID】
+ *
+ * 默认布局（节点位与序列位可配置，时间位取剩余部分）：
+ * <pre>
+ *   63   62                      22 21        12 11          0
+ *   ┌───┬──────────────────────────┬────────────┬─────────────┐
+ *   │ 0 │ 自定义纪元起的毫秒（41位）│ 节点号(10) │ 毫秒内序列(12)│
+ *   └───┴──────────────────────────┴────────────┴─────────────┘
+ * </pre>
+ *
+ * 【无锁实现】：
+ * 状态是一个AtomicLong，保存上一次发出的 (毫秒 &lt;&lt; 序列位) | 序列；
+ * 每次CAS把它推进到 max(当前毫秒的第一个值, 上一个值 + 1)。
+ * 序列用完时自旋等待时钟进入下一毫秒，不借用未来的时间：
+ * 借用会让逻辑时间领先真实时钟，之后无法再区分"领先"与"回拨"
+ *
+ * 【时钟回拨】：
+ * - 回拨不超过 maxBackwardMillis：沿用上一次的毫秒继续发号（逻辑时钟），ID仍单调；
+ *   该毫秒的序列用完后等待时钟追上
+ * - 超过：抛出IllegalStateException，拒绝发号，等待时钟追上
+ *
+ * 【短码长度】：
+ * ID约等于 (距纪元毫秒数 &lt;&lt; 22)，Base62长度随时间增长，
+ * 纪元越近短码越短，见 doc/性能基准.md 第13节
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+
+    private final long epochMillis;
+    private final long nodeId;
+    private final int sequenceBits;
+    private final int timestampShift;
+    private final long maxTimestamp;
+    private final long maxBackwardMillis;
+    private final LongSupplier clock;
+
+    /**
+     * 上一次发出的 (毫秒 &lt;&lt; sequenceBits) | 序列，不含节点号
+     */
+    private final AtomicLong last = new AtomicLong(-1);
+
+    /**
+     * @param epochMillis 自定义纪元（Unix毫秒）
+     * @param nodeId 节点号，范围 [0, 2^nodeBits)
+     * @param nodeBits 节点位数
+     * @param sequenceBits 毫秒内序列位数
+     * @param maxBackwardMillis 容忍的时钟回拨毫秒数
+     * @param clock 毫秒时钟（测试时可替换）
+     * @throws IllegalArgumentException 当位数或节点号不合法时抛出
+     */
+    public SnowflakeIdGenerator(long epochMillis, long nodeId, int nodeBits, int sequenceBits,
+                                long maxBackwardMillis, LongSupplier clock) {
+        if (nodeBits < 0 || sequenceBits < 1 || nodeBits + sequenceBits > 22) {
+            throw new IllegalArgumentException("节点位与序列位之和不能超过22，时间至少保留41位");
+        }
+        if (nodeId < 0 || nodeId >= (1L << nodeBits)) {
+            throw new IllegalArgumentException("节点号超出范围: " + nodeId);
+        }
+        if (maxBackwardMillis < 0) {
+            throw new IllegalArgumentException("容忍的回拨时间不能为负数");
+        }
+        this.epochMillis = epochMillis;
+        this.nodeId = nodeId;
+        this.sequenceBits = sequenceBits;
+        this.timestampShift = nodeBits + sequenceBits;
+        this.maxTimestamp = (1L << (63 - timestampShift)) - 1;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    public SnowflakeIdGenerator(long epochMillis, long nodeId) {
+        this(epochMillis, nodeId, 10, 12, 1000, System::currentTimeMillis);
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - epochMillis;
+            if (now < 0 || now > maxTimestamp) {
+                throw new IllegalStateException("当前时间超出纪元范围: " + now);
+            }
+            long previous = last.get();
+            long previousMillis = previous >>> sequenceBits;
+            long next;
+            if (previous < 0 || now > previousMillis) {
+                // 纪元的第0毫秒从序列1开始，保证ID为正数
+                next = Math.max(now << sequenceBits, 1);
+            } else {
+                if (previousMillis - now > maxBackwardMillis) {
+                    throw new IllegalStateException("时钟回拨 " + (previousMillis - now) + "ms，超过容忍值 "
+                            + maxBackwardMillis + "ms");
+                }
+                next = previous + 1;
+                if ((next >>> sequenceBits) != previousMillis) {
+                    // 本毫秒的序列已用完，等时钟进入下一毫秒
+                    Thread.onSpinWait();
+                    continue;
+                }
+            }
+            if (last.compareAndSet(previous, next)) {
+                long millis = next >>> sequenceBits;
+                long sequence = next & ((1L << sequenceBits) - 1);
+                return (millis << timestampShift) | (nodeId << sequenceBits) | sequence;
+            }
+        }
+    }
+
+    /**
+     * @param id 本生成器发出的ID
+     * @return ID中的时间（Unix毫秒）
+     */
+    public long timestampOf(long id) {
+        return (id >>> timestampShift) + epochMillis;
+    }
+
+    /**
+     * @param id 本生成器发出的ID
+     * @return ID中的节点号
+     */
+    public long nodeIdOf(long id) {
+        return (id >>> sequenceBits) & ((1L << (timestampShift - sequenceBits)) - 1);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,299 @@
+package com.sunlight.linker.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮（Hierarchical Timing Wheel）
+ *
+ * 【设计说明】：
+ * 6层、每层64个槽，第L层一个槽覆盖 64^L 个tick：
+ * <pre>
+ *   层0   1 tick/槽      覆盖 64 tick
+ *   层1   64 tick/槽     覆盖 4096 tick
+ *   ...
+ *   层5   64^5 tick/槽   覆盖 64^6 ≈ 6.9×10^10 tick（10ms一个tick约21年）
+ * </pre>
+ * 定时器按距离到期的tick数放入对应层的槽（双向链表），插入和取消都是O(1)；
+ * 时间推进到某一层槽的起点时，把该槽整体"降级"重新插入下层（cascade），
+ * 每个定时器最多被搬运 层数-1 次，到期时按tick整槽批量取出
+ *
+ * 【与ScheduledThreadPoolExecutor的区别】：
+ * STPE用二叉堆，插入和取消都是O(log n)，且每个任务到期都要单独出堆；
+ * 时间轮把精度降到一个tick，换取与待触发数量无关的插入/取消开销
+ *
+ * 【线程安全】：
+ * 所有结构修改在同一把锁内完成；到期回调在锁外执行，回调里可以再次调用schedule/cancel
+ *
+ * 【使用方式】：
+ * <pre>
+ *   TimingWheel&lt;String&gt; wheel = new TimingWheel&lt;&gt;(10, System.currentTimeMillis());
+ *   TimingWheel.Timeout&lt;String&gt; timeout = wheel.schedule("abc123", deadlineMillis);
+ *   timeout.cancel();                                     // 可选
+ *   wheel.advance(System.currentTimeMillis(), expired -&gt; ...); // 由单个驱动线程周期调用
+ * </pre>
+ *
+ * @param <T> 定时器携带的数据类型
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class TimingWheel<T> {
+
+    public static final int WHEEL_BITS = 6;
+    public static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    public static final int LEVELS = 6;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * 可表示的最大tick距离，更远的定时器先放在最高层，降级时重新计算
+     */
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long startMillis;
+
+    /**
+     * 每个槽一个哨兵节点，组成循环双向链表
+     */
+    private final Timeout<T>[][] slots;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 已经处理完的tick
+     */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * 创建时间轮
+     *
+     * @param tickMillis 一个tick的毫秒数，即到期精度
+     * @param startMillis 起始时间（毫秒），通常为System.currentTimeMillis()
+     * @throws IllegalArgumentException 当tickMillis不是正数时抛出
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis必须为正数，输入值: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Timeout[LEVELS][WHEEL_SIZE];
+        for (Timeout<T>[] level : slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                Timeout<T> sentinel = new Timeout<>(this, null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 添加定时器
+     *
+     * 【说明】：
+     * 到期时间向上取整到tick边界，不会早于deadlineMillis触发；
+     * 已经过去的时间在下一个tick触发
+     *
+     * @param payload 到期时交给回调的数据
+     * @param deadlineMillis 到期时间（毫秒）
+     * @return 可用于取消的句柄
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.ceilDiv(deadlineMillis - startMillis, tickMillis);
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+        lock.lock();
+        try {
+            // 当前tick已经处理完，最早在下一个tick触发
+            place(timeout, 1);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * 把时间推进到nowMillis，按tick顺序取出全部到期的定时器
+     *
+     * 【说明】：
+     * 应由单个驱动线程调用；回调在锁外按到期顺序逐个执行，
+     * 同一tick内的定时器之间没有顺序保证
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @param onExpired 到期回调
+     * @return 本次到期的定时器数量
+     */
+    public int advance(long nowMillis, Consumer<? super T> onExpired) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = null;
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                if (size == 0) {
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                Timeout<T> sentinel = slots[0][(int) (currentTick & WHEEL_MASK)];
+                for (Timeout<T> timeout = sentinel.next; timeout != sentinel; ) {
+                    Timeout<T> next = timeout.next;
+                    timeout.prev = null;
+                    timeout.next = null;
+                    timeout.state = Timeout.EXPIRED;
+                    size--;
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(timeout.payload);
+                    timeout = next;
+                }
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (expired == null) {
+            return 0;
+        }
+        for (T payload : expired) {
+            onExpired.accept(payload);
+        }
+        return expired.size();
+    }
+
+    /**
+     * @return 尚未到期也未取消的定时器数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 把定时器放入距离到期tick数对应的层与槽（调用方持有锁）
+     *
+     * @param minDelta 最小tick距离：新定时器为1；降级时为0，放入随后就会被取出的当前槽
+     */
+    private void place(Timeout<T> timeout, long minDelta) {
+        long delta = Math.max(timeout.deadlineTick - currentTick, minDelta);
+        long deadlineTick = currentTick + Math.min(delta, MAX_DELTA);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        Timeout<T> sentinel = slots[level][index];
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+    }
+
+    /**
+     * 到达高层槽的起点时，从最高的一层开始把该槽的定时器降级（调用方持有锁）
+     */
+    private void cascade() {
+        int top = 0;
+        while (top < LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Timeout<T> sentinel = slots[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+            Timeout<T> timeout = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (timeout != sentinel) {
+                Timeout<T> next = timeout.next;
+                place(timeout, 0);
+                timeout = next;
+            }
+        }
+    }
+
+    private boolean cancel(Timeout<T> timeout) {
+        lock.lock();
+        try {
+            if (timeout.state != Timeout.PENDING) {
+                return false;
+            }
+            timeout.prev.next = timeout.next;
+            timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.state = Timeout.CANCELLED;
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 定时器句柄
+     *
+     * @param <T> 携带的数据类型
+     */
+    public static final class Timeout<T> {
+
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final TimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        /**
+         * 只在持有时间轮锁时修改
+         */
+        private volatile int state = PENDING;
+
+        private Timeout(TimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * 取消定时器
+         *
+         * @return 本次调用取消成功返回true；已到期或已取消返回false
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public T payload() {
+            return payload;
+        }
+    }
+}
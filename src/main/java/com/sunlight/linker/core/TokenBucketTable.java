@@ -0,0 +1,149 @@
+package com.sunlight.linker.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 按客户端分桶的令牌桶表，内存有上限
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 每个客户端一个令牌桶：容量为突发上限，按固定速率补充，每个请求取走一个令牌；
+ * 桶内不保存定时器，取令牌时按距上次更新经过的时间一次性补齐：
+ * <pre>
+ *   tokens = min(capacity, tokens + (now - updated) × rate)
+ *   tokens ≥ 1 ──▶ 放行，tokens -= 1
+ *   tokens &lt; 1 ──▶ 拒绝，(1 - tokens) / rate 后才有下一个令牌
+ * </pre>
+ *
+ * 【分段】：
+ * 客户端按哈希分到 2^k 个分段，每段是一个按访问顺序排列的 LinkedHashMap，由各自的 ReentrantLock 保护
+ * （不用synchronized，虚拟线程在锁上等待时不会固定载体线程），
+ * 不同分段上的请求互不阻塞；每段最多保存 maxClients / 分段数 个桶，超出时淘汰本段最久未访问的桶，
+ * 整体是近似LRU。被淘汰的通常是早已补满的空闲桶，重新出现时按满桶创建，与淘汰前没有区别
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class TokenBucketTable {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    /**
+     * @param capacity 桶容量（允许的突发请求数），至少为1
+     * @param refillPerSecond 每秒补充的令牌数，必须大于0
+     * @param maxClients 保存的桶数上限
+     * @param nanoClock 单调纳秒时钟，生产环境为 System::nanoTime
+     */
+    public TokenBucketTable(long capacity, double refillPerSecond, int maxClients, LongSupplier nanoClock) {
+        if (capacity < 1 || !(refillPerSecond > 0) || maxClients < 1) {
+            throw new IllegalArgumentException("令牌桶容量、补充速率和客户端上限都必须为正数");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+
+        // 分段数为2的幂，每段至少16个桶，最多为CPU数的8倍
+        int count = Integer.highestOneBit(Math.max(1, Math.min(maxClients / 16,
+                Runtime.getRuntime().availableProcessors() * 8)));
+        this.segments = new Segment[count];
+        int perSegment = Math.max(1, maxClients / count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * 为客户端取一个令牌
+     *
+     * @param client 客户端标识
+     * @return 0表示放行；否则为距下一个令牌可用的纳秒数
+     */
+    public long tryAcquire(String client) {
+        Segment segment = segmentFor(client);
+        segment.lock.lock();
+        try {
+            // 在锁内读时钟，同一个桶的更新时间单调不减
+            long now = nanoClock.getAsLong();
+            Bucket bucket = segment.get(client);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                segment.put(client, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updated) * tokensPerNano);
+                bucket.updated = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前保存的桶数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Segment segmentFor(String client) {
+        if (segmentShift == 32) {
+            return segments[0];
+        }
+        return segments[(client.hashCode() * 0x9E3779B9) >>> segmentShift];
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updated;
+
+        private Bucket(double tokens, long updated) {
+            this.tokens = tokens;
+            this.updated = updated;
+        }
+    }
+
+    /**
+     * 按访问顺序排列的分段，超出上限时淘汰最久未访问的桶
+     */
+    private static final class Segment extends LinkedHashMap<String, Bucket> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxBuckets;
+
+        private Segment(int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxBuckets;
+        }
+    }
+}
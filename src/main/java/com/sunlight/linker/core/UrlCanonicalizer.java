@@ -0,0 +1,255 @@
+package com.sunlight.linker.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 长链接规范化，用于去重前统一同一资源的不同写法
+ *
+ * 【进阶挑战 - 去重命中率】
+ *
+ * <pre>
+ *   HTTP://Example.COM:80/a%7e?b=1&amp;utm_source=x#top
+ *     ──▶ http://example.com/a~?b=1#top
+ * </pre>
+ *
+ * 【规则】：
+ * 不改变语义的部分总是执行（RFC 3986 第6.2.2节）：
+ * - 协议、主机转小写
+ * - 去掉默认端口（http:80、https:443），其他端口去掉前导0
+ * - 空路径补为 "/"
+ * - 百分号转义：非保留字符（字母、数字、- . _ ~）解码，其余转义的十六进制改为大写
+ *
+ * 可选部分由构造参数决定：
+ * - 删除跟踪参数：参数名精确匹配，以 '*' 结尾时按前缀匹配，不区分大小写；删空后连同 '?' 一起去掉
+ * - 按参数名排序查询参数（稳定排序，同名参数保持原有顺序）
+ *
+ * 片段（#之后）原样保留，只做百分号转义的规范化
+ *
+ * 【前置条件】：
+ * 输入必须已经通过 UrlValidator 校验
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class UrlCanonicalizer {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final Comparator<String> BY_NAME = Comparator.comparing(UrlCanonicalizer::paramName);
+
+    private final String[] exactParams;
+    private final String[] paramPrefixes;
+    private final boolean sortQuery;
+
+    /**
+     * @param stripParams 要删除的查询参数名，"utm_*" 表示前缀匹配，空集合表示不删除
+     * @param sortQuery 是否按参数名排序查询参数
+     */
+    public UrlCanonicalizer(Collection<String> stripParams, boolean sortQuery) {
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String param : stripParams) {
+            if (param.endsWith("*")) {
+                prefixes.add(param.substring(0, param.length() - 1));
+            } else {
+                exact.add(param);
+            }
+        }
+        this.exactParams = exact.toArray(new String[0]);
+        this.paramPrefixes = prefixes.toArray(new String[0]);
+        this.sortQuery = sortQuery;
+    }
+
+    /**
+     * @return 只执行不改变语义的规则的规范化器
+     */
+    public static UrlCanonicalizer lossless() {
+        return new UrlCanonicalizer(List.of(), false);
+    }
+
+    /**
+     * 规范化长链接
+     *
+     * @param url 已通过 UrlValidator 校验的长链接
+     * @return 规范形式；与输入（去除首尾空白后）相同时返回去除空白后的输入
+     */
+    public String canonicalize(String url) {
+        String trimmed = url.trim();
+        int length = trimmed.length();
+        int schemeEnd = trimmed.indexOf(':');
+        // 校验器只放行http/https，按长度即可确定小写形式
+        String scheme = schemeEnd == 5 ? "https" : "http";
+
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < length && !isAuthorityEnd(trimmed.charAt(authorityEnd))) {
+            authorityEnd++;
+        }
+        int fragmentStart = trimmed.indexOf('#', authorityEnd);
+        int restEnd = fragmentStart < 0 ? length : fragmentStart;
+        int queryStart = trimmed.indexOf('?', authorityEnd);
+        if (queryStart > restEnd) {
+            queryStart = -1;
+        }
+        int pathEnd = queryStart < 0 ? restEnd : queryStart;
+
+        StringBuilder canonical = new StringBuilder(length);
+        canonical.append(scheme).append("://");
+        appendAuthority(canonical, trimmed, authorityStart, authorityEnd, scheme);
+        if (pathEnd == authorityEnd) {
+            canonical.append('/');
+        } else {
+            appendNormalized(canonical, trimmed, authorityEnd, pathEnd);
+        }
+        if (queryStart >= 0) {
+            appendQuery(canonical, trimmed, queryStart + 1, restEnd);
+        }
+        if (fragmentStart >= 0) {
+            canonical.append('#');
+            appendNormalized(canonical, trimmed, fragmentStart + 1, length);
+        }
+        return trimmed.contentEquals(canonical) ? trimmed : canonical.toString();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static boolean isAuthorityEnd(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private static void appendAuthority(StringBuilder canonical, String url, int from, int to, String scheme) {
+        int hostEnd = to;
+        if (url.charAt(from) == '[') {
+            hostEnd = url.indexOf(']', from) + 1;
+        } else {
+            int colon = url.lastIndexOf(':', to - 1);
+            if (colon >= from) {
+                hostEnd = colon;
+            }
+        }
+        if (hasUpperCase(url, from, hostEnd)) {
+            canonical.append(url.substring(from, hostEnd).toLowerCase(Locale.ROOT));
+        } else {
+            canonical.append(url, from, hostEnd);
+        }
+        if (hostEnd < to) {
+            int port = Integer.parseInt(url, hostEnd + 1, to, 10);
+            int defaultPort = "https".equals(scheme) ? 443 : 80;
+            if (port != defaultPort) {
+                canonical.append(':').append(port);
+            }
+        }
+    }
+
+    private void appendQuery(StringBuilder canonical, String url, int from, int to) {
+        List<String> params = new ArrayList<>();
+        int start = from;
+        while (start <= to) {
+            int end = url.indexOf('&', start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            if (end > start) {
+                String normalized = normalized(url, start, end);
+                if (!isStripped(normalized)) {
+                    params.add(normalized);
+                }
+            }
+            start = end + 1;
+        }
+        if (params.isEmpty()) {
+            return;
+        }
+        if (sortQuery) {
+            params.sort(BY_NAME);
+        }
+        canonical.append('?');
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                canonical.append('&');
+            }
+            canonical.append(params.get(i));
+        }
+    }
+
+    private static String normalized(String url, int from, int to) {
+        if (indexOfPercent(url, from, to) < 0) {
+            return url.substring(from, to);
+        }
+        StringBuilder normalized = new StringBuilder(to - from);
+        appendNormalized(normalized, url, from, to);
+        return normalized.toString();
+    }
+
+    private boolean isStripped(String param) {
+        int equals = param.indexOf('=');
+        int nameLength = equals < 0 ? param.length() : equals;
+        for (String exact : exactParams) {
+            if (nameLength == exact.length() && param.regionMatches(true, 0, exact, 0, nameLength)) {
+                return true;
+            }
+        }
+        for (String prefix : paramPrefixes) {
+            if (nameLength >= prefix.length() && param.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String paramName(String param) {
+        int equals = param.indexOf('=');
+        return equals < 0 ? param : param.substring(0, equals);
+    }
+
+    /**
+     * 复制 [from, to) 并规范化百分号转义
+     */
+    private static void appendNormalized(StringBuilder target, String url, int from, int to) {
+        int i = from;
+        while (i < to) {
+            int percent = indexOfPercent(url, i, to);
+            if (percent < 0) {
+                target.append(url, i, to);
+                return;
+            }
+            target.append(url, i, percent);
+            int decoded = Character.digit(url.charAt(percent + 1), 16) << 4
+                    | Character.digit(url.charAt(percent + 2), 16);
+            if (isUnreserved(decoded)) {
+                target.append((char) decoded);
+            } else {
+                target.append('%').append(HEX[decoded >>> 4]).append(HEX[decoded & 0xF]);
+            }
+            i = percent + 3;
+        }
+    }
+
+    private static int indexOfPercent(String url, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (url.charAt(i) == '%') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasUpperCase(String url, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || c >= 0x80) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUnreserved(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
@@ -0,0 +1,332 @@
+package com.sunlight.linker.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 训练得到的静态URL字典压缩
+ *
+ * 【进阶挑战 - 紧凑存储】
+ *
+ * 短链数据里的长链接大量共享"协议+域名"和路径、参数片段（/articles、?utm_source、=newsletter），
+ * 该字典从样本中统计这两类公共部分，编码时替换为1-2字节的编号：
+ * <pre>
+ *   https://www.example.com/articles/42?utm_source=newsletter
+ *   └──── 域名前缀 #3 ─────┘└ 片段 ─┘└┘└─ 片段 ──┘└─ 片段 ──┘
+ *   编码：[03] [0x80] [0x02 '/' '4' '2'] [0x81] [0x82]
+ * </pre>
+ *
+ * 【编码格式】：
+ * <pre>
+ *   前缀编号   变长整数（1-2字节），0表示没有命中域名前缀
+ *   正文       控制字节 0x00-0x7F：随后 (c+1) 个字节原样输出（字面量段，可以包含非ASCII字节）
+ *              控制字节 0x80-0xFF：片段编号 (c-0x80)，最多128个
+ * </pre>
+ *
+ * 【解码】：
+ * 每个字面量段或片段一次数组复制，不逐字节分支，不查哈希表也不分配对象，
+ * 可以对任意一条URL随机解码
+ *
+ * 【线程安全】：
+ * 训练完成后不可变
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class UrlDictionary {
+
+    /**
+     * 默认最多保留的域名前缀数（变长整数2字节可以表示的上限）
+     */
+    public static final int MAX_PREFIXES = (1 << 14) - 1;
+
+    /**
+     * 最多保留的片段数
+     */
+    public static final int MAX_TOKENS = 128;
+
+    private static final int TOKEN_BASE = 0x80;
+    private static final int MAX_LITERAL_RUN = 128;
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final String TOKEN_DELIMITERS = "/?&=#";
+
+    private final byte[][] prefixes;
+    private final byte[][] tokens;
+    private final Map<String, Integer> prefixIndex;
+    /**
+     * 按首字节分组、组内按长度降序的片段编号，只在编码时使用
+     */
+    private final int[][] tokensByFirstByte;
+
+    private UrlDictionary(List<String> prefixList, List<String> tokenList) {
+        this.prefixes = new byte[prefixList.size()][];
+        this.prefixIndex = new HashMap<>();
+        for (int i = 0; i < prefixList.size(); i++) {
+            prefixes[i] = prefixList.get(i).getBytes(StandardCharsets.UTF_8);
+            prefixIndex.put(prefixList.get(i), i + 1);
+        }
+        this.tokens = new byte[tokenList.size()][];
+        for (int i = 0; i < tokenList.size(); i++) {
+            tokens[i] = tokenList.get(i).getBytes(StandardCharsets.US_ASCII);
+        }
+        this.tokensByFirstByte = new int[TOKEN_BASE][];
+        for (int b = 0; b < TOKEN_BASE; b++) {
+            int first = b;
+            tokensByFirstByte[b] = IntStream.range(0, tokens.length)
+                    .filter(i -> tokens[i][0] == first)
+                    .boxed()
+                    .sorted(Comparator.comparingInt((Integer i) -> tokens[i].length).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    /**
+     * 使用默认上限从样本训练字典
+     *
+     * @param sample URL样本，几万条即可覆盖主要域名与参数
+     * @return 字典
+     */
+    public static UrlDictionary train(Iterable<String> sample) {
+        return train(sample, MAX_PREFIXES, MAX_TOKENS);
+    }
+
+    /**
+     * 从样本训练字典
+     *
+     * 【训练方式】：
+     * - 域名前缀：统计"协议://主机[:端口]"，出现2次以上的按频次取前maxPrefixes个
+     * - 片段：把域名之后的部分按 / ? &amp; = # 切开（保留分隔符），
+     *   长度3-32的ASCII片段按"出现次数 ×（长度-1）"即可节省的字节数取前maxTokens个
+     *
+     * @param sample URL样本
+     * @param maxPrefixes 域名前缀上限（不超过16383）
+     * @param maxTokens 片段上限（不超过128）
+     * @return 字典
+     * @throws IllegalArgumentException 当上限超出范围时抛出
+     */
+    public static UrlDictionary train(Iterable<String> sample, int maxPrefixes, int maxTokens) {
+        if (maxPrefixes < 0 || maxPrefixes > MAX_PREFIXES) {
+            throw new IllegalArgumentException("域名前缀上限必须在0-" + MAX_PREFIXES + "之间: " + maxPrefixes);
+        }
+        if (maxTokens < 0 || maxTokens > MAX_TOKENS) {
+            throw new IllegalArgumentException("片段上限必须在0-" + MAX_TOKENS + "之间: " + maxTokens);
+        }
+        Map<String, Integer> prefixCounts = new HashMap<>();
+        Map<String, Integer> tokenCounts = new HashMap<>();
+        for (String url : sample) {
+            int authorityEnd = authorityEnd(url);
+            if (authorityEnd > 0) {
+                prefixCounts.merge(url.substring(0, authorityEnd), 1, Integer::sum);
+            }
+            int start = Math.max(authorityEnd, 0);
+            while (start < url.length()) {
+                int end = start + 1;
+                while (end < url.length() && TOKEN_DELIMITERS.indexOf(url.charAt(end)) < 0) {
+                    end++;
+                }
+                if (end - start >= MIN_TOKEN_LENGTH && end - start <= MAX_TOKEN_LENGTH && isAscii(url, start, end)) {
+                    tokenCounts.merge(url.substring(start, end), 1, Integer::sum);
+                }
+                start = end;
+            }
+        }
+
+        List<String> prefixList = prefixCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= 2)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxPrefixes)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<String> tokenList = tokenCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() >= 2)
+                .sorted(Comparator.comparingLong((Map.Entry<String, Integer> entry) ->
+                                (long) entry.getValue() * (entry.getKey().length() - 1)).reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxTokens)
+                .map(Map.Entry::getKey)
+                .toList();
+        return new UrlDictionary(prefixList, tokenList);
+    }
+
+    /**
+     * 编码一条URL（构建期调用，会分配对象）
+     *
+     * @param url 原始URL
+     * @return 编码后的字节
+     */
+    public byte[] encode(String url) {
+        int authorityEnd = authorityEnd(url);
+        Integer prefix = authorityEnd > 0 ? prefixIndex.get(url.substring(0, authorityEnd)) : null;
+        byte[] raw = url.getBytes(StandardCharsets.UTF_8);
+        int start = prefix == null ? 0 : prefixes[prefix - 1].length;
+
+        byte[] out = new byte[2 + 2 * (raw.length - start)];
+        int length = writeVarint(out, prefix == null ? 0 : prefix);
+        int runStart = -1;
+        int i = start;
+        while (i < raw.length) {
+            int token = raw[i] >= 0 ? matchToken(raw, i) : -1;
+            if (token < 0) {
+                if (runStart < 0 || out[runStart] == MAX_LITERAL_RUN - 1) {
+                    runStart = length++;
+                    out[runStart] = -1;
+                }
+                out[runStart]++;
+                out[length++] = raw[i++];
+                continue;
+            }
+            runStart = -1;
+            out[length++] = (byte) (TOKEN_BASE + token);
+            i += tokens[token].length;
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    /**
+     * 解码到调用方的缓冲区（不分配对象）
+     *
+     * @param source 编码数据所在数组
+     * @param offset 编码数据起始位置
+     * @param length 编码数据长度
+     * @param target 目标缓冲区，长度不小于原始URL的字节数
+     * @return 原始URL的字节数
+     */
+    public int decode(byte[] source, int offset, int length, byte[] target) {
+        int end = offset + length;
+        int position = offset;
+        int prefix = source[position++];
+        if (prefix < 0) {
+            prefix = (prefix & 0x7F) | (source[position++] << 7);
+        }
+        int written = 0;
+        if (prefix != 0) {
+            byte[] bytes = prefixes[prefix - 1];
+            System.arraycopy(bytes, 0, target, 0, bytes.length);
+            written = bytes.length;
+        }
+        while (position < end) {
+            int control = source[position++];
+            if (control >= 0) {
+                int run = control + 1;
+                System.arraycopy(source, position, target, written, run);
+                position += run;
+                written += run;
+            } else {
+                byte[] token = tokens[control & 0x7F];
+                System.arraycopy(token, 0, target, written, token.length);
+                written += token.length;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 计算解码后的字节数（不复制数据），用于分配大小正好的数组
+     */
+    public int decodedLength(byte[] source, int offset, int length) {
+        int end = offset + length;
+        int position = offset;
+        int prefix = source[position++];
+        if (prefix < 0) {
+            prefix = (prefix & 0x7F) | (source[position++] << 7);
+        }
+        int decoded = prefix == 0 ? 0 : prefixes[prefix - 1].length;
+        while (position < end) {
+            int control = source[position++];
+            if (control >= 0) {
+                position += control + 1;
+                decoded += control + 1;
+            } else {
+                decoded += tokens[control & 0x7F].length;
+            }
+        }
+        return decoded;
+    }
+
+    public String decode(byte[] encoded) {
+        byte[] target = new byte[decodedLength(encoded, 0, encoded.length)];
+        decode(encoded, 0, encoded.length, target);
+        return new String(target, StandardCharsets.UTF_8);
+    }
+
+    public int getPrefixCount() {
+        return prefixes.length;
+    }
+
+    public int getTokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * 字典本身的字节数（前缀与片段的内容之和）
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (byte[] prefix : prefixes) {
+            bytes += prefix.length;
+        }
+        for (byte[] token : tokens) {
+            bytes += token.length;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "UrlDictionary{prefixes=" + prefixes.length + ", tokens=" + tokens.length + "}";
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * "协议://主机[:端口]"的结束位置，不是绝对URL时返回-1
+     */
+    private static int authorityEnd(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme <= 0) {
+            return -1;
+        }
+        int end = scheme + 3;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isAscii(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) >= TOKEN_BASE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int matchToken(byte[] raw, int position) {
+        for (int token : tokensByFirstByte[raw[position]]) {
+            byte[] bytes = tokens[token];
+            if (position + bytes.length <= raw.length
+                    && Arrays.equals(raw, position, position + bytes.length, bytes, 0, bytes.length)) {
+                return token;
+            }
+        }
+        return -1;
+    }
+
+    private static int writeVarint(byte[] out, int value) {
+        if (value < 0x80) {
+            out[0] = (byte) value;
+            return 1;
+        }
+        out[0] = (byte) (0x80 | (value & 0x7F));
+        out[1] = (byte) (value >>> 7);
+        return 2;
+    }
+}
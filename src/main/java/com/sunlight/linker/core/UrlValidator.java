@@ -0,0 +1,260 @@
+package com.sunlight.linker.core;
+
+/**
+ * 单遍扫描的HTTP(S)长链接校验器
+ *
+ * 【进阶挑战 - 校验快速路径】
+ *
+ * 按字符从左到右扫描一遍，不创建 java.net.URL，也不查找协议处理器；
+ * 合法URL的校验过程不分配对象：
+ * <pre>
+ *   https :// www.example.com :8443 /path?q=1#top
+ *   协议      主机            端口  路径、查询、片段
+ * </pre>
+ *
+ * 【校验规则】：
+ * - 首尾空白忽略（与 String.trim() 相同），剩余长度不超过2048字符
+ * - 协议只接受 http/https（不区分大小写），其后必须是 "//"；
+ *   形如 javascript:、data:、ftp:// 的其他协议单独报告，便于给出明确提示
+ * - 主机：字母、数字、'-'、'_'、'.' 及非ASCII字符（国际化域名），
+ *   标签非空且不超过63字符，整体不超过253字符；或方括号包围的IPv6字面量
+ * - 端口可选，1-65535
+ * - 拒绝用户信息（user@host），避免 http://bank.com@evil.com 这类伪装
+ * - 任何位置拒绝控制字符、空格、反斜杠、尖括号、双引号，
+ *   以及Unicode双向控制符（用于把链接显示成另一个域名）
+ * - '%' 后必须是两位十六进制数
+ *
+ * 比 java.net.URL 严格：后者接受空主机、空格和非法转义，这些链接无法被浏览器正确打开
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class UrlValidator {
+
+    /**
+     * 长链接的最大长度
+     */
+    public static final int MAX_LENGTH = 2048;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    /**
+     * 校验结果
+     */
+    public enum Verdict {
+        VALID, EMPTY, TOO_LONG, UNSUPPORTED_SCHEME, MALFORMED
+    }
+
+    private UrlValidator() {
+    }
+
+    /**
+     * 校验长链接
+     *
+     * @param url 长链接，可以为null
+     * @return 校验结果
+     */
+    public static Verdict check(String url) {
+        if (url == null) {
+            return Verdict.EMPTY;
+        }
+        int start = 0;
+        int end = url.length();
+        while (start < end && url.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && url.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return Verdict.EMPTY;
+        }
+        if (end - start > MAX_LENGTH) {
+            return Verdict.TOO_LONG;
+        }
+
+        int authority = schemeEnd(url, start, end);
+        if (authority < 0) {
+            return authority == -1 ? Verdict.UNSUPPORTED_SCHEME : Verdict.MALFORMED;
+        }
+        int rest = authorityEnd(url, authority, end);
+        if (rest < 0) {
+            return Verdict.MALFORMED;
+        }
+        return isValidRest(url, rest, end) ? Verdict.VALID : Verdict.MALFORMED;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * @return "//" 之后的下标；其他协议返回-1；没有合法协议返回-2
+     */
+    private static int schemeEnd(String url, int start, int end) {
+        int i = start;
+        while (i < end && isSchemeChar(url.charAt(i), i == start)) {
+            i++;
+        }
+        if (i == start || i == end || url.charAt(i) != ':') {
+            return -2;
+        }
+        int length = i - start;
+        boolean http = (length == 4 || length == 5)
+                && url.regionMatches(true, start, "https", 0, 4)
+                && (length == 4 || (url.charAt(start + 4) | 0x20) == 's');
+        if (!http) {
+            return -1;
+        }
+        if (end - i < 3 || url.charAt(i + 1) != '/' || url.charAt(i + 2) != '/') {
+            return -2;
+        }
+        return i + 3;
+    }
+
+    private static boolean isSchemeChar(char c, boolean first) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+            return true;
+        }
+        return !first && ((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.');
+    }
+
+    /**
+     * 校验主机与端口
+     *
+     * @return 路径/查询/片段开始的下标，主机或端口非法时返回-1
+     */
+    private static int authorityEnd(String url, int from, int end) {
+        int i = from;
+        if (i < end && url.charAt(i) == '[') {
+            i = ipv6End(url, i + 1, end);
+            if (i < 0) {
+                return -1;
+            }
+        } else {
+            i = hostEnd(url, i, end);
+            if (i < 0) {
+                return -1;
+            }
+        }
+        if (i < end && url.charAt(i) == ':') {
+            i = portEnd(url, i + 1, end);
+            if (i < 0) {
+                return -1;
+            }
+        }
+        if (i < end) {
+            char c = url.charAt(i);
+            if (c != '/' && c != '?' && c != '#') {
+                // '@'（用户信息）、'\'（浏览器会当作'/'）及其他非法字符都落在这里
+                return -1;
+            }
+        }
+        return i;
+    }
+
+    private static int hostEnd(String url, int from, int end) {
+        int i = from;
+        int labelStart = from;
+        while (i < end) {
+            char c = url.charAt(i);
+            if (c == '.') {
+                if (i == labelStart || i - labelStart > MAX_LABEL_LENGTH) {
+                    return -1;
+                }
+                labelStart = i + 1;
+            } else if (!isHostChar(c)) {
+                break;
+            }
+            i++;
+        }
+        if (i == from || i - from > MAX_HOST_LENGTH || i - labelStart > MAX_LABEL_LENGTH) {
+            return -1;
+        }
+        // 末尾的单个'.'是完全限定域名的合法写法，但主机不能只有一个'.'
+        return i - from == 1 && url.charAt(from) == '.' ? -1 : i;
+    }
+
+    private static boolean isHostChar(char c) {
+        if (c < 0x80) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+        }
+        return isSafeNonAscii(c);
+    }
+
+    private static int ipv6End(String url, int from, int end) {
+        int i = from;
+        int colons = 0;
+        while (i < end) {
+            char c = url.charAt(i);
+            if (c == ']') {
+                return colons >= 2 ? i + 1 : -1;
+            }
+            if (c == ':') {
+                colons++;
+            } else if (hexValue(c) < 0 && c != '.') {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int portEnd(String url, int from, int end) {
+        int i = from;
+        int port = 0;
+        while (i < end && i - from < 5) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            port = port * 10 + (c - '0');
+            i++;
+        }
+        if (i == from || port == 0 || port > 65535) {
+            return -1;
+        }
+        return i;
+    }
+
+    private static boolean isValidRest(String url, int from, int end) {
+        int i = from;
+        while (i < end) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                if (end - i < 3 || hexValue(url.charAt(i + 1)) < 0 || hexValue(url.charAt(i + 2)) < 0) {
+                    return false;
+                }
+                i += 3;
+                continue;
+            }
+            if (c < 0x80) {
+                if (c <= ' ' || c == 0x7F || c == '\\' || c == '<' || c == '>' || c == '"') {
+                    return false;
+                }
+            } else if (!isSafeNonAscii(c)) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * 非ASCII字符中排除C1控制符和双向控制符（U+202A-U+202E、U+2066-U+2069）
+     */
+    private static boolean isSafeNonAscii(char c) {
+        if (c < 0xA0) {
+            return false;
+        }
+        return !(c >= '\u202A' && c <= '\u202E') && !(c >= '\u2066' && c <= '\u2069');
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        int lower = c | 0x20;
+        return lower >= 'a' && lower <= 'f' ? lower - 'a' + 10 : -1;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sunlight.linker.core.ring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量事件处理线程
+ *
+ * 【工作方式】：
+ * 每个处理器拥有独立的消费序号，并行消费同一个环形缓冲区：
+ * 1. 等待生产者游标越过自己的序号
+ * 2. 取出所有连续已发布的事件，逐个回调EventHandler
+ * 3. 处理完一批后推进自己的序号，释放槽位给生产者
+ *
+ * 【停止语义】：
+ * halt()之后处理器会先把已发布的事件处理完，再回调onShutdown后退出；
+ * 线程被中断时不再等待，把此刻已发布的事件处理完后同样回调onShutdown退出
+ *
+ * @param <E> 事件类型
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class BatchEventProcessor<E> implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchEventProcessor.class);
+
+    private final RingBuffer<E> ringBuffer;
+    private final EventHandler<E> handler;
+    private final Sequence sequence = new Sequence();
+    private final long timeoutNanos;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param ringBuffer 环形缓冲区
+     * @param handler 事件处理器
+     * @param timeoutMillis 空闲多久回调一次onTimeout
+     */
+    public BatchEventProcessor(RingBuffer<E> ringBuffer, EventHandler<E> handler, long timeoutMillis) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    @Override
+    public void run() {
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        Sequence cursor = ringBuffer.getCursor();
+        long nextSequence = sequence.get() + 1;
+
+        while (true) {
+            try {
+                long available = waitStrategy.waitFor(nextSequence, cursor, timeoutNanos);
+                long highest = available >= nextSequence
+                        ? ringBuffer.getHighestPublishedSequence(nextSequence, available)
+                        : nextSequence - 1;
+
+                if (highest >= nextSequence) {
+                    nextSequence = process(nextSequence, highest);
+                } else if (!running) {
+                    break;
+                } else if (available < nextSequence) {
+                    handler.onTimeout();
+                }
+            } catch (InterruptedException e) {
+                // 中断后waitFor会立即再次抛出，不能继续循环，尽力处理完已发布的事件后退出
+                Thread.currentThread().interrupt();
+                running = false;
+                drain(nextSequence, cursor);
+                break;
+            } catch (Exception e) {
+                logger.warn("事件处理器空闲回调失败: handler={}, error={}",
+                        handler.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+
+        try {
+            handler.onShutdown();
+        } catch (Exception e) {
+            logger.warn("事件处理器关闭回调失败: handler={}, error={}",
+                    handler.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private long process(long nextSequence, long highest) {
+        for (long s = nextSequence; s <= highest; s++) {
+            dispatch(ringBuffer.get(s), s, s == highest);
+        }
+        sequence.set(highest);
+        return highest + 1;
+    }
+
+    private void drain(long nextSequence, Sequence cursor) {
+        long available = cursor.get();
+        if (available >= nextSequence) {
+            long highest = ringBuffer.getHighestPublishedSequence(nextSequence, available);
+            if (highest >= nextSequence) {
+                process(nextSequence, highest);
+            }
+        }
+    }
+
+    private void dispatch(E event, long s, boolean endOfBatch) {
+        try {
+            handler.onEvent(event, s, endOfBatch);
+        } catch (Exception e) {
+            // 单个事件失败不影响后续事件，也不能阻塞生产者
+            logger.warn("事件处理失败: handler={}, sequence={}, error={}",
+                    handler.getClass().getSimpleName(), s, e.getMessage());
+        }
+    }
+
+    /**
+     * 请求停止：处理完已发布的事件后退出
+     */
+    public void halt() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 消费序号，需要注册为环形缓冲区的门控序号
+     *
+     * @return 消费序号
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+}
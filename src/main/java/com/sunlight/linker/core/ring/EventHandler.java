@@ -0,0 +1,39 @@
+package com.sunlight.linker.core.ring;
+
+/**
+ * 批量事件处理器
+ *
+ * 【批处理语义】：
+ * 消费者一次取出所有已发布的事件，逐个回调onEvent，
+ * 在批次最后一个事件上endOfBatch为true，处理器可借此做聚合后的批量刷新
+ *
+ * @param <E> 事件类型
+ */
+public interface EventHandler<E> {
+
+    /**
+     * 处理单个事件
+     *
+     * @param event 事件对象（回调返回后会被复用）
+     * @param sequence 事件序号
+     * @param endOfBatch 是否为当前批次的最后一个事件
+     * @throws Exception 处理失败时抛出，由处理线程记录日志后继续
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+
+    /**
+     * 等待超时且没有新事件时回调，可用于定时刷新聚合数据
+     *
+     * @throws Exception 处理失败时抛出
+     */
+    default void onTimeout() throws Exception {
+    }
+
+    /**
+     * 处理线程退出前回调，用于刷新剩余数据
+     *
+     * @throws Exception 处理失败时抛出
+     */
+    default void onShutdown() throws Exception {
+    }
+}
@@ -0,0 +1,23 @@
+package com.sunlight.linker.core.ring;
+
+/**
+ * 事件填充器：把发布参数写入预分配的事件对象
+ *
+ * 【零分配发布】：
+ * 推荐声明为static final的无捕获lambda，发布时不会产生任何临时对象
+ *
+ * @param <E> 事件类型
+ * @param <A> 发布参数类型
+ */
+@FunctionalInterface
+public interface EventTranslator<E, A> {
+
+    /**
+     * 填充事件
+     *
+     * @param event 预分配的事件对象（会被复用，不要在外部持有引用）
+     * @param sequence 事件序号
+     * @param arg 发布参数
+     */
+    void translateTo(E event, long sequence, A arg);
+}
@@ -0,0 +1,16 @@
+package com.sunlight.linker.core.ring;
+
+/**
+ * 环形缓冲区写满时的处理策略
+ *
+ * 【业务取舍】：
+ * - DROP：丢弃新事件并计数，发布方永不阻塞，保证重定向延迟稳定
+ * - BLOCK：等待消费者腾出槽位，保证事件不丢失，但下游变慢时会拖慢请求线程
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public enum OverflowPolicy {
+    DROP,
+    BLOCK
+}
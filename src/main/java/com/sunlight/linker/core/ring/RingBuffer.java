@@ -0,0 +1,255 @@
+package com.sunlight.linker.core.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 无锁多生产者环形缓冲区（Disruptor风格）
+ *
+ * 【设计说明】：
+ * - 预分配：所有事件对象在构造时一次性创建，发布时只改写字段，不产生垃圾
+ * - 多生产者：通过CAS推进claim游标抢占槽位，无锁
+ * - 可用性标记：每个槽位记录所在"圈数"，消费者据此判断槽位是否已发布，
+ *   允许不同生产者乱序完成发布
+ * - 门控序号：生产者不会覆盖最慢消费者尚未处理的槽位
+ *
+ * 【发布流程】：
+ * <pre>
+ *   long seq = tryNext();           // CAS抢占序号
+ *   translator.translateTo(get(seq)); // 填充预分配事件
+ *   publish(seq);                   // 标记可用并唤醒消费者
+ * </pre>
+ *
+ * 【测试要点】：
+ * - 多线程并发发布时事件不丢失、不重复
+ * - 写满时DROP策略返回false，BLOCK策略等待消费者
+ * - 序号回绕后可用性标记仍然正确
+ *
+ * @param <E> 事件类型
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class RingBuffer<E> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int bufferSize;
+    private final int indexMask;
+    private final int indexShift;
+    private final int[] availableBuffer;
+
+    private final Sequence cursor = new Sequence();
+    private final Sequence gatingSequenceCache = new Sequence();
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder droppedEvents = new LongAdder();
+
+    /**
+     * 创建环形缓冲区
+     *
+     * @param eventFactory 事件工厂，用于预分配全部槽位
+     * @param bufferSize 槽位数量，必须为2的幂
+     * @param waitStrategy 消费者等待策略
+     * @param overflowPolicy 写满时的处理策略
+     * @throws IllegalArgumentException 当bufferSize不是2的幂时抛出
+     */
+    public RingBuffer(Supplier<E> eventFactory, int bufferSize,
+                      WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize必须为2的幂，输入值: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = eventFactory.get();
+        }
+
+        this.availableBuffer = new int[bufferSize];
+        Arrays.fill(availableBuffer, -1);
+    }
+
+    /**
+     * 发布事件（按照构造时指定的溢出策略处理写满）
+     *
+     * @param translator 事件填充器
+     * @param arg 发布参数
+     * @return 发布成功返回true；DROP策略下缓冲区已满返回false
+     */
+    public <A> boolean publishEvent(EventTranslator<E, A> translator, A arg) {
+        long sequence = overflowPolicy == OverflowPolicy.DROP ? tryNext() : next();
+        if (sequence < 0) {
+            droppedEvents.increment();
+            return false;
+        }
+        try {
+            translator.translateTo(get(sequence), sequence, arg);
+        } finally {
+            publish(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * 尝试抢占下一个序号，不等待
+     *
+     * @return 抢占到的序号；缓冲区已满返回-1
+     */
+    public long tryNext() {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            long wrapPoint = next - bufferSize;
+            long cachedGatingSequence = gatingSequenceCache.get();
+
+            if (wrapPoint > cachedGatingSequence) {
+                long gatingSequence = minimumGatingSequence(current);
+                gatingSequenceCache.set(gatingSequence);
+                if (wrapPoint > gatingSequence) {
+                    return -1L;
+                }
+            }
+        } while (!cursor.compareAndSet(current, next));
+        return next;
+    }
+
+    /**
+     * 抢占下一个序号，缓冲区已满时等待消费者
+     *
+     * @return 抢占到的序号
+     */
+    public long next() {
+        long sequence;
+        while ((sequence = tryNext()) < 0) {
+            LockSupport.parkNanos(1L);
+        }
+        return sequence;
+    }
+
+    /**
+     * 获取序号对应的预分配事件
+     *
+     * @param sequence 序号
+     * @return 事件对象
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & indexMask];
+    }
+
+    /**
+     * 标记序号已发布，并唤醒阻塞的消费者
+     *
+     * @param sequence 已填充完成的序号
+     */
+    public void publish(long sequence) {
+        AVAILABLE.setRelease(availableBuffer, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * 判断序号是否已发布
+     *
+     * @param sequence 序号
+     * @return 已发布返回true
+     */
+    public boolean isAvailable(long sequence) {
+        int flag = (int) AVAILABLE.getAcquire(availableBuffer, (int) sequence & indexMask);
+        return flag == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * 在[lowerBound, availableSequence]区间内找到连续已发布的最大序号
+     *
+     * 【说明】：
+     * 多生产者可能乱序完成发布，消费者只能处理连续已发布的前缀
+     *
+     * @param lowerBound 起始序号
+     * @param availableSequence 已被抢占的最大序号
+     * @return 连续已发布的最大序号；lowerBound本身未发布时返回lowerBound - 1
+     */
+    public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    /**
+     * 注册消费者序号，生产者不会越过这些序号覆盖槽位
+     *
+     * 【注意】：
+     * 新注册的序号从缓冲区中仍保留的最早事件开始消费，注册前已发布的事件不会被跳过；
+     * 但注册前没有门控序号，生产者可以一直回绕，早于 cursor - bufferSize 的事件已被覆盖，
+     * 无法再交给新消费者。因此仍应在开始发布前完成注册
+     *
+     * @param sequences 消费者序号
+     */
+    public synchronized void addGatingSequences(Sequence... sequences) {
+        long oldestRetained = cursor.get() - bufferSize;
+        for (Sequence sequence : sequences) {
+            if (sequence.get() < oldestRetained) {
+                sequence.set(oldestRetained);
+            }
+        }
+        Sequence[] updated = Arrays.copyOf(gatingSequences, gatingSequences.length + sequences.length);
+        System.arraycopy(sequences, 0, updated, gatingSequences.length, sequences.length);
+        gatingSequences = updated;
+        // 缓存的门控值可能来自注册前（等于游标），降下来让生产者重新计算，不覆盖新消费者未处理的槽位
+        gatingSequenceCache.set(Math.min(gatingSequenceCache.get(), minimumGatingSequence(Long.MAX_VALUE)));
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * 剩余可用槽位数（近似值，仅用于监控）
+     *
+     * @return 剩余槽位数
+     */
+    public long remainingCapacity() {
+        long produced = cursor.get();
+        long consumed = minimumGatingSequence(produced);
+        return bufferSize - (produced - consumed);
+    }
+
+    public Sequence getCursor() {
+        return cursor;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+}
@@ -0,0 +1,92 @@
+package com.sunlight.linker.core.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 带缓存行填充的序号计数器
+ *
+ * 【设计说明】：
+ * 环形缓冲区的生产者游标和每个消费者的进度都由一个Sequence表示
+ * 这些序号会被不同CPU核心上的线程高频读写，如果两个序号落在同一缓存行上，
+ * 就会产生伪共享（False Sharing），导致缓存行在核心间来回失效
+ *
+ * 【实现要点】：
+ * - 前后各填充7个long，保证value独占一个64字节缓存行
+ * - 使用VarHandle提供release/acquire语义，避免不必要的全内存屏障
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class Sequence {
+
+    /**
+     * 初始值：-1表示尚未处理任何序号
+     */
+    public static final long INITIAL_VALUE = -1L;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Sequence.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 左侧填充，避免与前一个对象共享缓存行
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    private volatile long value;
+
+    // 右侧填充，避免与后一个对象共享缓存行
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    /**
+     * 读取当前序号（acquire语义）
+     *
+     * @return 当前序号
+     */
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * 发布新的序号（release语义）
+     *
+     * 【说明】：
+     * 单写者场景下使用，保证在此之前的写入对读取该序号的线程可见
+     *
+     * @param value 新序号
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    /**
+     * CAS更新序号，用于多生产者抢占槽位
+     *
+     * @param expected 期望值
+     * @param newValue 新值
+     * @return 更新成功返回true
+     */
+    public boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
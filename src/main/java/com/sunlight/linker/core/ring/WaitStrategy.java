@@ -0,0 +1,208 @@
+package com.sunlight.linker.core.ring;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 消费者等待策略
+ *
+ * 【设计说明】：
+ * 消费者在没有新事件时如何等待，决定了延迟与CPU占用之间的取舍：
+ * - BUSY_SPIN：持续自旋，延迟最低，但独占一个CPU核心
+ * - YIELDING：自旋一段时间后让出CPU，适合核心数充足的场景
+ * - SLEEPING：自旋、让出、短暂park逐级退避，默认推荐
+ * - BLOCKING：基于锁和条件变量阻塞，CPU占用最低，生产者发布时需要唤醒
+ *
+ * 【约定】：
+ * waitFor最多等待timeoutNanos，超时后返回当前游标（可能小于请求的序号），
+ * 由调用方决定是否继续等待，从而能够及时响应停止信号和定时刷新
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待序号可用
+     *
+     * @param sequence 期望等待的序号
+     * @param cursor 生产者游标
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @return 当前游标值，可能小于sequence（表示超时）
+     * @throws InterruptedException 等待被中断时抛出
+     */
+    long waitFor(long sequence, Sequence cursor, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 生产者发布事件后调用，唤醒阻塞中的消费者
+     *
+     * 【性能说明】：
+     * 非阻塞策略的实现为空方法，JIT内联后零开销
+     */
+    void signalAllWhenBlocking();
+
+    /**
+     * 等待策略类型，用于从配置创建实例
+     */
+    enum Type {
+        BLOCKING,
+        SLEEPING,
+        YIELDING,
+        BUSY_SPIN;
+
+        public WaitStrategy create() {
+            return switch (this) {
+                case BLOCKING -> new BlockingWaitStrategy();
+                case SLEEPING -> new SleepingWaitStrategy();
+                case YIELDING -> new YieldingWaitStrategy();
+                case BUSY_SPIN -> new BusySpinWaitStrategy();
+            };
+        }
+    }
+
+    /**
+     * 忙等策略：持续自旋
+     */
+    final class BusySpinWaitStrategy implements WaitStrategy {
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            // 非阻塞策略，无需唤醒
+        }
+    }
+
+    /**
+     * 让出策略：自旋100次后调用Thread.yield()
+     */
+    final class YieldingWaitStrategy implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    if (System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            // 非阻塞策略，无需唤醒
+        }
+    }
+
+    /**
+     * 睡眠策略：自旋 → 让出 → parkNanos 逐级退避
+     */
+    final class SleepingWaitStrategy implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 200;
+        private static final int YIELD_TRIES = 100;
+        private static final long SLEEP_NANOS = 100_000L;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            int counter = SPIN_TRIES + YIELD_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence) {
+                if (counter > YIELD_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    if (System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            // 非阻塞策略，无需唤醒
+        }
+    }
+
+    /**
+     * 阻塞策略：基于ReentrantLock + Condition
+     *
+     * 【性能优化】：
+     * 只有在消费者确实进入等待时才置位signalNeeded，
+     * 生产者发布时先检查该标志，绝大多数发布无需获取锁
+     *
+     * 【虚拟线程友好】：
+     * 使用java.util.concurrent锁而不是synchronized，阻塞时不会钉住载体线程
+     */
+    final class BlockingWaitStrategy implements WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition processorNotifyCondition = lock.newCondition();
+        private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, long timeoutNanos) throws InterruptedException {
+            long available = cursor.get();
+            if (available < sequence) {
+                lock.lock();
+                try {
+                    long remaining = timeoutNanos;
+                    while (remaining > 0) {
+                        signalNeeded.set(true);
+                        if ((available = cursor.get()) >= sequence) {
+                            break;
+                        }
+                        remaining = processorNotifyCondition.awaitNanos(remaining);
+                    }
+                    available = cursor.get();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (signalNeeded.get() && signalNeeded.getAndSet(false)) {
+                lock.lock();
+                try {
+                    processorNotifyCondition.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
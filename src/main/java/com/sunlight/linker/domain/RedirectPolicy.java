@@ -0,0 +1,49 @@
+package com.sunlight.linker.domain;
+
+/**
+ * 短链接重定向策略
+ *
+ * 【HTTP语义】：
+ * <pre>
+ *   策略                  状态码   缓存           请求方法
+ *   FOUND                 302      no-store       浏览器可改为GET
+ *   TEMPORARY_REDIRECT    307      no-store       保持原方法
+ *   MOVED_PERMANENTLY     301      public,max-age 浏览器可改为GET
+ *   PERMANENT_REDIRECT    308      public,max-age 保持原方法
+ * </pre>
+ *
+ * 【取舍】：
+ * 永久重定向会被浏览器和CDN缓存，后续点击不再到达服务端，
+ * 访问计数只反映首次（或缓存过期后）的访问；需要精确统计的链接保持302
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public enum RedirectPolicy {
+
+    FOUND(302, false),
+    TEMPORARY_REDIRECT(307, false),
+    MOVED_PERMANENTLY(301, true),
+    PERMANENT_REDIRECT(308, true);
+
+    private final int statusCode;
+    private final boolean cacheable;
+
+    RedirectPolicy(int statusCode, boolean cacheable) {
+        this.statusCode = statusCode;
+        this.cacheable = cacheable;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 响应是否允许被客户端和边缘缓存保存
+     *
+     * @return 永久重定向返回true
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+}
@@ -1,5 +1,7 @@
 package com.sunlight.linker.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -28,14 +30,20 @@ import java.util.Objects;
  * 采用充血模型（Rich Domain Model），在实体中包含业务逻辑方法
  * 相比贫血模型，这种方式更符合DDD（领域驱动设计）理念
  * 
+ * 【缓存序列化】：
+ * 实体会以JSON写入Redis（见CacheConfig），isHotLink/isSystemGenerated是派生值，不参与序列化；
+ * 忽略未知字段，旧版本写入的缓存值仍然可以读取
+ * 
  * @author 测试实践学习项目
  * @version 1.0
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 @Entity
 @Table(name = "short_links", indexes = {
     @Index(name = "idx_short_code", columnList = "shortCode", unique = true),
     @Index(name = "idx_long_url", columnList = "longUrl"),
-    @Index(name = "idx_created_at", columnList = "createdAt")
+    @Index(name = "idx_created_at", columnList = "createdAt"),
+    @Index(name = "idx_expires_at", columnList = "expiresAt, id")
 })
 public class ShortLink {
     
@@ -99,6 +107,17 @@ public class ShortLink {
     @Column(name = "access_count", nullable = false)
     private Long accessCount = 0L;
     
+    /**
+     * 重定向策略
+     * 
+     * 【业务规则】：
+     * 默认302且不缓存，保证每次点击都能被计数；
+     * 内容永久不变的链接可以改为301/308，交给浏览器和CDN缓存
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "redirect_policy", nullable = false, length = 20)
+    private RedirectPolicy redirectPolicy = RedirectPolicy.FOUND;
+    
     /**
      * 创建时间
      * 
@@ -132,6 +151,17 @@ public class ShortLink {
     @Size(max = 500, message = "备注长度不能超过500字符")
     private String description;
     
+    /**
+     * 过期时间（可选）
+     * 
+     * 【业务规则】：
+     * - null表示永不过期
+     * - 到期后解析按不存在处理，缓存中的副本同样检查
+     * - 过期行由ExpiredLinkPurger按主键分批物理删除
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
     // ========== 构造方法 ==========
     
     /**
@@ -173,6 +203,42 @@ public class ShortLink {
         this.description = description;
     }
     
+    /**
+     * 从数据库行重建短链接（不经过Hibernate）
+     * 
+     * 【使用场景】：
+     * 分片存储用JDBC读写各分片，ID与时间戳由存储层决定，需要原样还原
+     * 
+     * @param id 全局ID
+     * @param longUrl 原始长链接
+     * @param shortCode 短码
+     * @param isCustomAlias 是否自定义别名
+     * @param accessCount 访问次数
+     * @param redirectPolicy 重定向策略
+     * @param description 备注信息
+     * @param createdAt 创建时间
+     * @param lastUpdatedAt 最后更新时间
+     * @param expiresAt 过期时间，null表示永不过期
+     * @return 短链接对象
+     */
+    public static ShortLink restore(Long id, String longUrl, String shortCode, boolean isCustomAlias,
+                                    long accessCount, RedirectPolicy redirectPolicy, String description,
+                                    LocalDateTime createdAt, LocalDateTime lastUpdatedAt,
+                                    LocalDateTime expiresAt) {
+        ShortLink link = new ShortLink();
+        link.id = id;
+        link.longUrl = longUrl;
+        link.shortCode = shortCode;
+        link.isCustomAlias = isCustomAlias;
+        link.accessCount = accessCount;
+        link.redirectPolicy = redirectPolicy;
+        link.description = description;
+        link.createdAt = createdAt;
+        link.lastUpdatedAt = lastUpdatedAt;
+        link.expiresAt = expiresAt;
+        return link;
+    }
+    
     // ========== 业务方法 ==========
     
     /**
@@ -203,15 +269,30 @@ public class ShortLink {
      * - 边界值测试（999, 1000, 1001）
      * - 新创建链接的默认行为
      */
+    @JsonIgnore
     public boolean isHotLink() {
         return this.accessCount > 1000;
     }
     
+    /**
+     * 检查链接在给定时刻是否已过期
+     * 
+     * 【业务规则】：
+     * 到达过期时间即视为过期（expiresAt <= now），未设置过期时间的链接永不过期
+     * 
+     * @param now 当前时间
+     * @return 已过期返回true
+     */
+    public boolean isExpiredAt(LocalDateTime now) {
+        return this.expiresAt != null && !this.expiresAt.isAfter(now);
+    }
+    
     /**
      * 检查短码是否为系统生成
      * 
      * @return 如果是系统生成返回true，自定义别名返回false
      */
+    @JsonIgnore
     public boolean isSystemGenerated() {
         return !this.isCustomAlias;
     }
@@ -288,6 +369,14 @@ public class ShortLink {
         this.accessCount = accessCount;
     }
     
+    public RedirectPolicy getRedirectPolicy() {
+        return redirectPolicy;
+    }
+    
+    public void setRedirectPolicy(RedirectPolicy redirectPolicy) {
+        this.redirectPolicy = redirectPolicy;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -304,6 +393,14 @@ public class ShortLink {
         this.description = description;
     }
     
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
     // ========== Object方法重写 ==========
     
     /**
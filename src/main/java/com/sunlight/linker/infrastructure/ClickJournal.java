@@ -0,0 +1,327 @@
+package com.sunlight.linker.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 点击预写日志（Write-Ahead Journal）
+ *
+ * 【进阶挑战 - 持久化计数】
+ *
+ * 异步计数在进程崩溃时会丢失尚未写回数据库的点击，
+ * 该日志在写库之前把每次点击追加到内存映射的段文件中，启动时重放未确认的部分
+ *
+ * 【文件布局】：
+ * <pre>
+ *   journal-dir/
+ *     ├── 00000000000000000000.seg   段文件，固定大小，按段序号命名
+ *     ├── 00000000000000000001.seg
+ *     └── checkpoint                 已写回数据库的记录位置（8字节）
+ * </pre>
+ *
+ * 【记录格式】（固定32字节）：
+ * <pre>
+ *   [0]      短码长度（1-20），0表示尚未写入
+ *   [1..20]  短码ASCII字节
+ *   [21]     校验字节（长度与短码字节的异或）
+ *   [22..23] 保留
+ *   [24..31] 点击时间戳（毫秒）
+ * </pre>
+ * 写入时先写短码和时间戳，最后写长度字节作为提交标记
+ *
+ * 【组提交】：
+ * append只写入映射内存，commit统一调用force()刷盘，
+ * 由调用方在批次结束时触发，多条记录共享一次fsync
+ *
+ * 【线程模型】：
+ * 单写者，只能由一个线程调用append/commit/checkpoint
+ *
+ * 【仍会丢失的点击】：
+ * 日志由点击流水线的消费线程（AccessCountClickHandler）写入，而不是在请求线程上发布时写入，
+ * 以下点击在进程崩溃时仍会丢失：
+ * - 已发布到环形缓冲区、消费线程尚未处理的点击（最多为缓冲区容量）
+ * - 缓冲区已满且 overflow-policy=DROP 时被丢弃的点击（从未进入缓冲区）
+ * - 已追加但尚未组提交的记录（最多 commit-interval 内的点击；只有操作系统崩溃才会丢失映射内存中的数据）
+ * 在发布端写日志可以消除前两项，但每个请求线程都要竞争同一个写位置，并在请求路径上等待刷盘；
+ * 这里选择把日志留在单个消费线程上，访问计数按"近似、至少一次"理解
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ClickJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickJournal.class);
+
+    /**
+     * 单条记录字节数
+     */
+    public static final int RECORD_SIZE = 32;
+
+    /**
+     * 短码最大长度，与ShortLink.shortCode列长度一致
+     */
+    public static final int MAX_CODE_LENGTH = 20;
+
+    private static final int CHECKSUM_OFFSET = 21;
+    private static final int TIMESTAMP_OFFSET = 24;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final long recordsPerSegment;
+
+    private long checkpointPosition;
+    private long writePosition;
+    private long currentSegmentIndex = -1;
+    private MappedByteBuffer currentSegment;
+    private boolean dirty;
+
+    /**
+     * 打开（或创建）日志目录
+     *
+     * @param directory 日志目录
+     * @param segmentSizeBytes 段文件大小，会向下对齐到记录大小的整数倍
+     * @throws UncheckedIOException 当目录无法创建或读取时抛出
+     */
+    public ClickJournal(Path directory, long segmentSizeBytes) {
+        if (segmentSizeBytes < RECORD_SIZE) {
+            throw new IllegalArgumentException("段文件大小不能小于单条记录大小: " + segmentSizeBytes);
+        }
+        this.directory = directory;
+        this.recordsPerSegment = segmentSizeBytes / RECORD_SIZE;
+
+        try {
+            Files.createDirectories(directory);
+            this.checkpointPosition = readCheckpoint();
+            this.writePosition = recoverWritePosition();
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开点击日志失败: " + directory, e);
+        }
+        logger.info("点击日志已打开: dir={}, checkpoint={}, writePosition={}",
+                directory, checkpointPosition, writePosition);
+    }
+
+    /**
+     * 追加一条点击记录（仅写入映射内存，不刷盘）
+     *
+     * @param shortCode 短码（ASCII，最长20字符）
+     * @param timestampMillis 点击时间
+     * @return 记录位置（全局递增的记录序号）
+     * @throws IllegalArgumentException 当短码为空或过长时抛出
+     */
+    public long append(String shortCode, long timestampMillis) {
+        int length = shortCode == null ? 0 : shortCode.length();
+        if (length == 0 || length > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("短码长度必须在1-20之间: " + shortCode);
+        }
+
+        long position = writePosition;
+        MappedByteBuffer segment = segmentFor(position);
+        int offset = (int) ((position % recordsPerSegment) * RECORD_SIZE);
+
+        byte checksum = (byte) length;
+        for (int i = 0; i < length; i++) {
+            byte b = (byte) shortCode.charAt(i);
+            segment.put(offset + 1 + i, b);
+            checksum ^= b;
+        }
+        segment.put(offset + CHECKSUM_OFFSET, checksum);
+        segment.putLong(offset + TIMESTAMP_OFFSET, timestampMillis);
+        // 长度字节最后写入，作为记录完整的标记
+        segment.put(offset, (byte) length);
+
+        writePosition = position + 1;
+        dirty = true;
+        return position;
+    }
+
+    /**
+     * 组提交：把自上次提交以来的所有记录刷到磁盘
+     */
+    public void commit() {
+        if (dirty && currentSegment != null) {
+            currentSegment.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * 记录检查点：该位置之前的记录已经写回数据库
+     *
+     * 【说明】：
+     * 检查点文件通过临时文件 + 原子重命名写入；
+     * 完全位于检查点之前的段文件随后被删除
+     *
+     * @param position 已写回的记录位置（不含）
+     */
+    public void checkpoint(long position) {
+        if (position <= checkpointPosition) {
+            return;
+        }
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, position);
+                channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointPosition = position;
+            deleteCheckpointedSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入点击日志检查点失败: " + position, e);
+        }
+    }
+
+    /**
+     * 读取检查点之后所有已提交的记录，按短码聚合
+     *
+     * 【使用场景】：
+     * 启动时调用，得到上次崩溃前尚未写回数据库的访问次数增量
+     *
+     * @return 短码到访问次数增量的映射
+     */
+    public Map<String, Long> readUncheckpointedDeltas() {
+        Map<String, Long> deltas = new HashMap<>();
+        byte[] codeBytes = new byte[MAX_CODE_LENGTH];
+        for (long position = checkpointPosition; position < writePosition; position++) {
+            MappedByteBuffer segment = segmentFor(position);
+            int offset = (int) ((position % recordsPerSegment) * RECORD_SIZE);
+            int length = segment.get(offset);
+            segment.get(offset + 1, codeBytes, 0, length);
+            String shortCode = new String(codeBytes, 0, length, StandardCharsets.US_ASCII);
+            deltas.merge(shortCode, 1L, Long::sum);
+        }
+        return deltas;
+    }
+
+    public long getWritePosition() {
+        return writePosition;
+    }
+
+    public long getCheckpointPosition() {
+        return checkpointPosition;
+    }
+
+    @Override
+    public void close() {
+        commit();
+        currentSegment = null;
+        currentSegmentIndex = -1;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private MappedByteBuffer segmentFor(long position) {
+        long segmentIndex = position / recordsPerSegment;
+        if (segmentIndex != currentSegmentIndex) {
+            // 滚动到新段之前，确保旧段的数据已经刷盘
+            commit();
+            currentSegment = map(segmentIndex);
+            currentSegmentIndex = segmentIndex;
+        }
+        return currentSegment;
+    }
+
+    private MappedByteBuffer map(long segmentIndex) {
+        Path path = segmentPath(segmentIndex);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, recordsPerSegment * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("映射点击日志段文件失败: " + path, e);
+        }
+    }
+
+    private Path segmentPath(long segmentIndex) {
+        return directory.resolve(String.format("%020d%s", segmentIndex, SEGMENT_SUFFIX));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0L;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0L;
+    }
+
+    /**
+     * 扫描最后一个段文件，找到第一条未提交或校验失败的记录作为写入位置
+     */
+    private long recoverWritePosition() throws IOException {
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            return checkpointPosition;
+        }
+
+        long lastSegment = segments.get(segments.size() - 1);
+        MappedByteBuffer segment = segmentFor(lastSegment * recordsPerSegment);
+        long position = lastSegment * recordsPerSegment;
+        long end = position + recordsPerSegment;
+        while (position < end && isValidRecord(segment, (int) ((position % recordsPerSegment) * RECORD_SIZE))) {
+            position++;
+        }
+
+        // 撕裂的尾部记录需要清零，避免后续追加后被误判为有效
+        int tornOffset = (int) ((position % recordsPerSegment) * RECORD_SIZE);
+        if (position < end && segment.get(tornOffset) != 0) {
+            segment.put(tornOffset, (byte) 0);
+            segment.force();
+        }
+        return Math.max(position, checkpointPosition);
+    }
+
+    private boolean isValidRecord(MappedByteBuffer segment, int offset) {
+        int length = segment.get(offset);
+        if (length <= 0 || length > MAX_CODE_LENGTH) {
+            return false;
+        }
+        byte checksum = (byte) length;
+        for (int i = 0; i < length; i++) {
+            checksum ^= segment.get(offset + 1 + i);
+        }
+        return checksum == segment.get(offset + CHECKSUM_OFFSET);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private void deleteCheckpointedSegments() throws IOException {
+        long firstLiveSegment = checkpointPosition / recordsPerSegment;
+        for (long segmentIndex : listSegments()) {
+            if (segmentIndex < firstLiveSegment && segmentIndex != currentSegmentIndex) {
+                Files.deleteIfExists(segmentPath(segmentIndex));
+                logger.debug("已删除完成检查点的日志段: segment={}", segmentIndex);
+            }
+        }
+    }
+}
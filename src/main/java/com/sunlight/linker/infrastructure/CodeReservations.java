@@ -0,0 +1,206 @@
+package com.sunlight.linker.infrastructure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 预生成短码预留表的访问
+ *
+ * 【预留协议】：
+ * <pre>
+ *   预留     批量INSERT，主键裁决节点之间的重复；整批失败时逐条重试，跳过重复的短码
+ *   心跳     UPDATE reserved_at WHERE owner = ?
+ *   接管     reserved_at 早于截止时间的行：条件UPDATE（WHERE reserved_at &lt; cutoff），影响1行才算接管成功
+ *   释放     DELETE，短码已写入short_links或节点正常停止时执行
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.code-pool", name = "enabled", havingValue = "true")
+public class CodeReservations {
+
+    /**
+     * IN 列表的最大长度，超过后分批查询
+     */
+    private static final int IN_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CodeReservations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 执行建表脚本 db/code_reservations.sql（可重复执行）
+     */
+    public void initializeSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/code_reservations.sql"))
+                .execute(jdbcTemplate.getDataSource());
+    }
+
+    /**
+     * 批量预留短码
+     *
+     * @param codes 候选短码
+     * @param owner 本进程的唯一标识
+     * @param now 当前时间
+     * @return 预留成功的短码，已被其他节点预留的不在其中
+     */
+    public List<String> reserve(Collection<String> codes, String owner, LocalDateTime now) {
+        if (codes.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            rows.add(new Object[]{code, owner, now});
+        }
+        String sql = "INSERT INTO code_reservations (short_code, owner, reserved_at) VALUES (?, ?, ?)";
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+            return List.copyOf(codes);
+        } catch (DuplicateKeyException e) {
+            // 随机短码极少重复，出现时回退到逐条插入；自动提交下批内冲突之前（H2为冲突之外）的行已经写入
+        }
+        Set<String> inserted = new HashSet<>(findOwned(codes, owner));
+        List<String> reserved = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            if (inserted.contains(code)) {
+                reserved.add(code);
+                continue;
+            }
+            try {
+                jdbcTemplate.update(sql, code, owner, now);
+                reserved.add(code);
+            } catch (DuplicateKeyException e) {
+                // 已被其他节点预留
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * 找出已经写入 short_links 的短码
+     *
+     * @param codes 待检查的短码
+     * @return 其中已被使用的短码
+     */
+    public Set<String> findUsed(Collection<String> codes) {
+        return selectIn("SELECT short_code FROM short_links WHERE short_code IN ", codes, List.of());
+    }
+
+    /**
+     * 刷新本节点全部预留行的时间，表明节点仍然存活
+     *
+     * @param owner 本进程的唯一标识
+     * @param now 当前时间
+     * @return 刷新的行数
+     */
+    public int heartbeat(String owner, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE code_reservations SET reserved_at = ? WHERE owner = ?", now, owner);
+    }
+
+    /**
+     * 接管崩溃节点遗留的预留短码
+     *
+     * @param owner 本进程的唯一标识
+     * @param now 当前时间
+     * @param cutoff reserved_at 早于此时间的行视为遗留
+     * @param limit 最多接管的行数
+     * @return 接管成功的短码
+     */
+    public List<String> adoptOrphans(String owner, LocalDateTime now, LocalDateTime cutoff, int limit) {
+        List<String> candidates = jdbcTemplate.queryForList(
+                "SELECT short_code FROM code_reservations WHERE reserved_at < ? ORDER BY reserved_at LIMIT ?",
+                String.class, cutoff, limit);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>(candidates.size());
+        for (String code : candidates) {
+            rows.add(new Object[]{owner, now, code, cutoff});
+        }
+        // 条件UPDATE：两个节点同时接管同一行时只有一个能看到影响1行
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE code_reservations SET owner = ?, reserved_at = ? WHERE short_code = ? AND reserved_at < ?",
+                rows);
+        List<String> adopted = new ArrayList<>(candidates.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 1) {
+                adopted.add(candidates.get(i));
+            }
+        }
+        return adopted;
+    }
+
+    /**
+     * 删除预留行
+     *
+     * @param codes 要删除的短码
+     */
+    public void release(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            rows.add(new Object[]{code});
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM code_reservations WHERE short_code = ?", rows);
+    }
+
+    /**
+     * @param code 短码
+     * @return 短码已被某个节点预留时返回true
+     */
+    public boolean isReserved(String code) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM code_reservations WHERE short_code = ?", Integer.class, code);
+        return count != null && count > 0;
+    }
+
+    /**
+     * @param codes 待检查的短码
+     * @return 其中已被某个节点预留的短码
+     */
+    public Set<String> findReserved(Collection<String> codes) {
+        return selectIn("SELECT short_code FROM code_reservations WHERE short_code IN ", codes, List.of());
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Set<String> findOwned(Collection<String> codes, String owner) {
+        return selectIn("SELECT short_code FROM code_reservations WHERE owner = ? AND short_code IN ",
+                codes, List.of(owner));
+    }
+
+    /**
+     * 按 IN_CHUNK 分批执行 "... IN (?, ?, ...)" 查询
+     */
+    private Set<String> selectIn(String sqlPrefix, Collection<String> codes, List<Object> leadingArgs) {
+        Set<String> found = new HashSet<>();
+        List<String> all = List.copyOf(codes);
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + IN_CHUNK));
+            List<Object> args = new ArrayList<>(leadingArgs);
+            args.addAll(chunk);
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            found.addAll(jdbcTemplate.queryForList(sqlPrefix + "(" + placeholders + ")", String.class,
+                    args.toArray()));
+        }
+        return found;
+    }
+}
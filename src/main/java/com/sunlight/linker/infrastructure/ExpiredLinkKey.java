@@ -0,0 +1,16 @@
+package com.sunlight.linker.infrastructure;
+
+import java.time.LocalDateTime;
+
+/**
+ * 过期清理使用的键集游标行
+ *
+ * 【设计说明】：
+ * 按 (expiresAt, id) 排序分批读取，最后一行即下一批的起点；
+ * 构造器投影不加载实体，删除一批时持久化上下文保持为空
+ *
+ * @param id 主键
+ * @param expiresAt 过期时间
+ */
+public record ExpiredLinkKey(Long id, LocalDateTime expiresAt) {
+}
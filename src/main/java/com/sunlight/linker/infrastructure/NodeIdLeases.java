@@ -0,0 +1,109 @@
+package com.sunlight.linker.infrastructure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snowflake节点号租约表的访问
+ *
+ * 【租约协议】：
+ * <pre>
+ *   占用   从小到大找第一个 没有行（INSERT）或 已过期（带旧 expires_at 的条件UPDATE）的 node_id
+ *   续约   UPDATE ... WHERE node_id = ? AND owner = ?，影响0行说明租约已被接管
+ *   释放   DELETE ... WHERE node_id = ? AND owner = ?
+ * </pre>
+ * 并发占用同一个 node_id 时，INSERT由主键裁决，接管由条件UPDATE裁决，失败的一方继续尝试下一个
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.id-generator", name = "enabled", havingValue = "true")
+public class NodeIdLeases {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NodeIdLeases(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 执行建表脚本 db/id_node_leases.sql（可重复执行）
+     */
+    public void initializeSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/id_node_leases.sql"))
+                .execute(jdbcTemplate.getDataSource());
+    }
+
+    /**
+     * 占用一个空闲或已过期的节点号
+     *
+     * @param owner 本进程的唯一标识
+     * @param maxNodes 节点号上限（不含）
+     * @param now 当前时间
+     * @param ttl 租约时长
+     * @return 占用到的节点号
+     * @throws IllegalStateException 当所有节点号都被有效租约占用时抛出
+     */
+    public int acquire(String owner, int maxNodes, LocalDateTime now, Duration ttl) {
+        Map<Integer, LocalDateTime> leases = new HashMap<>();
+        jdbcTemplate.query("SELECT node_id, expires_at FROM id_node_leases",
+                rs -> {
+                    leases.put(rs.getInt("node_id"), rs.getObject("expires_at", LocalDateTime.class));
+                });
+        LocalDateTime expiresAt = now.plus(ttl);
+        for (int nodeId = 0; nodeId < maxNodes; nodeId++) {
+            LocalDateTime current = leases.get(nodeId);
+            if (current == null) {
+                try {
+                    jdbcTemplate.update("INSERT INTO id_node_leases (node_id, owner, expires_at) VALUES (?, ?, ?)",
+                            nodeId, owner, expiresAt);
+                    return nodeId;
+                } catch (DuplicateKeyException e) {
+                    // 被其他节点抢先占用
+                }
+            } else if (current.isBefore(now)) {
+                int updated = jdbcTemplate.update(
+                        "UPDATE id_node_leases SET owner = ?, expires_at = ? WHERE node_id = ? AND expires_at = ?",
+                        owner, expiresAt, nodeId, current);
+                if (updated == 1) {
+                    return nodeId;
+                }
+            }
+        }
+        throw new IllegalStateException("没有空闲的节点号，所有 " + maxNodes + " 个租约都在有效期内");
+    }
+
+    /**
+     * 续约
+     *
+     * @param nodeId 节点号
+     * @param owner 本进程的唯一标识
+     * @param now 当前时间
+     * @param ttl 租约时长
+     * @return 续约成功返回true；租约已被接管或删除时返回false
+     */
+    public boolean renew(int nodeId, String owner, LocalDateTime now, Duration ttl) {
+        return jdbcTemplate.update("UPDATE id_node_leases SET expires_at = ? WHERE node_id = ? AND owner = ?",
+                now.plus(ttl), nodeId, owner) == 1;
+    }
+
+    /**
+     * 释放租约
+     *
+     * @param nodeId 节点号
+     * @param owner 本进程的唯一标识
+     */
+    public void release(int nodeId, String owner) {
+        jdbcTemplate.update("DELETE FROM id_node_leases WHERE node_id = ? AND owner = ?", nodeId, owner);
+    }
+}
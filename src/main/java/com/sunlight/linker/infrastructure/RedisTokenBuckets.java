@@ -0,0 +1,63 @@
+package com.sunlight.linker.infrastructure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis上的全局令牌桶
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 所有实例共享同一组令牌桶，补充与扣减在一个Lua脚本（redis/token_bucket.lua）中原子完成：
+ * <pre>
+ *   EVALSHA token_bucket  KEYS = [ratelimit:{endpoint}:{client}]  ARGV = [capacity, refillPerSecond]
+ *     └── 0 放行 / 距下一个令牌的微秒数
+ * </pre>
+ * 每次检查一次网络往返；桶在补满所需的时间之后自动过期
+ *
+ * 【启用方式】：
+ * app.rate-limit.mode=redis
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "mode", havingValue = "redis")
+public class RedisTokenBuckets {
+
+    /**
+     * 令牌桶键前缀
+     */
+    public static final String KEY_PREFIX = "ratelimit:";
+
+    private static final RedisScript<Long> TOKEN_BUCKET =
+            RedisScript.of(new ClassPathResource("redis/token_bucket.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTokenBuckets(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 为客户端取一个令牌
+     *
+     * @param endpoint 端点名
+     * @param client 客户端标识
+     * @param capacity 桶容量
+     * @param refillPerSecond 每秒补充的令牌数
+     * @return 0表示放行；否则为距下一个令牌可用的纳秒数
+     * @throws org.springframework.dao.DataAccessException 当Redis不可用时抛出
+     */
+    public long tryAcquire(String endpoint, String client, long capacity, double refillPerSecond) {
+        Long waitMicros = redisTemplate.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + endpoint + ":" + client),
+                Long.toString(capacity), Double.toString(refillPerSecond));
+        return waitMicros == null ? 0 : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+    }
+}
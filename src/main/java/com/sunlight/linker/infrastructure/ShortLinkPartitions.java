@@ -0,0 +1,181 @@
+package com.sunlight.linker.infrastructure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * short_links 月分区的DDL与别名登记访问（仅PostgreSQL 14+）
+ *
+ * 【进阶挑战 - 分区表】
+ *
+ * 表结构见 db/postgresql/short_links_partitioned.sql，每个月一个分区：
+ * <pre>
+ *   short_links                 PARTITION BY RANGE (created_at)
+ *     ├── short_links_p202609   [2026-09-01, 2026-10-01)
+ *     ├── short_links_p202610   [2026-10-01, 2026-11-01)
+ *     └── ...
+ *   short_link_aliases          自定义别名 → created_at，保证别名全局唯一，并用于裁剪分区
+ * </pre>
+ *
+ * 【安全性】：
+ * DDL无法使用绑定参数，分区名只由 YearMonth 生成，或从目录中读出后按同一格式校验，
+ * 不接受外部输入的表名
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.partitioning", name = "enabled", havingValue = "true")
+public class ShortLinkPartitions {
+
+    public static final String PARENT_TABLE = "short_links";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("short_links_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortLinkPartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param month 月份
+     * @return 该月的分区表名，如 short_links_p202610
+     */
+    public static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * 从分区表名解析月份
+     *
+     * @param tableName 表名
+     * @return 月份；不是本类命名的分区时为empty
+     */
+    public static Optional<YearMonth> monthOf(String tableName) {
+        Matcher matcher = PARTITION_NAME.matcher(tableName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(matcher.group(1), SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 当前挂在父表上的分区
+     *
+     * @return 分区列表，包含未完成 DETACH CONCURRENTLY 的分区
+     */
+    public List<Partition> listAttached() {
+        return jdbcTemplate.query(
+                "SELECT c.relname, i.inhdetachpending FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND p.relnamespace = to_regnamespace(current_schema())",
+                (rs, rowNum) -> new Partition(rs.getString(1), rs.getBoolean(2)),
+                PARENT_TABLE);
+    }
+
+    /**
+     * 已经从父表分离、但还没有删除的分区表（上一次维护在DETACH与DROP之间中断）
+     *
+     * @return 表名列表
+     */
+    public List<String> listDetached() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_class c "
+                        + "WHERE c.relkind = 'r' AND NOT c.relispartition AND c.relname LIKE 'short\\_links\\_p%' "
+                        + "AND c.relnamespace = to_regnamespace(current_schema())",
+                String.class);
+    }
+
+    /**
+     * 创建一个月的分区，已存在时不做任何事
+     *
+     * @param month 月份
+     */
+    public void create(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF " + PARENT_TABLE
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * 从父表分离分区
+     *
+     * 【说明】：
+     * CONCURRENTLY 只对分区加 SHARE UPDATE EXCLUSIVE 锁，不阻塞父表上的读写，
+     * 但不能在事务块内执行；上一次中断留下的 pending 状态用 FINALIZE 完成
+     *
+     * @param partition 分区
+     */
+    public void detach(Partition partition) {
+        String name = checkedName(partition.name());
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+    }
+
+    /**
+     * 删除已分离的分区表
+     *
+     * @param tableName 表名
+     */
+    public void drop(String tableName) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + checkedName(tableName));
+    }
+
+    /**
+     * 删除给定时刻之前创建的别名登记（对应分区已经被删除，DROP不触发行级触发器）
+     *
+     * @param before 截止时间（不含）
+     * @return 删除的行数
+     */
+    public int deleteAliasesCreatedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM short_link_aliases WHERE created_at < ?", before);
+    }
+
+    /**
+     * 查询自定义别名的创建时间，用于把按短码的查找裁剪到单个分区
+     *
+     * @param shortCode 短码
+     * @return 创建时间；不是已登记的别名时为empty
+     */
+    public Optional<LocalDateTime> findAliasCreatedAt(String shortCode) {
+        return jdbcTemplate.query("SELECT created_at FROM short_link_aliases WHERE short_code = ?",
+                (rs, rowNum) -> rs.getObject(1, LocalDateTime.class), shortCode).stream().findFirst();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static String checkedName(String tableName) {
+        if (monthOf(tableName).isEmpty()) {
+            throw new IllegalArgumentException("不是short_links的月分区: " + tableName);
+        }
+        return tableName;
+    }
+
+    /**
+     * 挂在父表上的分区
+     *
+     * @param name 分区表名
+     * @param detachPending 是否处于未完成的 DETACH CONCURRENTLY 状态
+     */
+    public record Partition(String name, boolean detachPending) {
+    }
+}
@@ -1,14 +1,20 @@
 package com.sunlight.linker.infrastructure;
 
 import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.snapshot.SnapshotRow;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 短链接数据访问接口
@@ -91,6 +97,18 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      */
     boolean existsByShortCode(String shortCode);
     
+    /**
+     * 批量检查短码是否已存在
+     * 
+     * 【使用场景】：
+     * 别名建议与批量可用性检查，一条 IN 查询代替逐个 existsByShortCode
+     * 
+     * @param shortCodes 要检查的短码
+     * @return 其中已存在的短码
+     */
+    @Query("SELECT sl.shortCode FROM ShortLink sl WHERE sl.shortCode IN :shortCodes")
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+    
     /**
      * 根据访问次数范围查找热点链接
      * 
@@ -127,6 +145,20 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      */
     List<ShortLink> findByCreatedAtBetween(LocalDateTime startTime, LocalDateTime endTime);
     
+    /**
+     * 按短码和创建时间查找短链接
+     * 
+     * 【分区裁剪】：
+     * short_links按created_at月分区时，条件中带上created_at，
+     * 执行时只访问一个分区的 (short_code, created_at) 索引；
+     * 只按短码查找则要逐个探测所有分区
+     * 
+     * @param shortCode 短码
+     * @param createdAt 创建时间（来自short_link_aliases登记）
+     * @return 包含ShortLink的Optional
+     */
+    Optional<ShortLink> findByShortCodeAndCreatedAt(String shortCode, LocalDateTime createdAt);
+    
     /**
      * 查找自定义别名的短链接
      * 
@@ -139,6 +171,24 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      */
     List<ShortLink> findByIsCustomAlias(Boolean isCustomAlias);
     
+    /**
+     * 只查询自定义别名的短码列
+     * 
+     * 【使用场景】：
+     * 重建别名内存索引（AliasIndex），不加载整行实体
+     * 
+     * @return 全部自定义别名
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT sl.shortCode FROM ShortLink sl WHERE sl.isCustomAlias = true")
+    List<String> findCustomAliasCodes();
+    
+    /**
+     * @return 当前最大的行主键，空表时为0
+     */
+    @Query("SELECT COALESCE(MAX(sl.id), 0) FROM ShortLink sl")
+    Long findMaxId();
+    
     /**
      * 使用自定义查询统计总访问次数
      * 
@@ -215,6 +265,10 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      * 演示Repository中的批量删除操作
      * 需要配合@Modifying注解使用
      * 
+     * 【注意】：
+     * 单条DELETE不限行数，大表上会一次锁住整个范围并产生大量复制日志；
+     * 过期链接的定期清理使用findExpiredLinkKeys + deleteExpiredByIdIn分批执行
+     * 
      * 【测试要点】：
      * - 删除条件的正确性验证
      * - 返回删除记录数的准确性
@@ -224,9 +278,65 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      * @param beforeDate 删除此日期之前创建的记录
      * @return 删除的记录数量
      */
+    @Modifying
     @Query("DELETE FROM ShortLink sl WHERE sl.createdAt < :beforeDate AND sl.accessCount = 0")
     int deleteUnusedLinksCreatedBefore(@Param("beforeDate") LocalDateTime beforeDate);
     
+    /**
+     * 按 (expiresAt, id) 键集分页读取已过期链接的主键
+     * 
+     * 【技术特点】：
+     * 游标条件与排序都落在idx_expires_at(expires_at, id)上，每批都是一次索引范围扫描，
+     * 不随已处理的行数变慢（对比OFFSET分页）
+     * 
+     * @param afterExpiresAt 上一批最后一行的过期时间，第一批传入最早可能的时间
+     * @param afterId 上一批最后一行的主键，第一批传入0
+     * @param now 当前时间，过期时间不晚于该值的行才会返回
+     * @param limit 批大小
+     * @return 按 (expiresAt, id) 升序排列的游标行
+     */
+    @Query("SELECT new com.sunlight.linker.infrastructure.ExpiredLinkKey(sl.id, sl.expiresAt) FROM ShortLink sl "
+            + "WHERE sl.expiresAt <= :now "
+            + "AND (sl.expiresAt > :afterExpiresAt OR (sl.expiresAt = :afterExpiresAt AND sl.id > :afterId)) "
+            + "ORDER BY sl.expiresAt, sl.id LIMIT :limit")
+    List<ExpiredLinkKey> findExpiredLinkKeys(@Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                             @Param("afterId") long afterId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("limit") int limit);
+    
+    /**
+     * 按主键删除一批已过期的链接
+     * 
+     * 【并发安全】：
+     * 删除时重新检查过期条件，读取游标之后被延长有效期的链接不会被误删
+     * 
+     * @param ids 主键列表
+     * @param now 当前时间
+     * @return 删除的记录数量
+     */
+    @Modifying
+    @Query("DELETE FROM ShortLink sl WHERE sl.id IN :ids AND sl.expiresAt <= :now")
+    int deleteExpiredByIdIn(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * 按增量更新访问次数
+     * 
+     * 【业务价值】：
+     * 供点击事件流水线批量写回聚合后的访问次数
+     * 一个刷新周期内同一短码只产生一条UPDATE，而不是每次点击一次读-改-写
+     * 
+     * 【技术特点】：
+     * 使用JPQL批量更新语句，直接在数据库中累加，避免并发覆盖
+     * 批量更新绕过持久化上下文，不会触发@UpdateTimestamp
+     * 
+     * @param shortCode 短码
+     * @param delta 访问次数增量
+     * @return 更新的记录数量（0或1）
+     */
+    @Modifying
+    @Query("UPDATE ShortLink sl SET sl.accessCount = sl.accessCount + :delta WHERE sl.shortCode = :shortCode")
+    int incrementAccessCount(@Param("shortCode") String shortCode, @Param("delta") long delta);
+    
     /**
      * 统计自定义别名的数量
      * 
@@ -266,4 +376,35 @@ public interface ShortLinkRepository extends JpaRepository<ShortLink, Long> {
      */
     @Query("SELECT sl FROM ShortLink sl WHERE sl.longUrl LIKE CONCAT('%', :domain, '%') ORDER BY sl.accessCount DESC LIMIT 1")
     Optional<ShortLink> findMostAccessedLinkByDomain(@Param("domain") String domain);
-}
\ No newline at end of file
+    
+    /**
+     * 流式读取全部短链接的快照投影
+     * 
+     * 【使用说明】：
+     * 必须在事务内调用并关闭返回的Stream；fetchSize让PostgreSQL驱动按批拉取，
+     * 而不是把整个结果集读入内存
+     * 
+     * @return 快照投影流
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.sunlight.linker.infrastructure.snapshot.SnapshotRow(sl.shortCode, sl.longUrl, sl.redirectPolicy, sl.expiresAt, sl.lastUpdatedAt) FROM ShortLink sl")
+    Stream<SnapshotRow> streamSnapshotRows();
+    
+    /**
+     * 流式读取指定时间之后更新过的短链接的快照投影（增量导出）
+     * 
+     * @param since 起始时间（包含）
+     * @return 快照投影流
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.sunlight.linker.infrastructure.snapshot.SnapshotRow(sl.shortCode, sl.longUrl, sl.redirectPolicy, sl.expiresAt, sl.lastUpdatedAt) FROM ShortLink sl WHERE sl.lastUpdatedAt >= :since")
+    Stream<SnapshotRow> streamSnapshotRowsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * 统计指定时间之后更新过的短链接数量
+     * 
+     * @param since 起始时间（包含）
+     * @return 记录数量
+     */
+    long countByLastUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,72 @@
+package com.sunlight.linker.infrastructure.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * 读写分离的连接池与路由指标
+ *
+ * 【指标】：
+ * <pre>
+ *   linker.datasource.pool.utilization{pool}   活动连接数 / 池上限，0-1
+ *   linker.datasource.routes{target}           路由到主库/副本的次数
+ *   linker.datasource.replica.lag              最近一次测得的复制延迟（毫秒）
+ * </pre>
+ * 各池的 hikaricp.connections.* 由Spring Boot按Bean自动注册，这里只补充利用率和路由情况
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class DataSourcePoolMetrics implements MeterBinder {
+
+    public static final String UTILIZATION = "linker.datasource.pool.utilization";
+    public static final String ROUTES = "linker.datasource.routes";
+    public static final String REPLICA_LAG = "linker.datasource.replica.lag";
+
+    private final List<HikariDataSource> pools;
+    private final ReplicaRouting routing;
+
+    public DataSourcePoolMetrics(List<HikariDataSource> pools, ReplicaRouting routing) {
+        this.pools = pools;
+        this.routing = routing;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (HikariDataSource pool : pools) {
+            Gauge.builder(UTILIZATION, pool, DataSourcePoolMetrics::utilization)
+                    .description("连接池利用率（活动连接数/池上限）")
+                    .tag("pool", pool.getPoolName())
+                    .register(registry);
+        }
+        FunctionCounter.builder(ROUTES, routing, ReplicaRouting::getPrimaryRoutes)
+                .description("按路由目标统计的取连接次数")
+                .tag("target", "primary")
+                .register(registry);
+        FunctionCounter.builder(ROUTES, routing, ReplicaRouting::getReplicaRoutes)
+                .description("按路由目标统计的取连接次数")
+                .tag("target", "replica")
+                .register(registry);
+        Gauge.builder(REPLICA_LAG, routing, ReplicaRouting::getLagMillis)
+                .description("副本复制延迟")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    /**
+     * 连接池在第一次取连接时才启动，启动前利用率为0
+     */
+    static double utilization(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean == null || pool.getMaximumPoolSize() <= 0) {
+            return 0;
+        }
+        return (double) mxBean.getActiveConnections() / pool.getMaximumPoolSize();
+    }
+}
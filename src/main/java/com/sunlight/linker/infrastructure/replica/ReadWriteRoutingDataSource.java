@@ -0,0 +1,42 @@
+package com.sunlight.linker.infrastructure.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 按事务读写属性在主库与副本之间路由的DataSource
+ *
+ * 【进阶挑战 - 读写分离】
+ *
+ * 事务管理器在 doBegin 时就会取连接，那时只读标记还没有写入
+ * TransactionSynchronizationManager；因此必须再包一层 LazyConnectionDataSourceProxy，
+ * 把真正取连接推迟到第一条语句：
+ * <pre>
+ *   JPA / JdbcTemplate
+ *     └── LazyConnectionDataSourceProxy   第一条语句时才取连接
+ *           └── ReadWriteRoutingDataSource  determineCurrentLookupKey() = ReplicaRouting.route()
+ *                 ├── PRIMARY  ──▶ 主库连接池
+ *                 └── REPLICA  ──▶ 副本连接池
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouting routing;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.routing = routing;
+        setTargetDataSources(Map.of(ReplicaRouting.Target.PRIMARY, primary, ReplicaRouting.Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.route();
+    }
+}
@@ -0,0 +1,53 @@
+package com.sunlight.linker.infrastructure.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * 副本复制延迟检查
+ *
+ * 【设计说明】：
+ * 定时在副本连接池上执行 lag-query，把结果交给 ReplicaRouting；
+ * 查询失败时把副本标记为不可用，下一次检查成功后自动恢复
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final ReplicaRouting routing;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, ReplicaRouting routing) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.routing = routing;
+    }
+
+    /**
+     * 检查一次复制延迟
+     */
+    @Scheduled(fixedDelayString = "${app.read-replica.lag-check-interval:PT1S}")
+    public void check() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return;
+        }
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            routing.updateLag(lag == null ? 0 : lag.longValue());
+        } catch (DataAccessException e) {
+            if (routing.isReplicaUsable()) {
+                logger.warn("副本延迟检查失败，读取回退到主库: {}", e.getMessage());
+            }
+            routing.markReplicaUnhealthy();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sunlight.linker.infrastructure.replica;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 主库/副本的路由决策与复制延迟保护
+ *
+ * 【进阶挑战 - 读写分离】
+ *
+ * 每个事务第一次真正取连接时决定目标：
+ * <pre>
+ *   读写事务 / 无事务                        ──▶ 主库
+ *   只读事务，且
+ *     ├── 本事务读取的短码刚写入（窗口内）   ──▶ 主库（read-your-writes）
+ *     ├── 副本延迟超过窗口或检查失败         ──▶ 主库
+ *     ├── 最近写入太多、记录已满             ──▶ 主库（直到窗口结束）
+ *     └── 其他                              ──▶ 副本
+ * </pre>
+ *
+ * 【read-your-writes的范围】：
+ * 只对"按短码读取"的方法生效（查看详情、检查可用性），
+ * 统计、热点、时间范围查询允许看到最多一个窗口之前的数据
+ *
+ * 【线程安全】：
+ * 最近写入用ConcurrentHashMap记录，延迟与健康状态是volatile字段，由检查任务单线程更新
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ReplicaRouting {
+
+    /**
+     * 路由目标，同时作为 ReadWriteRoutingDataSource 的查找键
+     */
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    /**
+     * 绑定在当前事务上的"固定走主库"标记
+     */
+    private static final Object PIN_PRIMARY = new Object();
+
+    private final long windowMillis;
+    private final int maxTrackedWrites;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+
+    private volatile long lagMillis;
+    private volatile boolean replicaHealthy = true;
+    private volatile long primaryOnlyUntil;
+
+    public ReplicaRouting(Duration readYourWritesWindow, int maxTrackedWrites) {
+        this(readYourWritesWindow, maxTrackedWrites, System::currentTimeMillis);
+    }
+
+    /**
+     * @param readYourWritesWindow 写入后按短码读取仍走主库的时长
+     * @param maxTrackedWrites 记录的最近写入短码数上限
+     * @param clock 毫秒时钟（测试时可替换）
+     */
+    public ReplicaRouting(Duration readYourWritesWindow, int maxTrackedWrites, LongSupplier clock) {
+        if (readYourWritesWindow.isNegative() || maxTrackedWrites <= 0) {
+            throw new IllegalArgumentException("窗口不能为负数，记录上限必须为正数");
+        }
+        this.windowMillis = readYourWritesWindow.toMillis();
+        this.maxTrackedWrites = maxTrackedWrites;
+        this.clock = clock;
+    }
+
+    /**
+     * 记录一次写入，窗口内按该短码的读取走主库
+     *
+     * @param shortCode 新建或修改的短码
+     */
+    public void recordWrite(String shortCode) {
+        long now = clock.getAsLong();
+        if (recentWrites.size() >= maxTrackedWrites) {
+            recentWrites.values().removeIf(writtenAt -> now - writtenAt > windowMillis);
+            if (recentWrites.size() >= maxTrackedWrites) {
+                // 写入速率超过记录能力：整个窗口内不再区分短码，全部读主库
+                primaryOnlyUntil = now + windowMillis;
+                recentWrites.clear();
+                return;
+            }
+        }
+        recentWrites.put(shortCode, now);
+    }
+
+    /**
+     * 短码在窗口内写入过时，让当前事务固定走主库
+     *
+     * 【注意】：
+     * 必须在事务执行第一条语句之前调用，连接一旦取得就不会再切换
+     *
+     * @param shortCode 本事务要读取的短码
+     * @return 是否固定到了主库
+     */
+    public boolean pinPrimaryIfRecent(String shortCode) {
+        Long writtenAt = recentWrites.get(shortCode);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (clock.getAsLong() - writtenAt > windowMillis) {
+            recentWrites.remove(shortCode, writtenAt);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(PIN_PRIMARY)) {
+            TransactionSynchronizationManager.bindResource(PIN_PRIMARY, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PIN_PRIMARY);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 为当前线程上的事务选择目标
+     *
+     * @return 路由目标
+     */
+    public Target route() {
+        boolean useReplica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !TransactionSynchronizationManager.hasResource(PIN_PRIMARY)
+                && isReplicaUsable();
+        if (useReplica) {
+            replicaRoutes.increment();
+            return Target.REPLICA;
+        }
+        primaryRoutes.increment();
+        return Target.PRIMARY;
+    }
+
+    /**
+     * @return 副本健康、延迟不超过窗口、且不处于全量回退期间时返回true
+     */
+    public boolean isReplicaUsable() {
+        return replicaHealthy && lagMillis <= windowMillis && clock.getAsLong() >= primaryOnlyUntil;
+    }
+
+    /**
+     * 更新测得的复制延迟
+     *
+     * @param lagMillis 延迟毫秒数
+     */
+    public void updateLag(long lagMillis) {
+        this.lagMillis = Math.max(0, lagMillis);
+        this.replicaHealthy = true;
+    }
+
+    /**
+     * 延迟检查失败（副本不可达等），在下次检查成功前所有读取走主库
+     */
+    public void markReplicaUnhealthy() {
+        this.replicaHealthy = false;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getPrimaryRoutes() {
+        return primaryRoutes.sum();
+    }
+
+    public long getReplicaRoutes() {
+        return replicaRoutes.sum();
+    }
+
+    public int getTrackedWrites() {
+        return recentWrites.size();
+    }
+}
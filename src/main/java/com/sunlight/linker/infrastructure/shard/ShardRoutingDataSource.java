@@ -0,0 +1,95 @@
+package com.sunlight.linker.infrastructure.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 按分片号路由的DataSource
+ *
+ * 【进阶挑战 - 水平分片】
+ *
+ * 每个分片一个连接池，getConnection()时按当前线程绑定的分片号选择目标：
+ * <pre>
+ *   ShardRoutingDataSource.callOn(2, () -&gt; jdbc.query(...))
+ *     └── determineCurrentLookupKey() = 2 ──▶ 分片2的连接池
+ * </pre>
+ * 没有默认目标：未绑定分片号就获取连接会直接抛出IllegalStateException，
+ * 不会把请求悄悄落到某一个分片上
+ *
+ * 【事务】：
+ * 事务管理器在事务开始时获取连接，分片号必须在开启事务之前绑定，
+ * 同一事务内的所有语句都在这个分片上执行（不支持跨分片事务）
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<? extends DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个分片");
+        }
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 在给定分片上执行，结束后恢复之前绑定的分片号（支持嵌套调用）
+     *
+     * @param shard 分片号
+     * @param work 要执行的操作
+     * @return 操作结果
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return 当前线程绑定的分片号，未绑定时为null
+     */
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @param shard 分片号
+     * @return 分片的DataSource（连接池）
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+}
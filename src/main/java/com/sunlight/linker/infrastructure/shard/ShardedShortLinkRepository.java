@@ -0,0 +1,428 @@
+package com.sunlight.linker.infrastructure.shard;
+
+import com.sunlight.linker.core.ConsistentHashRing;
+import com.sunlight.linker.core.ShardedIds;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ExpiredLinkKey;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntFunction;
+
+/**
+ * 按分片存取短链接
+ *
+ * 【进阶挑战 - 水平分片】
+ *
+ * 位于服务层与各分片数据库之间，替代单库的 ShortLinkRepository：
+ * <pre>
+ *   写入   系统短链接  分片 = ring(longUrl)   ID = 分片内序列号 &lt;&lt; 10 | 分片号，短码 = codec.encode(ID)
+ *          自定义别名  分片 = ring(alias)
+ *   读取   系统短码    tryDecode ──▶ 低10位即分片号 ──▶ 按主键查询并核对短码
+ *          其他短码    ring(短码) ──▶ 按短码索引查询
+ *   统计   scatter-gather：每个分片并行执行同一查询，在内存中合并
+ *   清理   按分片逐个键集分批删除过期链接（ExpiredLinkPurger）
+ * </pre>
+ * 解析路径最多访问两个分片（落在编码空间内的别名），不需要任何路由表
+ *
+ * 【去重】：
+ * 系统短链接按长链接路由，findByLongUrl只查一个分片；
+ * 同一长链接的自定义别名落在别名自己的分片上，不参与系统短链接的去重
+ *
+ * 【限制】：
+ * - 不支持跨分片事务，每个方法在单个分片的本地事务中完成
+ * - 别名与系统短码的冲突在创建别名时检查两个候选分片，极端并发下仍可能产生同名短码，
+ *   解析时系统短码优先
+ * - 增加分片会改变 ring 的归属，已有别名和长链接需要迁移（约 1/(N+1)）
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class ShardedShortLinkRepository implements AutoCloseable {
+
+    private static final String COLUMNS = "id, long_url, short_code, is_custom_alias, access_count, redirect_policy, "
+            + "description, created_at, last_updated_at, expires_at";
+
+    private static final RowMapper<ShortLink> ROW_MAPPER = (rs, rowNum) -> ShortLink.restore(
+            rs.getLong("id"),
+            rs.getString("long_url"),
+            rs.getString("short_code"),
+            rs.getBoolean("is_custom_alias"),
+            rs.getLong("access_count"),
+            RedirectPolicy.valueOf(rs.getString("redirect_policy")),
+            rs.getString("description"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("last_updated_at", LocalDateTime.class),
+            rs.getObject("expires_at", LocalDateTime.class));
+
+    private final ShardRoutingDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsistentHashRing ring;
+    private final ShortCodeCodec codec;
+    private final Executor scatterExecutor;
+
+    /**
+     * 每个分片取下一个序列号的SQL，首次使用时按数据库类型确定
+     */
+    private final String[] nextIdSql;
+
+    public ShardedShortLinkRepository(ShardRoutingDataSource dataSource, ConsistentHashRing ring,
+                                      ShortCodeCodec codec, Executor scatterExecutor) {
+        if (ring.getShardCount() != dataSource.getShardCount()) {
+            throw new IllegalArgumentException("哈希环的分片数与DataSource不一致");
+        }
+        if (dataSource.getShardCount() > ShardedIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("分片数不能超过" + ShardedIds.MAX_SHARDS);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.ring = ring;
+        this.codec = codec;
+        this.scatterExecutor = scatterExecutor;
+        this.nextIdSql = new String[dataSource.getShardCount()];
+    }
+
+    /**
+     * 在每个分片上执行建表脚本 db/sharding/short_links_shard.sql（可重复执行）
+     */
+    public void initializeSchema() {
+        ResourceDatabasePopulator populator =
+                new ResourceDatabasePopulator(new ClassPathResource("db/sharding/short_links_shard.sql"));
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            populator.execute(dataSource.getShard(shard));
+        }
+    }
+
+    public int getShardCount() {
+        return dataSource.getShardCount();
+    }
+
+    /**
+     * 保存新的短链接，系统短链接在这里分配全局ID与短码
+     *
+     * @param link 未保存的短链接（系统短链接的shortCode会被覆盖）
+     * @return 保存后的短链接
+     * @throws org.springframework.dao.DuplicateKeyException 当别名在分片内已存在时抛出
+     */
+    public ShortLink insert(ShortLink link) {
+        boolean alias = Boolean.TRUE.equals(link.getIsCustomAlias());
+        int shard = ring.shardFor(alias ? link.getShortCode() : link.getLongUrl());
+        return inTransaction(shard, () -> {
+            long id = ShardedIds.compose(nextLocalId(shard), shard);
+            String shortCode = alias ? link.getShortCode() : codec.encode(id);
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            jdbcTemplate.update("INSERT INTO short_links (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    id, link.getLongUrl(), shortCode, alias, 0L, link.getRedirectPolicy().name(),
+                    link.getDescription(), now, now, link.getExpiresAt());
+            return ShortLink.restore(id, link.getLongUrl(), shortCode, alias, 0L, link.getRedirectPolicy(),
+                    link.getDescription(), now, now, link.getExpiresAt());
+        });
+    }
+
+    /**
+     * 按短码查找：系统短码按内嵌的分片号和主键查询，其余按别名的哈希分片查询
+     *
+     * @param shortCode 已去除首尾空白的短码
+     * @return 包含ShortLink的Optional
+     */
+    public Optional<ShortLink> findByShortCode(String shortCode) {
+        OptionalLong id = codec.tryDecode(shortCode);
+        if (id.isPresent() && ShardedIds.shardOf(id.getAsLong()) < getShardCount()) {
+            Optional<ShortLink> byId = findById(id.getAsLong());
+            if (byId.isPresent() && shortCode.equals(byId.get().getShortCode())) {
+                return byId;
+            }
+        }
+        return first(inTransaction(ring.shardFor(shortCode), () -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links WHERE short_code = ?", ROW_MAPPER, shortCode)));
+    }
+
+    /**
+     * 按全局ID查找
+     *
+     * @param id 全局ID
+     * @return 包含ShortLink的Optional
+     */
+    public Optional<ShortLink> findById(long id) {
+        int shard = ShardedIds.shardOf(id);
+        if (shard >= getShardCount()) {
+            return Optional.empty();
+        }
+        return first(inTransaction(shard, () -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links WHERE id = ?", ROW_MAPPER, id)));
+    }
+
+    /**
+     * 按长链接查找系统短链接（只访问 ring(longUrl) 一个分片）
+     *
+     * @param longUrl 长链接
+     * @return 包含ShortLink的Optional
+     */
+    public Optional<ShortLink> findByLongUrl(String longUrl) {
+        return first(inTransaction(ring.shardFor(longUrl), () -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links WHERE long_url = ? AND is_custom_alias = FALSE",
+                ROW_MAPPER, longUrl)));
+    }
+
+    /**
+     * @param shortCode 短码
+     * @return 短码已被系统短码或别名占用时返回true
+     */
+    public boolean existsByShortCode(String shortCode) {
+        return findByShortCode(shortCode).isPresent();
+    }
+
+    /**
+     * 批量检查短码是否已被占用：每个分片并行执行一条 IN 查询
+     *
+     * @param shortCodes 已去除首尾空白的短码
+     * @return 其中已被系统短码或别名占用的短码
+     */
+    public Set<String> findExistingShortCodes(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return Set.of();
+        }
+        List<String> codes = List.copyOf(shortCodes);
+        String sql = "SELECT short_code FROM short_links WHERE short_code IN ("
+                + String.join(",", Collections.nCopies(codes.size(), "?")) + ")";
+        Set<String> existing = new HashSet<>();
+        scatter(shard -> jdbcTemplate.queryForList(sql, String.class, codes.toArray())).forEach(existing::addAll);
+        return existing;
+    }
+
+    /**
+     * 在短链接所在分片上增加访问次数
+     *
+     * @param link 已保存的短链接
+     * @param delta 增量
+     * @return 更新的行数
+     */
+    public int incrementAccessCount(ShortLink link, long delta) {
+        return inTransaction(shardOf(link), () -> jdbcTemplate.update(
+                "UPDATE short_links SET access_count = access_count + ? WHERE id = ?", delta, link.getId()));
+    }
+
+    /**
+     * 修改重定向策略
+     *
+     * @param link 已保存的短链接
+     * @param redirectPolicy 新策略
+     * @return 修改后的短链接
+     */
+    public ShortLink updateRedirectPolicy(ShortLink link, RedirectPolicy redirectPolicy) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        inTransaction(shardOf(link), () -> jdbcTemplate.update(
+                "UPDATE short_links SET redirect_policy = ?, last_updated_at = ? WHERE id = ?",
+                redirectPolicy.name(), now, link.getId()));
+        return ShortLink.restore(link.getId(), link.getLongUrl(), link.getShortCode(), link.getIsCustomAlias(),
+                link.getAccessCount(), redirectPolicy, link.getDescription(), link.getCreatedAt(), now,
+                link.getExpiresAt());
+    }
+
+    /**
+     * 删除短链接
+     *
+     * @param link 已保存的短链接
+     */
+    public void delete(ShortLink link) {
+        inTransaction(shardOf(link), () -> jdbcTemplate.update("DELETE FROM short_links WHERE id = ?", link.getId()));
+    }
+
+    /**
+     * 在单个分片上按 (expiresAt, id) 键集读取一批已过期链接的主键，供 ExpiredLinkPurger 分批清理
+     *
+     * @param shard 分片号
+     * @param afterExpiresAt 上一批最后一行的过期时间，第一批传入最早可能的时间
+     * @param afterId 上一批最后一行的主键，第一批传入0
+     * @param now 当前时间，过期时间不晚于该值的行才会返回
+     * @param limit 批大小
+     * @return 按 (expiresAt, id) 升序排列的游标行
+     */
+    public List<ExpiredLinkKey> findExpiredLinkKeys(int shard, LocalDateTime afterExpiresAt, long afterId,
+                                                    LocalDateTime now, int limit) {
+        return inTransaction(shard, () -> jdbcTemplate.query(
+                "SELECT id, expires_at FROM short_links WHERE expires_at <= ? "
+                        + "AND (expires_at > ? OR (expires_at = ? AND id > ?)) ORDER BY expires_at, id LIMIT ?",
+                (rs, rowNum) -> new ExpiredLinkKey(rs.getLong("id"), rs.getObject("expires_at", LocalDateTime.class)),
+                now, afterExpiresAt, afterExpiresAt, afterId, limit));
+    }
+
+    /**
+     * 在单个分片上按主键删除一批已过期的链接，删除时重新检查过期条件
+     *
+     * @param shard 分片号
+     * @param ids 主键列表
+     * @param now 当前时间
+     * @return 删除的行数
+     */
+    public int deleteExpiredByIdIn(int shard, List<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids);
+        args.add(now);
+        return inTransaction(shard, () -> jdbcTemplate.update(
+                "DELETE FROM short_links WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?"))
+                        + ") AND expires_at <= ?", args.toArray()));
+    }
+
+    /**
+     * 全部分片的统计（scatter-gather）
+     *
+     * @return 各分片之和
+     */
+    public ShardStats stats() {
+        return scatter(shard -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), COALESCE(SUM(access_count), 0), "
+                        + "COALESCE(SUM(CASE WHEN is_custom_alias THEN 1 ELSE 0 END), 0) FROM short_links",
+                (rs, rowNum) -> new ShardStats(rs.getLong(1), rs.getLong(2), rs.getLong(3))))
+                .stream()
+                .reduce(new ShardStats(0, 0, 0), ShardStats::plus);
+    }
+
+    /**
+     * 访问次数大于阈值的链接，按访问次数降序
+     *
+     * @param minAccessCount 阈值（不含）
+     * @return 合并后的列表
+     */
+    public List<ShortLink> findHotLinks(long minAccessCount) {
+        return merge(scatter(shard -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links WHERE access_count > ? ORDER BY access_count DESC",
+                ROW_MAPPER, minAccessCount)), BY_ACCESS_COUNT_DESC, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 访问次数最多的前limit个链接：每个分片取前limit个，合并后再取前limit个
+     *
+     * @param limit 数量
+     * @return 按访问次数降序的列表
+     */
+    public List<ShortLink> findTopAccessed(int limit) {
+        return merge(scatter(shard -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links ORDER BY access_count DESC LIMIT ?",
+                ROW_MAPPER, limit)), BY_ACCESS_COUNT_DESC, limit);
+    }
+
+    /**
+     * 时间范围内创建的链接，按创建时间升序
+     *
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（包含）
+     * @return 合并后的列表
+     */
+    public List<ShortLink> findByCreatedAtBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        return merge(scatter(shard -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM short_links WHERE created_at BETWEEN ? AND ? ORDER BY created_at",
+                ROW_MAPPER, startTime, endTime)), Comparator.comparing(ShortLink::getCreatedAt), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 关闭各分片连接池与scatter线程池
+     */
+    @Override
+    public void close() throws Exception {
+        if (scatterExecutor instanceof ExecutorService executorService) {
+            executorService.close();
+        }
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            if (dataSource.getShard(shard) instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static final Comparator<ShortLink> BY_ACCESS_COUNT_DESC =
+            Comparator.comparing(ShortLink::getAccessCount).reversed();
+
+    private int shardOf(ShortLink link) {
+        return Boolean.TRUE.equals(link.getIsCustomAlias())
+                ? ring.shardFor(link.getShortCode())
+                : ShardedIds.shardOf(link.getId());
+    }
+
+    private <T> T inTransaction(int shard, java.util.function.Supplier<T> work) {
+        return ShardRoutingDataSource.callOn(shard, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    private long nextLocalId(int shard) {
+        String sql = nextIdSql[shard];
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(product)
+                    ? "SELECT nextval('short_links_seq')"
+                    : "SELECT NEXT VALUE FOR short_links_seq";
+            nextIdSql[shard] = sql;
+        }
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * 在所有分片上并行执行同一查询，结果按分片号排列
+     */
+    private <T> List<T> scatter(IntFunction<T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(getShardCount());
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> inTransaction(target, () -> query.apply(target)), scatterExecutor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * 合并各分片已排序的结果，取前limit个
+     */
+    private static List<ShortLink> merge(List<List<ShortLink>> perShard, Comparator<ShortLink> order, int limit) {
+        List<ShortLink> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static Optional<ShortLink> first(List<ShortLink> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * 分片统计
+     *
+     * @param totalLinks 链接数
+     * @param totalAccess 访问次数之和
+     * @param customAliases 自定义别名数
+     */
+    public record ShardStats(long totalLinks, long totalAccess, long customAliases) {
+
+        ShardStats plus(ShardStats other) {
+            return new ShardStats(totalLinks + other.totalLinks, totalAccess + other.totalAccess,
+                    customAliases + other.customAliases);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import com.sunlight.linker.core.MinimalPerfectHash;
+import com.sunlight.linker.core.UrlDictionary;
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 常驻堆内的紧凑短码表
+ *
+ * 【进阶挑战 - 紧凑索引】
+ *
+ * 用 HashMap&lt;String, String&gt; 常驻1亿条短链，仅对象头、String与Entry就要几十GB堆；
+ * 该表不保存短码本身，用最小完美哈希把短码映射到槽位：
+ * <pre>
+ *   find(code) ──hash──▶ pilots（1条缓存行）──▶ slots[i]（1条缓存行）──指纹匹配──▶ URL区偏移
+ * </pre>
+ *
+ * 【槽位】（每条8字节，没有空槽位）：
+ * <pre>
+ *   高28位  短码指纹
+ *   低36位  URL区偏移（最大64GB）
+ * </pre>
+ *
+ * 【URL区记录】：
+ * <pre>
+ *   [0]       重定向策略序号
+ *   [1..2]    存储字节数（变长编码，小于128时1字节）
+ *   [...]     URL的UTF-8字节；构建时指定了 UrlDictionary 则为字典编码后的字节
+ * </pre>
+ * URL区按固定大小分块的byte[]保存，记录不跨分块
+ *
+ * 【内存】：
+ * 每条链接约 8字节槽位 + 1字节pilot + 2-3字节记录头，外加URL字节本身；
+ * URL共享域名和参数时，用字典压缩可以进一步缩小URL区
+ *
+ * 【成员校验】：
+ * 不在表中的短码也会落到某个槽位，只有28位指纹恰好相同时才会误判命中，概率约 1/2^28；
+ * 需要精确结果的调用方应该把命中视为"很可能存在"，再用数据库或快照确认
+ *
+ * 【线程安全】：
+ * 构建完成后不可变，可以被任意多个线程同时读取
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class CompactLinkTable {
+
+    /**
+     * 默认URL区分块4MB
+     */
+    public static final int DEFAULT_CHUNK_SHIFT = 22;
+
+    private static final int OFFSET_BITS = 36;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final long FINGERPRINT_SALT = 0x5851F42D4C957F2DL;
+    private static final int MAX_SEED_ATTEMPTS = 4;
+    private static final RedirectPolicy[] POLICIES = RedirectPolicy.values();
+
+    private final MinimalPerfectHash hash;
+    private final long seed;
+    private final long[] slots;
+    private final byte[][] chunks;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final long urlBytes;
+    private final long storedUrlBytes;
+    private final UrlDictionary dictionary;
+
+    private CompactLinkTable(MinimalPerfectHash hash, long seed, long[] slots, byte[][] chunks,
+                             int chunkShift, Loader loader) {
+        this.hash = hash;
+        this.seed = seed;
+        this.slots = slots;
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.urlBytes = loader.urlBytes;
+        this.storedUrlBytes = loader.storedUrlBytes;
+        this.dictionary = loader.dictionary;
+    }
+
+    /**
+     * 从快照的当前生效记录构建（墓碑与被覆盖的旧记录不会进入表中）
+     *
+     * @param snapshot 分层快照
+     * @return 紧凑短码表
+     */
+    public static CompactLinkTable copyOf(LayeredLinkSnapshot snapshot) {
+        return copyOf(snapshot, null);
+    }
+
+    /**
+     * 从快照的当前生效记录构建，URL用字典压缩
+     *
+     * @param snapshot 分层快照
+     * @param dictionary URL字典，为null时不压缩
+     * @return 紧凑短码表
+     */
+    public static CompactLinkTable copyOf(LayeredLinkSnapshot snapshot, UrlDictionary dictionary) {
+        return build(sink -> snapshot.forEachLive((layer, record) ->
+                sink.accept(layer.codeAt(record), layer.urlAt(record), layer.policyAt(record))),
+                DEFAULT_CHUNK_SHIFT, dictionary);
+    }
+
+    public static CompactLinkTable build(LinkSource source) {
+        return build(source, DEFAULT_CHUNK_SHIFT, null);
+    }
+
+    public static CompactLinkTable build(LinkSource source, int chunkShift) {
+        return build(source, chunkShift, null);
+    }
+
+    public static CompactLinkTable build(LinkSource source, UrlDictionary dictionary) {
+        return build(source, DEFAULT_CHUNK_SHIFT, dictionary);
+    }
+
+    /**
+     * 构建紧凑短码表
+     *
+     * 【说明】：
+     * 极少数情况下两个短码的64位哈希相同，此时换种子重新遍历一次数据源，
+     * 因此数据源必须能以相同顺序遍历多次
+     *
+     * @param source 数据源，短码互不相同
+     * @param chunkShift URL区分块大小的log2（14-30）
+     * @param dictionary URL字典，为null时按原样保存UTF-8字节
+     * @return 紧凑短码表
+     * @throws IllegalArgumentException 当短码重复、URL过长或分块大小不合法时抛出
+     */
+    public static CompactLinkTable build(LinkSource source, int chunkShift, UrlDictionary dictionary) {
+        if (chunkShift < SnapshotLayout.MIN_CHUNK_SHIFT || chunkShift > 30) {
+            throw new IllegalArgumentException("分块大小的log2必须在14-30之间: " + chunkShift);
+        }
+        Loader loader = new Loader(chunkShift, dictionary);
+        source.forEach(loader::add);
+        long[] hashes = Arrays.copyOf(loader.hashes, loader.size);
+
+        long seed = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                MinimalPerfectHash mph = MinimalPerfectHash.build(hashes);
+                long[] slots = new long[loader.size];
+                for (int i = 0; i < loader.size; i++) {
+                    slots[mph.slotOf(hashes[i])] = (fingerprint(hashes[i]) << OFFSET_BITS) | loader.offsets[i];
+                }
+                return new CompactLinkTable(mph, seed, slots, loader.finishChunks(), chunkShift, loader);
+            } catch (IllegalArgumentException e) {
+                if (attempt == MAX_SEED_ATTEMPTS) {
+                    throw new IllegalArgumentException("短码重复，无法构建完美哈希", e);
+                }
+                long nextSeed = attempt;
+                int[] index = new int[1];
+                source.forEach((code, url, policy) -> hashes[index[0]++] = hash(code, nextSeed));
+                seed = nextSeed;
+            }
+        }
+    }
+
+    /**
+     * 查找短码（不分配对象）
+     *
+     * @param code 短码
+     * @return 记录句柄（URL区偏移），未找到返回-1
+     */
+    public long find(CharSequence code) {
+        long h = hash(code, seed);
+        int slot = hash.slotOf(h);
+        if (slot < 0) {
+            return -1;
+        }
+        long entry = slots[slot];
+        return (entry >>> OFFSET_BITS) == fingerprint(h) ? entry & OFFSET_MASK : -1;
+    }
+
+    public RedirectPolicy policyAt(long record) {
+        return POLICIES[chunk(record)[index(record)]];
+    }
+
+    /**
+     * 把URL的UTF-8字节复制（或解码）到调用方的缓冲区（不分配对象）
+     *
+     * @param record 记录句柄
+     * @param target 目标缓冲区，长度不小于URL的字节数（最长8192）
+     * @return URL字节数
+     */
+    public int copyUrl(long record, byte[] target) {
+        int length = storedLengthAt(record);
+        if (dictionary != null) {
+            return dictionary.decode(chunk(record), urlIndex(record, length), length, target);
+        }
+        System.arraycopy(chunk(record), urlIndex(record, length), target, 0, length);
+        return length;
+    }
+
+    public String urlAt(long record) {
+        int length = storedLengthAt(record);
+        byte[] chunk = chunk(record);
+        int index = urlIndex(record, length);
+        if (dictionary != null) {
+            byte[] bytes = new byte[dictionary.decodedLength(chunk, index, length)];
+            dictionary.decode(chunk, index, length, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new String(chunk, index, length, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * URL本身的字节数之和
+     */
+    public long getUrlBytes() {
+        return urlBytes;
+    }
+
+    /**
+     * URL区中实际保存的URL字节数之和（未压缩时与getUrlBytes相同）
+     */
+    public long getStoredUrlBytes() {
+        return storedUrlBytes;
+    }
+
+    /**
+     * pilots、槽位、URL区与字典合计占用的堆字节数（不含数组对象头）
+     */
+    public long getMemoryBytes() {
+        long arena = 0;
+        for (byte[] chunk : chunks) {
+            arena += chunk.length;
+        }
+        long dictionaryBytes = dictionary == null ? 0 : dictionary.memoryBytes();
+        return hash.memoryBytes() + (long) slots.length * Long.BYTES + arena + dictionaryBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactLinkTable{size=" + slots.length + ", memoryBytes=" + getMemoryBytes()
+                + ", urlBytes=" + urlBytes + ", storedUrlBytes=" + storedUrlBytes + "}";
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private byte[] chunk(long record) {
+        return chunks[(int) (record >>> chunkShift)];
+    }
+
+    private int index(long record) {
+        return (int) (record & chunkMask);
+    }
+
+    private int storedLengthAt(long record) {
+        byte[] chunk = chunk(record);
+        int index = index(record) + 1;
+        int first = chunk[index];
+        return first >= 0 ? first : (first & 0x7F) | (chunk[index + 1] << 7);
+    }
+
+    private int urlIndex(long record, int length) {
+        return index(record) + (length < 0x80 ? 2 : 3);
+    }
+
+    /**
+     * 带种子的短码哈希：FNV-1a后接SplitMix64终结混合
+     */
+    static long hash(CharSequence code, long seed) {
+        long h = 0xCBF29CE484222325L ^ (seed * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < code.length(); i++) {
+            h ^= code.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * 28位指纹，与决定槽位的位相互独立
+     */
+    private static long fingerprint(long hash) {
+        long z = (hash ^ FINGERPRINT_SALT) * 0xBF58476D1CE4E5B9L;
+        return (z ^ (z >>> 29)) >>> OFFSET_BITS;
+    }
+
+    /**
+     * 构建期的顺序写入器：URL区按分块追加，哈希与偏移按数据源顺序记录
+     */
+    private static final class Loader {
+
+        private final int chunkShift;
+        private final int chunkSize;
+        private final UrlDictionary dictionary;
+        private byte[][] chunks = new byte[1][];
+        private int chunkCount;
+        private int position;
+
+        private long[] hashes = new long[1024];
+        private long[] offsets = new long[1024];
+        private int size;
+        private long urlBytes;
+        private long storedUrlBytes;
+
+        Loader(int chunkShift, UrlDictionary dictionary) {
+            this.chunkShift = chunkShift;
+            this.chunkSize = 1 << chunkShift;
+            this.dictionary = dictionary;
+        }
+
+        void add(String code, String url, RedirectPolicy policy) {
+            byte[] urlUtf8 = url.getBytes(StandardCharsets.UTF_8);
+            if (urlUtf8.length > SnapshotLayout.MAX_URL_BYTES) {
+                throw new IllegalArgumentException("URL超过" + SnapshotLayout.MAX_URL_BYTES + "字节: " + code);
+            }
+            byte[] stored = dictionary == null ? urlUtf8 : dictionary.encode(url);
+            if (stored.length > SnapshotLayout.MAX_URL_BYTES) {
+                throw new IllegalArgumentException("URL编码后超过" + SnapshotLayout.MAX_URL_BYTES + "字节: " + code);
+            }
+            int recordLength = (stored.length < 0x80 ? 2 : 3) + stored.length;
+            if (chunkCount == 0 || position + recordLength > chunkSize) {
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                }
+                chunks[chunkCount++] = new byte[chunkSize];
+                position = 0;
+            }
+            long offset = ((long) (chunkCount - 1) << chunkShift) | position;
+            if (offset > OFFSET_MASK) {
+                throw new IllegalStateException("URL区超过64GB");
+            }
+
+            byte[] chunk = chunks[chunkCount - 1];
+            chunk[position++] = (byte) policy.ordinal();
+            if (stored.length < 0x80) {
+                chunk[position++] = (byte) stored.length;
+            } else {
+                chunk[position++] = (byte) (0x80 | (stored.length & 0x7F));
+                chunk[position++] = (byte) (stored.length >>> 7);
+            }
+            System.arraycopy(stored, 0, chunk, position, stored.length);
+            position += stored.length;
+
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            hashes[size] = hash(code, 0);
+            offsets[size] = offset;
+            size++;
+            urlBytes += urlUtf8.length;
+            storedUrlBytes += stored.length;
+        }
+
+        /**
+         * 截掉最后一个分块未使用的尾部
+         */
+        byte[][] finishChunks() {
+            byte[][] result = Arrays.copyOf(chunks, chunkCount);
+            if (chunkCount > 0) {
+                result[chunkCount - 1] = Arrays.copyOf(result[chunkCount - 1], position);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 可重复遍历的数据源
+     */
+    @FunctionalInterface
+    public interface LinkSource {
+        void forEach(LinkSink sink);
+    }
+
+    /**
+     * 数据源回调
+     */
+    @FunctionalInterface
+    public interface LinkSink {
+        void accept(String code, String url, RedirectPolicy policy);
+    }
+}
@@ -0,0 +1,142 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 基础快照 + 增量快照的分层视图
+ *
+ * 【查找顺序】：
+ * <pre>
+ *   delta-N ──▶ delta-N-1 ──▶ ... ──▶ base
+ * </pre>
+ * 从最新的一层开始查找，第一个找到的记录生效；找到墓碑表示该短码已被删除，不再查更早的层
+ *
+ * 【记录句柄】：
+ * 高8位为层序号（0表示最新一层），低56位为该层内的记录偏移；未找到为-1
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class LayeredLinkSnapshot {
+
+    private static final int LAYER_SHIFT = 56;
+    private static final long RECORD_MASK = (1L << LAYER_SHIFT) - 1;
+    private static final int MAX_LAYERS = 128;
+
+    private static final LayeredLinkSnapshot EMPTY = new LayeredLinkSnapshot(List.of());
+
+    private final LinkSnapshot[] layers;
+
+    /**
+     * @param newestFirst 从新到旧排列的快照层
+     * @throws IllegalArgumentException 当层数超过128时抛出
+     */
+    public LayeredLinkSnapshot(List<LinkSnapshot> newestFirst) {
+        if (newestFirst.size() > MAX_LAYERS) {
+            throw new IllegalArgumentException("快照层数过多，需要先压实: " + newestFirst.size());
+        }
+        this.layers = newestFirst.toArray(new LinkSnapshot[0]);
+    }
+
+    public static LayeredLinkSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 查找短码（不分配对象）
+     *
+     * @param code 短码
+     * @return 记录句柄，未找到时为-1；找到墓碑时同样返回句柄，由isTombstone判断
+     */
+    public long find(CharSequence code) {
+        for (int layer = 0; layer < layers.length; layer++) {
+            long record = layers[layer].find(code);
+            if (record >= 0) {
+                return ((long) layer << LAYER_SHIFT) | record;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isTombstone(long handle) {
+        return layer(handle).isTombstone(handle & RECORD_MASK);
+    }
+
+    public RedirectPolicy policyAt(long handle) {
+        return layer(handle).policyAt(handle & RECORD_MASK);
+    }
+
+    public LocalDateTime expiresAt(long handle) {
+        return layer(handle).expiresAt(handle & RECORD_MASK);
+    }
+
+    public boolean isExpiredAt(long handle, LocalDateTime now) {
+        return layer(handle).isExpiredAt(handle & RECORD_MASK, now);
+    }
+
+    public String urlAt(long handle) {
+        return layer(handle).urlAt(handle & RECORD_MASK);
+    }
+
+    public int copyUrl(long handle, byte[] target) {
+        return layer(handle).copyUrl(handle & RECORD_MASK, target);
+    }
+
+    /**
+     * 遍历每个短码当前生效的记录（被更新的层覆盖的记录与墓碑都不会出现）
+     *
+     * @param visitor 接收（所在层，记录偏移）
+     */
+    public void forEachLive(LiveRecordVisitor visitor) {
+        for (int layer = 0; layer < layers.length; layer++) {
+            LinkSnapshot snapshot = layers[layer];
+            int current = layer;
+            snapshot.forEach(record -> {
+                if (!snapshot.isTombstone(record) && !shadowed(snapshot.codeAt(record), current)) {
+                    visitor.visit(snapshot, record);
+                }
+            });
+        }
+    }
+
+    /**
+     * 最新一层的水位线，没有任何层时为0
+     */
+    public long getWatermark() {
+        return layers.length == 0 ? 0 : layers[0].getWatermark();
+    }
+
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    public List<LinkSnapshot> getLayers() {
+        return List.of(layers);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private LinkSnapshot layer(long handle) {
+        return layers[(int) (handle >>> LAYER_SHIFT)];
+    }
+
+    private boolean shadowed(String code, int layer) {
+        for (int newer = 0; newer < layer; newer++) {
+            if (layers[newer].find(code) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生效记录遍历回调
+     */
+    @FunctionalInterface
+    public interface LiveRecordVisitor {
+        void visit(LinkSnapshot snapshot, long record);
+    }
+}
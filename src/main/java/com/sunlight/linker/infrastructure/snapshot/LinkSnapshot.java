@@ -0,0 +1,268 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static com.sunlight.linker.infrastructure.snapshot.SnapshotLayout.*;
+
+/**
+ * 只读的内存映射短码快照
+ *
+ * 【进阶挑战 - 堆外快照】
+ *
+ * 边缘节点只需要读取 shortCode → longUrl，该类把 LinkSnapshotWriter 生成的文件整体映射到内存：
+ * <pre>
+ *   find(code) ──hash──▶ 槽位（1次缓存行）──指纹匹配──▶ 记录（1次缓存行）──比较短码──▶ 记录偏移
+ * </pre>
+ * 数据都在页缓存里，不占用Java堆，也没有反序列化；
+ * find与copyUrl不分配对象，urlAt为了返回String会分配一次
+ *
+ * 【线程安全】：
+ * 不可变，可以被任意多个线程同时读取
+ *
+ * 【记录句柄】：
+ * find返回记录在文件中的偏移，作为其他读取方法的参数；未找到返回-1
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class LinkSnapshot {
+
+    private static final RedirectPolicy[] POLICIES = RedirectPolicy.values();
+
+    private final Path path;
+    private final MappedChunks chunks;
+    private final long entryCount;
+    private final long slotMask;
+    private final long heapOffset;
+    private final long heapEnd;
+    private final long watermark;
+    private final long chunkSize;
+    private final int recordHeaderSize;
+
+    private LinkSnapshot(Path path, MappedChunks chunks, long entryCount, long slotCount,
+                         long heapOffset, long heapEnd, long watermark, int chunkShift, int recordHeaderSize) {
+        this.path = path;
+        this.chunks = chunks;
+        this.entryCount = entryCount;
+        this.slotMask = slotCount - 1;
+        this.heapOffset = heapOffset;
+        this.heapEnd = heapEnd;
+        this.watermark = watermark;
+        this.chunkSize = 1L << chunkShift;
+        this.recordHeaderSize = recordHeaderSize;
+    }
+
+    /**
+     * 映射快照文件
+     *
+     * @param path 快照文件
+     * @return 快照
+     * @throws UncheckedIOException 当文件无法读取或格式不正确时抛出
+     */
+    public static LinkSnapshot open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            if (fileLength < HEADER_SIZE) {
+                throw new IOException("快照文件过短: " + fileLength);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // 读满文件头
+            }
+            int version = header.getInt(VERSION_OFFSET);
+            if (header.getLong(MAGIC_OFFSET) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_EXPIRY)) {
+                throw new IOException("不是快照文件或版本不兼容");
+            }
+            int chunkShift = header.getInt(CHUNK_SHIFT_OFFSET);
+            long heapEnd = header.getLong(HEAP_END_OFFSET);
+            if (heapEnd != fileLength) {
+                throw new IOException("快照文件长度与文件头不一致: " + fileLength + " != " + heapEnd);
+            }
+            MappedChunks chunks = new MappedChunks(channel, FileChannel.MapMode.READ_ONLY, fileLength, chunkShift);
+            return new LinkSnapshot(path, chunks,
+                    header.getLong(ENTRY_COUNT_OFFSET),
+                    header.getLong(SLOT_COUNT_OFFSET),
+                    header.getLong(HEAP_OFFSET_OFFSET),
+                    heapEnd,
+                    header.getLong(WATERMARK_OFFSET),
+                    chunkShift,
+                    version == VERSION ? RECORD_HEADER_SIZE : RECORD_HEADER_SIZE_WITHOUT_EXPIRY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开快照失败: " + path, e);
+        }
+    }
+
+    /**
+     * 查找短码
+     *
+     * @param code 短码
+     * @return 记录句柄，未找到时为-1（墓碑记录也会被找到，见isTombstone）
+     */
+    public long find(CharSequence code) {
+        if (code.length() == 0 || code.length() > MAX_CODE_LENGTH) {
+            return -1;
+        }
+        long hash = hash(code);
+        long fingerprint = fingerprint(hash);
+        long slot = hash & slotMask;
+        while (true) {
+            long value = chunks.getLong(HEADER_SIZE + (slot << 3));
+            if (value == 0) {
+                return -1;
+            }
+            if ((value >>> 48) == fingerprint) {
+                long record = value & OFFSET_MASK;
+                if (codeEquals(record, code)) {
+                    return record;
+                }
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    public boolean isTombstone(long record) {
+        return (chunks.get(record + RECORD_FLAGS) & FLAG_TOMBSTONE) != 0;
+    }
+
+    public RedirectPolicy policyAt(long record) {
+        return POLICIES[chunks.get(record + RECORD_POLICY)];
+    }
+
+    /**
+     * @param record 记录句柄
+     * @return 过期时间，永不过期（或版本1的文件）时为null
+     */
+    public LocalDateTime expiresAt(long record) {
+        return fromMillis(expiresAtMillis(record));
+    }
+
+    /**
+     * 判断记录在给定时间是否已过期（不分配对象）
+     *
+     * @param record 记录句柄
+     * @param now 当前时间
+     * @return 已过期返回true
+     */
+    public boolean isExpiredAt(long record, LocalDateTime now) {
+        long expiresAt = expiresAtMillis(record);
+        return expiresAt != NEVER_EXPIRES && expiresAt <= toMillis(now);
+    }
+
+    public int urlLengthAt(long record) {
+        return chunks.getUnsignedShort(record + RECORD_URL_LENGTH);
+    }
+
+    /**
+     * 把URL的UTF-8字节复制到调用方的缓冲区（不分配对象）
+     *
+     * @param record 记录句柄
+     * @param target 目标缓冲区，长度不小于urlLengthAt(record)
+     * @return URL字节数
+     */
+    public int copyUrl(long record, byte[] target) {
+        int length = urlLengthAt(record);
+        chunks.get(urlOffset(record), target, 0, length);
+        return length;
+    }
+
+    public String urlAt(long record) {
+        byte[] bytes = new byte[urlLengthAt(record)];
+        chunks.get(urlOffset(record), bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String codeAt(long record) {
+        byte[] bytes = new byte[codeLength(record)];
+        chunks.get(record + recordHeaderSize, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 按写入顺序遍历所有记录（含墓碑）
+     *
+     * @param visitor 记录句柄的消费者
+     */
+    public void forEach(RecordVisitor visitor) {
+        long position = heapOffset;
+        while (position < heapEnd) {
+            int codeLength = codeLength(position);
+            if (codeLength == 0) {
+                // 分块末尾的填充，跳到下一个分块
+                position = (position / chunkSize + 1) * chunkSize;
+                continue;
+            }
+            visitor.visit(position);
+            position += recordHeaderSize + codeLength + urlLengthAt(position);
+        }
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 映射占用的字节数（页缓存，不在Java堆中）
+     */
+    public long getMappedBytes() {
+        return heapEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkSnapshot{path=" + path + ", entries=" + entryCount + ", watermark=" + watermark + "}";
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int codeLength(long record) {
+        return chunks.get(record) & 0xFF;
+    }
+
+    private long expiresAtMillis(long record) {
+        return recordHeaderSize == RECORD_HEADER_SIZE ? chunks.getLong(record + RECORD_EXPIRES_AT) : NEVER_EXPIRES;
+    }
+
+    private long urlOffset(long record) {
+        return record + recordHeaderSize + codeLength(record);
+    }
+
+    private boolean codeEquals(long record, CharSequence code) {
+        int length = codeLength(record);
+        if (length != code.length()) {
+            return false;
+        }
+        long offset = record + recordHeaderSize;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c > 0x7F || chunks.get(offset + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录遍历回调
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long record);
+    }
+}
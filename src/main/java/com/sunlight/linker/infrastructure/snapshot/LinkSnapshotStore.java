@@ -0,0 +1,233 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 快照目录：基础快照、增量快照的命名、加载与压实
+ *
+ * 【目录布局】：
+ * <pre>
+ *   snapshot-dir/
+ *     ├── base-00000000000000000003.snap    全量快照，序号之前的增量都已并入
+ *     ├── delta-00000000000000000004.snap   增量快照（新建与更新的短码、墓碑）
+ *     └── delta-00000000000000000005.snap
+ * </pre>
+ * 序号全局递增；加载时取序号最大的base，叠加序号更大的delta
+ *
+ * 【使用方】：
+ * - 导出端（主应用）：newBase/newDelta写入，compact()把所有层合并为新的base
+ * - 读取端（边缘节点）：定期refresh()，有新文件时重新映射并原子替换current()
+ *
+ * 【注意】：
+ * 压实后旧文件被删除，Linux上已经映射的旧文件在解除映射前仍然可读；
+ * 读取端在下一次refresh()时切换到新base，旧映射随对象回收释放
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class LinkSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkSnapshotStore.class);
+
+    private static final String BASE_PREFIX = "base-";
+    private static final String DELTA_PREFIX = "delta-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int chunkShift;
+
+    private volatile LayeredLinkSnapshot current = LayeredLinkSnapshot.empty();
+    private List<Path> loadedFiles = List.of();
+
+    public LinkSnapshotStore(Path directory) {
+        this(directory, SnapshotLayout.DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param directory 快照目录，不存在时创建
+     * @param chunkShift 新写入文件的映射分块大小（log2）
+     */
+    public LinkSnapshotStore(Path directory, int chunkShift) {
+        this.directory = directory;
+        this.chunkShift = chunkShift;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建快照目录失败: " + directory, e);
+        }
+    }
+
+    /**
+     * 当前生效的分层视图，读取方法无锁
+     */
+    public LayeredLinkSnapshot current() {
+        return current;
+    }
+
+    /**
+     * 重新扫描目录，文件集合变化时重新加载
+     *
+     * @return 重新加载时返回true
+     */
+    public synchronized boolean refresh() {
+        List<Path> files = activeFiles();
+        if (files.equals(loadedFiles)) {
+            return false;
+        }
+        List<LinkSnapshot> newestFirst = new ArrayList<>(files.size());
+        for (int i = files.size() - 1; i >= 0; i--) {
+            newestFirst.add(LinkSnapshot.open(files.get(i)));
+        }
+        current = new LayeredLinkSnapshot(newestFirst);
+        loadedFiles = files;
+        logger.info("快照已加载: layers={}, watermark={}", newestFirst.size(), current.getWatermark());
+        return true;
+    }
+
+    /**
+     * 创建下一个全量快照的写入器
+     *
+     * @param expectedEntries 预计条目数
+     * @return 写入器，commit后需要调用refresh()才对current()生效
+     */
+    public LinkSnapshotWriter newBase(long expectedEntries) {
+        return new LinkSnapshotWriter(directory.resolve(fileName(BASE_PREFIX, nextSequence())), expectedEntries, chunkShift);
+    }
+
+    /**
+     * 创建下一个增量快照的写入器
+     *
+     * @param expectedEntries 预计条目数（含墓碑）
+     * @return 写入器
+     */
+    public LinkSnapshotWriter newDelta(long expectedEntries) {
+        return new LinkSnapshotWriter(directory.resolve(fileName(DELTA_PREFIX, nextSequence())), expectedEntries, chunkShift);
+    }
+
+    /**
+     * 压实：把当前所有层合并为一个新的base，并删除被取代的文件
+     *
+     * 【过程】：
+     * 第一遍统计生效记录数以确定槽位表大小，第二遍写入；墓碑、被覆盖的旧记录与已过期的记录不再保留
+     *
+     * @return 新base的路径；没有可合并的增量时返回null
+     */
+    public synchronized Path compact() {
+        refresh();
+        if (current.getLayerCount() <= 1) {
+            return null;
+        }
+        LayeredLinkSnapshot layered = current;
+        LocalDateTime now = LocalDateTime.now();
+        long[] live = new long[1];
+        layered.forEachLive((snapshot, record) -> {
+            if (!snapshot.isExpiredAt(record, now)) {
+                live[0]++;
+            }
+        });
+
+        Path compacted;
+        try (LinkSnapshotWriter writer = new LinkSnapshotWriter(
+                directory.resolve(fileName(BASE_PREFIX, latestSequence())), live[0], chunkShift)) {
+            layered.forEachLive((snapshot, record) -> {
+                if (!snapshot.isExpiredAt(record, now)) {
+                    writer.add(snapshot.codeAt(record), snapshot.urlAt(record), snapshot.policyAt(record),
+                            snapshot.expiresAt(record));
+                }
+            });
+            writer.setWatermark(layered.getWatermark());
+            compacted = writer.commit();
+        }
+        refresh();
+        deleteSuperseded();
+        logger.info("快照已压实: file={}, entries={}", compacted.getFileName(), live[0]);
+        return compacted;
+    }
+
+    /**
+     * 删除不再参与加载的文件（被更新的base取代的base与delta）
+     */
+    public synchronized void deleteSuperseded() {
+        List<Path> active = activeFiles();
+        for (Path file : listSnapshotFiles()) {
+            if (!active.contains(file)) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("删除旧快照失败: " + file, e);
+                }
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 按序号升序返回生效的文件：最新的base与其后的delta
+     */
+    private List<Path> activeFiles() {
+        List<Path> files = listSnapshotFiles();
+        long baseSequence = -1;
+        for (Path file : files) {
+            if (file.getFileName().toString().startsWith(BASE_PREFIX)) {
+                baseSequence = Math.max(baseSequence, sequenceOf(file));
+            }
+        }
+        List<Path> active = new ArrayList<>();
+        for (Path file : files) {
+            long sequence = sequenceOf(file);
+            boolean base = file.getFileName().toString().startsWith(BASE_PREFIX);
+            if ((base && sequence == baseSequence) || (!base && sequence > baseSequence)) {
+                active.add(file);
+            }
+        }
+        return active;
+    }
+
+    private List<Path> listSnapshotFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.endsWith(SUFFIX) && (name.startsWith(BASE_PREFIX) || name.startsWith(DELTA_PREFIX));
+                    })
+                    .sorted(Comparator.comparingLong(LinkSnapshotStore::sequenceOf))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取快照目录失败: " + directory, e);
+        }
+    }
+
+    private long latestSequence() {
+        List<Path> files = listSnapshotFiles();
+        return files.isEmpty() ? 0 : sequenceOf(files.get(files.size() - 1));
+    }
+
+    private long nextSequence() {
+        return latestSequence() + 1;
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        int start = name.indexOf('-') + 1;
+        return Long.parseLong(name.substring(start, name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(String prefix, long sequence) {
+        return String.format("%s%020d%s", prefix, sequence, SUFFIX);
+    }
+}
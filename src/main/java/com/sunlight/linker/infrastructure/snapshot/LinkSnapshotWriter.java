@@ -0,0 +1,295 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static com.sunlight.linker.infrastructure.snapshot.SnapshotLayout.*;
+
+/**
+ * 快照文件写入器（单遍流式写入）
+ *
+ * 【写入方式】：
+ * 构造时按预计条目数确定槽位表大小（负载因子不超过0.5）并映射槽位区域，
+ * 每条记录顺序追加到记录堆，同时把偏移写入线性探测的槽位；
+ * 输入不需要排序，导出时可以直接流式读取数据库，内存占用与条目数无关
+ *
+ * 【原子发布】：
+ * 先写入 {目标}.tmp，commit() 写文件头并刷盘后原子重命名为目标文件；
+ * 未commit就close时删除临时文件，读取端永远看不到写了一半的快照
+ *
+ * 【线程模型】：
+ * 单写者
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class LinkSnapshotWriter implements Closeable {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final MappedChunks slots;
+    private final int chunkShift;
+    private final long chunkSize;
+    private final long slotCount;
+    private final long slotMask;
+    private final long maxEntries;
+    private final long heapOffset;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+    private long bufferStart;
+    private long position;
+    private long entryCount;
+    private long watermark;
+    private boolean committed;
+
+    /**
+     * 使用默认1GB分块创建写入器
+     *
+     * @param target 目标文件
+     * @param expectedEntries 预计条目数（含墓碑），写入数量不能超过该值
+     */
+    public LinkSnapshotWriter(Path target, long expectedEntries) {
+        this(target, expectedEntries, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param target 目标文件
+     * @param expectedEntries 预计条目数（含墓碑），写入数量不能超过该值
+     * @param chunkShift 映射分块大小的log2（14-30），测试时用小分块覆盖跨块逻辑
+     * @throws IllegalArgumentException 当参数超出范围时抛出
+     * @throws UncheckedIOException 当临时文件无法创建时抛出
+     */
+    public LinkSnapshotWriter(Path target, long expectedEntries, int chunkShift) {
+        if (expectedEntries < 0) {
+            throw new IllegalArgumentException("预计条目数不能为负数: " + expectedEntries);
+        }
+        if (chunkShift < MIN_CHUNK_SHIFT || chunkShift > DEFAULT_CHUNK_SHIFT) {
+            throw new IllegalArgumentException("分块大小必须在2^" + MIN_CHUNK_SHIFT + "到2^" + DEFAULT_CHUNK_SHIFT + "之间");
+        }
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.chunkShift = chunkShift;
+        this.chunkSize = 1L << chunkShift;
+        this.maxEntries = expectedEntries;
+        this.slotCount = Long.highestOneBit(Math.max(2, expectedEntries * 2 - 1)) << 1;
+        this.slotMask = slotCount - 1;
+        this.heapOffset = HEADER_SIZE + slotCount * Long.BYTES;
+        this.position = heapOffset;
+        this.bufferStart = heapOffset;
+
+        try {
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.slots = new MappedChunks(channel, FileChannel.MapMode.READ_WRITE, heapOffset, chunkShift);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建快照临时文件失败: " + temp, e);
+        }
+    }
+
+    /**
+     * 追加一条短码记录
+     *
+     * @param code ASCII短码
+     * @param longUrl 长链接
+     * @param policy 重定向策略
+     * @throws IllegalArgumentException 当短码重复、非ASCII或超长时抛出
+     * @throws IllegalStateException 当写入数量超过预计条目数时抛出
+     */
+    public void add(String code, String longUrl, RedirectPolicy policy) {
+        add(code, longUrl, policy, null);
+    }
+
+    /**
+     * 追加一条带过期时间的短码记录
+     *
+     * @param code ASCII短码
+     * @param longUrl 长链接
+     * @param policy 重定向策略
+     * @param expiresAt 过期时间，null表示永不过期
+     * @throws IllegalArgumentException 当短码重复、非ASCII或超长时抛出
+     * @throws IllegalStateException 当写入数量超过预计条目数时抛出
+     */
+    public void add(String code, String longUrl, RedirectPolicy policy, LocalDateTime expiresAt) {
+        append(code, longUrl.getBytes(StandardCharsets.UTF_8), policy.ordinal(), 0, toMillis(expiresAt));
+    }
+
+    /**
+     * 追加一条墓碑记录：该短码在更早的快照层中的记录视为已删除
+     *
+     * @param code ASCII短码
+     */
+    public void addTombstone(String code) {
+        append(code, new byte[0], 0, FLAG_TOMBSTONE, NEVER_EXPIRES);
+    }
+
+    /**
+     * 设置水位线，增量导出从该位置继续
+     *
+     * @param watermark 导出数据中最大的last_updated_at（UTC毫秒）
+     */
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * 写入文件头、刷盘并原子发布
+     *
+     * @return 目标文件路径
+     * @throws UncheckedIOException 当写入或重命名失败时抛出
+     */
+    public Path commit() {
+        try {
+            flushBuffer();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putLong(MAGIC_OFFSET, MAGIC)
+                    .putInt(VERSION_OFFSET, VERSION)
+                    .putInt(CHUNK_SHIFT_OFFSET, chunkShift)
+                    .putLong(ENTRY_COUNT_OFFSET, entryCount)
+                    .putLong(SLOT_COUNT_OFFSET, slotCount)
+                    .putLong(HEAP_OFFSET_OFFSET, heapOffset)
+                    .putLong(HEAP_END_OFFSET, position)
+                    .putLong(WATERMARK_OFFSET, watermark);
+            channel.write(header, 0);
+            slots.force();
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("发布快照失败: " + target, e);
+        }
+    }
+
+    /**
+     * 未commit时丢弃临时文件
+     */
+    @Override
+    public void close() {
+        if (committed) {
+            return;
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除快照临时文件失败: " + temp, e);
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void append(String code, byte[] url, int policy, int flags, long expiresAt) {
+        int codeLength = code.length();
+        if (codeLength == 0 || codeLength > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("短码长度必须在1-" + MAX_CODE_LENGTH + "之间: " + code);
+        }
+        for (int i = 0; i < codeLength; i++) {
+            if (code.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("短码只能包含ASCII字符: " + code);
+            }
+        }
+        if (url.length > MAX_URL_BYTES) {
+            throw new IllegalArgumentException("URL超过" + MAX_URL_BYTES + "字节: " + code);
+        }
+        if (entryCount >= maxEntries) {
+            throw new IllegalStateException("写入数量超过预计条目数: " + maxEntries);
+        }
+
+        int recordSize = RECORD_HEADER_SIZE + codeLength + url.length;
+        long remainingInChunk = chunkSize - (position & (chunkSize - 1));
+        if (recordSize > remainingInChunk) {
+            // 记录不跨分块：剩余部分留作填充（长度字节为0）
+            pad(remainingInChunk);
+        }
+
+        long record = position;
+        insertSlot(code, record);
+
+        ensureBuffer(recordSize);
+        buffer.put((byte) codeLength).put((byte) flags).put((byte) policy).putShort((short) url.length)
+                .putLong(expiresAt);
+        for (int i = 0; i < codeLength; i++) {
+            buffer.put((byte) code.charAt(i));
+        }
+        buffer.put(url);
+        position += recordSize;
+        entryCount++;
+    }
+
+    private void insertSlot(String code, long record) {
+        long hash = hash(code);
+        long slot = hash & slotMask;
+        while (true) {
+            long offset = HEADER_SIZE + (slot << 3);
+            long value = slots.getLong(offset);
+            if (value == 0) {
+                slots.putLong(offset, (fingerprint(hash) << 48) | record);
+                return;
+            }
+            if ((value >>> 48) == fingerprint(hash) && codeAt(value & OFFSET_MASK).equals(code)) {
+                throw new IllegalArgumentException("快照中短码重复: " + code);
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private String codeAt(long record) {
+        // 指纹相同的记录可能还在写缓冲区里
+        try {
+            flushBuffer();
+            ByteBuffer bytes = ByteBuffer.allocate(1);
+            channel.read(bytes, record);
+            int length = bytes.get(0) & 0xFF;
+            ByteBuffer code = ByteBuffer.allocate(length);
+            channel.read(code, record + RECORD_HEADER_SIZE);
+            return new String(code.array(), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取快照临时文件失败: " + temp, e);
+        }
+    }
+
+    private void pad(long length) {
+        flushBuffer();
+        position += length;
+        bufferStart = position;
+    }
+
+    private void ensureBuffer(int recordSize) {
+        if (buffer.remaining() < recordSize) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                bufferStart += channel.write(buffer, bufferStart);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入快照失败: " + temp, e);
+        } finally {
+            buffer.clear();
+        }
+        bufferStart = position;
+    }
+}
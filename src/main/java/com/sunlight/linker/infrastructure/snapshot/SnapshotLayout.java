@@ -0,0 +1,181 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 快照文件布局常量、哈希函数与分块映射
+ *
+ * 【文件布局】：
+ * <pre>
+ *   [0, 64)                    文件头
+ *   [64, 64 + 8 * slotCount)   槽位表，每个槽位8字节：高16位指纹 | 低48位记录偏移，0表示空
+ *   [heapOffset, fileLength)   记录堆，按写入顺序排列
+ * </pre>
+ *
+ * 【文件头】：
+ * <pre>
+ *   [0..7]   魔数 "LNKSNAP1"
+ *   [8..11]  格式版本
+ *   [12..15] 分块大小的log2
+ *   [16..23] 条目数（含墓碑）
+ *   [24..31] 槽位数（2的幂）
+ *   [32..39] 记录堆起始偏移
+ *   [40..47] 记录堆结束偏移（文件长度）
+ *   [48..55] 水位线（导出数据中最大的last_updated_at，UTC毫秒）
+ * </pre>
+ *
+ * 【记录格式】（版本2）：
+ * <pre>
+ *   [0]      短码长度（1-255），0表示分块末尾的填充
+ *   [1]      标志位（bit0：墓碑）
+ *   [2]      重定向策略序号
+ *   [3..4]   URL字节数
+ *   [5..12]  过期时间（expires_at按UTC换算的毫秒，0表示永不过期）
+ *   [13..]   短码ASCII字节，随后是URL的UTF-8字节
+ * </pre>
+ * 版本1的记录没有过期时间字段，短码从[5]开始；读取端两种版本都能打开。
+ * 记录不会跨越分块边界，读取时每条记录只落在一个MappedByteBuffer中
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+final class SnapshotLayout {
+
+    static final long MAGIC = 0x4C4E4B534E415031L; // "LNKSNAP1"
+    static final int VERSION = 2;
+    static final int VERSION_WITHOUT_EXPIRY = 1;
+
+    static final int HEADER_SIZE = 64;
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 8;
+    static final int CHUNK_SHIFT_OFFSET = 12;
+    static final int ENTRY_COUNT_OFFSET = 16;
+    static final int SLOT_COUNT_OFFSET = 24;
+    static final int HEAP_OFFSET_OFFSET = 32;
+    static final int HEAP_END_OFFSET = 40;
+    static final int WATERMARK_OFFSET = 48;
+
+    static final int RECORD_HEADER_SIZE = 13;
+    static final int RECORD_HEADER_SIZE_WITHOUT_EXPIRY = 5;
+    static final int RECORD_FLAGS = 1;
+    static final int RECORD_POLICY = 2;
+    static final int RECORD_URL_LENGTH = 3;
+    static final int RECORD_EXPIRES_AT = 5;
+    static final int FLAG_TOMBSTONE = 1;
+
+    /**
+     * 过期时间字段中表示"永不过期"的值
+     */
+    static final long NEVER_EXPIRES = 0;
+
+    static final int MAX_CODE_LENGTH = 255;
+    static final int MAX_URL_BYTES = 8192;
+
+    static final long OFFSET_MASK = (1L << 48) - 1;
+
+    /**
+     * 默认分块1GB；单个MappedByteBuffer最大2GB
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    /**
+     * 最小分块16KB，必须能容纳最长的记录
+     */
+    static final int MIN_CHUNK_SHIFT = 14;
+
+    private SnapshotLayout() {
+    }
+
+    /**
+     * 短码哈希：FNV-1a后接SplitMix64终结混合，写入与读取两端必须一致
+     *
+     * @param code ASCII短码
+     * @return 64位哈希，低位决定槽位，高16位作为指纹
+     */
+    static long hash(CharSequence code) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            h ^= code.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    static long fingerprint(long hash) {
+        return hash >>> 48;
+    }
+
+    /**
+     * 过期时间与记录字段的换算：与水位线一样按UTC换算，读写两端比较的都是本地时间
+     */
+    static long toMillis(LocalDateTime expiresAt) {
+        return expiresAt == null ? NEVER_EXPIRES : expiresAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return millis == NEVER_EXPIRES ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * 按固定大小分块映射的文件区域
+     *
+     * 【线程安全】：
+     * 只使用绝对位置的get/put，不修改缓冲区的position，多个线程可以同时读取
+     */
+    static final class MappedChunks {
+
+        private final MappedByteBuffer[] chunks;
+        private final int chunkShift;
+        private final int chunkMask;
+
+        MappedChunks(FileChannel channel, FileChannel.MapMode mode, long length, int chunkShift) throws IOException {
+            this.chunkShift = chunkShift;
+            this.chunkMask = (1 << chunkShift) - 1;
+            long chunkSize = 1L << chunkShift;
+            int count = (int) ((length + chunkSize - 1) >>> chunkShift);
+            this.chunks = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << chunkShift;
+                chunks[i] = channel.map(mode, start, Math.min(chunkSize, length - start));
+            }
+        }
+
+        byte get(long offset) {
+            return chunks[(int) (offset >>> chunkShift)].get((int) (offset & chunkMask));
+        }
+
+        int getUnsignedShort(long offset) {
+            return chunks[(int) (offset >>> chunkShift)].getShort((int) (offset & chunkMask)) & 0xFFFF;
+        }
+
+        long getLong(long offset) {
+            return chunks[(int) (offset >>> chunkShift)].getLong((int) (offset & chunkMask));
+        }
+
+        void putLong(long offset, long value) {
+            chunks[(int) (offset >>> chunkShift)].putLong((int) (offset & chunkMask), value);
+        }
+
+        /**
+         * 复制不跨分块的一段字节
+         */
+        void get(long offset, byte[] target, int targetOffset, int length) {
+            ByteBuffer chunk = chunks[(int) (offset >>> chunkShift)];
+            chunk.get((int) (offset & chunkMask), target, targetOffset, length);
+        }
+
+        void force() {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sunlight.linker.infrastructure.snapshot;
+
+import com.sunlight.linker.domain.RedirectPolicy;
+
+import java.time.LocalDateTime;
+
+/**
+ * 快照导出使用的投影行
+ *
+ * 【设计说明】：
+ * JPQL构造器投影不是托管实体，流式读取几千万行时持久化上下文不会随之增长
+ *
+ * @param shortCode 短码
+ * @param longUrl 长链接
+ * @param redirectPolicy 重定向策略
+ * @param expiresAt 过期时间，null表示永不过期；写入快照记录，边缘节点解析时检查
+ * @param lastUpdatedAt 最后更新时间，用于计算增量水位线
+ */
+public record SnapshotRow(String shortCode, String longUrl, RedirectPolicy redirectPolicy,
+                          LocalDateTime expiresAt, LocalDateTime lastUpdatedAt) {
+}
@@ -3,10 +3,15 @@ package com.sunlight.linker.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 /**
@@ -27,6 +32,22 @@ import java.util.function.Supplier;
  * - 测试缓存在并发访问下的一致性
  * - 性能压力测试和瓶颈分析
  * 
+ * 【线程模式】：
+ * - PLATFORM：固定大小的平台线程池（默认）
+ * - VIRTUAL：每个并发单元一个虚拟线程，可以用上万个"线程"模拟阻塞型客户端
+ * 启动参数 -Dspring.threads.virtual.enabled=true 时默认使用虚拟线程，
+ * 与应用的虚拟线程开关保持一致
+ * 
+ * 【两种负载模型】：
+ * - 闭环模型（runConcurrentTasks / performanceStressTest）：每个线程做完一个再发下一个，
+ *   服务变慢时发压也随之变慢，只适合验证正确性和粗略吞吐
+ * - 开放模型（runConstantArrivalRate / arrivalRateSweep）：按固定到达速率排定每个请求的发出时刻，
+ *   延迟从"计划发出时刻"算起（协调遗漏修正），服务卡顿期间本该发出的请求都会计入排队时间
+ * 
+ * 【结果收集】：
+ * 每个工作单元在本地记录结果和耗时，结束后一次性交给调用线程合并，
+ * 记录路径上没有共享列表；耗时统一使用System.nanoTime()，延迟以LatencyHistogram给出百分位
+ * 
  * @author 测试实践学习项目
  * @version 1.0
  */
@@ -34,6 +55,37 @@ public class ConcurrencyTestUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(ConcurrencyTestUtils.class);
     
+    /**
+     * 开放模型结果中保留的异常样本数
+     */
+    public static final int MAX_SAMPLE_EXCEPTIONS = 10;
+    
+    /**
+     * 距离计划发出时刻不足该值时改为自旋等待，parkNanos的唤醒误差通常在几十微秒
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+    
+    /**
+     * 执行并发任务使用的线程类型
+     */
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL;
+        
+        /**
+         * 默认线程模式，跟随 spring.threads.virtual.enabled 系统属性
+         */
+        public static ThreadMode defaultMode() {
+            return Boolean.getBoolean("spring.threads.virtual.enabled") ? VIRTUAL : PLATFORM;
+        }
+        
+        ExecutorService newExecutor(int threadCount) {
+            return this == VIRTUAL
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(threadCount);
+        }
+    }
+    
     /**
      * 并发执行测试结果
      */
@@ -43,14 +95,22 @@ public class ConcurrencyTestUtils {
         private final long executionTimeMs;
         private final int threadCount;
         private final int taskCount;
+        private final LatencyHistogram latency;
         
         public ConcurrentTestResult(List<T> results, List<Exception> exceptions, 
                                   long executionTimeMs, int threadCount, int taskCount) {
+            this(results, exceptions, executionTimeMs, threadCount, taskCount, new LatencyHistogram());
+        }
+        
+        public ConcurrentTestResult(List<T> results, List<Exception> exceptions, 
+                                  long executionTimeMs, int threadCount, int taskCount,
+                                  LatencyHistogram latency) {
             this.results = results;
             this.exceptions = exceptions;
             this.executionTimeMs = executionTimeMs;
             this.threadCount = threadCount;
             this.taskCount = taskCount;
+            this.latency = latency;
         }
         
         public List<T> getResults() { return results; }
@@ -58,6 +118,8 @@ public class ConcurrencyTestUtils {
         public long getExecutionTimeMs() { return executionTimeMs; }
         public int getThreadCount() { return threadCount; }
         public int getTaskCount() { return taskCount; }
+        /** 单个任务的耗时分布（纳秒，闭环模型，不含排队时间） */
+        public LatencyHistogram getLatency() { return latency; }
         public boolean hasExceptions() { return !exceptions.isEmpty(); }
         public int getSuccessCount() { return results.size(); }
         public int getFailureCount() { return exceptions.size(); }
@@ -69,9 +131,69 @@ public class ConcurrencyTestUtils {
         public String toString() {
             return String.format(
                 "ConcurrentTestResult{threadCount=%d, taskCount=%d, successCount=%d, " +
-                "failureCount=%d, successRate=%.2f%%, executionTimeMs=%d}",
+                "failureCount=%d, successRate=%.2f%%, executionTimeMs=%d, latency=[%s]}",
                 threadCount, taskCount, getSuccessCount(), getFailureCount(), 
-                getSuccessRate() * 100, executionTimeMs
+                getSuccessRate() * 100, executionTimeMs, latency.summary(TimeUnit.MICROSECONDS)
+            );
+        }
+    }
+    
+    /**
+     * 开放模型（固定到达速率）压测结果
+     * 
+     * 【两种延迟】：
+     * - responseTime：从计划发出时刻到完成，包含因服务变慢而产生的排队时间（已做协调遗漏修正）
+     * - serviceTime：从实际发出时刻到完成，即闭环工具通常报告的值
+     * 两者在高百分位上的差距就是闭环测量会"漏掉"的部分
+     */
+    public static class LoadTestResult {
+        private final int targetRate;
+        private final long plannedCount;
+        private final long issuedCount;
+        private final long failureCount;
+        private final List<Exception> sampleExceptions;
+        private final long elapsedNanos;
+        private final LatencyHistogram responseTime;
+        private final LatencyHistogram serviceTime;
+        
+        public LoadTestResult(int targetRate, long plannedCount, long issuedCount, long failureCount,
+                              List<Exception> sampleExceptions, long elapsedNanos,
+                              LatencyHistogram responseTime, LatencyHistogram serviceTime) {
+            this.targetRate = targetRate;
+            this.plannedCount = plannedCount;
+            this.issuedCount = issuedCount;
+            this.failureCount = failureCount;
+            this.sampleExceptions = sampleExceptions;
+            this.elapsedNanos = elapsedNanos;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+        
+        public int getTargetRate() { return targetRate; }
+        public long getPlannedCount() { return plannedCount; }
+        public long getIssuedCount() { return issuedCount; }
+        public long getSuccessCount() { return issuedCount - failureCount; }
+        public long getFailureCount() { return failureCount; }
+        /** 最多保留前 {@value #MAX_SAMPLE_EXCEPTIONS} 个异常 */
+        public List<Exception> getSampleExceptions() { return sampleExceptions; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public LatencyHistogram getResponseTime() { return responseTime; }
+        public LatencyHistogram getServiceTime() { return serviceTime; }
+        public boolean isComplete() { return issuedCount == plannedCount; }
+        public double getErrorRate() {
+            return issuedCount == 0 ? 0.0 : (double) failureCount / issuedCount;
+        }
+        public double getAchievedRate() {
+            return elapsedNanos == 0 ? 0.0 : issuedCount * 1_000_000_000.0 / elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(
+                "LoadTestResult{targetRate=%d/s, achievedRate=%.1f/s, issued=%d/%d, failures=%d, " +
+                "responseTime=[%s], serviceTime=[%s]}",
+                targetRate, getAchievedRate(), issuedCount, plannedCount, failureCount,
+                responseTime.summary(TimeUnit.MICROSECONDS), serviceTime.summary(TimeUnit.MICROSECONDS)
             );
         }
     }
@@ -90,49 +212,73 @@ public class ConcurrencyTestUtils {
             int threadCount, 
             int taskCountPerThread, 
             int timeoutSeconds) {
+        return runConcurrentTasks(task, threadCount, taskCountPerThread, timeoutSeconds, ThreadMode.defaultMode());
+    }
+    
+    /**
+     * 使用指定线程模式并发执行相同的任务
+     * 
+     * @param task 要执行的任务
+     * @param threadCount 线程数量（VIRTUAL模式下为虚拟线程数量）
+     * @param taskCountPerThread 每个线程执行的任务数量
+     * @param timeoutSeconds 超时时间（秒）
+     * @param threadMode 线程模式
+     * @return 并发测试结果
+     */
+    public static <T> ConcurrentTestResult<T> runConcurrentTasks(
+            Supplier<T> task, 
+            int threadCount, 
+            int taskCountPerThread, 
+            int timeoutSeconds,
+            ThreadMode threadMode) {
         
-        logger.info("开始并发测试: threadCount={}, taskCountPerThread={}, timeout={}s", 
-                   threadCount, taskCountPerThread, timeoutSeconds);
+        logger.info("开始并发测试: threadCount={}, taskCountPerThread={}, timeout={}s, mode={}", 
+                   threadCount, taskCountPerThread, timeoutSeconds, threadMode);
         
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        ExecutorService executor = threadMode.newExecutor(threadCount);
         CountDownLatch startLatch = new CountDownLatch(1);
         CountDownLatch endLatch = new CountDownLatch(threadCount);
         
-        List<T> results = new CopyOnWriteArrayList<>();
-        List<Exception> exceptions = new CopyOnWriteArrayList<>();
+        // 每个线程只写自己的槽位，结束时一次性发布，避免共享列表上的竞争与复制
+        AtomicReferenceArray<WorkerOutcome<T>> outcomes = new AtomicReferenceArray<>(threadCount);
+        List<Exception> coordinatorExceptions = new ArrayList<>();
         AtomicInteger completedTasks = new AtomicInteger(0);
         
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
         try {
             // 创建所有线程
             for (int i = 0; i < threadCount; i++) {
                 final int threadId = i;
                 executor.submit(() -> {
+                    WorkerOutcome<T> outcome = new WorkerOutcome<>(taskCountPerThread);
                     try {
                         // 等待统一开始信号
                         startLatch.await();
                         
                         // 执行指定数量的任务
                         for (int j = 0; j < taskCountPerThread; j++) {
+                            long taskStart = System.nanoTime();
                             try {
                                 T result = task.get();
-                                results.add(result);
-                                completedTasks.incrementAndGet();
+                                outcome.results.add(result);
+                                outcome.recordLatency(System.nanoTime() - taskStart);
                                 
-                                if (completedTasks.get() % 100 == 0) {
-                                    logger.debug("已完成任务: {}", completedTasks.get());
+                                int completed = completedTasks.incrementAndGet();
+                                if (completed % 100 == 0) {
+                                    logger.debug("已完成任务: {}", completed);
                                 }
                             } catch (Exception e) {
-                                exceptions.add(e);
+                                outcome.exceptions.add(e);
                                 logger.warn("任务执行失败: thread={}, task={}, error={}", 
                                            threadId, j, e.getMessage());
                             }
                         }
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
-                        exceptions.add(e);
+                        outcome.exceptions.add(e);
                     } finally {
+                        outcomes.set(threadId, outcome);
                         endLatch.countDown();
                     }
                 });
@@ -147,25 +293,38 @@ public class ConcurrencyTestUtils {
             if (!completed) {
                 logger.warn("并发测试超时，强制终止");
                 executor.shutdownNow();
-                exceptions.add(new TimeoutException("并发测试超时"));
+                coordinatorExceptions.add(new TimeoutException("并发测试超时"));
             }
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            exceptions.add(e);
+            coordinatorExceptions.add(e);
         } finally {
             executor.shutdown();
         }
         
-        long executionTime = System.currentTimeMillis() - startTime;
+        long executionTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         int totalTasks = threadCount * taskCountPerThread;
         
+        // 合并各线程的结果（超时未结束的线程没有发布结果，不计入）
+        List<T> results = new ArrayList<>(totalTasks);
+        List<Exception> exceptions = new ArrayList<>();
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < threadCount; i++) {
+            WorkerOutcome<T> outcome = outcomes.get(i);
+            if (outcome != null) {
+                outcome.mergeInto(results, exceptions, latency);
+            }
+        }
+        exceptions.addAll(coordinatorExceptions);
+        
         ConcurrentTestResult<T> result = new ConcurrentTestResult<>(
-            new ArrayList<>(results), 
-            new ArrayList<>(exceptions), 
-            executionTime, 
+            results, 
+            exceptions, 
+            executionTimeMs, 
             threadCount, 
-            totalTasks
+            totalTasks,
+            latency
         );
         
         logger.info("并发测试完成: {}", result);
@@ -188,45 +347,73 @@ public class ConcurrencyTestUtils {
             int readerCount,
             int writerCount,
             int durationSeconds) {
+        return runReadWriteConcurrentTest(readTask, writeTask, readerCount, writerCount, durationSeconds,
+                ThreadMode.defaultMode());
+    }
+    
+    /**
+     * 使用指定线程模式测试读写并发场景
+     * 
+     * @param readTask 读任务
+     * @param writeTask 写任务
+     * @param readerCount 读线程数量
+     * @param writerCount 写线程数量
+     * @param durationSeconds 测试持续时间（秒）
+     * @param threadMode 线程模式
+     * @return 并发测试结果
+     */
+    public static <R, W> ConcurrentTestResult<Object> runReadWriteConcurrentTest(
+            Supplier<R> readTask,
+            Supplier<W> writeTask,
+            int readerCount,
+            int writerCount,
+            int durationSeconds,
+            ThreadMode threadMode) {
         
-        logger.info("开始读写并发测试: readers={}, writers={}, duration={}s", 
-                   readerCount, writerCount, durationSeconds);
+        logger.info("开始读写并发测试: readers={}, writers={}, duration={}s, mode={}", 
+                   readerCount, writerCount, durationSeconds, threadMode);
         
-        ExecutorService executor = Executors.newFixedThreadPool(readerCount + writerCount);
+        int workerCount = readerCount + writerCount;
+        ExecutorService executor = threadMode.newExecutor(workerCount);
         CountDownLatch startLatch = new CountDownLatch(1);
         
-        List<Object> results = new CopyOnWriteArrayList<>();
-        List<Exception> exceptions = new CopyOnWriteArrayList<>();
+        AtomicReferenceArray<WorkerOutcome<Object>> outcomes = new AtomicReferenceArray<>(workerCount);
+        List<Exception> coordinatorExceptions = new ArrayList<>();
         AtomicInteger readCount = new AtomicInteger(0);
         AtomicInteger writeCount = new AtomicInteger(0);
         
-        long startTime = System.currentTimeMillis();
-        long endTime = startTime + durationSeconds * 1000L;
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
         
         try {
             // 启动读线程
             for (int i = 0; i < readerCount; i++) {
                 final int readerId = i;
                 executor.submit(() -> {
+                    WorkerOutcome<Object> outcome = new WorkerOutcome<>(0);
                     try {
                         startLatch.await();
                         
-                        while (System.currentTimeMillis() < endTime) {
+                        while (System.nanoTime() - deadline < 0) {
+                            long taskStart = System.nanoTime();
                             try {
                                 R result = readTask.get();
-                                results.add(result);
+                                outcome.results.add(result);
+                                outcome.recordLatency(System.nanoTime() - taskStart);
                                 readCount.incrementAndGet();
                                 
                                 // 适当休眠，避免CPU占用过高
                                 Thread.sleep(1);
                             } catch (Exception e) {
-                                exceptions.add(e);
+                                outcome.exceptions.add(e);
                                 logger.warn("读任务失败: reader={}, error={}", readerId, e.getMessage());
                             }
                         }
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
-                        exceptions.add(e);
+                        outcome.exceptions.add(e);
+                    } finally {
+                        outcomes.set(readerId, outcome);
                     }
                 });
             }
@@ -235,25 +422,30 @@ public class ConcurrencyTestUtils {
             for (int i = 0; i < writerCount; i++) {
                 final int writerId = i;
                 executor.submit(() -> {
+                    WorkerOutcome<Object> outcome = new WorkerOutcome<>(0);
                     try {
                         startLatch.await();
                         
-                        while (System.currentTimeMillis() < endTime) {
+                        while (System.nanoTime() - deadline < 0) {
+                            long taskStart = System.nanoTime();
                             try {
                                 W result = writeTask.get();
-                                results.add(result);
+                                outcome.results.add(result);
+                                outcome.recordLatency(System.nanoTime() - taskStart);
                                 writeCount.incrementAndGet();
                                 
                                 // 写操作间隔稍长一些
                                 Thread.sleep(10);
                             } catch (Exception e) {
-                                exceptions.add(e);
+                                outcome.exceptions.add(e);
                                 logger.warn("写任务失败: writer={}, error={}", writerId, e.getMessage());
                             }
                         }
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
-                        exceptions.add(e);
+                        outcome.exceptions.add(e);
+                    } finally {
+                        outcomes.set(readerCount + writerId, outcome);
                     }
                 });
             }
@@ -261,33 +453,42 @@ public class ConcurrencyTestUtils {
             // 发出开始信号
             startLatch.countDown();
             
-            // 等待测试完成
-            Thread.sleep(durationSeconds * 1000L + 1000); // 多等待1秒确保所有线程结束
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            exceptions.add(e);
         } finally {
+            // 等待测试完成，多等待几秒确保正在执行的任务结束
             executor.shutdown();
             try {
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                if (!executor.awaitTermination(durationSeconds + 5L, TimeUnit.SECONDS)) {
                     executor.shutdownNow();
+                    coordinatorExceptions.add(new TimeoutException("读写并发测试未能按时结束"));
                 }
             } catch (InterruptedException e) {
                 executor.shutdownNow();
                 Thread.currentThread().interrupt();
+                coordinatorExceptions.add(e);
             }
         }
         
-        long executionTime = System.currentTimeMillis() - startTime;
+        long executionTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         int totalOperations = readCount.get() + writeCount.get();
         
+        List<Object> results = new ArrayList<>(totalOperations);
+        List<Exception> exceptions = new ArrayList<>();
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < workerCount; i++) {
+            WorkerOutcome<Object> outcome = outcomes.get(i);
+            if (outcome != null) {
+                outcome.mergeInto(results, exceptions, latency);
+            }
+        }
+        exceptions.addAll(coordinatorExceptions);
+        
         ConcurrentTestResult<Object> result = new ConcurrentTestResult<>(
-            new ArrayList<>(results),
-            new ArrayList<>(exceptions),
-            executionTime,
-            readerCount + writerCount,
-            totalOperations
+            results,
+            exceptions,
+            executionTimeMs,
+            workerCount,
+            totalOperations,
+            latency
         );
         
         logger.info("读写并发测试完成: readOps={}, writeOps={}, result={}", 
@@ -315,7 +516,11 @@ public class ConcurrencyTestUtils {
     }
     
     /**
-     * 性能压力测试
+     * 性能压力测试（闭环模型）
+     * 
+     * 【注意】：
+     * 线程数翻倍时吞吐与耗时的变化只反映闭环下的表现，
+     * 需要延迟百分位结论时使用 arrivalRateSweep
      * 
      * @param task 待测试任务
      * @param maxThreads 最大线程数
@@ -348,4 +553,253 @@ public class ConcurrencyTestUtils {
         logger.info("性能压力测试完成，共测试{}个配置", results.size());
         return results;
     }
+    
+    /**
+     * 开放模型：按固定到达速率发压
+     * 
+     * 【调度方式】：
+     * 第i个请求的计划发出时刻为 start + i / rate，工作线程w负责 i ≡ w (mod workerCount) 的请求，
+     * 到点发出；如果上一个请求还没结束，下一个请求立即发出，延迟仍从计划时刻算起
+     * 
+     * 【工作线程数】：
+     * workerCount 是同时在途请求数的上限，应大于 目标速率 × 预期最大延迟；
+     * 阻塞型任务可以配合VIRTUAL模式使用上万个工作线程
+     * 
+     * @param task 单个请求
+     * @param requestsPerSecond 目标到达速率
+     * @param duration 发压时长
+     * @param workerCount 工作线程数
+     * @param threadMode 线程模式
+     * @return 压测结果
+     * @throws IllegalArgumentException 当速率、时长或线程数不为正时抛出
+     */
+    public static <T> LoadTestResult runConstantArrivalRate(
+            Supplier<T> task,
+            int requestsPerSecond,
+            Duration duration,
+            int workerCount,
+            ThreadMode threadMode) {
+        
+        if (requestsPerSecond <= 0 || workerCount <= 0 || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("到达速率、时长和工作线程数必须为正数");
+        }
+        
+        long plannedCount = duration.toNanos() * requestsPerSecond / 1_000_000_000L;
+        double intervalNanos = 1_000_000_000.0 / requestsPerSecond;
+        logger.info("开始固定速率压测: rate={}/s, duration={}, planned={}, workers={}, mode={}", 
+                   requestsPerSecond, duration, plannedCount, workerCount, threadMode);
+        
+        // 记录器按条带分配，平台线程数不超过条带数时每个线程独占一个
+        int stripeCount = Math.min(workerCount, Runtime.getRuntime().availableProcessors() * 4);
+        LatencyRecorder[] recorders = new LatencyRecorder[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+        
+        ExecutorService executor = threadMode.newExecutor(workerCount);
+        // 留出线程启动时间，避免第一批请求一开始就落后于计划
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+        long abortNanos = startNanos + duration.toNanos() + Math.max(duration.toNanos(), TimeUnit.SECONDS.toNanos(10));
+        
+        for (int w = 0; w < workerCount; w++) {
+            final int workerId = w;
+            final LatencyRecorder recorder = recorders[w % stripeCount];
+            executor.submit(() -> {
+                for (long i = workerId; i < plannedCount; i += workerCount) {
+                    long intended = startNanos + (long) (i * intervalNanos);
+                    if (System.nanoTime() - abortNanos > 0 || !waitUntil(intended)) {
+                        return;
+                    }
+                    long actualStart = System.nanoTime();
+                    Exception failure = null;
+                    try {
+                        task.get();
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                    long end = System.nanoTime();
+                    recorder.record(end - intended, end - actualStart, failure);
+                }
+            });
+        }
+        
+        executor.shutdown();
+        try {
+            long waitNanos = abortNanos - System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            if (!executor.awaitTermination(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS)) {
+                logger.warn("固定速率压测未能按时结束，强制终止");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        
+        LatencyHistogram responseTime = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        List<Exception> sampleExceptions = new ArrayList<>();
+        long failureCount = 0;
+        for (LatencyRecorder recorder : recorders) {
+            failureCount += recorder.mergeInto(responseTime, serviceTime, sampleExceptions);
+        }
+        
+        LoadTestResult result = new LoadTestResult(requestsPerSecond, plannedCount, responseTime.getTotalCount(),
+                failureCount, sampleExceptions, elapsedNanos, responseTime, serviceTime);
+        logger.info("固定速率压测完成: {}", result);
+        return result;
+    }
+    
+    /**
+     * 开放模型：使用默认线程模式按固定到达速率发压
+     */
+    public static <T> LoadTestResult runConstantArrivalRate(
+            Supplier<T> task,
+            int requestsPerSecond,
+            Duration duration,
+            int workerCount) {
+        return runConstantArrivalRate(task, requestsPerSecond, duration, workerCount, ThreadMode.defaultMode());
+    }
+    
+    /**
+     * 开放模型阶梯压测：逐级提高到达速率，直到p99或错误率超过阈值
+     * 
+     * 【使用场景】：
+     * 寻找"最大可持续速率"，即最后一个满足阈值的级别（见 doc/性能基准.md）
+     * 
+     * @param task 单个请求
+     * @param startRate 起始速率
+     * @param stepRate 每级增加的速率
+     * @param maxRate 最高速率
+     * @param stepDuration 每级发压时长
+     * @param workerCount 工作线程数
+     * @param p99Limit p99上限（按修正后的响应时间判断）
+     * @param maxErrorRate 错误率上限（0-1）
+     * @return 各级别的压测结果，最后一个可能是超过阈值的级别
+     */
+    public static <T> List<LoadTestResult> arrivalRateSweep(
+            Supplier<T> task,
+            int startRate,
+            int stepRate,
+            int maxRate,
+            Duration stepDuration,
+            int workerCount,
+            Duration p99Limit,
+            double maxErrorRate) {
+        
+        List<LoadTestResult> results = new ArrayList<>();
+        for (int rate = startRate; rate <= maxRate; rate += stepRate) {
+            LoadTestResult result = runConstantArrivalRate(task, rate, stepDuration, workerCount);
+            results.add(result);
+            
+            boolean saturated = !result.isComplete()
+                    || result.getResponseTime().getValueAtPercentile(99.0) > p99Limit.toNanos()
+                    || result.getErrorRate() > maxErrorRate;
+            if (saturated) {
+                logger.info("到达速率{}/s超过阈值，停止阶梯压测", rate);
+                break;
+            }
+        }
+        return results;
+    }
+    
+    // ========== 私有辅助方法 ==========
+    
+    /**
+     * 等待到计划时刻：远时park，近时自旋
+     * 
+     * @return 被中断时返回false
+     */
+    private static boolean waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 闭环模型中单个工作单元的本地结果，只由所属线程写入
+     */
+    private static final class WorkerOutcome<T> {
+        final List<T> results;
+        final List<Exception> exceptions = new ArrayList<>();
+        private long[] latencies;
+        private int latencyCount;
+        
+        WorkerOutcome(int expectedTasks) {
+            this.results = new ArrayList<>(expectedTasks);
+            this.latencies = new long[Math.max(expectedTasks, 16)];
+        }
+        
+        void recordLatency(long nanos) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            }
+            latencies[latencyCount++] = nanos;
+        }
+        
+        void mergeInto(List<T> allResults, List<Exception> allExceptions, LatencyHistogram histogram) {
+            allResults.addAll(results);
+            allExceptions.addAll(exceptions);
+            for (int i = 0; i < latencyCount; i++) {
+                histogram.recordValue(latencies[i]);
+            }
+        }
+    }
+    
+    /**
+     * 开放模型的条带记录器
+     * 
+     * 【说明】：
+     * 直方图本身是单写者的，这里用锁保护；条带数不少于平台线程数时锁总是无竞争的，
+     * 虚拟线程数远多于条带时竞争也被分摊到多个条带上。没有使用synchronized，避免固定载体线程
+     */
+    private static final class LatencyRecorder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final List<Exception> sampleExceptions = new ArrayList<>();
+        private long failureCount;
+        
+        void record(long responseNanos, long serviceNanos, Exception failure) {
+            lock.lock();
+            try {
+                responseTime.recordValue(responseNanos);
+                serviceTime.recordValue(serviceNanos);
+                if (failure != null) {
+                    failureCount++;
+                    if (sampleExceptions.size() < MAX_SAMPLE_EXCEPTIONS) {
+                        sampleExceptions.add(failure);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        long mergeInto(LatencyHistogram allResponseTime, LatencyHistogram allServiceTime,
+                       List<Exception> allExceptions) {
+            lock.lock();
+            try {
+                allResponseTime.add(responseTime);
+                allServiceTime.add(serviceTime);
+                for (Exception e : sampleExceptions) {
+                    if (allExceptions.size() < MAX_SAMPLE_EXCEPTIONS) {
+                        allExceptions.add(e);
+                    }
+                }
+                return failureCount;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 }
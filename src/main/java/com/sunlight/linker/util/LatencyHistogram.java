@@ -0,0 +1,211 @@
+package com.sunlight.linker.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对数分桶延迟直方图（HdrHistogram同款布局）
+ *
+ * 【进阶挑战 - 延迟统计】
+ *
+ * 把所有样本存进列表再排序求百分位，内存随样本数线性增长；
+ * 该直方图用固定大小的计数数组记录样本，内存只与量程和精度有关
+ *
+ * 【分桶方式】：
+ * <pre>
+ *   [0, subBucketCount)            每个值一个桶，精确记录
+ *   [2^k, 2^(k+1))（k≥subBucketBits）  再切成 subBucketCount/2 个等宽子桶
+ * </pre>
+ * 每个桶的宽度不超过桶内最小值的 1/(subBucketCount/2)，
+ * 即 2位有效数字时相对误差小于1%，3位时小于0.1%
+ *
+ * 【线程模型】：
+ * 单写者，不做任何同步。并发场景下每个工作线程持有自己的直方图，
+ * 结束后由调用方用 add() 合并，记录路径上没有共享写
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * 默认量程：10分钟（纳秒）
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toNanos(10);
+
+    /**
+     * 默认精度：2位有效数字
+     */
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final long[] counts;
+
+    private long totalCount;
+    private long totalValue;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * 使用默认量程（10分钟）与精度（2位有效数字）创建，单位为纳秒
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param highestTrackableValue 可区分的最大值，超过的样本按该值计入桶，但max仍然精确
+     * @param significantDigits 有效数字位数（1-3）
+     * @throws IllegalArgumentException 当参数超出范围时抛出
+     */
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 3) {
+            throw new IllegalArgumentException("有效数字位数必须在1-3之间: " + significantDigits);
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("量程必须不小于2: " + highestTrackableValue);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+
+        // 子桶数量需要能区分 2 * 10^digits 个值
+        long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestValueWithSingleUnitResolution - 1);
+        this.subBucketCount = 1 << subBucketBits;
+        this.subBucketHalfCount = subBucketCount >> 1;
+        this.counts = new long[indexOf(Math.max(highestTrackableValue, subBucketCount)) + 1];
+    }
+
+    /**
+     * 记录一个样本
+     *
+     * @param value 样本值（通常为纳秒），不能为负
+     * @throws IllegalArgumentException 当样本为负数时抛出
+     */
+    public void recordValue(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("样本值不能为负数: " + value);
+        }
+        counts[indexOf(Math.min(value, highestTrackableValue))]++;
+        totalCount++;
+        totalValue += value;
+        if (value < minValue) {
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    /**
+     * 合并另一个直方图的样本
+     *
+     * @param other 量程与精度相同的直方图
+     * @throws IllegalArgumentException 当两个直方图的布局不同时抛出
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length != counts.length || other.subBucketBits != subBucketBits) {
+            throw new IllegalArgumentException("只能合并量程与精度相同的直方图");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * 获取百分位值
+     *
+     * 【说明】：
+     * 返回样本所在桶的上界（不超过真实最大值），与HdrHistogram的语义一致，
+     * 因此百分位值只会偏大、不会偏小
+     *
+     * @param percentile 百分位（0-100）
+     * @return 百分位值，没有样本时为0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+        long countAtPercentile = Math.max(1, (long) Math.ceil(clamped / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMinValue() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalValue / totalCount;
+    }
+
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * 以指定单位输出 p50 / p99 / p99.9 / max 摘要（样本单位为纳秒）
+     *
+     * @param unit 输出单位
+     * @return 摘要字符串
+     */
+    public String summary(TimeUnit unit) {
+        double nanosPerUnit = unit.toNanos(1);
+        return String.format("count=%d, p50=%.3f, p99=%.3f, p999=%.3f, max=%.3f (%s)",
+                totalCount,
+                getValueAtPercentile(50.0) / nanosPerUnit,
+                getValueAtPercentile(99.0) / nanosPerUnit,
+                getValueAtPercentile(99.9) / nanosPerUnit,
+                maxValue / nanosPerUnit,
+                unit.name().toLowerCase());
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" + summary(TimeUnit.MICROSECONDS) + "}";
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        // value位于 [2^(shift+subBucketBits-1), 2^(shift+subBucketBits))，右移shift后落在后半个子桶区间
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (subBucketBits - 1);
+        int subBucket = (int) (value >>> shift);
+        return subBucketCount + (shift - 1) * subBucketHalfCount + (subBucket - subBucketHalfCount);
+    }
+
+    private long highestEquivalentValue(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int offset = index - subBucketCount;
+        int shift = offset / subBucketHalfCount + 1;
+        long subBucket = offset % subBucketHalfCount + subBucketHalfCount;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sunlight.linker.web;
+
+import com.sunlight.linker.application.RateLimiter;
+import com.sunlight.linker.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流过滤器：在请求进入DispatcherServlet之前按客户端取令牌
+ *
+ * 【HTTP设计】：
+ * - 放行：继续过滤器链，不增加任何响应头
+ * - 拒绝：429 Too Many Requests + Retry-After（秒，向上取整）+ {"error": "..."}，
+ *   与控制器的错误响应格式一致
+ *
+ * 【客户端标识】：
+ * 配置了 client-header 且请求带有该头时使用头的值；否则开启 trust-forwarded-for 时使用
+ * X-Forwarded-For 从右数第 trusted-proxies 个地址；否则使用连接的远端地址。
+ * 代理是在客户端传来的头后面追加地址，而不是替换，左侧的地址都可能是客户端伪造的：
+ * <pre>
+ *   X-Forwarded-For: 伪造1, 伪造2, 客户端, 代理1     trusted-proxies=2 → 客户端
+ * </pre>
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_BODY = "{\"error\":\"请求过于频繁，请稍后重试\"}";
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final RateLimiter rateLimiter;
+    private final String clientHeader;
+    private final boolean trustForwardedFor;
+    private final int trustedProxies;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = properties.getClientHeader() == null || properties.getClientHeader().isBlank()
+                ? null : properties.getClientHeader();
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        this.trustedProxies = properties.getTrustedProxies();
+        if (trustForwardedFor && trustedProxies < 1) {
+            throw new IllegalArgumentException("trusted-proxies 必须大于0: " + trustedProxies);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long wait = rateLimiter.check(request.getMethod(), path, clientOf(request));
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(wait)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        if (trustForwardedFor) {
+            String client = forwardedClient(request);
+            if (client != null) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String forwardedClient(HttpServletRequest request) {
+        // 代理可能追加一行新的头而不是改写原有的行，按出现顺序拼起来再从右往左数
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(FORWARDED_FOR))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        if (hops.isEmpty()) {
+            return null;
+        }
+        // 地址数少于可信代理数时，最左侧的地址也是由可信代理写入的
+        return hops.get(Math.max(0, hops.size() - trustedProxies));
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
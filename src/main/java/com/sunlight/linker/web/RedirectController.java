@@ -1,14 +1,24 @@
 package com.sunlight.linker.web;
 
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.RedirectTarget;
 import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.domain.RedirectPolicy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -24,6 +34,11 @@ import java.util.Optional;
  * - Location头的URL格式验证
  * - 访问计数的增加逻辑
  * 
+ * 【缓存语义】：
+ * 状态码由短链接的重定向策略决定（见RedirectPolicy）：
+ * - 302/307：Cache-Control: no-store，每次点击都回到服务端计数
+ * - 301/308：Cache-Control: public, max-age（不超过链接剩余有效期，不足1秒时改为no-store），附带ETag，支持If-None-Match条件请求
+ * 
  * @author 测试实践学习项目
  * @version 1.0
  */
@@ -32,9 +47,23 @@ public class RedirectController {
     
     private final ShortLinkService shortLinkService;
     
+    /**
+     * 永久重定向响应的缓存时间
+     */
+    private final Duration permanentMaxAge;
+    
+    /**
+     * 分层耗时指标（service层与response层在这里计时）
+     */
+    private final RedirectMetrics redirectMetrics;
+    
     @Autowired
-    public RedirectController(ShortLinkService shortLinkService) {
+    public RedirectController(ShortLinkService shortLinkService,
+                              @Value("${app.short-link.redirect.permanent-max-age:1d}") Duration permanentMaxAge,
+                              ObjectProvider<RedirectMetrics> redirectMetrics) {
         this.shortLinkService = shortLinkService;
+        this.permanentMaxAge = permanentMaxAge;
+        this.redirectMetrics = redirectMetrics.getIfAvailable(RedirectMetrics::noop);
     }
     
     /**
@@ -43,38 +72,77 @@ public class RedirectController {
      * 【HTTP设计】：
      * - 方法：GET
      * - 路径：/s/{shortCode}
-     * - 响应：302 Found + Location头指向原始长链接
+     * - 响应：302/307/301/308 + Location头指向原始长链接，
+     *   永久重定向命中If-None-Match时返回304；
+     *   近端缓存记录为已过期的链接返回410，不存在的短码返回404
      * 
      * 【业务逻辑】：
      * 这是短链接服务的核心功能，用户访问短链接时重定向到原始长链接
      * 同时增加访问统计计数，用于数据分析
      * 
      * 【测试要点】：
-     * - 存在的短码返回302状态码和正确的Location头
+     * - 存在的短码返回策略对应的状态码和正确的Location头
      * - 不存在的短码返回404状态码
      * - Location头的URL格式正确性
+     * - Cache-Control与ETag是否符合策略
      * - 访问计数的正确增加（通过Service层测试验证）
      * 
      * @param shortCode 短码字符串
+     * @param ifNoneMatch 条件请求头（可选）
      * @return 重定向响应实体
      */
     @GetMapping("/s/{shortCode}")
-    public ResponseEntity<Void> redirectToLongUrl(@PathVariable String shortCode) {
+    public ResponseEntity<Void> redirectToLongUrl(
+            @PathVariable String shortCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Optional<String> longUrl = shortLinkService.getLongUrl(shortCode);
+            long serviceStart = System.nanoTime();
+            Optional<RedirectTarget> target = shortLinkService.resolveRedirect(shortCode);
+            long responseStart = System.nanoTime();
+            redirectMetrics.record(RedirectMetrics.Tier.SERVICE, responseStart - serviceStart);
             
-            if (longUrl.isPresent()) {
-                // 302临时重定向到原始长链接
-                return ResponseEntity.status(HttpStatus.FOUND)
-                    .location(URI.create(longUrl.get()))
-                    .build();
-            } else {
-                // 短码不存在，返回404
-                return ResponseEntity.notFound().build();
-            }
+            ResponseEntity<Void> response = buildResponse(shortCode, target, ifNoneMatch);
+            redirectMetrics.record(RedirectMetrics.Tier.RESPONSE, System.nanoTime() - responseStart);
+            return response;
         } catch (Exception e) {
             // 服务层异常，返回500状态码
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+    
+    private ResponseEntity<Void> buildResponse(String shortCode, Optional<RedirectTarget> target, String ifNoneMatch) {
+        if (target.isEmpty()) {
+            // 近端缓存记录为已过期的链接返回410，其余按不存在返回404
+            return shortLinkService.isExpired(shortCode)
+                ? ResponseEntity.status(HttpStatus.GONE).build()
+                : ResponseEntity.notFound().build();
+        }
+        
+        RedirectTarget redirect = target.get();
+        RedirectPolicy policy = redirect.policy();
+        URI location = URI.create(redirect.longUrl());
+        
+        if (!policy.isCacheable()) {
+            // 临时重定向不允许缓存，保证每次点击都能被计数
+            return ResponseEntity.status(policy.getStatusCode())
+                .location(location)
+                .cacheControl(CacheControl.noStore())
+                .build();
+        }
+        
+        // 永久重定向交给浏览器和CDN缓存，过期后用ETag重新验证；有过期时间的链接缓存时长不超过剩余有效期
+        String etag = redirect.etag();
+        Duration maxAge = redirect.cacheMaxAge(permanentMaxAge, LocalDateTime.now());
+        CacheControl cacheControl = maxAge.isZero()
+            ? CacheControl.noStore()
+            : CacheControl.maxAge(maxAge).cachePublic();
+        HttpStatus status = redirect.matchesIfNoneMatch(ifNoneMatch)
+            ? HttpStatus.NOT_MODIFIED
+            : HttpStatus.valueOf(policy.getStatusCode());
+        return ResponseEntity.status(status)
+            .location(location)
+            .cacheControl(cacheControl)
+            .eTag(etag)
+            .build();
+    }
+}
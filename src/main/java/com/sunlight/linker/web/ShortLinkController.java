@@ -1,9 +1,13 @@
 package com.sunlight.linker.web;
 
 import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.domain.RedirectPolicy;
 import com.sunlight.linker.domain.ShortLink;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +19,7 @@ import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 短链接REST API控制器
@@ -45,6 +50,9 @@ import java.util.Optional;
  * - POST /api/v1/links：创建短链接
  * - GET /s/{shortCode}：短链接重定向
  * - GET /api/v1/links/{shortCode}：获取短链接信息
+ * - PUT /api/v1/links/{shortCode}/redirect-policy：修改重定向策略
+ * - GET /api/v1/links/check-availability：检查短码可用性（已被占用时附带建议）
+ * - POST /api/v1/links/check-availability：批量检查短码可用性
  * - GET /api/v1/stats：获取系统统计信息
  * 
  * @author 测试实践学习项目
@@ -67,6 +75,17 @@ public class ShortLinkController {
     @Value("${app.short-link.domain:http://localhost:8080}")
     private String shortLinkDomain;
     
+    /**
+     * 短码已被占用时默认返回的建议数
+     */
+    @Value("${app.alias-index.suggestions:5}")
+    private int defaultSuggestions;
+    
+    /**
+     * 批量可用性检查单次最多的短码数
+     */
+    static final int MAX_BATCH_CHECK = 100;
+    
     /**
      * 构造方法依赖注入
      */
@@ -101,13 +120,16 @@ public class ShortLinkController {
             
             // 根据是否提供自定义别名选择不同的创建方法
             if (request.getCustomAlias() != null && !request.getCustomAlias().trim().isEmpty()) {
-                shortLink = shortLinkService.createCustomShortLink(
-                    request.getLongUrl(), 
-                    request.getCustomAlias().trim(), 
-                    request.getDescription()
-                );
+                shortLink = request.getExpiresAt() == null
+                    ? shortLinkService.createCustomShortLink(
+                        request.getLongUrl(), request.getCustomAlias().trim(), request.getDescription())
+                    : shortLinkService.createCustomShortLink(
+                        request.getLongUrl(), request.getCustomAlias().trim(), request.getDescription(),
+                        request.getExpiresAt());
             } else {
-                shortLink = shortLinkService.createShortLink(request.getLongUrl());
+                shortLink = request.getExpiresAt() == null
+                    ? shortLinkService.createShortLink(request.getLongUrl())
+                    : shortLinkService.createShortLink(request.getLongUrl(), request.getExpiresAt());
             }
             
             // 构建响应对象
@@ -160,31 +182,84 @@ public class ShortLinkController {
         }
     }
     
+    /**
+     * 修改重定向策略API
+     * 
+     * 【HTTP设计】：
+     * - 方法：PUT
+     * - 路径：/api/v1/links/{shortCode}/redirect-policy
+     * - 请求体：{"redirectPolicy": "MOVED_PERMANENTLY"}
+     * - 响应：200 OK + 修改后的ShortLinkResponse；短码不存在返回404
+     * 
+     * @param shortCode 短码字符串
+     * @param request 新的重定向策略
+     * @return 修改后的短链接信息
+     */
+    @PutMapping("/links/{shortCode}/redirect-policy")
+    public ResponseEntity<ShortLinkResponse> updateRedirectPolicy(
+            @PathVariable String shortCode,
+            @Valid @RequestBody UpdateRedirectPolicyRequest request) {
+        Optional<ShortLink> updated = shortLinkService.updateRedirectPolicy(shortCode, request.getRedirectPolicy());
+        
+        return updated
+            .map(link -> ResponseEntity.ok(new ShortLinkResponse(link, shortLinkDomain)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     /**
      * 检查短码可用性API
      * 
      * 【HTTP设计】：
      * - 方法：GET
-     * - 路径：/api/v1/links/check-availability?shortCode={shortCode}
-     * - 响应：200 OK + JSON格式的可用性结果
+     * - 路径：/api/v1/links/check-availability?shortCode={shortCode}&amp;suggestions={n}
+     * - 响应：200 OK + JSON格式的可用性结果，已被占用时附带可用的变体
      * 
      * 【业务价值】：
      * 用于前端实时检查用户输入的自定义别名是否可用
      * 提升用户体验，避免提交后才发现冲突
      * 
      * @param shortCode 要检查的短码
+     * @param suggestions 已被占用时返回的建议数，缺省为 app.alias-index.suggestions，最多 MAX_SUGGESTIONS 个
      * @return 可用性检查结果
      */
     @GetMapping("/links/check-availability")
     public ResponseEntity<AvailabilityResponse> checkShortCodeAvailability(
-            @RequestParam @NotBlank(message = "短码不能为空") String shortCode) {
+            @RequestParam @NotBlank(message = "短码不能为空") String shortCode,
+            @RequestParam(required = false) Integer suggestions) {
         
         boolean available = shortLinkService.isShortCodeAvailable(shortCode);
-        AvailabilityResponse response = new AvailabilityResponse(shortCode, available);
+        int count = Math.min(suggestions == null ? defaultSuggestions : suggestions, ShortLinkService.MAX_SUGGESTIONS);
+        List<String> alternatives = available ? List.of() : shortLinkService.suggestAliases(shortCode, count);
+        AvailabilityResponse response = new AvailabilityResponse(shortCode, available, alternatives);
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * 批量检查短码可用性API
+     * 
+     * 【HTTP设计】：
+     * - 方法：POST
+     * - 路径：/api/v1/links/check-availability
+     * - 请求体：{"shortCodes": ["promo", "promo2026"]}，最多100个
+     * - 响应：200 OK + 按请求顺序排列的可用性结果（不含建议）
+     * - 数据库：全部短码合并为一次批量查询（见 ShortLinkService.findUnavailable）
+     * 
+     * @param request 批量检查请求
+     * @return 每个短码的可用性
+     */
+    @PostMapping("/links/check-availability")
+    public ResponseEntity<List<AvailabilityResponse>> checkShortCodeAvailabilityBatch(
+            @Valid @RequestBody BatchAvailabilityRequest request) {
+        
+        Set<String> unavailable = shortLinkService.findUnavailable(request.getShortCodes());
+        List<AvailabilityResponse> responses = request.getShortCodes().stream()
+            .map(code -> new AvailabilityResponse(code, !unavailable.contains(code)))
+            .toList();
+        
+        return ResponseEntity.ok(responses);
+    }
+    
     /**
      * 获取系统统计信息API
      * 
@@ -289,6 +364,9 @@ public class ShortLinkController {
         @Size(max = 500, message = "描述长度不能超过500字符")
         private String description;
         
+        @Future(message = "过期时间必须晚于当前时间")
+        private LocalDateTime expiresAt;
+        
         // 构造方法
         public CreateShortLinkRequest() {}
         
@@ -311,6 +389,27 @@ public class ShortLinkController {
         
         public String getDescription() { return description; }
         public void setDescription(String description) { this.description = description; }
+        
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    }
+    
+    /**
+     * 修改重定向策略的请求DTO
+     */
+    public static class UpdateRedirectPolicyRequest {
+        
+        @NotNull(message = "重定向策略不能为空")
+        private RedirectPolicy redirectPolicy;
+        
+        public UpdateRedirectPolicyRequest() {}
+        
+        public UpdateRedirectPolicyRequest(RedirectPolicy redirectPolicy) {
+            this.redirectPolicy = redirectPolicy;
+        }
+        
+        public RedirectPolicy getRedirectPolicy() { return redirectPolicy; }
+        public void setRedirectPolicy(RedirectPolicy redirectPolicy) { this.redirectPolicy = redirectPolicy; }
     }
     
     /**
@@ -327,8 +426,10 @@ public class ShortLinkController {
         private String shortUrl;
         private Boolean isCustomAlias;
         private Long accessCount;
+        private RedirectPolicy redirectPolicy;
         private LocalDateTime createdAt;
         private String description;
+        private LocalDateTime expiresAt;
         private String error; // 错误信息字段
         
         // 成功响应构造方法
@@ -339,8 +440,10 @@ public class ShortLinkController {
             this.shortUrl = shortLink.generateFullShortUrl(domain);
             this.isCustomAlias = shortLink.getIsCustomAlias();
             this.accessCount = shortLink.getAccessCount();
+            this.redirectPolicy = shortLink.getRedirectPolicy();
             this.createdAt = shortLink.getCreatedAt();
             this.description = shortLink.getDescription();
+            this.expiresAt = shortLink.getExpiresAt();
         }
         
         // 错误响应构造方法
@@ -355,11 +458,32 @@ public class ShortLinkController {
         public String getShortUrl() { return shortUrl; }
         public Boolean getIsCustomAlias() { return isCustomAlias; }
         public Long getAccessCount() { return accessCount; }
+        public RedirectPolicy getRedirectPolicy() { return redirectPolicy; }
         public LocalDateTime getCreatedAt() { return createdAt; }
         public String getDescription() { return description; }
+        public LocalDateTime getExpiresAt() { return expiresAt; }
         public String getError() { return error; }
     }
     
+    /**
+     * 批量可用性检查请求DTO
+     */
+    public static class BatchAvailabilityRequest {
+        
+        @NotEmpty(message = "短码列表不能为空")
+        @Size(max = MAX_BATCH_CHECK, message = "单次最多检查100个短码")
+        private List<String> shortCodes;
+        
+        public BatchAvailabilityRequest() {}
+        
+        public BatchAvailabilityRequest(List<String> shortCodes) {
+            this.shortCodes = shortCodes;
+        }
+        
+        public List<String> getShortCodes() { return shortCodes; }
+        public void setShortCodes(List<String> shortCodes) { this.shortCodes = shortCodes; }
+    }
+    
     /**
      * 可用性检查响应DTO
      */
@@ -367,17 +491,24 @@ public class ShortLinkController {
         private String shortCode;
         private Boolean available;
         private String message;
+        private List<String> suggestions;
         
         public AvailabilityResponse(String shortCode, Boolean available) {
+            this(shortCode, available, List.of());
+        }
+        
+        public AvailabilityResponse(String shortCode, Boolean available, List<String> suggestions) {
             this.shortCode = shortCode;
             this.available = available;
             this.message = available ? "短码可用" : "短码已被占用";
+            this.suggestions = suggestions;
         }
         
         // Getter方法
         public String getShortCode() { return shortCode; }
         public Boolean getAvailable() { return available; }
         public String getMessage() { return message; }
+        public List<String> getSuggestions() { return suggestions; }
     }
     
     /**
@@ -0,0 +1,19 @@
+-- ====================================================================
+-- 预生成短码的预留表（PostgreSQL 与 H2 通用）
+--
+-- 每个节点批量生成随机短码，确认 short_links 中不存在后插入本表（主键保证节点之间不重复），
+-- 再放入内存池；短码被使用后由后台批量删除对应行。
+-- owner 的 reserved_at 由心跳定期刷新，超过 reclaim-after 未刷新的行视为崩溃节点遗留，
+-- 由其他节点接管
+--
+-- app.code-pool.initialize-schema=true 时在启动时执行，可重复执行
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS code_reservations (
+    short_code   VARCHAR(20)  NOT NULL PRIMARY KEY,
+    owner        VARCHAR(200) NOT NULL,
+    reserved_at  TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_code_reservations_owner ON code_reservations (owner);
+CREATE INDEX IF NOT EXISTS idx_code_reservations_reserved_at ON code_reservations (reserved_at);
@@ -0,0 +1,14 @@
+-- ====================================================================
+-- Snowflake节点号租约表（PostgreSQL 与 H2 通用）
+--
+-- 每个写节点启动时占用一个空闲或已过期的 node_id，运行期间定时续约，
+-- 停止时删除自己的行；进程崩溃后租约在 expires_at 之后可被其他节点接管
+--
+-- app.id-generator.initialize-schema=true 时在启动时执行，可重复执行
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS id_node_leases (
+    node_id     INTEGER      NOT NULL PRIMARY KEY,
+    owner       VARCHAR(200) NOT NULL,
+    expires_at  TIMESTAMP    NOT NULL
+);
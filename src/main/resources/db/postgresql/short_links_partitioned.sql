@@ -0,0 +1,80 @@
+-- ====================================================================
+-- short_links 按 created_at 月份分区（PostgreSQL 13+）
+--
+-- 与 app.partitioning.enabled=true 配合使用：
+--   ShortLinkPartitions / PartitionMaintenance 负责预建与删除月分区，
+--   ShortLinkLookup 通过 short_link_aliases 把别名查找裁剪到单个分区
+--
+-- 全局唯一性：
+--   分区表上的唯一约束必须包含分区键，UNIQUE(short_code) 不能建在父表上。
+--   系统短码是自增ID的双射编码，天然全局唯一；自定义别名登记在
+--   short_link_aliases（主键 short_code），由触发器维护，并检查系统短码与别名互不冲突。
+--   各分区上的 (short_code, created_at) 唯一索引只用于分区内查找。
+--
+-- 保留策略：
+--   过期月份整表 DETACH + DROP，不再逐行 DELETE；
+--   DROP 不触发行级触发器，对应的别名登记由 PartitionMaintenance 删除（行数很少）
+-- ====================================================================
+
+CREATE TABLE short_links (
+    id               BIGSERIAL     NOT NULL,
+    long_url         VARCHAR(2048) NOT NULL,
+    short_code       VARCHAR(20)   NOT NULL,
+    is_custom_alias  BOOLEAN       NOT NULL,
+    access_count     BIGINT        NOT NULL,
+    redirect_policy  VARCHAR(20)   NOT NULL,
+    created_at       TIMESTAMP(6)  NOT NULL,
+    last_updated_at  TIMESTAMP(6)  NOT NULL,
+    description      VARCHAR(500),
+    expires_at       TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE UNIQUE INDEX idx_short_code ON short_links (short_code, created_at);
+CREATE INDEX idx_long_url ON short_links (long_url);
+CREATE INDEX idx_expires_at ON short_links (expires_at, id);
+
+-- 不建 DEFAULT 分区：存在默认分区时不能 DETACH ... CONCURRENTLY，
+-- 插入落在未建分区的月份会直接报错，由 PartitionMaintenance 提前 months-ahead 个月预建
+
+CREATE TABLE short_link_aliases (
+    short_code  VARCHAR(20)  PRIMARY KEY,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_short_link_aliases_created_at ON short_link_aliases (created_at);
+
+CREATE FUNCTION short_links_register_code() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.is_custom_alias THEN
+        DELETE FROM short_link_aliases WHERE short_code = OLD.short_code;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        IF NEW.is_custom_alias THEN
+            -- 主键冲突即别名已被占用
+            INSERT INTO short_link_aliases (short_code, created_at) VALUES (NEW.short_code, NEW.created_at);
+            IF EXISTS (SELECT 1 FROM short_links
+                       WHERE short_code = NEW.short_code AND NOT is_custom_alias) THEN
+                RAISE EXCEPTION '短码已被系统短码占用: %', NEW.short_code USING ERRCODE = 'unique_violation';
+            END IF;
+        ELSIF EXISTS (SELECT 1 FROM short_link_aliases WHERE short_code = NEW.short_code) THEN
+            RAISE EXCEPTION '短码已被自定义别名占用: %', NEW.short_code USING ERRCODE = 'unique_violation';
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER short_links_register_code
+    AFTER INSERT OR UPDATE OF short_code, is_custom_alias OR DELETE ON short_links
+    FOR EACH ROW EXECUTE FUNCTION short_links_register_code();
+
+-- 首批分区：之后由 PartitionMaintenance 按月预建，命名为 short_links_pYYYYMM
+-- CREATE TABLE short_links_p202610 PARTITION OF short_links
+--     FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00');
+
+-- 从未分区的旧表迁移（在维护窗口内执行）：
+--   1. ALTER TABLE short_links RENAME TO short_links_legacy; 执行本脚本
+--   2. 为旧数据覆盖的每个月建分区，按月 INSERT INTO short_links SELECT * FROM short_links_legacy WHERE created_at ...
+--   3. SELECT setval('short_links_id_seq', (SELECT max(id) FROM short_links));
+--   4. 核对行数后 DROP TABLE short_links_legacy
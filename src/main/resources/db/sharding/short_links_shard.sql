@@ -0,0 +1,31 @@
+-- ====================================================================
+-- 分片库上的 short_links 表（PostgreSQL 与 H2 通用）
+--
+-- 与单库表结构相同，区别：
+--   id 由 ShardedShortLinkRepository 写入（分片内序列号 << 10 | 分片号），不使用自增列
+--   short_code 唯一索引只在分片内生效：系统短码由全局ID编码天然唯一，
+--   自定义别名按一致性哈希固定落在一个分片上，分片内唯一即全局唯一
+--
+-- app.sharding.initialize-schema=true 时在每个分片上执行，可重复执行
+-- ====================================================================
+
+CREATE SEQUENCE IF NOT EXISTS short_links_seq;
+
+CREATE TABLE IF NOT EXISTS short_links (
+    id               BIGINT        NOT NULL PRIMARY KEY,
+    long_url         VARCHAR(2048) NOT NULL,
+    short_code       VARCHAR(20)   NOT NULL,
+    is_custom_alias  BOOLEAN       NOT NULL,
+    access_count     BIGINT        NOT NULL,
+    redirect_policy  VARCHAR(20)   NOT NULL,
+    created_at       TIMESTAMP     NOT NULL,
+    last_updated_at  TIMESTAMP     NOT NULL,
+    description      VARCHAR(500),
+    expires_at       TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_short_code ON short_links (short_code);
+CREATE INDEX IF NOT EXISTS idx_long_url ON short_links (long_url);
+CREATE INDEX IF NOT EXISTS idx_created_at ON short_links (created_at);
+CREATE INDEX IF NOT EXISTS idx_access_count ON short_links (access_count);
+CREATE INDEX IF NOT EXISTS idx_expires_at ON short_links (expires_at, id);
@@ -0,0 +1,34 @@
+-- 全局令牌桶：取一个令牌
+-- KEYS[1]  桶的键（哈希：tokens、updated）
+-- ARGV[1]  桶容量
+-- ARGV[2]  每秒补充的令牌数
+-- 返回值   0表示放行；否则为距下一个令牌可用的微秒数
+-- 时间取Redis服务器时钟，各实例之间的时钟偏差不影响结果
+-- TIME之后还有写命令，Redis 5之前需要按效果复制（之后的版本中为空操作）
+redis.replicate_commands()
+
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2]) / 1000000
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'updated')
+local tokens = tonumber(state[1])
+local updated = tonumber(state[2])
+if tokens == nil or updated == nil then
+    tokens = capacity
+else
+    tokens = math.min(capacity, tokens + math.max(0, now - updated) * rate)
+end
+
+local wait = 0
+if tokens >= 1 then
+    tokens = tokens - 1
+else
+    wait = math.ceil((1 - tokens) / rate)
+end
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'updated', tostring(now))
+-- 桶补满所需的时间之后键自动过期，空闲客户端不占用内存
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate / 1000) + 1000)
+return wait
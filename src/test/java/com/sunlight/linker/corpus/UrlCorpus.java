@@ -0,0 +1,106 @@
+package com.sunlight.linker.corpus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 测试用长链接语料生成器
+ *
+ * 【语料构成】：
+ * 模拟短链服务的典型输入：少数头部域名占大部分流量（Zipf分布），
+ * 路径里有随机ID与文章标题，约一半带UTM参数，另有少量长尾域名与非ASCII路径
+ * <pre>
+ *   https://www.youtube.com/watch?v=dQw4w9WgXcQ
+ *   https://shop.example.com/products/wireless-noise-cancelling-headphones?utm_source=newsletter&amp;utm_medium=email&amp;utm_campaign=spring_sale
+ *   https://mp.weixin.qq.com/s/Xk3f...（22位随机ID）
+ * </pre>
+ * 同一个种子总是生成同一份语料，测试与JMH基准共用
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class UrlCorpus {
+
+    private static final String ALPHANUMERIC = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private static final String[] WORDS = {
+            "how", "to", "build", "fast", "java", "spring", "boot", "guide", "best", "practices", "review",
+            "wireless", "headphones", "summer", "sale", "travel", "tips", "beijing", "shanghai", "recipe",
+            "performance", "tuning", "cloud", "native", "update", "release", "notes", "annual", "report"
+    };
+
+    private static final String[] UTM_SOURCES = {"newsletter", "wechat", "weibo", "twitter", "facebook", "google"};
+    private static final String[] UTM_MEDIUMS = {"email", "social", "cpc", "referral"};
+    private static final String[] UTM_CAMPAIGNS = {"spring_sale", "double11", "product_launch", "weekly_digest", "retargeting"};
+
+    private UrlCorpus() {
+    }
+
+    /**
+     * 生成语料
+     *
+     * @param size 条数
+     * @param seed 随机种子
+     * @return URL列表
+     */
+    public static List<String> generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> urls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            urls.add(next(random));
+        }
+        return urls;
+    }
+
+    private static String next(SplittableRandom random) {
+        StringBuilder url = new StringBuilder(160);
+        // 头部域名的Zipf近似：rank = ⌊1 / u⌋ 截断到模板数
+        int rank = (int) Math.min(1.0 / (random.nextDouble() + 1e-9), 12);
+        switch (rank) {
+            case 1 -> url.append("https://www.youtube.com/watch?v=").append(randomId(random, 11));
+            case 2 -> url.append("https://mp.weixin.qq.com/s/").append(randomId(random, 22));
+            case 3 -> url.append("https://shop.example.com/products/").append(slug(random, 3 + random.nextInt(3)));
+            case 4 -> url.append("https://www.amazon.com/dp/").append(randomId(random, 10).toUpperCase())
+                    .append("?tag=linker-20");
+            case 5 -> url.append("https://github.com/").append(slug(random, 1)).append('/').append(slug(random, 2))
+                    .append("/issues/").append(random.nextInt(20000));
+            case 6 -> url.append("https://news.example.org/").append(2020 + random.nextInt(6)).append('/')
+                    .append(String.format("%02d/%02d/", 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .append(slug(random, 4 + random.nextInt(4))).append(".html");
+            case 7 -> url.append("https://docs.google.com/document/d/").append(randomId(random, 44)).append("/edit");
+            case 8 -> url.append("https://item.jd.com/").append(100000000L + random.nextInt(900000000)).append(".html");
+            case 9 -> url.append("https://zh.wikipedia.org/wiki/").append(random.nextBoolean() ? "短链接" : "统一资源定位符");
+            case 10 -> url.append("https://blog.example.com/posts/").append(slug(random, 3 + random.nextInt(5)));
+            case 11 -> url.append("https://www.bilibili.com/video/BV").append(randomId(random, 10));
+            default -> url.append("https://").append(slug(random, 1)).append(random.nextInt(5000)).append(".com/")
+                    .append(slug(random, 2));
+        }
+        if (random.nextInt(2) == 0) {
+            url.append(url.indexOf("?") < 0 ? '?' : '&')
+                    .append("utm_source=").append(UTM_SOURCES[random.nextInt(UTM_SOURCES.length)])
+                    .append("&utm_medium=").append(UTM_MEDIUMS[random.nextInt(UTM_MEDIUMS.length)])
+                    .append("&utm_campaign=").append(UTM_CAMPAIGNS[random.nextInt(UTM_CAMPAIGNS.length)]);
+        }
+        return url.toString();
+    }
+
+    private static String slug(SplittableRandom random, int words) {
+        StringBuilder slug = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                slug.append('-');
+            }
+            slug.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return slug.toString();
+    }
+
+    private static String randomId(SplittableRandom random, int length) {
+        char[] id = new char[length];
+        for (int i = 0; i < length; i++) {
+            id[i] = ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length()));
+        }
+        return new String(id);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AccessCountDrainer;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】Redis访问计数写回测试
+ *
+ * 学习目标：
+ * ✅ 验证边缘节点写入的 access_count:{code} 被取走并累加到数据库
+ * ✅ 验证写库失败时计数放回Redis，已被其他实例取走的键不重复计数
+ */
+@DisplayName("【练习】Redis访问计数写回测试")
+class AccessCountDrainerExercise {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private ShortLinkRepository repository;
+    private AccessCountDrainer drainer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        repository = mock(ShortLinkRepository.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        drainer = new AccessCountDrainer(redisTemplate, repository, mock(PlatformTransactionManager.class), 100);
+    }
+
+    @Test
+    @DisplayName("计数键应该被原子取走并按短码累加到数据库")
+    void shouldDrainCountersIntoDatabase() {
+        scanReturns("access_count:abc123", "access_count:xyz789", "access_count:taken");
+        when(valueOperations.getAndDelete("access_count:abc123")).thenReturn("5");
+        when(valueOperations.getAndDelete("access_count:xyz789")).thenReturn("2");
+        when(valueOperations.getAndDelete("access_count:taken")).thenReturn(null);
+        when(repository.incrementAccessCount(anyString(), anyLong())).thenReturn(1);
+
+        assertThat(drainer.drain()).isEqualTo(7);
+
+        verify(repository).incrementAccessCount("abc123", 5);
+        verify(repository).incrementAccessCount("xyz789", 2);
+        verify(repository, never()).incrementAccessCount(eq("taken"), anyLong());
+        assertThat(drainer.getTotalDrained()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("写库失败时计数应该放回Redis，下个周期重试")
+    void shouldPutCountBackWhenDatabaseFails() {
+        scanReturns("access_count:abc123");
+        when(valueOperations.getAndDelete("access_count:abc123")).thenReturn("3");
+        when(repository.incrementAccessCount("abc123", 3)).thenThrow(new IllegalStateException("db down"));
+
+        assertThat(drainer.drain()).isZero();
+
+        verify(valueOperations).increment("access_count:abc123", 3);
+        verify(redisTemplate).expire(eq("access_count:abc123"), any(Duration.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scanReturns(String... keys) {
+        Iterator<String> iterator = List.of(keys).iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+}
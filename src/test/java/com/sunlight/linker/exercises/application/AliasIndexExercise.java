@@ -0,0 +1,170 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】自定义别名内存索引测试
+ *
+ * 【进阶挑战 - 前缀树】
+ *
+ * 学习目标：
+ * ✅ 验证索引的全量加载与重建期间新增别名不丢失
+ * ✅ 验证可用性检查只在可能与系统短码重名时才查询数据库
+ * ✅ 验证别名建议跳过已占用的候选与系统保留词，并遵守长度上限
+ */
+@DisplayName("【练习】自定义别名内存索引测试")
+class AliasIndexExercise {
+
+    private ShortLinkRepository repository;
+    private AliasIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ShortLinkRepository.class);
+        when(repository.findCustomAliasCodes()).thenReturn(List.of("promo", "promo1", "promo2"));
+        when(repository.findMaxId()).thenReturn(1_000L);
+        index = new AliasIndex(repository);
+        index.start();
+    }
+
+    @Nested
+    @DisplayName("索引")
+    class IndexTests {
+
+        @Test
+        @DisplayName("启动时应该加载全部别名与最大行主键")
+        void shouldLoadOnStart() {
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(index.contains("promo1")).isTrue();
+            assertThat(index.getMaxRowId()).isEqualTo(1_000L);
+        }
+
+        @Test
+        @DisplayName("重建期间新增的别名应该补入新索引")
+        void shouldKeepAliasesAddedDuringReload() {
+            when(repository.findCustomAliasCodes()).thenAnswer(invocation -> {
+                index.add("racing");
+                return List.of("promo");
+            });
+
+            index.reload();
+
+            assertThat(index.contains("racing")).isTrue();
+            assertThat(index.contains("promo1")).isFalse();
+            assertThat(index.size()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Service")
+    class ServiceTests {
+
+        private ShortLinkService service;
+
+        @BeforeEach
+        void setUp() {
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("aliasIndex", index);
+            service = new ShortLinkService(repository,
+                    beans.getBeanProvider(ClickEventPublisher.class),
+                    beans.getBeanProvider(RedirectMetrics.class),
+                    beans.getBeanProvider(ShortCodeCodec.class),
+                    beans.getBeanProvider(NearLinkCache.class),
+                    beans.getBeanProvider(ShortLinkPartitions.class),
+                    beans.getBeanProvider(ReplicaRouting.class),
+                    beans.getBeanProvider(IdGenerator.class),
+                    beans.getBeanProvider(ShortCodePool.class),
+                    beans.getBeanProvider(AliasIndex.class),
+                    beans.getBeanProvider(ReservedWords.class),
+                    beans.getBeanProvider(UrlCanonicalizer.class),
+                    beans.getBeanProvider(StringRedisTemplate.class));
+        }
+
+        @Test
+        @DisplayName("别名不在索引中且不可能是系统短码时应该只查内存")
+        void shouldAnswerFromMemory() {
+            assertThat(service.isShortCodeAvailable("promo")).isFalse();
+            assertThat(service.isShortCodeAvailable("racing")).isTrue();
+
+            verify(repository, never()).existsByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("解码结果不大于最大行主键的短码应该回退到数据库")
+        void shouldFallBackForPossibleSystemCodes() {
+            String systemCode = ShortCodeCodec.sequential().encode(999L);
+            when(repository.existsByShortCode(systemCode)).thenReturn(true);
+
+            assertThat(service.isShortCodeAvailable(systemCode)).isFalse();
+            verify(repository).existsByShortCode(systemCode);
+        }
+
+        @Test
+        @DisplayName("建议应该跳过已占用的变体")
+        void shouldSuggestFreeVariants() {
+            assertThat(service.suggestAliases("promo", 3)).containsExactly("promo3", "promo4", "promo5");
+        }
+
+        @Test
+        @DisplayName("同前缀的已有别名再多也不应该挤掉可用的建议")
+        void shouldSkipIndexedVariantsViaPrefixWalk() {
+            for (int i = 3; i <= 200; i++) {
+                index.add("promo" + i);
+            }
+
+            assertThat(service.suggestAliases("promo", 3)).containsExactly("promo201", "promo202", "promo203");
+            verify(repository, never()).findExistingShortCodes(anyCollection());
+        }
+
+        @Test
+        @DisplayName("建议应该截短到20个字符以内，格式无效时为空")
+        void shouldRespectAliasLength() {
+            index.add("abcdefghijklmnopqrs1");
+
+            assertThat(service.suggestAliases("bad-alias", 3)).isEmpty();
+            assertThat(service.suggestAliases("abcdefghijklmnopqrst", 2))
+                    .containsExactly("abcdefghijklmnopqrs2", "abcdefghijklmnopqrs3");
+        }
+
+        @Test
+        @DisplayName("创建的别名应该立即进入索引")
+        void shouldIndexCreatedAlias() {
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> {
+                ShortLink link = invocation.getArgument(0);
+                ReflectionTestUtils.setField(link, "id", 1_001L);
+                return link;
+            });
+
+            service.createCustomShortLink("https://example.com/racing", "racing", null);
+
+            assertThat(service.isShortCodeAvailable("racing")).isFalse();
+            assertThat(index.getMaxRowId()).isEqualTo(1_001L);
+        }
+    }
+}
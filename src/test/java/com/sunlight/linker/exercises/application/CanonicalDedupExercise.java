@@ -0,0 +1,106 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】规范化去重测试
+ *
+ * 【进阶挑战 - 去重命中率】
+ *
+ * 学习目标：
+ * ✅ 验证开启规范化后，不同写法的同一链接命中已有记录
+ * ✅ 验证新记录保存的是规范形式
+ * ✅ 验证自定义别名同样按规范形式查找和保存
+ */
+@DisplayName("【练习】规范化去重测试")
+class CanonicalDedupExercise {
+
+    private static final String CANONICAL = "https://example.com/a?b=1";
+
+    private ShortLinkRepository repository;
+    private ShortLinkService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ShortLinkRepository.class);
+        when(repository.findByLongUrl(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> {
+            ShortLink link = invocation.getArgument(0);
+            ReflectionTestUtils.setField(link, "id", 1L);
+            return link;
+        });
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("urlCanonicalizer", new UrlCanonicalizer(List.of("utm_*"), false));
+        service = new ShortLinkService(repository,
+                beans.getBeanProvider(ClickEventPublisher.class),
+                beans.getBeanProvider(RedirectMetrics.class),
+                beans.getBeanProvider(ShortCodeCodec.class),
+                beans.getBeanProvider(NearLinkCache.class),
+                beans.getBeanProvider(ShortLinkPartitions.class),
+                beans.getBeanProvider(ReplicaRouting.class),
+                beans.getBeanProvider(IdGenerator.class),
+                beans.getBeanProvider(ShortCodePool.class),
+                beans.getBeanProvider(AliasIndex.class),
+                beans.getBeanProvider(ReservedWords.class),
+                beans.getBeanProvider(UrlCanonicalizer.class),
+                beans.getBeanProvider(StringRedisTemplate.class));
+    }
+
+    @Test
+    @DisplayName("不同写法应该按规范形式查找已有记录")
+    void shouldDedupOnCanonicalForm() {
+        ShortLink existing = new ShortLink(CANONICAL, "1");
+        when(repository.findByLongUrl(CANONICAL)).thenReturn(Optional.of(existing));
+
+        ShortLink result = service.createShortLink("HTTPS://Example.com:443/a?b=1&utm_source=newsletter");
+
+        assertThat(result).isSameAs(existing);
+        verify(repository, never()).save(any(ShortLink.class));
+    }
+
+    @Test
+    @DisplayName("新记录应该保存规范形式")
+    void shouldStoreCanonicalForm() {
+        ShortLink created = service.createShortLink("https://EXAMPLE.com/a?utm_medium=email&b=1");
+
+        assertThat(created.getLongUrl()).isEqualTo(CANONICAL);
+        verify(repository).findByLongUrl(CANONICAL);
+    }
+
+    @Test
+    @DisplayName("自定义别名应该按规范形式查找和保存")
+    void shouldCanonicalizeCustomAliasUrl() {
+        ShortLink created = service.createCustomShortLink("https://Example.com/a?b=1&utm_campaign=launch",
+                "launch", null);
+
+        assertThat(created.getLongUrl()).isEqualTo(CANONICAL);
+        verify(repository).findByLongUrl(CANONICAL);
+    }
+}
@@ -0,0 +1,259 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.CachedShortLinkService;
+import com.sunlight.linker.application.ExpiredLinkPurger;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.config.PurgeProperties;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ExpiredLinkKey;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】链接过期与分批清理测试
+ *
+ * 【进阶挑战 - 增量清理】
+ *
+ * 学习目标：
+ * ✅ 验证过期链接在数据库路径与缓存命中路径上都按不存在处理，且不计数
+ * ✅ 验证缓存TTL不超过链接的剩余有效期
+ * ✅ 验证清理任务按 (expiresAt, id) 游标推进，并受批大小与单次批数限制
+ * ✅ 在H2上验证键集查询与按主键删除只删除已过期的行
+ */
+@DisplayName("【练习】链接过期与分批清理测试")
+class ExpiredLinkExercise {
+
+    private static final String LONG_URL = "https://www.example.com/campaign";
+
+    @Nested
+    @DisplayName("解析时的过期检查")
+    class ResolveTests {
+
+        private ShortLinkRepository repository;
+
+        @BeforeEach
+        void setUp() {
+            repository = mock(ShortLinkRepository.class);
+        }
+
+        @Test
+        @DisplayName("数据库中已过期的链接应该按不存在处理，且不增加访问次数")
+        void shouldRejectExpiredLinkFromDatabase() {
+            ShortLink expired = new ShortLink(LONG_URL, "sale01", "活动");
+            expired.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            ShortLink live = new ShortLink(LONG_URL, "sale02", "活动");
+            live.setExpiresAt(LocalDateTime.now().plusHours(1));
+            when(repository.findByShortCode("sale01")).thenReturn(Optional.of(expired));
+            when(repository.findByShortCode("sale02")).thenReturn(Optional.of(live));
+            ShortLinkService service = new ShortLinkService(repository);
+
+            assertThat(service.resolveRedirect("sale01")).isEmpty();
+            assertThat(service.resolveRedirect("sale02")).isPresent();
+            assertThat(expired.getAccessCount()).isZero();
+            assertThat(live.getAccessCount()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("不晚于当前时间的过期时间应该在创建时被拒绝")
+        void shouldRejectPastExpiryOnCreate() {
+            ShortLinkService service = new ShortLinkService(repository);
+
+            assertThatThrownBy(() -> service.createShortLink(LONG_URL, LocalDateTime.now().minusMinutes(1)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("过期时间");
+            verify(repository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("已过期的同一长链接不应该被去重复用")
+        void shouldNotDeduplicateAgainstExpiredLink() {
+            ShortLink expired = new ShortLink(LONG_URL, "old001");
+            expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+            when(repository.findByLongUrl(LONG_URL)).thenReturn(Optional.of(expired));
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> {
+                ShortLink saved = invocation.getArgument(0);
+                ReflectionTestUtils.setField(saved, "id", 125L);
+                return saved;
+            });
+            ShortLinkService service = new ShortLinkService(repository);
+
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(7);
+            ShortLink created = service.createShortLink(LONG_URL, expiresAt);
+
+            verify(repository).delete(expired);
+            assertThat(created).isNotSameAs(expired);
+            assertThat(created.getExpiresAt()).isEqualTo(expiresAt);
+        }
+
+        @Test
+        @DisplayName("缓存命中的过期链接应该删除缓存键并按不存在处理；写入缓存的TTL不超过剩余有效期")
+        @SuppressWarnings("unchecked")
+        void shouldCheckExpiryOnCachedEntries() {
+            RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+            ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+            when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+            ShortLink cachedExpired = new ShortLink(LONG_URL, "sale01");
+            cachedExpired.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            when(valueOperations.get("shortlink:sale01")).thenReturn(cachedExpired);
+            ShortLink soon = new ShortLink(LONG_URL, "sale02");
+            soon.setExpiresAt(LocalDateTime.now().plusMinutes(5));
+            when(repository.findByShortCode("sale02")).thenReturn(Optional.of(soon));
+            when(repository.save(any(ShortLink.class))).thenReturn(soon);
+
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            CachedShortLinkService service = new CachedShortLinkService(repository, redisTemplate,
+                    beanFactory.getBeanProvider(ClickEventPublisher.class),
+                    beanFactory.getBeanProvider(RedirectMetrics.class),
+                    beanFactory.getBeanProvider(ShortCodeCodec.class));
+
+            assertThat(service.getLongUrl("sale01")).isEmpty();
+            verify(redisTemplate).delete("shortlink:sale01");
+            verify(repository, never()).findByShortCode("sale01");
+
+            assertThat(service.getLongUrl("sale02")).contains(LONG_URL);
+            verify(valueOperations).set(eq("shortlink:sale02"), same(soon),
+                    longThat(ttl -> ttl > 0 && ttl <= Duration.ofMinutes(5).toMillis()), eq(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Nested
+    @DisplayName("清理任务的批次控制")
+    class BatchingTests {
+
+        private ShortLinkRepository repository;
+        private PurgeProperties properties;
+
+        @BeforeEach
+        void setUp() {
+            repository = mock(ShortLinkRepository.class);
+            properties = new PurgeProperties();
+            properties.setBatchSize(2);
+            properties.setBatchPause(Duration.ZERO);
+        }
+
+        @Test
+        @DisplayName("每批应该从上一批最后一行之后开始，遇到不满的批次结束")
+        void shouldAdvanceKeysetCursor() {
+            LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+            LocalDateTime t1 = now.minusHours(3);
+            LocalDateTime t2 = now.minusHours(2);
+            when(repository.findExpiredLinkKeys(any(), anyLong(), eq(now), eq(2)))
+                    .thenReturn(List.of(new ExpiredLinkKey(5L, t1), new ExpiredLinkKey(9L, t1)))
+                    .thenReturn(List.of(new ExpiredLinkKey(3L, t2), new ExpiredLinkKey(4L, t2)))
+                    .thenReturn(List.of(new ExpiredLinkKey(8L, t2)));
+            when(repository.deleteExpiredByIdIn(anyList(), eq(now)))
+                    .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+            ExpiredLinkPurger purger = new ExpiredLinkPurger(repository, mock(PlatformTransactionManager.class), properties);
+
+            assertThat(purger.purgeExpiredBefore(now)).isEqualTo(5);
+
+            var inOrder = inOrder(repository);
+            inOrder.verify(repository).findExpiredLinkKeys(LocalDateTime.of(1970, 1, 1, 0, 0), 0L, now, 2);
+            inOrder.verify(repository).deleteExpiredByIdIn(List.of(5L, 9L), now);
+            inOrder.verify(repository).findExpiredLinkKeys(t1, 9L, now, 2);
+            inOrder.verify(repository).deleteExpiredByIdIn(List.of(3L, 4L), now);
+            inOrder.verify(repository).findExpiredLinkKeys(t2, 4L, now, 2);
+            inOrder.verify(repository).deleteExpiredByIdIn(List.of(8L), now);
+            assertThat(purger.getTotalPurged()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("单次清理不应该超过max-batches-per-run批")
+        void shouldStopAtMaxBatchesPerRun() {
+            properties.setMaxBatchesPerRun(3);
+            LocalDateTime now = LocalDateTime.now();
+            long[] nextId = {0};
+            when(repository.findExpiredLinkKeys(any(), anyLong(), any(), anyInt())).thenAnswer(invocation ->
+                    List.of(new ExpiredLinkKey(++nextId[0], now), new ExpiredLinkKey(++nextId[0], now)));
+            when(repository.deleteExpiredByIdIn(anyList(), any())).thenReturn(2);
+            ExpiredLinkPurger purger = new ExpiredLinkPurger(repository, mock(PlatformTransactionManager.class), properties);
+
+            assertThat(purger.purgeExpiredBefore(now)).isEqualTo(6);
+            verify(repository, times(3)).deleteExpiredByIdIn(anyList(), any());
+        }
+
+        @Test
+        @DisplayName("没有过期行时不应该执行删除")
+        void shouldNotDeleteWhenNothingExpired() {
+            when(repository.findExpiredLinkKeys(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+            ExpiredLinkPurger purger = new ExpiredLinkPurger(repository, mock(PlatformTransactionManager.class), properties);
+
+            assertThat(purger.purgeExpiredBefore(LocalDateTime.now())).isZero();
+            verify(repository, never()).deleteExpiredByIdIn(anyList(), any());
+        }
+    }
+
+    @Nested
+    @DataJpaTest
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("H2上的键集删除")
+    class RepositoryTests {
+
+        @Autowired
+        private ShortLinkRepository repository;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Test
+        @DisplayName("应该分批删除全部已过期的行，保留未过期和永不过期的行")
+        void shouldPurgeOnlyExpiredRows() {
+            repository.deleteAll();
+            LocalDateTime now = LocalDateTime.now();
+            List<ShortLink> links = new ArrayList<>();
+            LongStream.range(0, 23).forEach(i -> {
+                ShortLink link = new ShortLink(LONG_URL + "/" + i, "exp" + i);
+                // 多行共享同一个过期时间，覆盖游标中 expiresAt 相等、按 id 推进的分支
+                link.setExpiresAt(now.minusMinutes(i % 4 + 1));
+                links.add(link);
+            });
+            ShortLink future = new ShortLink(LONG_URL + "/future", "future");
+            future.setExpiresAt(now.plusDays(1));
+            links.add(future);
+            links.add(new ShortLink(LONG_URL + "/forever", "forever"));
+            repository.saveAll(links);
+
+            PurgeProperties properties = new PurgeProperties();
+            properties.setBatchSize(5);
+            properties.setBatchPause(Duration.ZERO);
+            ExpiredLinkPurger purger = new ExpiredLinkPurger(repository, transactionManager, properties);
+
+            assertThat(purger.purgeExpiredBefore(now)).isEqualTo(23);
+            assertThat(repository.findAll()).extracting(ShortLink::getShortCode)
+                    .containsExactlyInAnyOrder("future", "forever");
+            // 补上@Modifying之后，批量删除语句可以在事务中正常执行
+            Integer unused = new TransactionTemplate(transactionManager)
+                    .execute(status -> repository.deleteUnusedLinksCreatedBefore(now.plusMinutes(1)));
+            assertThat(unused).isEqualTo(2);
+            assertThat(repository.count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.CachedShortLinkService;
+import com.sunlight.linker.application.CachedShortLinkService.CacheStampedeEvent;
+import com.sunlight.linker.application.CachedShortLinkService.CounterFlushEvent;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.ShortLinkService.ShortLinkCreatedEvent;
+import com.sunlight.linker.application.ShortLinkService.ShortLinkResolvedEvent;
+import com.sunlight.linker.application.click.ClickEventPipeline;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.config.ClickPipelineProperties;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.jfr.JfrReport;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】JFR自定义事件测试
+ *
+ * 【进程内录制】
+ *
+ * 学习目标：
+ * ✅ 使用 jdk.jfr.Recording 在测试中录制事件并写入文件
+ * ✅ 使用 JfrReport 解析记录，验证事件字段与汇总结果
+ * ✅ 理解阈值：默认阈值下的快速解析不会产生事件
+ */
+@DisplayName("【练习】JFR自定义事件测试")
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class JfrEventsExercise {
+
+    @TempDir
+    Path tempDir;
+
+    private ShortLinkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ShortLinkRepository.class);
+    }
+
+    @Test
+    @DisplayName("解析与创建短链接应该产生对应事件")
+    void shouldEmitResolvedAndCreatedEvents() throws Exception {
+        ShortLink link = new ShortLink("https://www.example.com", "abc123");
+        when(repository.findByShortCode("abc123")).thenReturn(Optional.of(link));
+        when(repository.findByLongUrl("https://www.example.com")).thenReturn(Optional.of(link));
+        ShortLinkService service = new ShortLinkService(repository);
+
+        JfrReport report = record(Duration.ZERO, () -> {
+            service.resolveRedirect("abc123");
+            service.resolveRedirect("missing");
+            service.createShortLink("https://www.example.com");
+        });
+
+        assertThat(report.getEventCount(JfrReport.RESOLVED)).isEqualTo(2);
+        assertThat(report.getResolvedByTier()).containsOnlyKeys("database", "database(not found)");
+        assertThat(report.getEventCount(JfrReport.CREATED)).isEqualTo(1);
+        assertThat(report.getDeduplicatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("低于阈值的解析不应该产生事件")
+    void shouldRespectThreshold() throws Exception {
+        when(repository.findByShortCode(anyString())).thenReturn(Optional.empty());
+        ShortLinkService service = new ShortLinkService(repository);
+
+        JfrReport report = record(Duration.ofSeconds(1), () -> service.resolveRedirect("abc123"));
+
+        assertThat(report.getEventCount(JfrReport.RESOLVED)).isZero();
+    }
+
+    @Test
+    @DisplayName("同一短码同时回源应该产生CacheStampede事件")
+    @SuppressWarnings("unchecked")
+    void shouldEmitCacheStampede() throws Exception {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        CountDownLatch firstLoadEntered = new CountDownLatch(1);
+        CountDownLatch releaseFirstLoad = new CountDownLatch(1);
+        ShortLink link = new ShortLink("https://www.example.com", "hot");
+        when(repository.findByShortCode("hot"))
+                .thenAnswer(invocation -> {
+                    firstLoadEntered.countDown();
+                    releaseFirstLoad.await(5, TimeUnit.SECONDS);
+                    return Optional.of(link);
+                })
+                .thenReturn(Optional.of(link));
+        when(repository.save(any(ShortLink.class))).thenReturn(link);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        CachedShortLinkService service = new CachedShortLinkService(repository, redisTemplate,
+                beanFactory.getBeanProvider(ClickEventPublisher.class),
+                beanFactory.getBeanProvider(RedirectMetrics.class),
+                beanFactory.getBeanProvider(ShortCodeCodec.class));
+
+        JfrReport report = record(Duration.ZERO, () -> {
+            CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(() -> service.getLongUrl("hot"));
+            awaitQuietly(firstLoadEntered);
+            // 第一个请求仍在回源，第二个请求再次未命中
+            service.getLongUrl("hot");
+            releaseFirstLoad.countDown();
+            first.join();
+        });
+
+        assertThat(report.getEventCount(JfrReport.STAMPEDE)).isEqualTo(1);
+        assertThat(report.getStampedesByCode()).containsEntry("hot", 2);
+        assertThat(report.getResolvedByTier()).containsKey("database");
+    }
+
+    @Test
+    @DisplayName("点击计数写回应该产生CounterFlush事件")
+    void shouldEmitCounterFlush() throws Exception {
+        ClickPipelineProperties properties = new ClickPipelineProperties();
+        ClickEventPipeline pipeline = new ClickEventPipeline(properties, repository,
+                mock(PlatformTransactionManager.class));
+
+        JfrReport report = record(Duration.ZERO, () -> {
+            pipeline.start();
+            for (int i = 0; i < 5; i++) {
+                pipeline.publish("abc123");
+            }
+            pipeline.publish("def456");
+            // 停止时把剩余计数写回
+            pipeline.stop();
+        });
+
+        verify(repository).incrementAccessCount("abc123", 5L);
+        assertThat(report.getEventCount(JfrReport.COUNTER_FLUSH)).isPositive();
+        assertThat(report.getFlushedClicks()).isEqualTo(6);
+        assertThat(report.render()).contains("计数写回").contains("clicks=6");
+    }
+
+    private JfrReport record(Duration resolvedThreshold, Runnable action) throws Exception {
+        Path file = tempDir.resolve("linker.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ShortLinkResolvedEvent.class).withThreshold(resolvedThreshold);
+            recording.enable(ShortLinkCreatedEvent.class);
+            recording.enable(CacheStampedeEvent.class);
+            recording.enable(CounterFlushEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return JfrReport.analyze(file);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
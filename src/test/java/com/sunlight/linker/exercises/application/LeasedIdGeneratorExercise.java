@@ -0,0 +1,239 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.LeasedIdGenerator;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.config.IdGeneratorProperties;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.NodeIdLeases;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】节点号租约与应用侧ID测试
+ *
+ * 【进阶挑战 - 分布式ID】
+ *
+ * 学习目标：
+ * ✅ 用H2内存库验证租约的占用、过期接管、续约失败与释放
+ * ✅ 用可调时钟验证租约过半未续约时拒绝发号
+ * ✅ 验证开启ID生成器后创建系统短链接只保存一次，查找直接走短码索引
+ */
+@DisplayName("【练习】节点号租约与应用侧ID测试")
+class LeasedIdGeneratorExercise {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    private JdbcTemplate jdbcTemplate;
+    private NodeIdLeases leases;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:leases-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        leases = new NodeIdLeases(jdbcTemplate);
+        leases.initializeSchema();
+        clock = new MutableClock(Instant.parse("2026-10-18T00:00:00Z"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Nested
+    @DisplayName("租约表")
+    class LeaseTests {
+
+        @Test
+        @DisplayName("两个进程应该占用不同的节点号")
+        void shouldAssignDistinctNodeIds() {
+            LocalDateTime now = LocalDateTime.now(clock);
+
+            assertThat(leases.acquire("a", 4, now, TTL)).isZero();
+            assertThat(leases.acquire("b", 4, now, TTL)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("过期的租约应该被接管，原持有者续约失败")
+        void shouldTakeOverExpiredLease() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            leases.acquire("a", 1, now, TTL);
+
+            assertThatThrownBy(() -> leases.acquire("b", 1, now.plusSeconds(30), TTL))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(leases.acquire("b", 1, now.plusSeconds(61), TTL)).isZero();
+            assertThat(leases.renew(0, "a", now.plusSeconds(62), TTL)).isFalse();
+            assertThat(leases.renew(0, "b", now.plusSeconds(62), TTL)).isTrue();
+        }
+
+        @Test
+        @DisplayName("释放后节点号应该立即可用")
+        void shouldReuseReleasedNodeId() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            leases.acquire("a", 1, now, TTL);
+
+            leases.release(0, "a");
+
+            assertThat(leases.acquire("b", 1, now, TTL)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("持有租约的生成器")
+    class GeneratorTests {
+
+        @Test
+        @DisplayName("启动后应该占用节点号，停止后释放")
+        void shouldHoldLeaseWhileRunning() {
+            LeasedIdGenerator generator = new LeasedIdGenerator(leases, properties(), clock);
+
+            generator.start();
+            long id = generator.nextId();
+            generator.stop();
+
+            assertThat(id).isPositive();
+            assertThat(generator.getNodeId()).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_node_leases", Integer.class)).isZero();
+            assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("超过租约一半时间未续约应该拒绝发号，续约后恢复")
+        void shouldStopIssuingWhenLeaseIsStale() {
+            LeasedIdGenerator generator = new LeasedIdGenerator(leases, properties(), clock);
+            generator.start();
+
+            clock.advance(Duration.ofSeconds(31));
+            assertThatThrownBy(generator::nextId)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("租约");
+
+            generator.renew();
+            assertThat(generator.nextId()).isPositive();
+        }
+
+        @Test
+        @DisplayName("续约间隔不小于租约一半时应该拒绝启动")
+        void shouldRejectRenewIntervalTooLong() {
+            IdGeneratorProperties properties = properties();
+            properties.setLeaseRenewInterval(Duration.ofSeconds(30));
+
+            assertThatThrownBy(() -> new LeasedIdGenerator(leases, properties, clock))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Service")
+    class ServiceTests {
+
+        @Test
+        @DisplayName("开启ID生成器后创建系统短链接应该只保存一次，查找直接走短码索引")
+        void shouldInsertOnceWithGeneratedCode() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            IdGenerator idGenerator = () -> 123_456_789L;
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("idGenerator", idGenerator);
+            ShortLinkService service = new ShortLinkService(repository,
+                    beans.getBeanProvider(ClickEventPublisher.class),
+                    beans.getBeanProvider(RedirectMetrics.class),
+                    beans.getBeanProvider(ShortCodeCodec.class),
+                    beans.getBeanProvider(NearLinkCache.class),
+                    beans.getBeanProvider(ShortLinkPartitions.class),
+                    beans.getBeanProvider(ReplicaRouting.class),
+                    beans.getBeanProvider(IdGenerator.class),
+                    beans.getBeanProvider(ShortCodePool.class),
+                    beans.getBeanProvider(AliasIndex.class),
+                    beans.getBeanProvider(ReservedWords.class),
+                    beans.getBeanProvider(UrlCanonicalizer.class),
+                    beans.getBeanProvider(StringRedisTemplate.class));
+            when(repository.findByLongUrl(anyString())).thenReturn(Optional.empty());
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            String expectedCode = ShortCodeCodec.sequential().encode(123_456_789L);
+
+            ShortLink created = service.createShortLink("https://example.com/snowflake");
+            service.getShortLinkInfo(expectedCode);
+
+            assertThat(created.getShortCode()).isEqualTo(expectedCode);
+            verify(repository, times(1)).save(any(ShortLink.class));
+            verify(repository).findByShortCode(expectedCode);
+            verify(repository, never()).findById(anyLong());
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static IdGeneratorProperties properties() {
+        IdGeneratorProperties properties = new IdGeneratorProperties();
+        properties.setEnabled(true);
+        properties.setLeaseTtl(TTL);
+        properties.setLeaseRenewInterval(Duration.ofSeconds(20));
+        properties.setNodeBits(2);
+        return properties;
+    }
+
+    /**
+     * 可手动推进的时钟
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.RedirectTarget;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.config.NearCacheProperties;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】近端缓存与时间轮到期测试
+ *
+ * 【进阶挑战 - 时间轮】
+ *
+ * 学习目标：
+ * ✅ 验证条目在ttl到期后由时间轮移除，不依赖读取时检查
+ * ✅ 验证链接先于ttl过期时转为"已过期"标记，gone-ttl之后再移除
+ * ✅ 验证覆盖、失效后旧定时器不会误删新条目
+ * ✅ 验证服务层命中近端缓存时只计数不读库，已过期的链接可判定为410
+ */
+@DisplayName("【练习】近端缓存与时间轮到期测试")
+class NearLinkCacheExercise {
+
+    private static final String LONG_URL = "https://www.example.com/flash-sale";
+
+    private static NearCacheProperties properties() {
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setGoneTtl(Duration.ofMinutes(1));
+        properties.setTick(Duration.ofMillis(100));
+        properties.setMaxEntries(3);
+        return properties;
+    }
+
+    private static ShortLink link(String code, LocalDateTime expiresAt) {
+        ShortLink link = new ShortLink(LONG_URL, code, "活动");
+        link.setExpiresAt(expiresAt);
+        return link;
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    @Nested
+    @DisplayName("条目到期")
+    class ExpiryTests {
+
+        private NearLinkCache cache;
+        private long now;
+
+        @BeforeEach
+        void setUp() {
+            cache = new NearLinkCache(properties());
+            now = System.currentTimeMillis();
+        }
+
+        @Test
+        @DisplayName("ttl到期后条目应该被时间轮移除")
+        void shouldEvictAfterTtl() {
+            cache.put(link("live01", null), now);
+
+            cache.advance(now + 9_000);
+            assertThat(cache.get("live01")).isNotNull();
+            cache.advance(now + 10_200);
+
+            assertThat(cache.get("live01")).isNull();
+            assertThat(cache.getEvictions()).isEqualTo(1);
+            assertThat(cache.getPendingTimers()).isZero();
+        }
+
+        @Test
+        @DisplayName("链接先于ttl过期时应该转为已过期标记，gone-ttl之后移除")
+        void shouldTransitionToGoneThenEvict() {
+            cache.put(link("sale01", toLocal(now + 3_000)), now);
+
+            cache.advance(now + 3_200);
+            assertThat(cache.get("sale01").isGone()).isTrue();
+            assertThat(cache.getGoneTransitions()).isEqualTo(1);
+
+            cache.advance(now + 3_200 + 60_200);
+            assertThat(cache.get("sale01")).isNull();
+        }
+
+        @Test
+        @DisplayName("已经过期的链接应该直接记为已过期标记")
+        void shouldMarkAlreadyExpiredLinkGone() {
+            cache.put(link("old001", toLocal(now - 1)), now);
+
+            assertThat(cache.get("old001").isGone()).isTrue();
+        }
+
+        @Test
+        @DisplayName("覆盖或失效后，旧定时器到期不应该影响新条目")
+        void shouldIgnoreStaleTimers() {
+            cache.put(link("code01", null), now);
+            cache.put(link("code01", null), now + 5_000);
+            cache.put(link("code02", null), now);
+            cache.invalidate("code02");
+
+            cache.advance(now + 10_200);
+
+            assertThat(cache.get("code01")).isNotNull();
+            assertThat(cache.get("code02")).isNull();
+            assertThat(cache.getPendingTimers()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("写满后新链接不再进入缓存")
+        void shouldRespectMaxEntries() {
+            for (int i = 0; i < 5; i++) {
+                cache.put(link("full0" + i, null), now);
+            }
+
+            assertThat(cache.size()).isEqualTo(3);
+            assertThat(cache.get("full04")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("服务层接入")
+    class ServiceTests {
+
+        private ShortLinkRepository repository;
+        private NearLinkCache cache;
+        private ShortLinkService service;
+
+        @BeforeEach
+        void setUp() {
+            repository = mock(ShortLinkRepository.class);
+            cache = new NearLinkCache(properties());
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("nearLinkCache", cache);
+            service = new ShortLinkService(repository,
+                    beans.getBeanProvider(ClickEventPublisher.class),
+                    beans.getBeanProvider(RedirectMetrics.class),
+                    beans.getBeanProvider(ShortCodeCodec.class),
+                    beans.getBeanProvider(NearLinkCache.class),
+                    beans.getBeanProvider(ShortLinkPartitions.class),
+                    beans.getBeanProvider(ReplicaRouting.class),
+                    beans.getBeanProvider(IdGenerator.class),
+                    beans.getBeanProvider(ShortCodePool.class),
+                    beans.getBeanProvider(AliasIndex.class),
+                    beans.getBeanProvider(ReservedWords.class),
+                    beans.getBeanProvider(UrlCanonicalizer.class),
+                    beans.getBeanProvider(StringRedisTemplate.class));
+        }
+
+        @Test
+        @DisplayName("第二次解析应该命中近端缓存，只执行计数UPDATE")
+        void shouldServeSecondResolveFromNearCache() {
+            when(repository.findByShortCode("hot001")).thenReturn(Optional.of(link("hot001", null)));
+
+            assertThat(service.resolveRedirect("hot001")).isPresent();
+            Optional<RedirectTarget> second = service.resolveRedirect("hot001");
+
+            assertThat(second).map(RedirectTarget::longUrl).contains(LONG_URL);
+            verify(repository, times(1)).findByShortCode("hot001");
+            verify(repository).incrementAccessCount("hot001", 1);
+        }
+
+        @Test
+        @DisplayName("已过期的链接应该判定为410，不计数")
+        void shouldReportExpiredLink() {
+            when(repository.findByShortCode("sale02"))
+                    .thenReturn(Optional.of(link("sale02", LocalDateTime.now().minusSeconds(1))));
+
+            assertThat(service.resolveRedirect("sale02")).isEmpty();
+            assertThat(service.isExpired("sale02")).isTrue();
+            assertThat(service.resolveRedirect("sale02")).isEmpty();
+
+            verify(repository, times(1)).findByShortCode("sale02");
+            verify(repository, never()).incrementAccessCount(anyString(), anyLong());
+            assertThat(service.isExpired("nope01")).isFalse();
+        }
+
+        @Test
+        @DisplayName("isExpired只读近端缓存，不应该为它开启事务")
+        void shouldNotOpenTransactionForExpiredCheck() throws Exception {
+            TransactionAttribute attribute = new AnnotationTransactionAttributeSource().getTransactionAttribute(
+                    ShortLinkService.class.getMethod("isExpired", String.class), ShortLinkService.class);
+
+            assertThat(attribute).isNotNull();
+            assertThat(attribute.getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_SUPPORTS);
+        }
+
+        @Test
+        @DisplayName("修改重定向策略后应该失效近端缓存，下次解析读到新策略")
+        void shouldInvalidateOnPolicyChange() {
+            ShortLink link = link("pol001", null);
+            when(repository.findByShortCode("pol001")).thenReturn(Optional.of(link));
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            assertThat(service.resolveRedirect("pol001")).isPresent();
+
+            service.updateRedirectPolicy("pol001", RedirectPolicy.PERMANENT_REDIRECT);
+
+            assertThat(cache.get("pol001")).isNull();
+            assertThat(service.resolveRedirect("pol001")).map(RedirectTarget::policy)
+                    .contains(RedirectPolicy.PERMANENT_REDIRECT);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.PartitionMaintenance;
+import com.sunlight.linker.config.PartitioningProperties;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】月分区维护测试
+ *
+ * 【进阶挑战 - 分区表】
+ *
+ * 学习目标：
+ * ✅ 验证维护任务预建当月及之后 months-ahead 个月的分区
+ * ✅ 验证只删除保留窗口之前的分区，先DETACH再DROP，并清理对应的别名登记
+ * ✅ 验证上次中断留下的 pending / 已分离分区会在下一次运行中完成
+ * ✅ 验证分区名与DDL只由YearMonth生成，拒绝其他表名
+ */
+@DisplayName("【练习】月分区维护测试")
+class PartitionMaintenanceExercise {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    private static PartitioningProperties properties(int retentionMonths) {
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setMonthsAhead(2);
+        properties.setRetentionMonths(retentionMonths);
+        return properties;
+    }
+
+    private static Partition attached(String month) {
+        return new Partition(ShortLinkPartitions.partitionName(YearMonth.parse(month)), false);
+    }
+
+    @Nested
+    @DisplayName("维护任务")
+    class MaintenanceTests {
+
+        private ShortLinkPartitions partitions;
+
+        @BeforeEach
+        void setUp() {
+            partitions = mock(ShortLinkPartitions.class);
+        }
+
+        @Test
+        @DisplayName("应该预建当月和之后months-ahead个月的分区")
+        void shouldCreateUpcomingPartitions() {
+            new PartitionMaintenance(partitions, properties(0)).maintain(TODAY);
+
+            verify(partitions).create(YearMonth.of(2026, 10));
+            verify(partitions).create(YearMonth.of(2026, 11));
+            verify(partitions).create(YearMonth.of(2026, 12));
+            verify(partitions, times(3)).create(any());
+            verify(partitions, never()).listAttached();
+        }
+
+        @Test
+        @DisplayName("应该先分离再删除保留窗口之前的分区，并清理别名登记")
+        void shouldDropPartitionsOutsideRetention() {
+            Partition old = attached("2026-06");
+            Partition oldest = attached("2026-07");
+            when(partitions.listAttached()).thenReturn(List.of(
+                    old, oldest, attached("2026-08"), attached("2026-10"), new Partition("short_links_legacy", false)));
+
+            int dropped = new PartitionMaintenance(partitions, properties(3)).maintain(TODAY);
+
+            assertThat(dropped).isEqualTo(2);
+            InOrder inOrder = inOrder(partitions);
+            inOrder.verify(partitions).detach(old);
+            inOrder.verify(partitions).drop(old.name());
+            verify(partitions).detach(oldest);
+            verify(partitions, never()).detach(attached("2026-08"));
+            verify(partitions, never()).drop("short_links_legacy");
+            verify(partitions).deleteAliasesCreatedBefore(LocalDateTime.of(2026, 8, 1, 0, 0));
+        }
+
+        @Test
+        @DisplayName("上次中断留下的已分离分区应该被删除，单个分区失败不影响其他分区")
+        void shouldRecoverFromInterruptedRun() {
+            Partition pending = new Partition(ShortLinkPartitions.partitionName(YearMonth.of(2026, 5)), true);
+            Partition failing = attached("2026-06");
+            when(partitions.listAttached()).thenReturn(List.of(pending, failing));
+            when(partitions.listDetached()).thenReturn(List.of("short_links_p202604"));
+            doThrow(new DataAccessResourceFailureException("lock timeout")).when(partitions).detach(failing);
+
+            int dropped = new PartitionMaintenance(partitions, properties(3)).maintain(TODAY);
+
+            assertThat(dropped).isEqualTo(2);
+            verify(partitions).detach(pending);
+            verify(partitions).drop("short_links_p202605");
+            verify(partitions).drop("short_links_p202604");
+            verify(partitions, never()).drop(failing.name());
+        }
+
+        @Test
+        @DisplayName("months-ahead不是正数时应该拒绝启动")
+        void shouldRejectInvalidProperties() {
+            PartitioningProperties properties = properties(0);
+            properties.setMonthsAhead(0);
+
+            assertThatThrownBy(() -> new PartitionMaintenance(partitions, properties))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("分区DDL")
+    class DdlTests {
+
+        private JdbcTemplate jdbcTemplate;
+        private ShortLinkPartitions partitions;
+
+        @BeforeEach
+        void setUp() {
+            jdbcTemplate = mock(JdbcTemplate.class);
+            partitions = new ShortLinkPartitions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("分区名与月份应该可以互相转换")
+        void shouldRoundTripPartitionName() {
+            assertThat(ShortLinkPartitions.partitionName(YearMonth.of(2026, 1))).isEqualTo("short_links_p202601");
+            assertThat(ShortLinkPartitions.monthOf("short_links_p202612")).contains(YearMonth.of(2026, 12));
+            assertThat(ShortLinkPartitions.monthOf("short_links_p202613")).isEmpty();
+            assertThat(ShortLinkPartitions.monthOf("short_links")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("创建分区应该覆盖整月的左闭右开区间")
+        void shouldCreateMonthRange() {
+            partitions.create(YearMonth.of(2026, 12));
+
+            verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS short_links_p202612 PARTITION OF short_links"
+                    + " FOR VALUES FROM ('2026-12-01T00:00') TO ('2027-01-01T00:00')");
+        }
+
+        @Test
+        @DisplayName("pending状态的分区应该用FINALIZE完成分离")
+        void shouldFinalizePendingDetach() {
+            partitions.detach(new Partition("short_links_p202601", false));
+            partitions.detach(new Partition("short_links_p202602", true));
+
+            verify(jdbcTemplate).execute("ALTER TABLE short_links DETACH PARTITION short_links_p202601 CONCURRENTLY");
+            verify(jdbcTemplate).execute("ALTER TABLE short_links DETACH PARTITION short_links_p202602 FINALIZE");
+        }
+
+        @Test
+        @DisplayName("不是月分区的表名应该被拒绝")
+        void shouldRejectForeignTableNames() {
+            assertThatThrownBy(() -> partitions.drop("short_links; DROP TABLE users"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.RateLimiter;
+import com.sunlight.linker.config.RateLimitProperties;
+import com.sunlight.linker.infrastructure.RedisTokenBuckets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】按端点限流测试
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 学习目标：
+ * ✅ 验证端点规则按方法和路径模式匹配，不匹配的请求不计数
+ * ✅ 验证不同端点、不同客户端各自计数
+ * ✅ 验证redis模式调用全局令牌桶，Redis不可用时退回本机令牌桶
+ * ✅ 验证拒绝数指标
+ */
+@DisplayName("【练习】按端点限流测试")
+class RateLimiterExercise {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getEndpoints().put("create", endpoint("POST", "/api/v1/links", 2, 1));
+        properties.getEndpoints().put("redirect", endpoint("GET", "/s/*", 3, 10));
+    }
+
+    @Nested
+    @DisplayName("本机令牌桶")
+    class LocalTests {
+
+        private RateLimiter limiter;
+
+        @BeforeEach
+        void setUp() {
+            limiter = new RateLimiter(properties, null, clock::get);
+        }
+
+        @Test
+        @DisplayName("超出突发上限后应该拒绝，并返回下一个令牌的等待时间")
+        void shouldRejectAfterBurst() {
+            assertThat(limiter.check("POST", "/api/v1/links", "1.2.3.4")).isZero();
+            assertThat(limiter.check("POST", "/api/v1/links", "1.2.3.4")).isZero();
+
+            assertThat(limiter.check("POST", "/api/v1/links", "1.2.3.4")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+            assertThat(limiter.check("POST", "/api/v1/links", "5.6.7.8")).isZero();
+            assertThat(limiter.getRejected("create")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("不匹配任何规则的请求不应该计数")
+        void shouldIgnoreUnmatchedRequests() {
+            for (int i = 0; i < 100; i++) {
+                assertThat(limiter.check("GET", "/api/v1/links/abc", "client")).isZero();
+                assertThat(limiter.check("POST", "/api/v1/links/check-availability", "client")).isZero();
+                assertThat(limiter.check("GET", "/api/v1/links", "client")).isZero();
+                assertThat(limiter.check("GET", "/s/abc/extra", "client")).isZero();
+            }
+            assertThat(limiter.getRejected("create")).isZero();
+            assertThat(limiter.getRejected("redirect")).isZero();
+        }
+
+        @Test
+        @DisplayName("不同端点的令牌桶应该互不影响")
+        void shouldCountEndpointsSeparately() {
+            limiter.check("POST", "/api/v1/links", "client");
+            limiter.check("POST", "/api/v1/links", "client");
+
+            assertThat(limiter.check("GET", "/s/abc", "client")).isZero();
+            assertThat(limiter.check("GET", "/s/xyz", "client")).isZero();
+            assertThat(limiter.check("GET", "/s/123", "client")).isZero();
+            assertThat(limiter.check("GET", "/s/456", "client")).isPositive();
+
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            assertThat(limiter.check("GET", "/s/456", "client")).isZero();
+        }
+
+        @Test
+        @DisplayName("应该注册拒绝数和桶数指标")
+        void shouldBindMetrics() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            limiter.bindTo(registry);
+            for (int i = 0; i < 5; i++) {
+                limiter.check("GET", "/s/abc", "client-" + (i % 2));
+            }
+
+            assertThat(registry.get(RateLimiter.REJECTED).tag("endpoint", "redirect").functionCounter().count())
+                    .isEqualTo(0);
+            limiter.check("GET", "/s/abc", "client-0");
+            limiter.check("GET", "/s/abc", "client-0");
+            assertThat(registry.get(RateLimiter.REJECTED).tag("endpoint", "redirect").functionCounter().count())
+                    .isEqualTo(2);
+            assertThat(registry.get(RateLimiter.CLIENTS).tag("endpoint", "redirect").gauge().value())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("缺少路径模式的端点应该在启动时报错")
+        void shouldRejectMissingPattern() {
+            properties.getEndpoints().put("broken", endpoint("GET", " ", 1, 1));
+
+            assertThatThrownBy(() -> new RateLimiter(properties, null, clock::get))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("broken");
+        }
+    }
+
+    @Nested
+    @DisplayName("Redis全局令牌桶")
+    class RedisTests {
+
+        private RedisTokenBuckets redisBuckets;
+        private RateLimiter limiter;
+
+        @BeforeEach
+        void setUp() {
+            redisBuckets = mock(RedisTokenBuckets.class);
+            limiter = new RateLimiter(properties, redisBuckets, clock::get);
+        }
+
+        @Test
+        @DisplayName("应该按端点配置调用全局令牌桶")
+        void shouldUseRedisBuckets() {
+            when(redisBuckets.tryAcquire("create", "client", 2, 1.0)).thenReturn(500L);
+
+            assertThat(limiter.check("POST", "/api/v1/links", "client")).isEqualTo(500L);
+            assertThat(limiter.getRejected("create")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Redis不可用时应该退回本机令牌桶，间隔一段时间后再重试Redis")
+        void shouldFallBackToLocalBuckets() {
+            when(redisBuckets.tryAcquire(anyString(), anyString(), anyLong(), anyDouble()))
+                    .thenThrow(new RedisConnectionFailureException("down"))
+                    .thenReturn(0L);
+
+            assertThat(limiter.check("POST", "/api/v1/links", "client")).isZero();
+            assertThat(limiter.check("POST", "/api/v1/links", "client")).isZero();
+            assertThat(limiter.check("POST", "/api/v1/links", "client")).isPositive();
+            assertThat(limiter.getRedisFallbacks()).isEqualTo(3);
+            verify(redisBuckets, times(1)).tryAcquire(anyString(), anyString(), anyLong(), anyDouble());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            assertThat(limiter.check("POST", "/api/v1/links", "client")).isZero();
+            verify(redisBuckets, times(2)).tryAcquire(anyString(), anyString(), anyLong(), anyDouble());
+            assertThat(limiter.getRedisFallbacks()).isEqualTo(3);
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static RateLimitProperties.Endpoint endpoint(String method, String pattern, long capacity, double rate) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setMethod(method);
+        endpoint.setPattern(pattern);
+        endpoint.setCapacity(capacity);
+        endpoint.setRefillPerSecond(rate);
+        return endpoint;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.RedirectMetrics.CacheResult;
+import com.sunlight.linker.application.RedirectMetrics.Tier;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】RedirectMetrics 分层耗时指标测试
+ *
+ * 【纯单元测试】
+ *
+ * 学习目标：
+ * ✅ 使用SimpleMeterRegistry验证指标是否按层记录
+ * ✅ 验证缓存命中/未命中计数器按缓存名区分
+ */
+@DisplayName("【练习】RedirectMetrics 分层耗时指标测试")
+class RedirectMetricsExercise {
+
+    private SimpleMeterRegistry registry;
+    private RedirectMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new RedirectMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("每一层都应该预先注册计时器")
+    void shouldRegisterTimerPerTier() {
+        for (Tier tier : Tier.values()) {
+            Timer timer = registry.find(RedirectMetrics.TIER_TIMER)
+                    .tag("tier", tier.name().toLowerCase())
+                    .timer();
+            assertThat(timer).as("tier=%s", tier).isNotNull();
+            assertThat(timer.count()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("record应该记录到对应层的计时器")
+    void shouldRecordElapsedNanos() {
+        metrics.record(Tier.REDIS, TimeUnit.MICROSECONDS.toNanos(250));
+        metrics.record(Tier.REDIS, TimeUnit.MICROSECONDS.toNanos(750));
+
+        Timer redis = registry.get(RedirectMetrics.TIER_TIMER).tag("tier", "redis").timer();
+        assertThat(redis.count()).isEqualTo(2);
+        assertThat(redis.totalTime(TimeUnit.MICROSECONDS)).isEqualTo(1000.0);
+        assertThat(registry.get(RedirectMetrics.TIER_TIMER).tag("tier", "database").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("缓存计数器应该按缓存名和结果区分")
+    void shouldCountCacheAccessPerCacheName() {
+        metrics.cacheAccess("shortlinks", CacheResult.HIT);
+        metrics.cacheAccess("shortlinks", CacheResult.HIT);
+        metrics.cacheAccess("shortlinks", CacheResult.MISS);
+        metrics.cacheAccess("stats", CacheResult.COALESCED);
+
+        assertThat(counter("shortlinks", "hit")).isEqualTo(2.0);
+        assertThat(counter("shortlinks", "miss")).isEqualTo(1.0);
+        assertThat(counter("shortlinks", "coalesced")).isZero();
+        assertThat(counter("stats", "coalesced")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("ShortLinkService解析重定向时应该记录数据库层与计数层")
+    void shouldInstrumentResolveRedirect() {
+        ShortLinkRepository repository = mock(ShortLinkRepository.class);
+        ShortLink link = new ShortLink("https://www.example.com", "abc123");
+        when(repository.findByShortCode("abc123")).thenReturn(Optional.of(link));
+        ShortLinkService service = new ShortLinkService(repository,
+                provider(ClickEventPublisher.class, null), provider(RedirectMetrics.class, metrics),
+                provider(ShortCodeCodec.class, null), provider(NearLinkCache.class, null),
+                provider(ShortLinkPartitions.class, null), provider(ReplicaRouting.class, null),
+                provider(IdGenerator.class, null), provider(ShortCodePool.class, null),
+                provider(AliasIndex.class, null), provider(ReservedWords.class, null),
+                provider(UrlCanonicalizer.class, null), provider(StringRedisTemplate.class, null));
+
+        service.resolveRedirect("abc123");
+        service.resolveRedirect("missing");
+
+        assertThat(registry.get(RedirectMetrics.TIER_TIMER).tag("tier", "database").timer().count()).isEqualTo(2);
+        assertThat(registry.get(RedirectMetrics.TIER_TIMER).tag("tier", "counter").timer().count()).isEqualTo(1);
+    }
+
+    private double counter(String cache, String result) {
+        return registry.get(RedirectMetrics.CACHE_COUNTER).tag("cache", cache).tag("result", result).counter().count();
+    }
+
+    private static <T> ObjectProvider<T> provider(Class<T> type, T bean) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (bean != null) {
+            beanFactory.addBean(type.getSimpleName(), bean);
+        }
+        return beanFactory.getBeanProvider(type);
+    }
+}
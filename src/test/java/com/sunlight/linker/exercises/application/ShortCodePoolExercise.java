@@ -0,0 +1,330 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.config.CodePoolProperties;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.CodeReservations;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】预生成短码池测试
+ *
+ * 【进阶挑战 - 预生成短码】
+ *
+ * 学习目标：
+ * ✅ 用H2内存库验证预留表的互斥、接管与已使用短码的排除
+ * ✅ 验证补充线程的一轮补充：补满、心跳后清理已取走的短码、接管崩溃节点的预留
+ * ✅ 验证池为空时的同步回退与指标
+ * ✅ 验证开启短码池后创建只保存一次，预留中的短码不能作为自定义别名
+ */
+@DisplayName("【练习】预生成短码池测试")
+class ShortCodePoolExercise {
+
+    private JdbcTemplate jdbcTemplate;
+    private CodeReservations reservations;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:code-pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE short_links (id BIGINT PRIMARY KEY, short_code VARCHAR(20) NOT NULL)");
+        reservations = new CodeReservations(jdbcTemplate);
+        reservations.initializeSchema();
+        clock = new MutableClock(Instant.parse("2026-10-18T00:00:00Z"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Nested
+    @DisplayName("预留表")
+    class ReservationTests {
+
+        @Test
+        @DisplayName("已被其他节点预留的短码应该被跳过")
+        void shouldSkipCodesReservedByOthers() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            reservations.reserve(List.of("aaaaaaa"), "a", now);
+
+            List<String> reserved = reservations.reserve(List.of("aaaaaaa", "bbbbbbb"), "b", now);
+
+            assertThat(reserved).containsExactly("bbbbbbb");
+            assertThat(reservations.isReserved("aaaaaaa")).isTrue();
+        }
+
+        @Test
+        @DisplayName("只应该接管心跳过期的行，且同一行只能被接管一次")
+        void shouldAdoptOnlyStaleRowsOnce() {
+            LocalDateTime now = LocalDateTime.now(clock);
+            reservations.reserve(List.of("stale01"), "crashed", now.minusMinutes(10));
+            reservations.reserve(List.of("fresh01"), "alive", now);
+
+            List<String> first = reservations.adoptOrphans("b", now, now.minusMinutes(5), 10);
+            List<String> second = reservations.adoptOrphans("c", now, now.minusMinutes(5), 10);
+
+            assertThat(first).containsExactly("stale01");
+            assertThat(second).isEmpty();
+        }
+
+        @Test
+        @DisplayName("应该找出已经写入short_links的短码")
+        void shouldFindUsedCodes() {
+            jdbcTemplate.update("INSERT INTO short_links (id, short_code) VALUES (1, 'used001')");
+
+            assertThat(reservations.findUsed(List.of("used001", "free001"))).containsExactly("used001");
+        }
+    }
+
+    @Nested
+    @DisplayName("短码池")
+    class PoolTests {
+
+        @Test
+        @DisplayName("一轮补充应该补满容量，取出的短码互不相同且都已预留")
+        void shouldFillToCapacity() {
+            ShortCodePool pool = new ShortCodePool(reservations, properties(), clock);
+
+            assertThat(pool.refill()).isEqualTo(100);
+
+            Set<String> codes = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                codes.add(pool.take());
+            }
+            assertThat(codes).hasSize(100).allSatisfy(code -> assertThat(code).hasSize(7).matches("[0-9A-Za-z]+"));
+            assertThat(pool.getDepth()).isZero();
+            assertThat(pool.getMisses()).isZero();
+            assertThat(count()).isEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("池为空时应该同步预留一个短码并计入misses")
+        void shouldReserveSynchronouslyWhenEmpty() {
+            ShortCodePool pool = new ShortCodePool(reservations, properties(), clock);
+
+            String code = pool.take();
+
+            assertThat(reservations.isReserved(code)).isTrue();
+            assertThat(pool.getMisses()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("取走的短码应该在下一个心跳周期才删除预留行")
+        void shouldReleaseTakenCodesOneHeartbeatLater() {
+            ShortCodePool pool = new ShortCodePool(reservations, properties(), clock);
+            pool.refill();
+            String code = pool.take();
+
+            clock.advance(Duration.ofSeconds(31));
+            pool.refill();
+            assertThat(reservations.isReserved(code)).isTrue();
+
+            clock.advance(Duration.ofSeconds(31));
+            pool.refill();
+            assertThat(reservations.isReserved(code)).isFalse();
+        }
+
+        @Test
+        @DisplayName("崩溃节点的预留应该被接管，已使用的直接删除")
+        void shouldReclaimCodesOfCrashedNode() {
+            ShortCodePool crashed = new ShortCodePool(reservations, properties(), clock);
+            crashed.refill();
+            String used = crashed.take();
+            jdbcTemplate.update("INSERT INTO short_links (id, short_code) VALUES (1, ?)", used);
+
+            clock.advance(Duration.ofMinutes(6));
+            ShortCodePool survivor = new ShortCodePool(reservations, properties(), clock);
+            survivor.refill();
+
+            assertThat(survivor.getReclaimed()).isEqualTo(99);
+            assertThat(survivor.getDepth()).isEqualTo(100);
+            assertThat(reservations.isReserved(used)).isFalse();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM code_reservations WHERE owner = ?", Integer.class, survivor.getOwner()))
+                    .isEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("启动后补充线程应该补满池，停止后删除未使用短码的预留行")
+        void shouldReleaseUnusedCodesOnStop() {
+            ShortCodePool pool = new ShortCodePool(reservations, properties(), clock);
+            pool.start();
+            await().atMost(Duration.ofSeconds(5)).until(() -> pool.getDepth() == 100);
+
+            pool.stop();
+
+            assertThat(count()).isZero();
+            assertThat(pool.getDepth()).isZero();
+        }
+
+        @Test
+        @DisplayName("应该注册池深度与补充耗时指标")
+        void shouldExposeMetrics() {
+            ShortCodePool pool = new ShortCodePool(reservations, properties(), clock);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            pool.bindTo(registry);
+
+            pool.refill();
+            pool.take();
+
+            assertThat(registry.get(ShortCodePool.DEPTH).gauge().value()).isEqualTo(99);
+            // 100个短码按batch-size=40分3批补充
+            assertThat(registry.get(ShortCodePool.REFILL).functionTimer().count()).isEqualTo(3);
+            assertThat(registry.get(ShortCodePool.MISSES).functionCounter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("接管时间不大于心跳间隔两倍时应该拒绝启动")
+        void shouldRejectReclaimAfterTooShort() {
+            CodePoolProperties properties = properties();
+            properties.setReclaimAfter(Duration.ofSeconds(60));
+
+            assertThatThrownBy(() -> new ShortCodePool(reservations, properties, clock))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Service")
+    class ServiceTests {
+
+        @Test
+        @DisplayName("开启短码池后创建系统短链接应该使用池中短码，只保存一次")
+        void shouldInsertOnceWithPooledCode() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            ShortCodePool pool = mock(ShortCodePool.class);
+            when(pool.take()).thenReturn("Xy7Qa2b");
+            ShortLinkService service = service(repository, pool);
+            when(repository.findByLongUrl(anyString())).thenReturn(Optional.empty());
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            ShortLink created = service.createShortLink("https://example.com/pooled");
+            service.getShortLinkInfo("Xy7Qa2b");
+
+            assertThat(created.getShortCode()).isEqualTo("Xy7Qa2b");
+            verify(repository, times(1)).save(any(ShortLink.class));
+            verify(repository).findByShortCode("Xy7Qa2b");
+            verify(repository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("池中预留的短码不能作为自定义别名")
+        void shouldRejectReservedAlias() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            ShortCodePool pool = mock(ShortCodePool.class);
+            when(pool.isReserved("Xy7Qa2b")).thenReturn(true);
+            ShortLinkService service = service(repository, pool);
+
+            assertThat(service.isShortCodeAvailable("Xy7Qa2b")).isFalse();
+            assertThatThrownBy(() -> service.createCustomShortLink("https://example.com/alias", "Xy7Qa2b", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("已被占用");
+            verify(repository, never()).save(any(ShortLink.class));
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM code_reservations", Integer.class);
+    }
+
+    private static CodePoolProperties properties() {
+        CodePoolProperties properties = new CodePoolProperties();
+        properties.setEnabled(true);
+        properties.setCapacity(100);
+        properties.setLowWaterMark(25);
+        properties.setBatchSize(40);
+        return properties;
+    }
+
+    private static ShortLinkService service(ShortLinkRepository repository, ShortCodePool pool) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("shortCodePool", pool);
+        return new ShortLinkService(repository,
+                beans.getBeanProvider(ClickEventPublisher.class),
+                beans.getBeanProvider(RedirectMetrics.class),
+                beans.getBeanProvider(ShortCodeCodec.class),
+                beans.getBeanProvider(NearLinkCache.class),
+                beans.getBeanProvider(ShortLinkPartitions.class),
+                beans.getBeanProvider(ReplicaRouting.class),
+                beans.getBeanProvider(IdGenerator.class),
+                beans.getBeanProvider(ShortCodePool.class),
+                beans.getBeanProvider(AliasIndex.class),
+                beans.getBeanProvider(ReservedWords.class),
+                beans.getBeanProvider(UrlCanonicalizer.class),
+                beans.getBeanProvider(StringRedisTemplate.class));
+    }
+
+    /**
+     * 可手动推进的时钟
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.sunlight.linker.exercises.application;
+
+import com.sunlight.linker.application.ShortLinkLookup;
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.core.FeistelShortCodeCodec;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】短码主键查找测试
+ *
+ * 【进阶挑战 - 主键查找】
+ *
+ * 学习目标：
+ * ✅ 验证系统短码解码后走主键查找，不再访问短码索引
+ * ✅ 验证自定义别名（包括恰好落在编码空间内的别名）回退到短码索引
+ * ✅ 验证非规范形式的短码（带前导零）不会被当作系统短码
+ * ✅ 验证分区表下别名查找带上登记的创建时间，只访问一个分区
+ */
+@DisplayName("【练习】短码主键查找测试")
+class ShortLinkLookupExercise {
+
+    private ShortLinkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ShortLinkRepository.class);
+    }
+
+    @Nested
+    @DisplayName("顺序短码")
+    class SequentialTests {
+
+        private ShortLinkLookup lookup;
+
+        @BeforeEach
+        void setUp() {
+            lookup = new ShortLinkLookup(repository, ShortCodeCodec.sequential());
+        }
+
+        @Test
+        @DisplayName("系统短码应该只走主键查找")
+        void shouldUsePrimaryKeyForSystemCode() {
+            ShortLink link = link(125L, Base62Converter.encode(125L), false);
+            when(repository.findById(125L)).thenReturn(Optional.of(link));
+
+            assertThat(lookup.find(link.getShortCode())).containsSame(link);
+            verify(repository, never()).findByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("落在编码空间内的自定义别名应该回退到短码索引")
+        void shouldFallBackWhenPrimaryKeyRowHasOtherCode() {
+            long decoded = Base62Converter.decode("mylink");
+            ShortLink unrelated = link(decoded, "zzz", false);
+            ShortLink alias = link(7L, "mylink", true);
+            when(repository.findById(decoded)).thenReturn(Optional.of(unrelated));
+            when(repository.findByShortCode("mylink")).thenReturn(Optional.of(alias));
+
+            assertThat(lookup.find("mylink")).containsSame(alias);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"007", "my-link", "zzzzzzzzzzzz"})
+        @DisplayName("不在编码空间内的短码应该直接走短码索引")
+        void shouldSkipPrimaryKeyForForeignCodes(String shortCode) {
+            when(repository.findByShortCode(shortCode)).thenReturn(Optional.empty());
+
+            assertThat(lookup.find(shortCode)).isEmpty();
+            verify(repository, never()).findById(anyLong());
+            verify(repository).findByShortCode(shortCode);
+        }
+    }
+
+    @Nested
+    @DisplayName("混淆短码")
+    class FeistelTests {
+
+        private final FeistelShortCodeCodec codec = new FeistelShortCodeCodec("test-secret", 6);
+
+        @Test
+        @DisplayName("混淆短码应该解码为主键")
+        void shouldDecodeObfuscatedCode() {
+            String shortCode = codec.encode(42L);
+            ShortLink link = link(42L, shortCode, false);
+            when(repository.findById(42L)).thenReturn(Optional.of(link));
+
+            assertThat(new ShortLinkLookup(repository, codec).find(shortCode)).containsSame(link);
+            verify(repository, never()).findByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("短于最短长度的别名应该直接走短码索引")
+        void shouldSkipPrimaryKeyForShortAlias() {
+            new ShortLinkLookup(repository, codec).find("abc");
+
+            verify(repository, never()).findById(anyLong());
+            verify(repository).findByShortCode("abc");
+        }
+    }
+
+    @Nested
+    @DisplayName("分区表")
+    class PartitionedTests {
+
+        private ShortLinkPartitions partitions;
+        private ShortLinkLookup lookup;
+
+        @BeforeEach
+        void setUp() {
+            partitions = mock(ShortLinkPartitions.class);
+            lookup = new ShortLinkLookup(repository, ShortCodeCodec.sequential(), partitions);
+        }
+
+        @Test
+        @DisplayName("别名应该按登记的创建时间查找，只访问一个分区")
+        void shouldPruneAliasLookupByCreatedAt() {
+            LocalDateTime createdAt = LocalDateTime.of(2026, 10, 3, 12, 0);
+            ShortLink alias = link(7L, "my-link", true);
+            when(partitions.findAliasCreatedAt("my-link")).thenReturn(Optional.of(createdAt));
+            when(repository.findByShortCodeAndCreatedAt("my-link", createdAt)).thenReturn(Optional.of(alias));
+
+            assertThat(lookup.find("my-link")).containsSame(alias);
+            verify(repository, never()).findByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("未登记的别名应该直接返回empty，不逐个分区探测")
+        void shouldMissWithoutScanningPartitions() {
+            when(partitions.findAliasCreatedAt("my-link")).thenReturn(Optional.empty());
+
+            assertThat(lookup.find("my-link")).isEmpty();
+            verify(repository, never()).findByShortCode(anyString());
+            verify(repository, never()).findByShortCodeAndCreatedAt(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("系统短码仍然只走主键查找")
+        void shouldKeepPrimaryKeyPathForSystemCode() {
+            ShortLink link = link(125L, Base62Converter.encode(125L), false);
+            when(repository.findById(125L)).thenReturn(Optional.of(link));
+
+            assertThat(lookup.find(link.getShortCode())).containsSame(link);
+            verifyNoInteractions(partitions);
+        }
+    }
+
+    private static ShortLink link(long id, String shortCode, boolean customAlias) {
+        ShortLink link = new ShortLink("https://www.example.com/" + id, shortCode);
+        link.setIsCustomAlias(customAlias);
+        ReflectionTestUtils.setField(link, "id", id);
+        return link;
+    }
+}
@@ -1,7 +1,10 @@
 package com.sunlight.linker.exercises.application;
 
+import com.sunlight.linker.application.RedirectTarget;
+import com.sunlight.linker.application.ShortLinkCacheKeys;
 import com.sunlight.linker.application.ShortLinkService;
 import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.domain.RedirectPolicy;
 import com.sunlight.linker.domain.ShortLink;
 import com.sunlight.linker.infrastructure.ShortLinkRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,14 +17,18 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
@@ -74,6 +81,15 @@ class ShortLinkServiceExercise {
     @MockBean
     private ShortLinkRepository shortLinkRepository;
     
+    /**
+     * 共享Redis（模拟），验证修改短链接后删除缓存键的时机
+     */
+    @MockBean
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     /**
      * 测试数据准备
      */
@@ -374,6 +390,84 @@ class ShortLinkServiceExercise {
         }
     }
 
+    /**
+     * 重定向策略测试组
+     */
+    @Nested
+    @DisplayName("重定向策略测试")
+    class RedirectPolicyTests {
+
+        @Test
+        @DisplayName("解析重定向目标应该带上短链接的策略并计数")
+        void shouldResolveRedirectWithPolicy() {
+            testShortLink.setRedirectPolicy(RedirectPolicy.PERMANENT_REDIRECT);
+            when(shortLinkRepository.findByShortCode(VALID_SHORT_CODE)).thenReturn(Optional.of(testShortLink));
+            when(shortLinkRepository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Optional<RedirectTarget> result = shortLinkService.resolveRedirect(VALID_SHORT_CODE);
+
+            assertThat(result).contains(new RedirectTarget(VALID_LONG_URL, RedirectPolicy.PERMANENT_REDIRECT));
+            verify(shortLinkRepository, times(1)).save(testShortLink);
+        }
+
+        @Test
+        @DisplayName("新建短链接默认使用302策略")
+        void shouldDefaultToFound() {
+            assertThat(new ShortLink(VALID_LONG_URL, VALID_SHORT_CODE).getRedirectPolicy())
+                    .isEqualTo(RedirectPolicy.FOUND);
+        }
+
+        @Test
+        @DisplayName("应该修改并保存重定向策略")
+        void shouldUpdateRedirectPolicy() {
+            when(shortLinkRepository.findByShortCode(VALID_SHORT_CODE)).thenReturn(Optional.of(testShortLink));
+            when(shortLinkRepository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Optional<ShortLink> result = shortLinkService.updateRedirectPolicy(VALID_SHORT_CODE,
+                    RedirectPolicy.MOVED_PERMANENTLY);
+
+            assertThat(result).map(ShortLink::getRedirectPolicy).contains(RedirectPolicy.MOVED_PERMANENTLY);
+            verify(stringRedisTemplate).delete(ShortLinkCacheKeys.shortLink(VALID_SHORT_CODE));
+        }
+
+        @Test
+        @DisplayName("Redis中的短链接缓存应该在事务提交后才删除")
+        void shouldEvictSharedCacheAfterCommit() {
+            when(shortLinkRepository.findByShortCode(VALID_SHORT_CODE)).thenReturn(Optional.of(testShortLink));
+            when(shortLinkRepository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                shortLinkService.updateRedirectPolicy(VALID_SHORT_CODE, RedirectPolicy.PERMANENT_REDIRECT);
+                verify(stringRedisTemplate, never()).delete(anyString());
+            });
+
+            verify(stringRedisTemplate).delete(ShortLinkCacheKeys.shortLink(VALID_SHORT_CODE));
+        }
+
+        @Test
+        @DisplayName("事务回滚时不应该删除缓存")
+        void shouldNotEvictOnRollback() {
+            when(shortLinkRepository.findByShortCode(VALID_SHORT_CODE)).thenReturn(Optional.of(testShortLink));
+            when(shortLinkRepository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                shortLinkService.updateRedirectPolicy(VALID_SHORT_CODE, RedirectPolicy.PERMANENT_REDIRECT);
+                status.setRollbackOnly();
+            });
+
+            verify(stringRedisTemplate, never()).delete(anyString());
+        }
+
+        @Test
+        @DisplayName("策略为空应该抛出异常")
+        void shouldRejectNullPolicy() {
+            assertThatThrownBy(() -> shortLinkService.updateRedirectPolicy(VALID_SHORT_CODE, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("重定向策略不能为空");
+            verify(shortLinkRepository, never()).save(any(ShortLink.class));
+        }
+    }
+
     /**
      * 自定义别名功能测试组
      */
@@ -443,6 +537,19 @@ class ShortLinkServiceExercise {
             verify(shortLinkRepository, never()).save(any(ShortLink.class));
         }
 
+        /**
+         * 测试保留词检查不区分大小写
+         */
+        @Test
+        @DisplayName("大写的系统保留词也应该被拒绝")
+        void shouldThrowExceptionForUpperCaseReservedAlias() {
+            assertThatThrownBy(() -> shortLinkService.createCustomShortLink(VALID_LONG_URL, "Admin", "description"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("自定义别名不能使用系统保留词: Admin");
+
+            verify(shortLinkRepository, never()).save(any(ShortLink.class));
+        }
+
         /**
          * 测试超长的自定义别名
          */
@@ -509,6 +616,33 @@ class ShortLinkServiceExercise {
 
             assertThat(shortLinkService.isShortCodeAvailable(occupiedCode)).isFalse();
         }
+
+        @Test
+        @DisplayName("批量检查应该只执行一次数据库查询")
+        void shouldCheckAvailabilityWithOneQuery() {
+            when(shortLinkRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of("promo"));
+
+            Set<String> unavailable = shortLinkService.findUnavailable(List.of("promo", " promo2026 ", "bad-code"));
+
+            assertThat(unavailable).containsExactlyInAnyOrder("promo", "bad-code");
+            verify(shortLinkRepository).findExistingShortCodes(List.of("promo", "promo2026"));
+            verify(shortLinkRepository, never()).existsByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("别名建议应该限制数量，并且所有候选只查询一次数据库")
+        void shouldCapSuggestionsAndQueryOnce() {
+            when(shortLinkRepository.findExistingShortCodes(anyCollection()))
+                    .thenReturn(List.of("promo1", "promo2", "promo4"));
+
+            List<String> suggestions = shortLinkService.suggestAliases("promo", 1_000);
+
+            assertThat(suggestions).hasSize(ShortLinkService.MAX_SUGGESTIONS)
+                    .startsWith("promo3", "promo5", "promo6")
+                    .doesNotContain("promo1", "promo2", "promo4");
+            verify(shortLinkRepository, times(1)).findExistingShortCodes(anyCollection());
+            verify(shortLinkRepository, never()).existsByShortCode(anyString());
+        }
     }
 
     /**
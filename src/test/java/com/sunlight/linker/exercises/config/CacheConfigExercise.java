@@ -0,0 +1,86 @@
+package com.sunlight.linker.exercises.config;
+
+import com.sunlight.linker.config.CacheConfig;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】CacheConfig 序列化器测试
+ *
+ * 【纯单元测试】
+ *
+ * 学习目标：
+ * ✅ 验证缓存中的ShortLink可以完整往返（写入后能被读回）
+ * ✅ 验证派生属性不会写入缓存，旧格式的缓存值仍然可读
+ * ✅ 验证过期时间随缓存往返，缓存命中时也能检查过期
+ */
+@DisplayName("【练习】CacheConfig 序列化器测试")
+class CacheConfigExercise {
+
+    private final RedisSerializer<Object> valueSerializer = CacheConfig.valueSerializer();
+
+    @Test
+    @DisplayName("ShortLink序列化后应该能够反序列化回相同的值")
+    void shouldRoundTripShortLink() {
+        ShortLink shortLink = new ShortLink("https://www.example.com", "aB3xY9");
+        ReflectionTestUtils.setField(shortLink, "id", 42L);
+        shortLink.setAccessCount(1001L);
+        shortLink.setRedirectPolicy(RedirectPolicy.PERMANENT_REDIRECT);
+
+        Object restored = valueSerializer.deserialize(valueSerializer.serialize(shortLink));
+
+        assertThat(restored).isInstanceOf(ShortLink.class);
+        ShortLink restoredLink = (ShortLink) restored;
+        assertThat(restoredLink.getId()).isEqualTo(42L);
+        assertThat(restoredLink.getLongUrl()).isEqualTo("https://www.example.com");
+        assertThat(restoredLink.getShortCode()).isEqualTo("aB3xY9");
+        assertThat(restoredLink.getAccessCount()).isEqualTo(1001L);
+        assertThat(restoredLink.getRedirectPolicy()).isEqualTo(RedirectPolicy.PERMANENT_REDIRECT);
+    }
+
+    @Test
+    @DisplayName("过期时间应该随缓存往返，读回后仍能判断是否过期")
+    void shouldRoundTripExpiresAt() {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 1, 8, 30);
+        ShortLink shortLink = new ShortLink("https://www.example.com", "aB3xY9");
+        shortLink.setExpiresAt(expiresAt);
+
+        ShortLink restored = (ShortLink) valueSerializer.deserialize(valueSerializer.serialize(shortLink));
+
+        assertThat(restored.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(restored.isExpiredAt(expiresAt.minusSeconds(1))).isFalse();
+        assertThat(restored.isExpiredAt(expiresAt)).isTrue();
+    }
+
+    @Test
+    @DisplayName("派生属性不应该写入缓存")
+    void shouldNotSerializeDerivedProperties() {
+        ShortLink shortLink = new ShortLink("https://www.example.com", "aB3xY9");
+
+        String json = new String(valueSerializer.serialize(shortLink), StandardCharsets.UTF_8);
+
+        assertThat(json).doesNotContain("hotLink").doesNotContain("systemGenerated");
+    }
+
+    @Test
+    @DisplayName("包含派生属性的旧缓存值应该仍然可以读取")
+    void shouldReadLegacyCacheValue() {
+        String legacy = "{\"@class\":\"com.sunlight.linker.domain.ShortLink\",\"id\":7,"
+                + "\"longUrl\":\"https://www.example.com\",\"shortCode\":\"abc\",\"isCustomAlias\":false,"
+                + "\"accessCount\":3,\"hotLink\":false,\"systemGenerated\":true}";
+
+        Object restored = valueSerializer.deserialize(legacy.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(restored).isInstanceOf(ShortLink.class);
+        assertThat(((ShortLink) restored).getShortCode()).isEqualTo("abc");
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.ConsistentHashRing;
+import com.sunlight.linker.core.ShardedIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】一致性哈希环与分片ID测试
+ *
+ * 【进阶挑战 - 水平分片】
+ *
+ * 学习目标：
+ * ✅ 验证虚拟节点让键在各分片上大致均匀分布
+ * ✅ 验证新增分片时只有约 1/(N+1) 的键改变归属，且只会移到新分片
+ * ✅ 验证全局ID的分片号与序列号可以无损拆分
+ */
+@DisplayName("【练习】一致性哈希环与分片ID测试")
+class ConsistentHashRingExercise {
+
+    private static final int KEYS = 100_000;
+
+    @Nested
+    @DisplayName("哈希环")
+    class RingTests {
+
+        @Test
+        @DisplayName("160个虚拟节点时各分片的键数偏差应该在±15%以内")
+        void shouldDistributeKeysEvenly() {
+            ConsistentHashRing ring = new ConsistentHashRing(4, 160);
+            int[] counts = new int[4];
+            for (int i = 0; i < KEYS; i++) {
+                counts[ring.shardFor("https://example.com/page/" + i)]++;
+            }
+
+            for (int count : counts) {
+                assertThat(count).isBetween((int) (KEYS / 4 * 0.85), (int) (KEYS / 4 * 1.15));
+            }
+        }
+
+        @Test
+        @DisplayName("从4个分片扩到5个时约1/5的键迁移，且只迁往新分片")
+        void shouldMoveOnlyKeysOwnedByNewShard() {
+            ConsistentHashRing before = new ConsistentHashRing(4, 160);
+            ConsistentHashRing after = new ConsistentHashRing(5, 160);
+            int moved = 0;
+            for (int i = 0; i < KEYS; i++) {
+                String key = "alias" + i;
+                int from = before.shardFor(key);
+                int to = after.shardFor(key);
+                if (from != to) {
+                    assertThat(to).isEqualTo(4);
+                    moved++;
+                }
+            }
+
+            assertThat((double) moved / KEYS).isBetween(0.15, 0.25);
+        }
+
+        @Test
+        @DisplayName("同一个键总是落在同一个分片")
+        void shouldBeDeterministic() {
+            ConsistentHashRing first = new ConsistentHashRing(3, 100);
+            ConsistentHashRing second = new ConsistentHashRing(3, 100);
+
+            for (int i = 0; i < 1000; i++) {
+                assertThat(first.shardFor("k" + i)).isEqualTo(second.shardFor("k" + i));
+            }
+        }
+
+        @Test
+        @DisplayName("非正数参数应该抛出IllegalArgumentException")
+        void shouldRejectInvalidArguments() {
+            assertThatThrownBy(() -> new ConsistentHashRing(0, 160))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new ConsistentHashRing(2, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("分片ID")
+    class ShardedIdTests {
+
+        @Test
+        @DisplayName("组合后应该能拆回分片号与序列号")
+        void shouldRoundTrip() {
+            long id = ShardedIds.compose(123_456L, 7);
+
+            assertThat(ShardedIds.shardOf(id)).isEqualTo(7);
+            assertThat(ShardedIds.localIdOf(id)).isEqualTo(123_456L);
+        }
+
+        @Test
+        @DisplayName("不同分片的相同序列号应该得到不同的ID")
+        void shouldNotCollideAcrossShards() {
+            assertThat(ShardedIds.compose(1, 0)).isNotEqualTo(ShardedIds.compose(1, 1));
+        }
+
+        @Test
+        @DisplayName("超出范围的分片号或序列号应该抛出IllegalArgumentException")
+        void shouldRejectOutOfRange() {
+            assertThatThrownBy(() -> ShardedIds.compose(1, ShardedIds.MAX_SHARDS))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> ShardedIds.compose(0, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> ShardedIds.compose(Long.MAX_VALUE, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.core.FeistelShortCodeCodec;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】Feistel短码混淆测试
+ *
+ * 【进阶挑战 - 短码混淆】
+ *
+ * 学习目标：
+ * ✅ 验证置换是双射：同一长度区间内没有冲突，编码后可以还原ID
+ * ✅ 验证长度分层：ID超出区间后短码逐位变长，非本区间的短码被拒绝
+ * ✅ 验证密钥的作用：不同密钥得到不同的映射，连续ID不再得到连续短码
+ */
+@DisplayName("【练习】Feistel短码混淆测试")
+class FeistelShortCodeCodecExercise {
+
+    private static final String KEY = "test-secret";
+
+    private final FeistelShortCodeCodec codec = new FeistelShortCodeCodec(KEY, 6);
+
+    @Nested
+    @DisplayName("双射性质")
+    class BijectionTests {
+
+        @Test
+        @DisplayName("两位区间内的所有ID应该得到互不相同的两位短码")
+        void shouldPermuteWholeTier() {
+            FeistelShortCodeCodec small = new FeistelShortCodeCodec(KEY, 2);
+            Set<String> codes = new HashSet<>();
+            for (long id = 0; id < 62 * 62; id++) {
+                String code = small.encode(id);
+                assertThat(code).hasSize(2);
+                assertThat(small.decode(code)).isEqualTo(id);
+                codes.add(code);
+            }
+            assertThat(codes).hasSize(62 * 62);
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = {0L, 1L, 56_800_235_583L, 56_800_235_584L, 1_000_000_007L, 839_299_365_868_340_223L})
+        @DisplayName("编码后解码应该得到原ID")
+        void shouldRoundTrip(long id) {
+            String code = codec.encode(id);
+
+            assertThat(Base62Converter.isValidBase62(code)).isTrue();
+            assertThat(codec.decode(code)).isEqualTo(id);
+        }
+
+        @Test
+        @DisplayName("连续ID的短码不应该是连续的")
+        void shouldNotLookSequential() {
+            String first = codec.encode(1000);
+            String second = codec.encode(1001);
+
+            assertThat(Math.abs(Base62Converter.decode(second) - Base62Converter.decode(first))).isGreaterThan(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("长度分层")
+    class LengthTierTests {
+
+        @Test
+        @DisplayName("短码长度应该从最短长度开始随ID增长")
+        void shouldGrowWithId() {
+            assertThat(codec.encode(0)).hasSize(6);
+            assertThat(codec.encode(56_800_235_583L)).hasSize(6);   // 62^6 - 1
+            assertThat(codec.encode(56_800_235_584L)).hasSize(7);   // 62^6
+        }
+
+        @Test
+        @DisplayName("超出十位区间的ID应该编码为十一位，直到long的上限")
+        void shouldEncodeBeyondTenCharacters() {
+            long tenCharLimit = 839_299_365_868_340_224L;  // 62^10
+            for (long id : new long[] {tenCharLimit - 1, tenCharLimit, tenCharLimit + 1, Long.MAX_VALUE}) {
+                String code = codec.encode(id);
+                assertThat(code).as("id %d", id).hasSize(id < tenCharLimit ? 10 : 11);
+                assertThat(codec.decode(code)).isEqualTo(id);
+            }
+            // Snowflake ID（时间戳左移22位）在纪元之后约6.3年超过62^10，之后仍然可以编码
+            long snowflakeAfterTenYears = (10 * 365L * 24 * 3600 * 1000) << 22;
+            assertThat(codec.decode(codec.encode(snowflakeAfterTenYears))).isEqualTo(snowflakeAfterTenYears);
+
+            assertThatThrownBy(() -> codec.encode(-1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            // 超出long范围的十一位字符串不可能由encode产生
+            assertThat(codec.tryDecode("zzzzzzzzzzz")).isEmpty();
+            assertThat(codec.tryDecode("zzzzzzzzzzzz")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("不属于编码空间的短码应该被拒绝")
+        void shouldRejectForeignCodes() {
+            FeistelShortCodeCodec small = new FeistelShortCodeCodec(KEY, 2);
+            // 三位短码中约1/62会逆置换到两位区间，它们不可能由encode产生
+            long rejected = 0;
+            for (long value = 0; value < 62 * 62 * 62; value++) {
+                String code = Base62Converter.encode(value, 3);
+                try {
+                    long id = small.decode(code);
+                    assertThat(small.encode(id)).isEqualTo(code);
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                }
+            }
+
+            assertThat(rejected).isEqualTo(62 * 62);
+            assertThatThrownBy(() -> codec.decode("abc")).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> codec.decode("abc-12")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("密钥与配置")
+    class KeyTests {
+
+        @Test
+        @DisplayName("不同密钥应该得到不同的映射")
+        void shouldDependOnKey() {
+            FeistelShortCodeCodec other = new FeistelShortCodeCodec("another-secret", 6);
+
+            assertThat(other.encode(12345)).isNotEqualTo(codec.encode(12345));
+            assertThat(new FeistelShortCodeCodec(KEY, 6).encode(12345)).isEqualTo(codec.encode(12345));
+        }
+
+        @Test
+        @DisplayName("空密钥或非法长度应该被拒绝")
+        void shouldValidateArguments() {
+            assertThatThrownBy(() -> new FeistelShortCodeCodec("", 6)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new FeistelShortCodeCodec(KEY, 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new FeistelShortCodeCodec(KEY, 11)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("顺序编解码器应该与Base62Converter一致")
+        void sequentialCodecShouldMatchBase62() {
+            assertThat(ShortCodeCodec.sequential().encode(125)).isEqualTo(Base62Converter.encode(125));
+            assertThat(ShortCodeCodec.sequential().decode("1Z")).isEqualTo(123);
+        }
+    }
+
+    @Test
+    @DisplayName("ShortLinkService应该使用注入的编解码器生成短码且不检查短码是否存在")
+    void serviceShouldUseInjectedCodec() {
+        ShortLinkRepository repository = mock(ShortLinkRepository.class);
+        when(repository.findByLongUrl(any())).thenReturn(Optional.empty());
+        when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> {
+            ShortLink link = invocation.getArgument(0);
+            ReflectionTestUtils.setField(link, "id", 42L);
+            return link;
+        });
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("shortCodeCodec", codec);
+        ShortLinkService service = new ShortLinkService(repository,
+                beanFactory.getBeanProvider(ClickEventPublisher.class),
+                beanFactory.getBeanProvider(RedirectMetrics.class),
+                beanFactory.getBeanProvider(ShortCodeCodec.class),
+                beanFactory.getBeanProvider(NearLinkCache.class),
+                beanFactory.getBeanProvider(ShortLinkPartitions.class),
+                beanFactory.getBeanProvider(ReplicaRouting.class),
+                beanFactory.getBeanProvider(IdGenerator.class),
+                beanFactory.getBeanProvider(ShortCodePool.class),
+                beanFactory.getBeanProvider(AliasIndex.class),
+                beanFactory.getBeanProvider(ReservedWords.class),
+                beanFactory.getBeanProvider(UrlCanonicalizer.class),
+                beanFactory.getBeanProvider(StringRedisTemplate.class));
+
+        ShortLink created = service.createShortLink("https://www.example.com");
+
+        assertThat(created.getShortCode()).isEqualTo(codec.encode(42L));
+        verify(repository, never()).existsByShortCode(any());
+    }
+}
@@ -0,0 +1,87 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.MinimalPerfectHash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】最小完美哈希测试
+ *
+ * 【进阶挑战 - 紧凑索引】
+ *
+ * 学习目标：
+ * ✅ 验证n个键恰好映射到 [0, n) 的n个不同位置
+ * ✅ 验证pilots的内存约为每键1字节
+ * ✅ 验证相同的键哈希会被拒绝，由调用方换种子重试
+ */
+@DisplayName("【练习】最小完美哈希测试")
+class MinimalPerfectHashExercise {
+
+    @ParameterizedTest(name = "{0}个键")
+    @ValueSource(ints = {1, 2, 3, 7, 100, 10_000, 200_000})
+    @DisplayName("每个键应该得到互不相同的位置，且位置恰好覆盖 [0, n)")
+    void shouldMapKeysToDistinctSlots(int n) {
+        long[] hashes = randomHashes(n, n);
+
+        MinimalPerfectHash mph = MinimalPerfectHash.build(hashes);
+
+        assertThat(mph.size()).isEqualTo(n);
+        BitSet seen = new BitSet(n);
+        for (long h : hashes) {
+            int slot = mph.slotOf(h);
+            assertThat(slot).isBetween(0, n - 1);
+            assertThat(seen.get(slot)).as("位置 %d 被重复使用", slot).isFalse();
+            seen.set(slot);
+        }
+        assertThat(seen.cardinality()).isEqualTo(n);
+    }
+
+    @Test
+    @DisplayName("pilots应该约为每键1字节，不在集合中的哈希也落在 [0, n) 内")
+    void shouldStayCompact() {
+        int n = 100_000;
+        MinimalPerfectHash mph = MinimalPerfectHash.build(randomHashes(n, 1));
+
+        assertThat(mph.memoryBytes()).isLessThanOrEqualTo(n + Integer.BYTES);
+        SplittableRandom random = new SplittableRandom(99);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(mph.slotOf(random.nextLong())).isBetween(0, n - 1);
+        }
+    }
+
+    @Test
+    @DisplayName("空集合的任何查找都应该返回-1")
+    void shouldHandleEmptySet() {
+        MinimalPerfectHash mph = MinimalPerfectHash.build(new long[0]);
+
+        assertThat(mph.size()).isZero();
+        assertThat(mph.slotOf(42L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("存在相同的键哈希时应该抛出IllegalArgumentException")
+    void shouldRejectDuplicateHashes() {
+        long[] hashes = randomHashes(1000, 7);
+        hashes[500] = hashes[10];
+
+        assertThatThrownBy(() -> MinimalPerfectHash.build(hashes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("相同的键哈希");
+    }
+
+    private static long[] randomHashes(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = random.nextLong();
+        }
+        return hashes;
+    }
+}
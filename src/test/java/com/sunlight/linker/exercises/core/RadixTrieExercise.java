@@ -0,0 +1,180 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.RadixTrie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】压缩前缀树测试
+ *
+ * 【进阶挑战 - 前缀树】
+ *
+ * 学习目标：
+ * ✅ 验证标签分裂（新键是已有键的前缀、与已有键部分重合）后查找仍然正确
+ * ✅ 验证删除后前缀与兄弟键不受影响
+ * ✅ 验证前缀查询（前缀停在边中间、限制数量）按字典序返回
+ * ✅ 用随机操作序列与HashSet、TreeSet对照
+ */
+@DisplayName("【练习】压缩前缀树测试")
+class RadixTrieExercise {
+
+    @Nested
+    @DisplayName("添加与查找")
+    class AddTests {
+
+        @Test
+        @DisplayName("前缀关系的键应该互不影响")
+        void shouldDistinguishPrefixes() {
+            RadixTrie trie = new RadixTrie();
+            trie.add("promo2026");
+            trie.add("promo");
+            trie.add("profile");
+
+            assertThat(trie.contains("promo")).isTrue();
+            assertThat(trie.contains("promo2026")).isTrue();
+            assertThat(trie.contains("profile")).isTrue();
+            assertThat(trie.contains("pro")).isFalse();
+            assertThat(trie.contains("promo20")).isFalse();
+            assertThat(trie.contains("promo20260")).isFalse();
+            assertThat(trie.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("重复添加应该返回false，大小不变")
+        void shouldIgnoreDuplicates() {
+            RadixTrie trie = new RadixTrie();
+
+            assertThat(trie.add("brand")).isTrue();
+            assertThat(trie.add("brand")).isFalse();
+            assertThat(trie.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("大小写不同的别名应该是不同的键")
+        void shouldBeCaseSensitive() {
+            RadixTrie trie = new RadixTrie();
+            trie.add("Brand");
+
+            assertThat(trie.contains("brand")).isFalse();
+        }
+
+        @Test
+        @DisplayName("空串应该被拒绝")
+        void shouldRejectEmptyKey() {
+            assertThatThrownBy(() -> new RadixTrie().add(""))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("删除")
+    class RemoveTests {
+
+        @Test
+        @DisplayName("删除中间键后前缀与后代键应该保留")
+        void shouldKeepRelatedKeys() {
+            RadixTrie trie = new RadixTrie();
+            trie.add("promo");
+            trie.add("promo2026");
+            trie.add("promo2027");
+
+            assertThat(trie.remove("promo")).isTrue();
+            assertThat(trie.remove("promo")).isFalse();
+            assertThat(trie.remove("promo202")).isFalse();
+
+            assertThat(trie.contains("promo")).isFalse();
+            assertThat(trie.contains("promo2026")).isTrue();
+            assertThat(trie.contains("promo2027")).isTrue();
+            assertThat(trie.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("随机添加删除的结果应该与HashSet一致")
+        void shouldMatchHashSet() {
+            RadixTrie trie = new RadixTrie();
+            Set<String> expected = new HashSet<>();
+            Random random = new Random(42);
+            for (int i = 0; i < 20_000; i++) {
+                // 小字母表、短键，制造大量共享前缀与分裂合并
+                String key = randomKey(random);
+                if (random.nextInt(3) == 0) {
+                    assertThat(trie.remove(key)).isEqualTo(expected.remove(key));
+                } else {
+                    assertThat(trie.add(key)).isEqualTo(expected.add(key));
+                }
+            }
+
+            assertThat(trie.size()).isEqualTo(expected.size());
+            for (int i = 0; i < 5_000; i++) {
+                String key = randomKey(random);
+                assertThat(trie.contains(key)).as(key).isEqualTo(expected.contains(key));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("前缀查询")
+    class PrefixTests {
+
+        @Test
+        @DisplayName("应该按字典序返回以前缀开头的键，前缀可以停在边中间")
+        void shouldListKeysWithPrefix() {
+            RadixTrie trie = new RadixTrie();
+            for (String key : List.of("promo", "promo2026", "promo1", "profile", "pr", "racing")) {
+                trie.add(key);
+            }
+
+            assertThat(trie.keysWithPrefix("promo", 10)).containsExactly("promo", "promo1", "promo2026");
+            assertThat(trie.keysWithPrefix("prom", 10)).containsExactly("promo", "promo1", "promo2026");
+            assertThat(trie.keysWithPrefix("pro", 2)).containsExactly("profile", "promo");
+            assertThat(trie.keysWithPrefix("promo2", 10)).containsExactly("promo2026");
+            assertThat(trie.keysWithPrefix("promx", 10)).isEmpty();
+            assertThat(trie.keysWithPrefix("promo20261", 10)).isEmpty();
+            assertThat(trie.keysWithPrefix("", 3)).containsExactly("pr", "profile", "promo");
+            assertThat(trie.keysWithPrefix("promo", 0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("随机集合上的前缀查询应该与TreeSet一致")
+        void shouldMatchTreeSet() {
+            RadixTrie trie = new RadixTrie();
+            TreeSet<String> expected = new TreeSet<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 5_000; i++) {
+                String key = randomKey(random);
+                trie.add(key);
+                expected.add(key);
+            }
+
+            for (int i = 0; i < 2_000; i++) {
+                String key = randomKey(random);
+                String prefix = key.substring(0, Math.min(key.length(), random.nextInt(4)));
+                List<String> all = expected.subSet(prefix, true, prefix + Character.MAX_VALUE, false)
+                        .stream().toList();
+                int limit = 1 + random.nextInt(20);
+
+                assertThat(trie.keysWithPrefix(prefix, limit)).as(prefix)
+                        .isEqualTo(all.subList(0, Math.min(limit, all.size())));
+            }
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static String randomKey(Random random) {
+        char[] chars = new char[1 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = "abc1".charAt(random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
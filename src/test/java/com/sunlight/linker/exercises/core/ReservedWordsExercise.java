@@ -0,0 +1,107 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.ReservedWords;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】保留词完美哈希集合测试
+ *
+ * 【进阶挑战 - 校验快速路径】
+ *
+ * 学习目标：
+ * ✅ 验证默认保留词不区分大小写地命中
+ * ✅ 验证与保留词同哈希位置、同长度的其他单词不会误判
+ * ✅ 验证自定义列表的去重与非法输入
+ */
+@DisplayName("【练习】保留词完美哈希集合测试")
+class ReservedWordsExercise {
+
+    @Test
+    @DisplayName("默认保留词应该不区分大小写地命中")
+    void shouldMatchDefaultsIgnoringCase() {
+        ReservedWords words = ReservedWords.defaults();
+
+        assertThat(words.size()).isEqualTo(ReservedWords.DEFAULT_WORDS.size());
+        for (String word : ReservedWords.DEFAULT_WORDS) {
+            assertThat(words.contains(word)).as(word).isTrue();
+            assertThat(words.contains(word.toUpperCase())).as(word).isTrue();
+        }
+        assertThat(words.contains("AdMiN")).isTrue();
+    }
+
+    @Test
+    @DisplayName("非保留词不应该命中")
+    void shouldRejectOtherWords() {
+        ReservedWords words = ReservedWords.defaults();
+
+        assertThat(words.contains("")).isFalse();
+        assertThat(words.contains("apis")).isFalse();
+        assertThat(words.contains("ap")).isFalse();
+        assertThat(words.contains("admin1")).isFalse();
+        assertThat(words.contains("mails")).isFalse();
+        assertThat(words.contains("promo2026")).isFalse();
+    }
+
+    @Test
+    @DisplayName("与随机单词对照应该没有误判")
+    void shouldMatchHashSetOnRandomWords() {
+        ReservedWords words = ReservedWords.defaults();
+        Set<String> expected = new HashSet<>(ReservedWords.DEFAULT_WORDS);
+        Random random = new Random(48);
+        String alphabet = "aeilmnoprstwxAEILMNOPRSTW";
+
+        for (int i = 0; i < 200_000; i++) {
+            char[] chars = new char[1 + random.nextInt(10)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String candidate = new String(chars);
+            assertThat(words.contains(candidate)).as(candidate)
+                    .isEqualTo(expected.contains(candidate.toLowerCase()));
+        }
+    }
+
+    @Test
+    @DisplayName("自定义列表应该去重并忽略大小写和首尾空白")
+    void shouldBuildCustomList() {
+        ReservedWords words = ReservedWords.of(List.of("Promo", "promo", " status ", "LINKS"));
+
+        assertThat(words.size()).isEqualTo(3);
+        assertThat(words.contains("promo")).isTrue();
+        assertThat(words.contains("STATUS")).isTrue();
+        assertThat(words.contains("links")).isTrue();
+        assertThat(words.contains("admin")).isFalse();
+    }
+
+    @Test
+    @DisplayName("大量保留词也应该能构建")
+    void shouldBuildLargeList() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            list.add("word" + i);
+        }
+        ReservedWords words = ReservedWords.of(list);
+
+        assertThat(words.size()).isEqualTo(10_000);
+        assertThat(list).allMatch(words::contains);
+        assertThat(words.contains("word10000")).isFalse();
+    }
+
+    @Test
+    @DisplayName("空列表不包含任何词，空白保留词应该被拒绝")
+    void shouldHandleEmptyAndBlank() {
+        assertThat(ReservedWords.of(List.of()).contains("api")).isFalse();
+        assertThatThrownBy(() -> ReservedWords.of(List.of("api", " ")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("保留词不能为空");
+    }
+}
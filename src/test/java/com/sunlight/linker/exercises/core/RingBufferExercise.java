@@ -0,0 +1,256 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.ring.BatchEventProcessor;
+import com.sunlight.linker.core.ring.EventHandler;
+import com.sunlight.linker.core.ring.EventTranslator;
+import com.sunlight.linker.core.ring.OverflowPolicy;
+import com.sunlight.linker.core.ring.RingBuffer;
+import com.sunlight.linker.core.ring.Sequence;
+import com.sunlight.linker.core.ring.WaitStrategy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】RingBuffer 无锁环形缓冲区测试
+ *
+ * 【并发数据结构测试】
+ *
+ * 学习目标：
+ * ✅ 验证多生产者并发发布时事件不丢失、不重复
+ * ✅ 验证写满时DROP与BLOCK两种溢出策略
+ * ✅ 验证不同等待策略下消费者都能正确批量处理
+ */
+@DisplayName("【练习】RingBuffer 环形缓冲区测试")
+class RingBufferExercise {
+
+    /**
+     * 测试用的可复用事件
+     */
+    static class LongEvent {
+        long value;
+    }
+
+    private static final EventTranslator<LongEvent, Long> TRANSLATOR =
+            (event, sequence, value) -> event.value = value;
+
+    @Nested
+    @DisplayName("构造与发布")
+    class PublishTests {
+
+        @Test
+        @DisplayName("非2的幂的容量应该抛出异常")
+        void shouldRejectNonPowerOfTwoSize() {
+            assertThatThrownBy(() -> new RingBuffer<>(LongEvent::new, 1000,
+                    WaitStrategy.Type.SLEEPING.create(), OverflowPolicy.DROP))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("2的幂");
+        }
+
+        @Test
+        @DisplayName("DROP策略下缓冲区写满应该丢弃并计数")
+        void shouldDropWhenFull() {
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 4,
+                    WaitStrategy.Type.SLEEPING.create(), OverflowPolicy.DROP);
+            // 注册一个不前进的消费者序号，模拟消费者卡住
+            ringBuffer.addGatingSequences(new Sequence());
+
+            for (long i = 0; i < 4; i++) {
+                assertThat(ringBuffer.publishEvent(TRANSLATOR, i)).isTrue();
+            }
+
+            assertThat(ringBuffer.publishEvent(TRANSLATOR, 99L)).isFalse();
+            assertThat(ringBuffer.getDroppedEvents()).isEqualTo(1);
+            assertThat(ringBuffer.remainingCapacity()).isZero();
+        }
+
+        @Test
+        @DisplayName("序号回绕后可用性标记仍然正确")
+        void shouldTrackAvailabilityAcrossWraps() {
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 4,
+                    WaitStrategy.Type.SLEEPING.create(), OverflowPolicy.DROP);
+
+            for (long i = 0; i < 10; i++) {
+                long sequence = ringBuffer.tryNext();
+                assertThat(sequence).isEqualTo(i);
+                assertThat(ringBuffer.isAvailable(sequence)).isFalse();
+                ringBuffer.publish(sequence);
+                assertThat(ringBuffer.isAvailable(sequence)).isTrue();
+            }
+            // 被回绕覆盖的旧序号不再可用
+            assertThat(ringBuffer.isAvailable(5)).isFalse();
+            assertThat(ringBuffer.getHighestPublishedSequence(6, 9)).isEqualTo(9);
+        }
+    }
+
+    @Nested
+    @DisplayName("多生产者批量消费")
+    class ConsumeTests {
+
+        @ParameterizedTest(name = "等待策略 {0}")
+        @EnumSource(WaitStrategy.Type.class)
+        @Timeout(value = 30, unit = TimeUnit.SECONDS)
+        @DisplayName("多生产者发布的事件应该全部被消费且求和正确")
+        void shouldConsumeAllEventsFromMultipleProducers(WaitStrategy.Type type) throws Exception {
+            int producers = 4;
+            int eventsPerProducer = 50_000;
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 1024,
+                    type.create(), OverflowPolicy.BLOCK);
+
+            AtomicLong sum = new AtomicLong();
+            AtomicLong count = new AtomicLong();
+            AtomicLong batches = new AtomicLong();
+            EventHandler<LongEvent> handler = (event, sequence, endOfBatch) -> {
+                sum.addAndGet(event.value);
+                count.incrementAndGet();
+                if (endOfBatch) {
+                    batches.incrementAndGet();
+                }
+            };
+
+            BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ringBuffer, handler, 10);
+            ringBuffer.addGatingSequences(processor.getSequence());
+            Thread consumer = new Thread(processor, "ring-consumer");
+            consumer.start();
+
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Thread> producerThreads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (long i = 1; i <= eventsPerProducer; i++) {
+                        ringBuffer.publishEvent(TRANSLATOR, i);
+                    }
+                });
+                thread.start();
+                producerThreads.add(thread);
+            }
+
+            startLatch.countDown();
+            for (Thread thread : producerThreads) {
+                thread.join();
+            }
+            processor.halt();
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+
+            long expectedPerProducer = (long) eventsPerProducer * (eventsPerProducer + 1) / 2;
+            assertThat(count.get()).isEqualTo((long) producers * eventsPerProducer);
+            assertThat(sum.get()).isEqualTo(expectedPerProducer * producers);
+            assertThat(batches.get()).isPositive().isLessThanOrEqualTo(count.get());
+            assertThat(ringBuffer.getDroppedEvents()).isZero();
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("停止时应该回调onShutdown")
+        void shouldInvokeShutdownCallback() throws Exception {
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 8,
+                    WaitStrategy.Type.BLOCKING.create(), OverflowPolicy.BLOCK);
+            CountDownLatch shutdown = new CountDownLatch(1);
+            EventHandler<LongEvent> handler = new EventHandler<>() {
+                @Override
+                public void onEvent(LongEvent event, long sequence, boolean endOfBatch) {
+                }
+
+                @Override
+                public void onShutdown() {
+                    shutdown.countDown();
+                }
+            };
+
+            BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ringBuffer, handler, 5);
+            ringBuffer.addGatingSequences(processor.getSequence());
+            Thread consumer = new Thread(processor);
+            consumer.start();
+
+            ringBuffer.publishEvent(TRANSLATOR, 1L);
+            processor.halt();
+
+            assertThat(shutdown.await(5, TimeUnit.SECONDS)).isTrue();
+            consumer.join();
+            assertThat(processor.getSequence().get()).isEqualTo(0L);
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("注册消费者之前发布的事件不应该被跳过，已被覆盖的除外")
+        void shouldConsumeEventsPublishedBeforeRegistration() throws Exception {
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 4,
+                    WaitStrategy.Type.BLOCKING.create(), OverflowPolicy.DROP);
+            for (long i = 0; i < 6; i++) {
+                ringBuffer.publishEvent(TRANSLATOR, i);
+            }
+            List<Long> values = new ArrayList<>();
+            CountDownLatch consumed = new CountDownLatch(4);
+            EventHandler<LongEvent> handler = (event, sequence, endOfBatch) -> {
+                values.add(event.value);
+                consumed.countDown();
+            };
+
+            BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ringBuffer, handler, 5);
+            ringBuffer.addGatingSequences(processor.getSequence());
+            // 新消费者还没处理这4个槽位，生产者不能覆盖
+            assertThat(ringBuffer.publishEvent(TRANSLATOR, 6L)).isFalse();
+
+            Thread consumer = new Thread(processor);
+            consumer.start();
+            assertThat(consumed.await(5, TimeUnit.SECONDS)).isTrue();
+            processor.halt();
+            consumer.join();
+
+            // 0、1 在注册前已被回绕覆盖
+            assertThat(values).containsExactly(2L, 3L, 4L, 5L);
+        }
+
+        @Test
+        @Timeout(value = 10, unit = TimeUnit.SECONDS)
+        @DisplayName("线程被中断时应该处理完已发布的事件并回调onShutdown退出")
+        void shouldExitWhenInterrupted() throws Exception {
+            RingBuffer<LongEvent> ringBuffer = new RingBuffer<>(LongEvent::new, 8,
+                    WaitStrategy.Type.BLOCKING.create(), OverflowPolicy.BLOCK);
+            CountDownLatch consumed = new CountDownLatch(1);
+            CountDownLatch shutdown = new CountDownLatch(1);
+            EventHandler<LongEvent> handler = new EventHandler<>() {
+                @Override
+                public void onEvent(LongEvent event, long sequence, boolean endOfBatch) {
+                    consumed.countDown();
+                }
+
+                @Override
+                public void onShutdown() {
+                    shutdown.countDown();
+                }
+            };
+
+            BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(ringBuffer, handler, 60_000);
+            ringBuffer.addGatingSequences(processor.getSequence());
+            Thread consumer = new Thread(processor);
+            consumer.start();
+            ringBuffer.publishEvent(TRANSLATOR, 1L);
+            assertThat(consumed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            consumer.interrupt();
+
+            assertThat(shutdown.await(5, TimeUnit.SECONDS)).isTrue();
+            consumer.join(5_000);
+            assertThat(consumer.isAlive()).isFalse();
+            assertThat(processor.isRunning()).isFalse();
+        }
+    }
+}
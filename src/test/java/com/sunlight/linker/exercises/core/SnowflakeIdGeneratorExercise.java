@@ -0,0 +1,163 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.Base62Converter;
+import com.sunlight.linker.core.SnowflakeIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】Snowflake ID生成器测试
+ *
+ * 【进阶挑战 - 分布式ID】
+ *
+ * 学习目标：
+ * ✅ 用可控时钟验证ID布局：时间、节点号、毫秒内序列
+ * ✅ 验证序列耗尽时借用下一毫秒、小幅回拨时沿用逻辑时钟，ID保持单调
+ * ✅ 验证大幅回拨时拒绝发号
+ * ✅ 验证多线程CAS发号与多节点之间不重复
+ */
+@DisplayName("【练习】Snowflake ID生成器测试")
+class SnowflakeIdGeneratorExercise {
+
+    private static final long EPOCH = 1_767_225_600_000L;
+
+    private final AtomicLong clock = new AtomicLong(EPOCH + 1_000);
+
+    @Nested
+    @DisplayName("布局与单调性")
+    class LayoutTests {
+
+        @Test
+        @DisplayName("ID应该能拆回时间与节点号，同一毫秒内序列递增")
+        void shouldEncodeTimeNodeAndSequence() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 5, 10, 12, 100, clock::get);
+
+            long first = generator.nextId();
+            long second = generator.nextId();
+
+            assertThat(generator.timestampOf(first)).isEqualTo(clock.get());
+            assertThat(generator.nodeIdOf(first)).isEqualTo(5);
+            assertThat(second).isEqualTo(first + 1);
+        }
+
+        @Test
+        @DisplayName("序列耗尽时应该等待时钟进入下一毫秒")
+        void shouldWaitForNextMillisWhenSequenceExhausted() {
+            long base = clock.get();
+            AtomicLong reads = new AtomicLong();
+            // 前8次读时钟停在同一毫秒，之后前进1毫秒
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 0, 10, 2, 100,
+                    () -> reads.incrementAndGet() <= 8 ? base : base + 1);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                ids.add(generator.nextId());
+            }
+
+            assertThat(ids).isSorted().doesNotHaveDuplicates();
+            assertThat(generator.timestampOf(ids.get(3))).isEqualTo(base);
+            assertThat(generator.timestampOf(ids.get(4))).isEqualTo(base + 1);
+            assertThat(reads.get()).isGreaterThan(8);
+        }
+
+        @Test
+        @DisplayName("容忍范围内的回拨应该沿用上一毫秒继续发号")
+        void shouldStayMonotonicOnSmallRegression() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 1, 10, 12, 100, clock::get);
+            long before = generator.nextId();
+
+            clock.addAndGet(-50);
+            long after = generator.nextId();
+
+            assertThat(after).isGreaterThan(before);
+            assertThat(generator.timestampOf(after)).isEqualTo(generator.timestampOf(before));
+        }
+
+        @Test
+        @DisplayName("超过容忍范围的回拨应该拒绝发号，时钟追上后恢复")
+        void shouldRejectLargeRegression() {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 1, 10, 12, 100, clock::get);
+            long before = generator.nextId();
+
+            clock.addAndGet(-500);
+            assertThatThrownBy(generator::nextId)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("时钟回拨");
+
+            clock.addAndGet(501);
+            assertThat(generator.nextId()).isGreaterThan(before);
+        }
+
+        @Test
+        @DisplayName("非法的节点号与位数应该抛出IllegalArgumentException")
+        void shouldRejectInvalidConfiguration() {
+            assertThatThrownBy(() -> new SnowflakeIdGenerator(EPOCH, 1024, 10, 12, 0, clock::get))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new SnowflakeIdGenerator(EPOCH, 0, 12, 12, 0, clock::get))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("纪元后约一天的ID编码后应该是9位Base62")
+        void shouldKeepCodesShortNearEpoch() {
+            clock.set(EPOCH + TimeUnit.DAYS.toMillis(1));
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 1023, 10, 12, 0, clock::get);
+
+            assertThat(Base62Converter.encode(generator.nextId())).hasSize(9);
+        }
+    }
+
+    @Nested
+    @DisplayName("并发")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("8个线程并发发号不应该重复")
+        void shouldNotDuplicateUnderContention() throws InterruptedException {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 3);
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            int threads = 8;
+            int perThread = 50_000;
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(ids).hasSize(threads * perThread);
+        }
+
+        @Test
+        @DisplayName("同一时钟下不同节点的ID不应该重复")
+        void shouldNotCollideAcrossNodes() {
+            SnowflakeIdGenerator nodeA = new SnowflakeIdGenerator(EPOCH, 1, 10, 12, 100, clock::get);
+            SnowflakeIdGenerator nodeB = new SnowflakeIdGenerator(EPOCH, 2, 10, 12, 100, clock::get);
+            Set<Long> ids = new HashSet<>();
+            for (int i = 0; i < 10_000; i++) {
+                ids.add(nodeA.nextId());
+                ids.add(nodeB.nextId());
+                if (i % 1000 == 0) {
+                    clock.incrementAndGet();
+                }
+            }
+
+            assertThat(ids).hasSize(20_000);
+        }
+    }
+}
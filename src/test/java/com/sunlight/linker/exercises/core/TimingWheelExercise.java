@@ -0,0 +1,172 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】分层时间轮测试
+ *
+ * 【进阶挑战 - 时间轮】
+ *
+ * 学习目标：
+ * ✅ 验证定时器在到期tick触发，不早于到期时间、最多晚一个tick
+ * ✅ 验证跨层降级（cascade）后仍在正确的tick触发
+ * ✅ 验证取消是O(1)摘链，已取消/已到期的定时器不能再取消
+ * ✅ 用随机到期时间与逐个计算的期望结果对照
+ */
+@DisplayName("【练习】分层时间轮测试")
+class TimingWheelExercise {
+
+    private static final long START = 1_000_000L;
+    private static final long TICK = 10;
+
+    @Test
+    @DisplayName("到期时间向上取整到tick边界，推进到该时刻才触发")
+    void shouldFireAtDeadlineTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", START + 25);
+        List<String> fired = new ArrayList<>();
+
+        assertThat(wheel.advance(START + 29, fired::add)).isZero();
+        assertThat(wheel.advance(START + 30, fired::add)).isEqualTo(1);
+
+        assertThat(fired).containsExactly("a");
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("已经过去的到期时间应该在下一个tick触发")
+    void shouldFirePastDeadlineOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.advance(START + 100, x -> { });
+        wheel.schedule("late", START + 50);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(START + 109, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(START + 110, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("跨越多层的定时器应该在降级后准时触发")
+    void shouldCascadeAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] deadlines = {63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        Map<Long, Long> firedAt = new HashMap<>();
+
+        for (long now = 1; now <= 300_000; now++) {
+            long at = now;
+            wheel.advance(now, deadline -> firedAt.put(deadline, at));
+        }
+
+        assertThat(firedAt).hasSize(deadlines.length);
+        firedAt.forEach((deadline, at) -> assertThat(at).as("deadline %d", deadline).isEqualTo(deadline));
+    }
+
+    @Test
+    @DisplayName("取消的定时器不触发，重复取消和到期后取消返回false")
+    void shouldCancelPendingTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 100);
+        TimingWheel.Timeout<String> kept = wheel.schedule("kept", START + 100);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 1000, fired::add);
+
+        assertThat(fired).containsExactly("kept");
+        assertThat(cancelled.isCancelled()).isTrue();
+        assertThat(kept.cancel()).isFalse();
+    }
+
+    @Test
+    @DisplayName("大跨度推进应该按到期顺序批量取出")
+    void shouldDrainInDeadlineOrderOnLargeJump() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 0);
+        for (int i = 10; i >= 1; i--) {
+            wheel.schedule(i, i * 1000L);
+        }
+        List<Integer> fired = new ArrayList<>();
+
+        assertThat(wheel.advance(10_000, fired::add)).isEqualTo(10);
+
+        assertThat(fired).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    @DisplayName("回调中再次schedule的定时器应该在后续tick触发")
+    void shouldAllowRescheduleFromCallback() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, START);
+        wheel.schedule(1, START + TICK);
+        List<Integer> fired = new ArrayList<>();
+
+        wheel.advance(START + TICK, n -> {
+            fired.add(n);
+            wheel.schedule(n + 1, START + 5 * TICK);
+        });
+        wheel.advance(START + 5 * TICK, fired::add);
+
+        assertThat(fired).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("随机到期时间：每个定时器都应在期望tick触发，取消的不触发")
+    void shouldMatchExpectedTicksForRandomDeadlines() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, START);
+        SplittableRandom random = new SplittableRandom(41);
+        int n = 20_000;
+        long[] expectedTick = new long[n];
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long deadline = START + random.nextLong(1, 2_000_000);
+            expectedTick[i] = Math.ceilDiv(deadline - START, TICK);
+            timeouts.add(wheel.schedule(i, deadline));
+        }
+        for (int i = 0; i < n; i += 7) {
+            timeouts.get(i).cancel();
+        }
+
+        long[] firedTick = new long[n];
+        for (long now = START; now <= START + 2_000_000; now += 3 * TICK + 1) {
+            long tick = Math.floorDiv(now - START, TICK);
+            wheel.advance(now, i -> firedTick[i] = tick);
+        }
+        wheel.advance(START + 2_000_000 + TICK, i -> firedTick[i] = Math.ceilDiv(2_000_000 + TICK, TICK));
+
+        for (int i = 0; i < n; i++) {
+            if (i % 7 == 0) {
+                assertThat(firedTick[i]).as("cancelled %d", i).isZero();
+            } else {
+                // 推进步长约3个tick，触发于到期tick所在的那一步
+                assertThat(firedTick[i]).as("timer %d", i)
+                        .isBetween(expectedTick[i], expectedTick[i] + 3);
+            }
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("tick不是正数时应该抛出异常")
+    void shouldRejectNonPositiveTick() {
+        assertThatThrownBy(() -> new TimingWheel<String>(0, START))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tickMillis");
+    }
+}
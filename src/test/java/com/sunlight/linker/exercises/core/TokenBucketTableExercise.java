@@ -0,0 +1,114 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.TokenBucketTable;
+import com.sunlight.linker.util.ConcurrencyTestUtils;
+import com.sunlight.linker.util.ConcurrencyTestUtils.ConcurrentTestResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】令牌桶表测试
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 学习目标：
+ * ✅ 验证满桶允许capacity个突发请求，之后按速率补充
+ * ✅ 验证拒绝时返回的等待时间正好是下一个令牌可用的时间
+ * ✅ 验证客户端之间互不影响，保存的桶数不超过上限
+ * ✅ 验证并发取令牌时放行数不超过令牌数
+ */
+@DisplayName("【练习】令牌桶表测试")
+class TokenBucketTableExercise {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    @DisplayName("满桶应该允许capacity个突发请求，随后拒绝")
+    void shouldAllowBurstThenReject() {
+        TokenBucketTable table = new TokenBucketTable(5, 1, 100, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(table.tryAcquire("client")).as("request %d", i).isZero();
+        }
+        assertThat(table.tryAcquire("client")).isEqualTo(SECOND);
+    }
+
+    @Test
+    @DisplayName("应该按速率补充令牌，且不超过容量")
+    void shouldRefillAtRate() {
+        TokenBucketTable table = new TokenBucketTable(2, 4, 100, clock::get);
+        table.tryAcquire("client");
+        table.tryAcquire("client");
+
+        clock.addAndGet(SECOND / 8);
+        assertThat(table.tryAcquire("client")).isEqualTo(SECOND / 8);
+        clock.addAndGet(SECOND / 8);
+        assertThat(table.tryAcquire("client")).isZero();
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(table.tryAcquire("client")).isZero();
+        assertThat(table.tryAcquire("client")).isZero();
+        assertThat(table.tryAcquire("client")).isPositive();
+    }
+
+    @Test
+    @DisplayName("不同客户端的桶互不影响")
+    void shouldIsolateClients() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 100, clock::get);
+
+        assertThat(table.tryAcquire("a")).isZero();
+        assertThat(table.tryAcquire("a")).isPositive();
+        assertThat(table.tryAcquire("b")).isZero();
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("保存的桶数不应该超过上限，淘汰的是最久未访问的桶")
+    void shouldBoundMemory() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 1_024, clock::get);
+        table.tryAcquire("hot");
+
+        for (int i = 0; i < 100_000; i++) {
+            table.tryAcquire("scan-" + i);
+            if (i % 64 == 0) {
+                table.tryAcquire("hot");
+            }
+        }
+
+        assertThat(table.size()).isLessThanOrEqualTo(1_024);
+        // 频繁访问的客户端一直留在表中，令牌没有因为淘汰重建而被补满
+        assertThat(table.tryAcquire("hot")).isPositive();
+    }
+
+    @Test
+    @DisplayName("非法参数应该被拒绝")
+    void shouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> new TokenBucketTable(0, 1, 1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketTable(1, 0, 1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketTable(1, 1, 0, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("并发取令牌时放行数应该正好等于容量")
+    void shouldNotOverGrantConcurrently() {
+        TokenBucketTable table = new TokenBucketTable(1_000, 1, 100, clock::get);
+        AtomicLong sequence = new AtomicLong();
+
+        ConcurrentTestResult<Boolean> result = ConcurrencyTestUtils.runConcurrentTasks(
+                () -> table.tryAcquire(sequence.incrementAndGet() % 2 == 0 ? "a" : "b") == 0, 8, 500, 10);
+
+        assertThat(result.hasExceptions()).isFalse();
+        assertThat(result.getResults()).hasSize(4_000);
+        assertThat(result.getResults().stream().filter(granted -> granted).count()).isEqualTo(2_000);
+    }
+}
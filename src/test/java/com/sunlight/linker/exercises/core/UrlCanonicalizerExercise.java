@@ -0,0 +1,114 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.core.UrlValidator;
+import com.sunlight.linker.corpus.UrlCorpus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】长链接规范化测试
+ *
+ * 【进阶挑战 - 去重命中率】
+ *
+ * 学习目标：
+ * ✅ 验证不改变语义的规则：大小写、默认端口、空路径、百分号转义
+ * ✅ 验证跟踪参数删除与查询参数排序是可选的
+ * ✅ 验证规范形式仍能通过校验，且再次规范化结果不变（幂等）
+ */
+@DisplayName("【练习】长链接规范化测试")
+class UrlCanonicalizerExercise {
+
+    private final UrlCanonicalizer lossless = UrlCanonicalizer.lossless();
+    private final UrlCanonicalizer full = new UrlCanonicalizer(List.of("utm_*", "fbclid"), true);
+
+    @Nested
+    @DisplayName("不改变语义的规则")
+    class LosslessTests {
+
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+                "HTTP://Example.COM/Path         | http://example.com/Path",
+                "http://example.com:80/a         | http://example.com/a",
+                "https://example.com:443/a       | https://example.com/a",
+                "http://example.com:443/a        | http://example.com:443/a",
+                "https://example.com:08443/a     | https://example.com:8443/a",
+                "https://example.com             | https://example.com/",
+                "https://example.com?q=1         | https://example.com/?q=1",
+                "https://example.com#top         | https://example.com/#top",
+                "http://[::1]:80/                | http://[::1]/",
+                "http://[::1]:8080               | http://[::1]:8080/",
+                "https://example.com/%7euser/%41 | https://example.com/~user/A",
+                "https://example.com/a%2fb%e4%b8 | https://example.com/a%2Fb%E4%B8",
+                "https://example.com/?q=a%26b    | https://example.com/?q=a%26b"
+        })
+        @DisplayName("协议主机小写、去默认端口、补空路径、规范化转义")
+        void shouldNormalize(String input, String expected) {
+            assertThat(lossless.canonicalize(input)).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("默认规则不改变查询参数和片段")
+        void shouldKeepQueryByDefault() {
+            String url = "https://example.com/a?b=2&a=1&utm_source=x#Frag";
+
+            assertThat(lossless.canonicalize(url)).isSameAs(url);
+            assertThat(lossless.canonicalize("  " + url + " ")).isEqualTo(url);
+        }
+    }
+
+    @Nested
+    @DisplayName("可选规则")
+    class OptionalTests {
+
+        @Test
+        @DisplayName("应该删除跟踪参数，删空时去掉'?'")
+        void shouldStripTrackingParams() {
+            assertThat(full.canonicalize("HTTP://Example.com:80/a?b=1&utm_source=x"))
+                    .isEqualTo("http://example.com/a?b=1");
+            assertThat(full.canonicalize("http://example.com/a?UTM_Medium=y&fbclid=abc"))
+                    .isEqualTo("http://example.com/a");
+            assertThat(full.canonicalize("http://example.com/a?%75tm_source=x&fbclid2=1"))
+                    .isEqualTo("http://example.com/a?fbclid2=1");
+        }
+
+        @Test
+        @DisplayName("排序应该稳定，同名参数保持原有顺序，空参数被丢弃")
+        void shouldSortStably() {
+            assertThat(full.canonicalize("http://example.com/?c=3&a=2&&b&a=1#x?y"))
+                    .isEqualTo("http://example.com/?a=2&a=1&b&c=3#x?y");
+        }
+
+        @Test
+        @DisplayName("不同写法的同一链接应该得到同一个规范形式")
+        void shouldMergeVariants() {
+            List<String> variants = List.of(
+                    "HTTP://Example.com:80/a?b=1&utm_source=x",
+                    "http://example.com/a?b=1",
+                    "http://EXAMPLE.com/%61?utm_campaign=y&b=1",
+                    "http://example.com:80/a?b=1&fbclid=z#");
+
+            assertThat(variants.stream().map(full::canonicalize).distinct())
+                    .containsExactlyInAnyOrder("http://example.com/a?b=1", "http://example.com/a?b=1#");
+        }
+    }
+
+    @Test
+    @DisplayName("规范形式应该仍然合法，且规范化是幂等的")
+    void shouldBeValidAndIdempotent() {
+        for (String url : UrlCorpus.generate(5_000, 49)) {
+            String canonical = full.canonicalize(url);
+
+            assertThat(UrlValidator.check(canonical)).as(url).isEqualTo(UrlValidator.Verdict.VALID);
+            assertThat(full.canonicalize(canonical)).as(url).isEqualTo(canonical);
+            assertThat(canonical).doesNotContain("utm_");
+        }
+    }
+}
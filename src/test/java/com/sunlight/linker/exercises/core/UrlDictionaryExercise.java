@@ -0,0 +1,101 @@
+package com.sunlight.linker.exercises.core;
+
+import com.sunlight.linker.core.UrlDictionary;
+import com.sunlight.linker.corpus.UrlCorpus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】URL字典压缩测试
+ *
+ * 【进阶挑战 - 紧凑存储】
+ *
+ * 学习目标：
+ * ✅ 验证任意URL（含非ASCII字节、未收录的域名）都能无损还原
+ * ✅ 在生成的语料上输出压缩率（单条解码耗时见 UrlDictionaryBenchmark）
+ * ✅ 验证训练参数的边界检查
+ */
+@DisplayName("【练习】URL字典压缩测试")
+class UrlDictionaryExercise {
+
+    private static final List<String> TRAINING = UrlCorpus.generate(20_000, 1);
+    private static final List<String> CORPUS = UrlCorpus.generate(100_000, 2);
+
+    private final UrlDictionary dictionary = UrlDictionary.train(TRAINING);
+
+    @Nested
+    @DisplayName("无损还原")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("语料中的每条URL编码后都应该能原样解码")
+        void shouldRoundTripCorpus() {
+            byte[] buffer = new byte[8192];
+            for (String url : CORPUS) {
+                byte[] encoded = dictionary.encode(url);
+                int length = dictionary.decode(encoded, 0, encoded.length, buffer);
+                assertThat(new String(buffer, 0, length, StandardCharsets.UTF_8)).isEqualTo(url);
+                assertThat(dictionary.decodedLength(encoded, 0, encoded.length)).isEqualTo(length);
+            }
+        }
+
+        @Test
+        @DisplayName("未收录的域名、相对路径与非ASCII字符应该原样保留")
+        void shouldKeepUnknownParts() {
+            String[] urls = {
+                    "https://unknown.example.net/a/b?c=d",
+                    "/relative/path?utm_source=newsletter",
+                    "https://zh.wikipedia.org/wiki/短链接#历史",
+                    "ftp://files.example.com",
+                    "x"
+            };
+            for (String url : urls) {
+                assertThat(dictionary.decode(dictionary.encode(url))).isEqualTo(url);
+            }
+
+            UrlDictionary empty = UrlDictionary.train(List.of());
+            assertThat(empty.getPrefixCount()).isZero();
+            assertThat(empty.getTokenCount()).isZero();
+            assertThat(empty.decode(empty.encode(urls[2]))).isEqualTo(urls[2]);
+        }
+
+        @Test
+        @DisplayName("训练上限超出范围时应该抛出IllegalArgumentException")
+        void shouldRejectInvalidLimits() {
+            assertThatThrownBy(() -> UrlDictionary.train(TRAINING, UrlDictionary.MAX_PREFIXES + 1, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> UrlDictionary.train(TRAINING, 10, UrlDictionary.MAX_TOKENS + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("压缩率")
+    class EfficiencyTests {
+
+        @Test
+        @DisplayName("字典应该收录头部域名与UTM参数，语料压缩到原大小的60%以内")
+        void shouldCompressCorpus() {
+            long raw = 0;
+            long encoded = 0;
+            for (String url : CORPUS) {
+                raw += url.getBytes(StandardCharsets.UTF_8).length;
+                encoded += dictionary.encode(url).length;
+            }
+            double ratio = (double) encoded / raw;
+            System.out.printf("URL字典: %s, dictionaryBytes=%d, raw=%d, encoded=%d, ratio=%.3f%n",
+                    dictionary, dictionary.memoryBytes(), raw, encoded, ratio);
+
+            assertThat(dictionary.getPrefixCount()).isGreaterThanOrEqualTo(11);
+            assertThat(dictionary.decode(dictionary.encode("https://www.youtube.com/watch?v=abc")))
+                    .isEqualTo("https://www.youtube.com/watch?v=abc");
+            assertThat(ratio).isLessThan(0.6);
+        }
+    }
+}
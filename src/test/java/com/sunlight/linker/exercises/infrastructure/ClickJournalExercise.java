@@ -0,0 +1,174 @@
+package com.sunlight.linker.exercises.infrastructure;
+
+import com.sunlight.linker.infrastructure.ClickJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】ClickJournal 点击预写日志测试
+ *
+ * 【持久化组件测试】
+ *
+ * 学习目标：
+ * ✅ 使用@TempDir隔离文件系统状态
+ * ✅ 通过"关闭后重新打开"模拟进程重启，验证重放结果
+ * ✅ 验证段文件滚动、检查点删除与撕裂记录处理
+ */
+@DisplayName("【练习】ClickJournal 点击预写日志测试")
+class ClickJournalExercise {
+
+    /**
+     * 每段4条记录，便于触发段滚动
+     */
+    private static final long SMALL_SEGMENT = ClickJournal.RECORD_SIZE * 4L;
+
+    @TempDir
+    Path journalDir;
+
+    @Nested
+    @DisplayName("追加与重放")
+    class AppendAndReplayTests {
+
+        @Test
+        @DisplayName("重新打开后应该重放检查点之后的全部记录")
+        void shouldReplayCommittedRecordsAfterReopen() {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                journal.append("abc", 1L);
+                journal.append("abc", 2L);
+                journal.append("xyz", 3L);
+                journal.commit();
+            }
+
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.getWritePosition()).isEqualTo(3);
+                assertThat(reopened.readUncheckpointedDeltas())
+                        .containsExactlyInAnyOrderEntriesOf(Map.of("abc", 2L, "xyz", 1L));
+            }
+        }
+
+        @Test
+        @DisplayName("检查点之前的记录不应该被重放")
+        void shouldNotReplayCheckpointedRecords() {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                journal.append("abc", 1L);
+                journal.append("abc", 2L);
+                journal.commit();
+                journal.checkpoint(journal.getWritePosition());
+                journal.append("late", 3L);
+                journal.commit();
+            }
+
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.getCheckpointPosition()).isEqualTo(2);
+                assertThat(reopened.readUncheckpointedDeltas()).containsExactly(Map.entry("late", 1L));
+            }
+        }
+
+        @Test
+        @DisplayName("非法短码应该被拒绝")
+        void shouldRejectInvalidShortCode() {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThatThrownBy(() -> journal.append("", 1L))
+                        .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> journal.append("a".repeat(21), 1L))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("1-20");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("段文件管理")
+    class SegmentTests {
+
+        @Test
+        @DisplayName("写满一段后应该滚动到新段，并能跨段重放")
+        void shouldRollSegmentsAndReplayAcrossThem() throws IOException {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                for (int i = 0; i < 10; i++) {
+                    journal.append("code" + (i % 2), i);
+                }
+                journal.commit();
+            }
+
+            assertThat(countSegments()).isEqualTo(3);
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.getWritePosition()).isEqualTo(10);
+                assertThat(reopened.readUncheckpointedDeltas())
+                        .containsExactlyInAnyOrderEntriesOf(Map.of("code0", 5L, "code1", 5L));
+            }
+        }
+
+        @Test
+        @DisplayName("检查点越过的段文件应该被删除")
+        void shouldDeleteSegmentsBeforeCheckpoint() throws IOException {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                for (int i = 0; i < 10; i++) {
+                    journal.append("abc", i);
+                }
+                journal.commit();
+                journal.checkpoint(9);
+            }
+
+            // 检查点位于第3段（序号8-11），前两段可以删除
+            assertThat(countSegments()).isEqualTo(1);
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.getWritePosition()).isEqualTo(10);
+                assertThat(reopened.readUncheckpointedDeltas()).containsExactly(Map.entry("abc", 1L));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("崩溃恢复")
+    class RecoveryTests {
+
+        @Test
+        @DisplayName("校验失败的尾部记录应该被截断，之后的追加覆盖它")
+        void shouldTruncateTornTailRecord() throws IOException {
+            try (ClickJournal journal = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                journal.append("abc", 1L);
+                journal.append("xyz", 2L);
+                journal.commit();
+            }
+
+            // 模拟第二条记录写到一半：短码字节被破坏，校验不通过
+            Path segment = journalDir.resolve(String.format("%020d.seg", 0));
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{'q'}), ClickJournal.RECORD_SIZE + 1L);
+            }
+
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.getWritePosition()).isEqualTo(1);
+                assertThat(reopened.readUncheckpointedDeltas()).containsExactly(Map.entry("abc", 1L));
+
+                reopened.append("new", 3L);
+                reopened.commit();
+            }
+
+            try (ClickJournal reopened = new ClickJournal(journalDir, SMALL_SEGMENT)) {
+                assertThat(reopened.readUncheckpointedDeltas())
+                        .containsExactlyInAnyOrderEntriesOf(Map.of("abc", 1L, "new", 1L));
+            }
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+}
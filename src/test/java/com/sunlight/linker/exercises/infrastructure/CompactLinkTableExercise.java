@@ -0,0 +1,168 @@
+package com.sunlight.linker.exercises.infrastructure;
+
+import com.sunlight.linker.core.UrlDictionary;
+import com.sunlight.linker.corpus.UrlCorpus;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.infrastructure.snapshot.CompactLinkTable;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】紧凑短码表测试
+ *
+ * 【进阶挑战 - 紧凑索引】
+ *
+ * 学习目标：
+ * ✅ 使用小分块（16KB）覆盖URL区记录不跨分块的逻辑
+ * ✅ 验证不存在的短码被指纹拒绝
+ * ✅ 验证除URL字节外，每条链接的内存开销小于20字节
+ * ✅ 验证从分层快照构建时只收录当前生效的记录
+ * ✅ 验证URL字典压缩后仍能按原样读回
+ */
+@DisplayName("【练习】紧凑短码表测试")
+class CompactLinkTableExercise {
+
+    private static final int SMALL_CHUNK_SHIFT = 14;
+
+    @TempDir
+    Path snapshotDir;
+
+    @Nested
+    @DisplayName("查找")
+    class LookupTests {
+
+        @Test
+        @DisplayName("应该能按短码读回全部URL与策略，包括需要2字节长度的长URL")
+        void shouldRoundTripAcrossChunks() {
+            int count = 5000;
+            CompactLinkTable table = CompactLinkTable.build(sink -> {
+                for (int i = 0; i < count; i++) {
+                    sink.accept("c" + i, url(i), RedirectPolicy.values()[i % 4]);
+                }
+            }, SMALL_CHUNK_SHIFT);
+
+            assertThat(table.size()).isEqualTo(count);
+            byte[] buffer = new byte[8192];
+            for (int i = 0; i < count; i++) {
+                long record = table.find("c" + i);
+                assertThat(record).isNotNegative();
+                assertThat(table.urlAt(record)).isEqualTo(url(i));
+                assertThat(table.policyAt(record)).isEqualTo(RedirectPolicy.values()[i % 4]);
+                int length = table.copyUrl(record, buffer);
+                assertThat(new String(buffer, 0, length, StandardCharsets.UTF_8)).isEqualTo(url(i));
+            }
+        }
+
+        @Test
+        @DisplayName("不存在的短码应该返回-1")
+        void shouldRejectMissingCodes() {
+            CompactLinkTable table = CompactLinkTable.build(sink -> {
+                for (int i = 0; i < 10_000; i++) {
+                    sink.accept("c" + i, "https://example.com/" + i, RedirectPolicy.FOUND);
+                }
+            });
+
+            int falsePositives = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (table.find("missing" + i) >= 0) {
+                    falsePositives++;
+                }
+            }
+            assertThat(falsePositives).isZero();
+            assertThat(CompactLinkTable.build(sink -> { }).find("c1")).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("重复的短码应该被拒绝")
+        void shouldRejectDuplicateCodes() {
+            assertThatThrownBy(() -> CompactLinkTable.build(sink -> {
+                sink.accept("dup", "https://example.com/1", RedirectPolicy.FOUND);
+                sink.accept("other", "https://example.com/2", RedirectPolicy.FOUND);
+                sink.accept("dup", "https://example.com/3", RedirectPolicy.FOUND);
+            })).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("短码重复");
+        }
+    }
+
+    @Nested
+    @DisplayName("内存与构建来源")
+    class MemoryAndSourceTests {
+
+        @Test
+        @DisplayName("除URL字节外，每条链接的开销应该小于20字节")
+        void shouldStayUnderTwentyBytesPerLink() {
+            int count = 200_000;
+            CompactLinkTable table = CompactLinkTable.build(sink -> {
+                for (int i = 0; i < count; i++) {
+                    sink.accept(Integer.toString(i, 36), "https://www.example.com/articles/" + i, RedirectPolicy.FOUND);
+                }
+            });
+
+            double overheadPerLink = (double) (table.getMemoryBytes() - table.getUrlBytes()) / count;
+            assertThat(overheadPerLink).isLessThan(20.0);
+        }
+
+        @Test
+        @DisplayName("使用URL字典时应该按原样读回URL，且URL区小于原始字节数")
+        void shouldStoreDictionaryEncodedUrls() {
+            List<String> urls = UrlCorpus.generate(20_000, 3);
+            UrlDictionary dictionary = UrlDictionary.train(urls.subList(0, 5000));
+            CompactLinkTable table = CompactLinkTable.build(sink -> {
+                for (int i = 0; i < urls.size(); i++) {
+                    sink.accept("c" + i, urls.get(i), RedirectPolicy.FOUND);
+                }
+            }, SMALL_CHUNK_SHIFT, dictionary);
+
+            byte[] buffer = new byte[8192];
+            for (int i = 0; i < urls.size(); i++) {
+                long record = table.find("c" + i);
+                assertThat(table.urlAt(record)).isEqualTo(urls.get(i));
+                int length = table.copyUrl(record, buffer);
+                assertThat(new String(buffer, 0, length, StandardCharsets.UTF_8)).isEqualTo(urls.get(i));
+            }
+            assertThat(table.getStoredUrlBytes()).isLessThan(table.getUrlBytes());
+        }
+
+        @Test
+        @DisplayName("从分层快照构建时，被覆盖的记录与墓碑不应该进入表中")
+        void shouldCopyLiveRecordsFromSnapshot() {
+            LinkSnapshotStore store = new LinkSnapshotStore(snapshotDir, SMALL_CHUNK_SHIFT);
+            try (LinkSnapshotWriter base = store.newBase(3)) {
+                base.add("a", "https://example.com/a", RedirectPolicy.FOUND);
+                base.add("b", "https://example.com/b", RedirectPolicy.FOUND);
+                base.add("c", "https://example.com/c", RedirectPolicy.FOUND);
+                base.commit();
+            }
+            try (LinkSnapshotWriter delta = store.newDelta(2)) {
+                delta.add("a", "https://example.com/a2", RedirectPolicy.MOVED_PERMANENTLY);
+                delta.addTombstone("b");
+                delta.commit();
+            }
+            store.refresh();
+
+            CompactLinkTable table = CompactLinkTable.copyOf(store.current());
+
+            assertThat(table.size()).isEqualTo(2);
+            assertThat(table.urlAt(table.find("a"))).isEqualTo("https://example.com/a2");
+            assertThat(table.policyAt(table.find("a"))).isEqualTo(RedirectPolicy.MOVED_PERMANENTLY);
+            assertThat(table.find("b")).isEqualTo(-1);
+            assertThat(table.urlAt(table.find("c"))).isEqualTo("https://example.com/c");
+        }
+    }
+
+    private static String url(int i) {
+        return i % 10 == 0
+                ? "https://example.com/long/" + "x".repeat(200 + i % 1000) + "/" + i
+                : "https://example.com/" + i;
+    }
+}
@@ -0,0 +1,286 @@
+package com.sunlight.linker.exercises.infrastructure;
+
+import com.sunlight.linker.application.LinkSnapshotExporter;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.snapshot.LayeredLinkSnapshot;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshot;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotStore;
+import com.sunlight.linker.infrastructure.snapshot.LinkSnapshotWriter;
+import com.sunlight.linker.infrastructure.snapshot.SnapshotRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】内存映射短码快照测试
+ *
+ * 【持久化组件测试】
+ *
+ * 学习目标：
+ * ✅ 使用小分块（16KB）覆盖记录不跨分块的填充逻辑
+ * ✅ 验证增量层覆盖、墓碑屏蔽与压实后的结果一致
+ * ✅ 验证未提交的写入不会被读取端看到
+ */
+@DisplayName("【练习】内存映射短码快照测试")
+class LinkSnapshotExercise {
+
+    /**
+     * 16KB分块
+     */
+    private static final int SMALL_CHUNK_SHIFT = 14;
+
+    @TempDir
+    Path snapshotDir;
+
+    @Nested
+    @DisplayName("单个快照文件")
+    class SingleFileTests {
+
+        @Test
+        @DisplayName("写入后应该能按短码读回全部记录，包括跨分块填充之后的记录")
+        void shouldRoundTripAcrossChunks() {
+            int count = 3000;
+            Path file = snapshotDir.resolve("links.snap");
+            try (LinkSnapshotWriter writer = new LinkSnapshotWriter(file, count, SMALL_CHUNK_SHIFT)) {
+                for (int i = 0; i < count; i++) {
+                    writer.add("c" + i, url(i), RedirectPolicy.values()[i % 4]);
+                }
+                writer.setWatermark(42L);
+                writer.commit();
+            }
+
+            LinkSnapshot snapshot = LinkSnapshot.open(file);
+            assertThat(snapshot.getEntryCount()).isEqualTo(count);
+            assertThat(snapshot.getWatermark()).isEqualTo(42L);
+            assertThat(snapshot.getMappedBytes()).isGreaterThan(1L << SMALL_CHUNK_SHIFT);
+            byte[] buffer = new byte[4096];
+            for (int i = 0; i < count; i++) {
+                long record = snapshot.find("c" + i);
+                assertThat(record).isNotNegative();
+                assertThat(snapshot.urlAt(record)).isEqualTo(url(i));
+                assertThat(snapshot.policyAt(record)).isEqualTo(RedirectPolicy.values()[i % 4]);
+                int length = snapshot.copyUrl(record, buffer);
+                assertThat(new String(buffer, 0, length, StandardCharsets.UTF_8)).isEqualTo(url(i));
+            }
+            long[] visited = new long[1];
+            snapshot.forEach(record -> visited[0]++);
+            assertThat(visited[0]).isEqualTo(count);
+        }
+
+        @Test
+        @DisplayName("不存在的短码与非ASCII短码应该返回-1")
+        void shouldMissUnknownCodes() {
+            Path file = snapshotDir.resolve("links.snap");
+            try (LinkSnapshotWriter writer = new LinkSnapshotWriter(file, 1)) {
+                writer.add("abc", "https://www.example.com", RedirectPolicy.FOUND);
+                writer.commit();
+            }
+
+            LinkSnapshot snapshot = LinkSnapshot.open(file);
+            assertThat(snapshot.find("abd")).isEqualTo(-1);
+            assertThat(snapshot.find("abţ")).isEqualTo(-1);
+            assertThat(snapshot.find("")).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("重复短码与超过预计条目数应该被拒绝")
+        void shouldRejectDuplicatesAndOverflow() {
+            try (LinkSnapshotWriter writer = new LinkSnapshotWriter(snapshotDir.resolve("links.snap"), 2)) {
+                writer.add("abc", "https://a.example.com", RedirectPolicy.FOUND);
+                assertThatThrownBy(() -> writer.add("abc", "https://b.example.com", RedirectPolicy.FOUND))
+                        .isInstanceOf(IllegalArgumentException.class);
+                writer.add("abd", "https://b.example.com", RedirectPolicy.FOUND);
+                assertThatThrownBy(() -> writer.add("abe", "https://c.example.com", RedirectPolicy.FOUND))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+        }
+
+        @Test
+        @DisplayName("未提交就关闭时不应该留下任何文件")
+        void shouldDiscardUncommittedWrites() throws IOException {
+            try (LinkSnapshotWriter writer = new LinkSnapshotWriter(snapshotDir.resolve("links.snap"), 1)) {
+                writer.add("abc", "https://www.example.com", RedirectPolicy.FOUND);
+            }
+
+            try (Stream<Path> files = Files.list(snapshotDir)) {
+                assertThat(files).isEmpty();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("分层与压实")
+    class LayeringTests {
+
+        @Test
+        @DisplayName("增量层应该覆盖旧记录，墓碑应该屏蔽更早的层，压实后结果不变")
+        void shouldLayerAndCompact() {
+            LinkSnapshotStore store = new LinkSnapshotStore(snapshotDir, SMALL_CHUNK_SHIFT);
+            try (LinkSnapshotWriter base = store.newBase(3)) {
+                base.add("keep", "https://keep.example.com", RedirectPolicy.FOUND);
+                base.add("update", "https://old.example.com", RedirectPolicy.FOUND);
+                base.add("delete", "https://delete.example.com", RedirectPolicy.FOUND);
+                base.setWatermark(100L);
+                base.commit();
+            }
+            try (LinkSnapshotWriter delta = store.newDelta(3)) {
+                delta.add("update", "https://new.example.com", RedirectPolicy.MOVED_PERMANENTLY);
+                delta.addTombstone("delete");
+                delta.add("added", "https://added.example.com", RedirectPolicy.FOUND);
+                delta.setWatermark(200L);
+                delta.commit();
+            }
+            assertThat(store.refresh()).isTrue();
+            assertThat(store.refresh()).isFalse();
+
+            assertLayeredView(store.current());
+            assertThat(store.current().getLayerCount()).isEqualTo(2);
+            assertThat(store.current().getWatermark()).isEqualTo(200L);
+
+            assertThat(store.compact()).isNotNull();
+
+            assertThat(store.current().getLayerCount()).isEqualTo(1);
+            assertThat(store.current().getWatermark()).isEqualTo(200L);
+            assertThat(store.current().getLayers().get(0).getEntryCount()).isEqualTo(3);
+            assertLayeredView(store.current());
+        }
+
+        @Test
+        @DisplayName("记录的expires_at已过时应该判定为过期，压实时应该被丢弃")
+        void shouldExpireAndDropExpiredRecords() {
+            LocalDateTime now = LocalDateTime.now();
+            LinkSnapshotStore store = new LinkSnapshotStore(snapshotDir, SMALL_CHUNK_SHIFT);
+            try (LinkSnapshotWriter base = store.newBase(3)) {
+                base.add("forever", "https://forever.example.com", RedirectPolicy.FOUND);
+                base.add("later", "https://later.example.com", RedirectPolicy.FOUND, now.plusDays(1));
+                base.add("gone", "https://gone.example.com", RedirectPolicy.FOUND, now.minusMinutes(1));
+                base.setWatermark(100L);
+                base.commit();
+            }
+            try (LinkSnapshotWriter delta = store.newDelta(1)) {
+                delta.add("added", "https://added.example.com", RedirectPolicy.FOUND);
+                delta.setWatermark(200L);
+                delta.commit();
+            }
+            store.refresh();
+
+            LayeredLinkSnapshot view = store.current();
+            long forever = view.find("forever");
+            assertThat(view.expiresAt(forever)).isNull();
+            assertThat(view.isExpiredAt(forever, now)).isFalse();
+            long later = view.find("later");
+            assertThat(view.expiresAt(later)).isEqualTo(now.plusDays(1).truncatedTo(ChronoUnit.MILLIS));
+            assertThat(view.isExpiredAt(later, now)).isFalse();
+            assertThat(view.isExpiredAt(view.find("gone"), now)).isTrue();
+
+            assertThat(store.compact()).isNotNull();
+
+            LayeredLinkSnapshot compacted = store.current();
+            assertThat(compacted.getLayers().get(0).getEntryCount()).isEqualTo(3);
+            assertThat(compacted.find("gone")).isNegative();
+            assertThat(compacted.expiresAt(compacted.find("later")))
+                    .isEqualTo(now.plusDays(1).truncatedTo(ChronoUnit.MILLIS));
+        }
+
+        private void assertLayeredView(LayeredLinkSnapshot view) {
+            assertThat(view.urlAt(view.find("keep"))).isEqualTo("https://keep.example.com");
+            long updated = view.find("update");
+            assertThat(view.urlAt(updated)).isEqualTo("https://new.example.com");
+            assertThat(view.policyAt(updated)).isEqualTo(RedirectPolicy.MOVED_PERMANENTLY);
+            assertThat(view.urlAt(view.find("added"))).isEqualTo("https://added.example.com");
+            long deleted = view.find("delete");
+            assertThat(deleted < 0 || view.isTombstone(deleted)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("导出任务")
+    class ExporterTests {
+
+        @Test
+        @DisplayName("首次导出全量，之后只导出水位线之后的行")
+        void shouldExportFullThenDelta() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            LocalDateTime t1 = LocalDateTime.of(2024, 1, 1, 0, 0);
+            LocalDateTime t2 = t1.plusMinutes(5);
+            when(repository.count()).thenReturn(2L);
+            when(repository.streamSnapshotRows()).thenReturn(Stream.of(
+                    new SnapshotRow("a1", "https://a.example.com", RedirectPolicy.FOUND, null, t1),
+                    new SnapshotRow("b2", "https://b.example.com", RedirectPolicy.FOUND, null, t1)));
+            when(repository.countByLastUpdatedAtGreaterThanEqual(t1)).thenReturn(1L);
+            when(repository.streamSnapshotRowsUpdatedSince(t1)).thenReturn(Stream.of(
+                    new SnapshotRow("b2", "https://b2.example.com", RedirectPolicy.PERMANENT_REDIRECT, null, t2)));
+
+            LinkSnapshotExporter exporter = new LinkSnapshotExporter(repository,
+                    mock(PlatformTransactionManager.class), new LinkSnapshotStore(snapshotDir, SMALL_CHUNK_SHIFT), 24,
+                    Duration.ofHours(6), System::nanoTime);
+            exporter.export();
+            exporter.export();
+
+            LayeredLinkSnapshot view = exporter.getStore().current();
+            assertThat(view.getLayerCount()).isEqualTo(2);
+            assertThat(view.urlAt(view.find("a1"))).isEqualTo("https://a.example.com");
+            assertThat(view.urlAt(view.find("b2"))).isEqualTo("https://b2.example.com");
+            verify(repository).streamSnapshotRowsUpdatedSince(any(LocalDateTime.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("导出任务-周期全量")
+    class PeriodicFullExportTests {
+
+        @Test
+        @DisplayName("距上次全量超过full-interval时应该重新全量导出，已删除的行随之消失")
+        void shouldReExportFullAfterInterval() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            LocalDateTime t1 = LocalDateTime.of(2024, 1, 1, 0, 0);
+            when(repository.count()).thenReturn(2L, 1L);
+            when(repository.streamSnapshotRows()).thenReturn(
+                    Stream.of(new SnapshotRow("a1", "https://a.example.com", RedirectPolicy.FOUND, null, t1),
+                            new SnapshotRow("b2", "https://b.example.com", RedirectPolicy.FOUND, null, t1)),
+                    Stream.of(new SnapshotRow("a1", "https://a.example.com", RedirectPolicy.FOUND, null, t1)));
+            when(repository.countByLastUpdatedAtGreaterThanEqual(any(LocalDateTime.class))).thenReturn(0L);
+            when(repository.streamSnapshotRowsUpdatedSince(any(LocalDateTime.class))).thenReturn(Stream.empty());
+            AtomicLong clock = new AtomicLong();
+
+            LinkSnapshotExporter exporter = new LinkSnapshotExporter(repository,
+                    mock(PlatformTransactionManager.class), new LinkSnapshotStore(snapshotDir, SMALL_CHUNK_SHIFT), 24,
+                    Duration.ofHours(6), clock::get);
+            exporter.export();
+            clock.addAndGet(Duration.ofHours(5).toNanos());
+            exporter.export();
+            verify(repository, times(1)).streamSnapshotRows();
+
+            clock.addAndGet(Duration.ofHours(1).toNanos());
+            exporter.export();
+
+            verify(repository, times(2)).streamSnapshotRows();
+            LayeredLinkSnapshot view = exporter.getStore().current();
+            assertThat(view.getLayerCount()).isEqualTo(1);
+            assertThat(view.find("a1")).isNotNegative();
+            assertThat(view.find("b2")).isNegative();
+        }
+    }
+
+    private static String url(int i) {
+        // 长度在几十到两千多字节之间变化，保证分块末尾会出现放不下的记录
+        return "https://www.example.com/articles/" + i + "?q=" + "x".repeat((i * 37) % 2000);
+    }
+}
@@ -0,0 +1,252 @@
+package com.sunlight.linker.exercises.infrastructure;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.DataSourcePoolMetrics;
+import com.sunlight.linker.infrastructure.replica.ReadWriteRoutingDataSource;
+import com.sunlight.linker.infrastructure.replica.ReplicaLagMonitor;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】读写分离路由测试
+ *
+ * 【进阶挑战 - 读写分离】
+ *
+ * 学习目标：
+ * ✅ 用两个H2内存库分别扮演主库与副本，通过查询结果判断实际访问的库
+ * ✅ 理解为什么路由DataSource外面必须包一层LazyConnectionDataSourceProxy
+ * ✅ 验证read-your-writes窗口、复制延迟超限与副本故障时回退主库
+ * ✅ 验证连接池利用率与路由次数指标
+ */
+@DisplayName("【练习】读写分离路由测试")
+class ReadReplicaRoutingExercise {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaRouting routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReplicaRouting(WINDOW, 100, clock::get);
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, routing));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Nested
+    @DisplayName("路由")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("只读事务应该访问副本，读写事务与无事务访问主库")
+        void shouldRouteByTransactionReadOnlyFlag() {
+            assertThat(inReadOnly(() -> whoAmI())).isEqualTo("replica");
+            assertThat(inReadWrite(() -> whoAmI())).isEqualTo("primary");
+            assertThat(whoAmI()).isEqualTo("primary");
+        }
+
+        @Test
+        @DisplayName("窗口内读取刚写入的短码应该走主库，窗口过后回到副本")
+        void shouldReadYourWritesWithinWindow() {
+            routing.recordWrite("fresh1");
+
+            assertThat(inReadOnly(() -> {
+                routing.pinPrimaryIfRecent("fresh1");
+                return whoAmI();
+            })).isEqualTo("primary");
+            assertThat(inReadOnly(() -> whoAmI()))
+                    .as("固定标记只作用于一个事务")
+                    .isEqualTo("replica");
+
+            clock.addAndGet(WINDOW.toMillis() + 1);
+            assertThat(inReadOnly(() -> {
+                routing.pinPrimaryIfRecent("fresh1");
+                return whoAmI();
+            })).isEqualTo("replica");
+        }
+
+        @Test
+        @DisplayName("复制延迟超过窗口或副本故障时所有读取应该回退主库")
+        void shouldFallBackWhenReplicaLagsOrFails() {
+            routing.updateLag(WINDOW.toMillis() + 1);
+            assertThat(inReadOnly(() -> whoAmI())).isEqualTo("primary");
+
+            routing.updateLag(200);
+            assertThat(inReadOnly(() -> whoAmI())).isEqualTo("replica");
+
+            routing.markReplicaUnhealthy();
+            assertThat(inReadOnly(() -> whoAmI())).isEqualTo("primary");
+        }
+
+        @Test
+        @DisplayName("最近写入超过记录上限时整个窗口内都应该读主库")
+        void shouldUsePrimaryOnlyWhenTrackingOverflows() {
+            ReplicaRouting small = new ReplicaRouting(WINDOW, 2, clock::get);
+            small.recordWrite("a");
+            small.recordWrite("b");
+            small.recordWrite("c");
+
+            assertThat(small.isReplicaUsable()).isFalse();
+            clock.addAndGet(WINDOW.toMillis());
+            assertThat(small.isReplicaUsable()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("延迟检查与指标")
+    class MonitorTests {
+
+        @Test
+        @DisplayName("延迟检查应该更新延迟，查询失败时把副本标记为不可用")
+        void shouldUpdateLagFromReplica() {
+            new ReplicaLagMonitor(replica, "SELECT 7000", routing).check();
+            assertThat(routing.getLagMillis()).isEqualTo(7000);
+            assertThat(routing.isReplicaUsable()).isFalse();
+
+            new ReplicaLagMonitor(replica, "SELECT 10", routing).check();
+            assertThat(routing.isReplicaUsable()).isTrue();
+
+            new ReplicaLagMonitor(replica, "SELECT no_such_column FROM whoami", routing).check();
+            assertThat(routing.isReplicaUsable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("应该按池名注册利用率，并按目标统计路由次数")
+        void shouldExposePoolUtilizationAndRoutes() throws Exception {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            try (HikariDataSource pool = new HikariDataSource()) {
+                pool.setPoolName("replica");
+                pool.setJdbcUrl("jdbc:h2:mem:pool-" + UUID.randomUUID());
+                pool.setMaximumPoolSize(4);
+                new DataSourcePoolMetrics(List.of(pool), routing).bindTo(registry);
+
+                inReadOnly(() -> whoAmI());
+                inReadWrite(() -> whoAmI());
+                try (Connection ignored = pool.getConnection()) {
+                    assertThat(registry.get(DataSourcePoolMetrics.UTILIZATION).tag("pool", "replica")
+                            .gauge().value()).isEqualTo(0.25);
+                }
+            }
+
+            assertThat(registry.get(DataSourcePoolMetrics.ROUTES).tag("target", "replica")
+                    .functionCounter().count()).isEqualTo(1);
+            assertThat(registry.get(DataSourcePoolMetrics.ROUTES).tag("target", "primary")
+                    .functionCounter().count()).isGreaterThanOrEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Service")
+    class ServiceTests {
+
+        @Test
+        @DisplayName("创建别名应该记录写入，随后查看详情与检查可用性应该固定主库")
+        void shouldRecordWritesAndPinReads() {
+            ShortLinkRepository repository = mock(ShortLinkRepository.class);
+            ReplicaRouting spyRouting = spy(routing);
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("replicaRouting", spyRouting);
+            ShortLinkService service = new ShortLinkService(repository,
+                    beans.getBeanProvider(ClickEventPublisher.class),
+                    beans.getBeanProvider(RedirectMetrics.class),
+                    beans.getBeanProvider(ShortCodeCodec.class),
+                    beans.getBeanProvider(NearLinkCache.class),
+                    beans.getBeanProvider(ShortLinkPartitions.class),
+                    beans.getBeanProvider(ReplicaRouting.class),
+                    beans.getBeanProvider(IdGenerator.class),
+                    beans.getBeanProvider(ShortCodePool.class),
+                    beans.getBeanProvider(AliasIndex.class),
+                    beans.getBeanProvider(ReservedWords.class),
+                    beans.getBeanProvider(UrlCanonicalizer.class),
+                    beans.getBeanProvider(StringRedisTemplate.class));
+            when(repository.save(any(ShortLink.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            service.createCustomShortLink("https://example.com/new", "newlink", null);
+            service.getShortLinkInfo("newlink");
+            service.isShortCodeAvailable("newlink");
+
+            verify(spyRouting).recordWrite("newlink");
+            verify(spyRouting, times(2)).pinPrimaryIfRecent("newlink");
+            assertThat(spyRouting.getTrackedWrites()).isEqualTo(1);
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private String inReadOnly(Supplier<String> work) {
+        return readOnly.execute(status -> work.get());
+    }
+
+    private String inReadWrite(Supplier<String> work) {
+        return readWrite.execute(status -> work.get());
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return h2;
+    }
+}
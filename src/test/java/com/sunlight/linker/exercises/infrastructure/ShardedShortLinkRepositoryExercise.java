@@ -0,0 +1,394 @@
+package com.sunlight.linker.exercises.infrastructure;
+
+import com.sunlight.linker.application.AliasIndex;
+import com.sunlight.linker.application.ExpiredLinkPurger;
+import com.sunlight.linker.application.NearLinkCache;
+import com.sunlight.linker.application.RedirectMetrics;
+import com.sunlight.linker.application.RedirectTarget;
+import com.sunlight.linker.application.ShardedShortLinkService;
+import com.sunlight.linker.application.ShortCodePool;
+import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.application.click.ClickEventPublisher;
+import com.sunlight.linker.config.PurgeProperties;
+import com.sunlight.linker.config.ShardingConfig;
+import com.sunlight.linker.core.ConsistentHashRing;
+import com.sunlight.linker.core.IdGenerator;
+import com.sunlight.linker.core.ReservedWords;
+import com.sunlight.linker.core.ShardedIds;
+import com.sunlight.linker.core.ShortCodeCodec;
+import com.sunlight.linker.core.UrlCanonicalizer;
+import com.sunlight.linker.domain.RedirectPolicy;
+import com.sunlight.linker.domain.ShortLink;
+import com.sunlight.linker.infrastructure.ShortLinkPartitions;
+import com.sunlight.linker.infrastructure.ShortLinkRepository;
+import com.sunlight.linker.infrastructure.replica.ReplicaRouting;
+import com.sunlight.linker.infrastructure.shard.ShardRoutingDataSource;
+import com.sunlight.linker.infrastructure.shard.ShardedShortLinkRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】ShardedShortLinkRepository 分片存储测试
+ *
+ * 【进阶挑战 - 水平分片】
+ *
+ * 学习目标：
+ * ✅ 用多个独立的H2内存库模拟分片，每个测试使用新的库名互不干扰
+ * ✅ 验证系统短码解码即可定位分片，别名按一致性哈希固定在一个分片
+ * ✅ 验证统计、热点链接的scatter-gather结果等于各分片之和
+ * ✅ 验证分片模式下的Service不访问单库Repository，也不开启单库事务
+ * ✅ 验证过期清理逐个分片执行，不兼容的单库功能会阻止启动
+ */
+@DisplayName("【练习】ShardedShortLinkRepository 分片存储测试")
+class ShardedShortLinkRepositoryExercise {
+
+    private static final int SHARDS = 3;
+
+    private List<DataSource> dataSources;
+    private ConsistentHashRing ring;
+    private ShardedShortLinkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            JdbcDataSource h2 = new JdbcDataSource();
+            h2.setURL("jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1");
+            dataSources.add(h2);
+        }
+        ring = new ConsistentHashRing(SHARDS, 160);
+        // 同步执行scatter，便于断言
+        repository = new ShardedShortLinkRepository(new ShardRoutingDataSource(dataSources), ring,
+                ShortCodeCodec.sequential(), Runnable::run);
+        repository.initializeSchema();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSources.forEach(ds -> new JdbcTemplate(ds).execute("SHUTDOWN"));
+    }
+
+    @Nested
+    @DisplayName("路由")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("系统短链接应该写入ring(longUrl)分片，ID内嵌该分片号")
+        void shouldPlaceSystemLinkByLongUrl() {
+            String longUrl = "https://example.com/a";
+
+            ShortLink created = repository.insert(new ShortLink(longUrl, null));
+
+            int expectedShard = ring.shardFor(longUrl);
+            assertThat(ShardedIds.shardOf(created.getId())).isEqualTo(expectedShard);
+            assertThat(created.getShortCode()).isEqualTo(ShortCodeCodec.sequential().encode(created.getId()));
+            assertThat(rowsOn(expectedShard)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("系统短码解码后应该直达所在分片")
+        void shouldResolveSystemCodeWithoutLookupTable() {
+            List<ShortLink> created = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                created.add(repository.insert(new ShortLink("https://example.com/" + i, null)));
+            }
+
+            for (ShortLink link : created) {
+                assertThat(repository.findByShortCode(link.getShortCode()))
+                        .get().extracting(ShortLink::getLongUrl).isEqualTo(link.getLongUrl());
+            }
+            assertThat(created).extracting(link -> ShardedIds.shardOf(link.getId()))
+                    .contains(0, 1, 2);
+        }
+
+        @Test
+        @DisplayName("自定义别名应该写入ring(alias)分片并能按别名查到")
+        void shouldPlaceAliasByHash() {
+            ShortLink alias = repository.insert(new ShortLink("https://example.com/docs", "docs", "文档"));
+
+            assertThat(rowsOn(ring.shardFor("docs"))).isEqualTo(1);
+            assertThat(alias.getIsCustomAlias()).isTrue();
+            assertThat(repository.findByShortCode("docs"))
+                    .get().extracting(ShortLink::getDescription).isEqualTo("文档");
+        }
+
+        @Test
+        @DisplayName("去重只查找系统短链接，同一长链接的别名不参与")
+        void shouldDeduplicateOnlySystemLinks() {
+            String longUrl = "https://example.com/dup";
+            repository.insert(new ShortLink(longUrl, "myalias", null));
+
+            assertThat(repository.findByLongUrl(longUrl)).isEmpty();
+
+            ShortLink system = repository.insert(new ShortLink(longUrl, null));
+            assertThat(repository.findByLongUrl(longUrl)).get()
+                    .extracting(ShortLink::getId).isEqualTo(system.getId());
+        }
+
+        @Test
+        @DisplayName("不存在的短码应该返回empty")
+        void shouldReturnEmptyForUnknownCode() {
+            assertThat(repository.findByShortCode("zzzzzz")).isEmpty();
+            assertThat(repository.existsByShortCode("zzzzzz")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("scatter-gather")
+    class ScatterGatherTests {
+
+        @Test
+        @DisplayName("批量检查应该找出落在任意分片上的短码")
+        void shouldFindExistingCodesAcrossShards() {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                taken.add(repository.insert(new ShortLink("https://example.com/batch/" + i, null)).getShortCode());
+            }
+            taken.add(repository.insert(new ShortLink("https://example.com/docs", "docs", null)).getShortCode());
+            List<String> query = new ArrayList<>(taken);
+            query.add("zzzzzz");
+
+            assertThat(repository.findExistingShortCodes(query)).containsExactlyInAnyOrderElementsOf(taken);
+            assertThat(repository.findExistingShortCodes(List.of())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("统计应该等于各分片之和")
+        void shouldSumStatsAcrossShards() {
+            for (int i = 0; i < 20; i++) {
+                ShortLink link = repository.insert(new ShortLink("https://example.com/s" + i, null));
+                repository.incrementAccessCount(link, i);
+            }
+            repository.insert(new ShortLink("https://example.com/x", "alias1", null));
+            repository.insert(new ShortLink("https://example.com/y", "alias2", null));
+
+            ShardedShortLinkRepository.ShardStats stats = repository.stats();
+
+            assertThat(stats.totalLinks()).isEqualTo(22);
+            assertThat(stats.totalAccess()).isEqualTo(190);
+            assertThat(stats.customAliases()).isEqualTo(2);
+            assertThat(rowsOn(0) + rowsOn(1) + rowsOn(2)).isEqualTo(22);
+        }
+
+        @Test
+        @DisplayName("热点链接应该合并各分片结果并按访问次数降序")
+        void shouldMergeHotLinksInOrder() {
+            for (int i = 0; i < 30; i++) {
+                ShortLink link = repository.insert(new ShortLink("https://example.com/h" + i, null));
+                repository.incrementAccessCount(link, i * 10L);
+            }
+
+            List<ShortLink> hot = repository.findHotLinks(200);
+
+            assertThat(hot).hasSize(9);
+            assertThat(hot).extracting(ShortLink::getAccessCount)
+                    .containsExactly(290L, 280L, 270L, 260L, 250L, 240L, 230L, 220L, 210L);
+            assertThat(repository.findTopAccessed(3)).extracting(ShortLink::getAccessCount)
+                    .containsExactly(290L, 280L, 270L);
+        }
+
+        @Test
+        @DisplayName("时间范围查询应该合并各分片并按创建时间升序")
+        void shouldMergeCreatedBetween() {
+            LocalDateTime start = LocalDateTime.now().minusMinutes(1);
+            for (int i = 0; i < 10; i++) {
+                repository.insert(new ShortLink("https://example.com/t" + i, null));
+            }
+
+            List<ShortLink> links = repository.findByCreatedAtBetween(start, LocalDateTime.now().plusMinutes(1));
+
+            assertThat(links).hasSize(10);
+            assertThat(links).extracting(ShortLink::getCreatedAt).isSorted();
+        }
+    }
+
+    @Nested
+    @DisplayName("分片Service")
+    class ServiceTests {
+
+        private ShortLinkRepository singleDatabase;
+        private ShortLinkService service;
+
+        @BeforeEach
+        void setUpService() {
+            singleDatabase = mock(ShortLinkRepository.class);
+            service = new ShardedShortLinkService(singleDatabase, repository);
+        }
+
+        @Test
+        @DisplayName("创建、解析与计数都应该只访问分片")
+        void shouldCreateAndResolveOnShards() {
+            ShortLink created = service.createShortLink("https://example.com/svc");
+            ShortLink again = service.createShortLink("https://example.com/svc");
+
+            Optional<RedirectTarget> target = service.resolveRedirect(created.getShortCode());
+
+            assertThat(again.getId()).isEqualTo(created.getId());
+            assertThat(target).get().extracting(RedirectTarget::longUrl).isEqualTo("https://example.com/svc");
+            assertThat(service.getShortLinkInfo(created.getShortCode()))
+                    .get().extracting(ShortLink::getAccessCount).isEqualTo(1L);
+            verifyNoInteractions(singleDatabase);
+        }
+
+        @Test
+        @DisplayName("已占用的别名应该抛出IllegalArgumentException")
+        void shouldRejectTakenAlias() {
+            service.createCustomShortLink("https://example.com/1", "taken", null);
+
+            assertThatThrownBy(() -> service.createCustomShortLink("https://example.com/2", "taken", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("taken");
+            assertThat(service.isShortCodeAvailable("taken")).isFalse();
+        }
+
+        @Test
+        @DisplayName("修改策略与统计应该作用在分片上")
+        void shouldUpdatePolicyAndReportStats() {
+            ShortLink created = service.createCustomShortLink("https://example.com/p", "policy", null);
+
+            service.updateRedirectPolicy("policy", RedirectPolicy.PERMANENT_REDIRECT);
+
+            assertThat(service.getShortLinkInfo("policy")).get()
+                    .extracting(ShortLink::getRedirectPolicy).isEqualTo(RedirectPolicy.PERMANENT_REDIRECT);
+            assertThat(service.getSystemStats().getCustomAliases()).isEqualTo(1);
+            assertThat(created.getShortCode()).isEqualTo("policy");
+        }
+
+        @Test
+        @DisplayName("应该使用配置的保留词和长链接规范化")
+        void shouldUseConfiguredReservedWordsAndCanonicalizer() {
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("reservedWords", ReservedWords.of(List.of("promo")));
+            beans.addBean("urlCanonicalizer", new UrlCanonicalizer(List.of("utm_*"), false));
+            ShortLinkService configured = new ShardedShortLinkService(singleDatabase, repository,
+                    beans.getBeanProvider(ClickEventPublisher.class),
+                    beans.getBeanProvider(RedirectMetrics.class),
+                    beans.getBeanProvider(ShortCodeCodec.class),
+                    beans.getBeanProvider(NearLinkCache.class),
+                    beans.getBeanProvider(ShortLinkPartitions.class),
+                    beans.getBeanProvider(ReplicaRouting.class),
+                    beans.getBeanProvider(IdGenerator.class),
+                    beans.getBeanProvider(ShortCodePool.class),
+                    beans.getBeanProvider(AliasIndex.class),
+                    beans.getBeanProvider(ReservedWords.class),
+                    beans.getBeanProvider(UrlCanonicalizer.class),
+                    beans.getBeanProvider(StringRedisTemplate.class));
+
+            assertThatThrownBy(() -> configured.createCustomShortLink("https://example.com/r", "promo", null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            ShortLink created = configured.createCustomShortLink("https://Example.com/r?utm_source=x", "sale", null);
+
+            assertThat(created.getLongUrl()).isEqualTo("https://example.com/r");
+            verifyNoInteractions(singleDatabase);
+        }
+
+        @Test
+        @DisplayName("所有公开业务方法都应该以NOT_SUPPORTED执行，不开启单库JPA事务")
+        void shouldNotJoinSingleDatabaseTransactions() {
+            AnnotationTransactionAttributeSource source = new AnnotationTransactionAttributeSource();
+            List<Method> methods = Arrays.stream(ShortLinkService.class.getDeclaredMethods())
+                    .filter(method -> Modifier.isPublic(method.getModifiers()))
+                    .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                    .toList();
+
+            assertThat(methods).isNotEmpty();
+            for (Method method : methods) {
+                TransactionAttribute attribute = source.getTransactionAttribute(method, ShardedShortLinkService.class);
+                assertThat(attribute).as(method.getName()).isNotNull();
+                assertThat(attribute.getPropagationBehavior()).as(method.toString())
+                        .isEqualTo(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("过期清理与功能检查")
+    class PurgeTests {
+
+        @Test
+        @DisplayName("清理任务应该在每个分片上分批删除过期链接，不访问单库")
+        void shouldPurgeExpiredLinksOnEveryShard() {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 12; i++) {
+                ShortLink expired = new ShortLink("https://example.com/old/" + i, null);
+                expired.setExpiresAt(now.minusMinutes(i + 1));
+                repository.insert(expired);
+            }
+            ShortLink live = new ShortLink("https://example.com/live", null);
+            live.setExpiresAt(now.plusDays(1));
+            repository.insert(live);
+            repository.insert(new ShortLink("https://example.com/forever", "forever", null));
+            PurgeProperties properties = new PurgeProperties();
+            properties.setBatchSize(2);
+            properties.setBatchPause(Duration.ZERO);
+            ShortLinkRepository singleDatabase = mock(ShortLinkRepository.class);
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            beanFactory.addBean("shards", repository);
+            ExpiredLinkPurger purger = new ExpiredLinkPurger(singleDatabase, mock(PlatformTransactionManager.class),
+                    properties, beanFactory.getBeanProvider(ShardedShortLinkRepository.class));
+
+            assertThat(purger.purgeExpiredBefore(now)).isEqualTo(12);
+
+            assertThat(rowsOn(0) + rowsOn(1) + rowsOn(2)).isEqualTo(2);
+            assertThat(repository.findByShortCode("forever")).isPresent();
+            verifyNoInteractions(singleDatabase);
+        }
+
+        @Test
+        @DisplayName("与单库功能同时开启时应该拒绝启动")
+        void shouldRejectIncompatibleFeatures() {
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("app.near-cache.enabled", "true")
+                    .withProperty("app.click-pipeline.enabled", "true")
+                    .withProperty("app.snapshot.enabled", "true")
+                    .withProperty("app.read-replica.enabled", "true")
+                    .withProperty("app.partitioning.enabled", "true")
+                    .withProperty("app.url-canonical.enabled", "true");
+
+            assertThatThrownBy(() -> ShardingConfig.checkCompatibility(environment))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("app.near-cache.enabled")
+                    .hasMessageContaining("app.click-pipeline.enabled")
+                    .hasMessageContaining("app.snapshot.enabled")
+                    .hasMessageContaining("app.read-replica.enabled")
+                    .hasMessageContaining("app.partitioning.enabled")
+                    .hasMessageNotContaining("url-canonical");
+            assertThatCode(() -> ShardingConfig.checkCompatibility(
+                    new MockEnvironment().withProperty("app.alias-index.enabled", "false")))
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private int rowsOn(int shard) {
+        return new JdbcTemplate(dataSources.get(shard)).queryForObject("SELECT COUNT(*) FROM short_links", Integer.class);
+    }
+}
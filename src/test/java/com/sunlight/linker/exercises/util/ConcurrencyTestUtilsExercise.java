@@ -0,0 +1,143 @@
+package com.sunlight.linker.exercises.util;
+
+import com.sunlight.linker.util.ConcurrencyTestUtils;
+import com.sunlight.linker.util.ConcurrencyTestUtils.ConcurrentTestResult;
+import com.sunlight.linker.util.ConcurrencyTestUtils.LoadTestResult;
+import com.sunlight.linker.util.ConcurrencyTestUtils.ThreadMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】ConcurrencyTestUtils 线程模式测试
+ *
+ * 学习目标：
+ * ✅ 验证VIRTUAL模式下任务确实运行在虚拟线程上
+ * ✅ 体会虚拟线程可以用上万个并发单元模拟阻塞型客户端
+ * ✅ 对比开放模型下修正前后的延迟，理解协调遗漏（coordinated omission）
+ */
+@DisplayName("【练习】ConcurrencyTestUtils 线程模式测试")
+class ConcurrencyTestUtilsExercise {
+
+    @Test
+    @DisplayName("PLATFORM模式下任务运行在平台线程上")
+    void shouldRunOnPlatformThreads() {
+        ConcurrentTestResult<Boolean> result = ConcurrencyTestUtils.runConcurrentTasks(
+                () -> Thread.currentThread().isVirtual(), 4, 10, 10, ThreadMode.PLATFORM);
+
+        assertThat(result.getSuccessCount()).isEqualTo(40);
+        assertThat(result.getResults()).containsOnly(false);
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("VIRTUAL模式下一万个阻塞任务应该全部完成")
+    void shouldRunTenThousandBlockingTasksOnVirtualThreads() {
+        ConcurrentTestResult<Boolean> result = ConcurrencyTestUtils.runConcurrentTasks(() -> {
+            try {
+                // 模拟等待Redis/JDBC响应
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().isVirtual();
+        }, 10_000, 1, 20, ThreadMode.VIRTUAL);
+
+        assertThat(result.hasExceptions()).isFalse();
+        assertThat(result.getSuccessCount()).isEqualTo(10_000);
+        assertThat(result.getResults()).containsOnly(true);
+    }
+
+    @Test
+    @DisplayName("闭环模型应该记录每个任务的耗时分布")
+    void shouldRecordLatencyInClosedModel() {
+        ConcurrentTestResult<Integer> result = ConcurrencyTestUtils.runConcurrentTasks(
+                () -> 1, 8, 1_000, 10, ThreadMode.PLATFORM);
+
+        assertThat(result.getResults()).hasSize(8_000);
+        assertThat(result.getLatency().getTotalCount()).isEqualTo(8_000);
+        assertThat(result.getLatency().getValueAtPercentile(50.0)).isPositive();
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("固定到达速率应该按计划发出全部请求")
+    void shouldIssueRequestsAtConstantRate() {
+        AtomicInteger calls = new AtomicInteger();
+
+        LoadTestResult result = ConcurrencyTestUtils.runConstantArrivalRate(
+                calls::incrementAndGet, 500, Duration.ofSeconds(1), 4, ThreadMode.PLATFORM);
+
+        assertThat(result.getPlannedCount()).isEqualTo(500);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(calls.get()).isEqualTo(500);
+        assertThat(result.getFailureCount()).isZero();
+        // 开放模型下发压速率不会超过计划速率
+        assertThat(result.getAchievedRate()).isLessThanOrEqualTo(520.0);
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("服务卡顿时修正后的延迟应该包含排队时间")
+    void shouldCorrectForCoordinatedOmission() {
+        AtomicBoolean stalled = new AtomicBoolean();
+        LoadTestResult result = ConcurrencyTestUtils.runConstantArrivalRate(() -> {
+            // 第一次调用卡顿300ms，模拟一次GC停顿或锁等待
+            if (stalled.compareAndSet(false, true)) {
+                sleep(300);
+            }
+            return null;
+        }, 200, Duration.ofSeconds(1), 1, ThreadMode.PLATFORM);
+
+        assertThat(result.isComplete()).isTrue();
+        // 实际执行耗时：只有一个请求慢
+        assertThat(result.getServiceTime().getValueAtPercentile(50.0)).isLessThan(TimeUnit.MILLISECONDS.toNanos(5));
+        // 修正后：卡顿期间计划发出的约60个请求都在排队，p50以上的百分位被拉高
+        assertThat(result.getResponseTime().getValueAtPercentile(90.0))
+                .isGreaterThan(result.getServiceTime().getValueAtPercentile(90.0));
+        assertThat(result.getResponseTime().getMaxValue()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    @DisplayName("失败的请求应该计数并保留异常样本")
+    void shouldCountFailures() {
+        LoadTestResult result = ConcurrencyTestUtils.runConstantArrivalRate(() -> {
+            throw new IllegalStateException("模拟失败");
+        }, 100, Duration.ofMillis(500), 2, ThreadMode.PLATFORM);
+
+        assertThat(result.getFailureCount()).isEqualTo(result.getIssuedCount()).isEqualTo(50);
+        assertThat(result.getErrorRate()).isEqualTo(1.0);
+        assertThat(result.getSampleExceptions()).hasSize(ConcurrencyTestUtils.MAX_SAMPLE_EXCEPTIONS);
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    @DisplayName("阶梯压测应该在超过p99阈值的级别停止")
+    void shouldStopSweepWhenP99ExceedsLimit() {
+        // 单个工作线程、每次2ms：每秒最多约500个，超过后排队时间迅速增长
+        List<LoadTestResult> results = ConcurrencyTestUtils.arrivalRateSweep(
+                () -> sleep(2), 100, 400, 2_100, Duration.ofMillis(500), 1, Duration.ofMillis(50), 0.01);
+
+        assertThat(results).hasSizeBetween(2, 6);
+        LoadTestResult last = results.get(results.size() - 1);
+        assertThat(last.getResponseTime().getValueAtPercentile(99.0))
+                .isGreaterThan(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.sunlight.linker.exercises.util;
+
+import com.sunlight.linker.util.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 【练习】LatencyHistogram 对数分桶直方图测试
+ *
+ * 学习目标：
+ * ✅ 验证百分位值在声明的精度范围内
+ * ✅ 验证合并多个单写者直方图的结果与单个直方图一致
+ * ✅ 验证超出量程的样本不会丢失最大值
+ */
+@DisplayName("【练习】LatencyHistogram 直方图测试")
+class LatencyHistogramExercise {
+
+    @Test
+    @DisplayName("空直方图的统计值都应该为0")
+    void shouldReportZerosWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getTotalCount()).isZero();
+        assertThat(histogram.getValueAtPercentile(99.0)).isZero();
+        assertThat(histogram.getMinValue()).isZero();
+        assertThat(histogram.getMaxValue()).isZero();
+    }
+
+    @ParameterizedTest(name = "有效数字 {0} 位")
+    @ValueSource(ints = {1, 2, 3})
+    @DisplayName("均匀分布样本的百分位应该落在精度范围内")
+    void shouldReportPercentilesWithinPrecision(int significantDigits) {
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.SECONDS.toNanos(10), significantDigits);
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.recordValue(value * 1_000);
+        }
+
+        double tolerance = Math.pow(10, -significantDigits);
+        assertThat(histogram.getValueAtPercentile(50.0)).isCloseTo(50_000_000L, withinPercentage(tolerance * 100));
+        assertThat(histogram.getValueAtPercentile(99.0)).isCloseTo(99_000_000L, withinPercentage(tolerance * 100));
+        assertThat(histogram.getValueAtPercentile(99.9)).isCloseTo(99_900_000L, withinPercentage(tolerance * 100));
+        assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(100_000_000L);
+        assertThat(histogram.getMean()).isCloseTo(50_000_500.0, within(1.0));
+    }
+
+    @Test
+    @DisplayName("百分位值不应该小于真实值")
+    void shouldNeverUnderReportPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordValue(1_234_567);
+
+        assertThat(histogram.getValueAtPercentile(50.0))
+                .isGreaterThanOrEqualTo(1_234_567)
+                .isEqualTo(histogram.getMaxValue());
+    }
+
+    @Test
+    @DisplayName("合并后的直方图应该与直接记录全部样本的结果相同")
+    void shouldMergeHistograms() {
+        LatencyHistogram combined = new LatencyHistogram();
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            combined.recordValue(value * 997);
+            (value % 2 == 0 ? first : second).recordValue(value * 997);
+        }
+
+        first.add(second);
+
+        assertThat(first.getTotalCount()).isEqualTo(combined.getTotalCount());
+        assertThat(first.getMinValue()).isEqualTo(combined.getMinValue());
+        assertThat(first.getMaxValue()).isEqualTo(combined.getMaxValue());
+        for (double percentile : new double[]{50.0, 90.0, 99.0, 99.9}) {
+            assertThat(first.getValueAtPercentile(percentile)).isEqualTo(combined.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    @DisplayName("不同布局的直方图不能合并")
+    void shouldRejectMergingDifferentLayouts() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000, 2);
+
+        assertThatThrownBy(() -> histogram.add(new LatencyHistogram(1_000_000, 3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("超出量程的样本应该计入最高桶并保留精确最大值")
+    void shouldClampValuesAboveHighestTrackable() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000, 2);
+        histogram.recordValue(10);
+        histogram.recordValue(50_000_000);
+
+        assertThat(histogram.getTotalCount()).isEqualTo(2);
+        assertThat(histogram.getMaxValue()).isEqualTo(50_000_000);
+        assertThat(histogram.getValueAtPercentile(100.0)).isGreaterThanOrEqualTo(1_000_000);
+    }
+
+    @Test
+    @DisplayName("负数样本和非法精度应该抛出异常")
+    void shouldRejectInvalidInput() {
+        assertThatThrownBy(() -> new LatencyHistogram().recordValue(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyHistogram(1_000, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("有效数字");
+    }
+}
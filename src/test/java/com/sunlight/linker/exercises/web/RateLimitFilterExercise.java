@@ -0,0 +1,124 @@
+package com.sunlight.linker.exercises.web;
+
+import com.sunlight.linker.application.RateLimiter;
+import com.sunlight.linker.config.RateLimitProperties;
+import com.sunlight.linker.web.RateLimitFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 【练习】限流过滤器测试
+ *
+ * 【进阶挑战 - 限流】
+ *
+ * 学习目标：
+ * ✅ 验证放行的请求继续过滤器链
+ * ✅ 验证拒绝的请求返回429、Retry-After和JSON错误信息，且不进入控制器
+ * ✅ 验证客户端标识的来源：请求头、X-Forwarded-For、远端地址
+ */
+@DisplayName("【练习】限流过滤器测试")
+class RateLimitFilterExercise {
+
+    private RateLimiter rateLimiter;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = mock(RateLimiter.class);
+        properties = new RateLimitProperties();
+    }
+
+    @Test
+    @DisplayName("放行的请求应该继续过滤器链")
+    void shouldPassAllowedRequests() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/s/abc");
+        request.setContextPath("/app");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new RateLimitFilter(rateLimiter, properties).doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(rateLimiter).check("GET", "/s/abc", "127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("拒绝的请求应该返回429和向上取整的Retry-After")
+    void shouldRejectWithRetryAfter() throws Exception {
+        when(rateLimiter.check(anyString(), anyString(), anyString()))
+                .thenReturn(TimeUnit.MILLISECONDS.toNanos(1_500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new RateLimitFilter(rateLimiter, properties)
+                .doFilter(new MockHttpServletRequest("POST", "/api/v1/links"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(response.getContentAsString()).contains("\"error\"").contains("请求过于频繁");
+    }
+
+    @Test
+    @DisplayName("应该优先按配置的请求头区分客户端")
+    void shouldUseClientHeader() throws Exception {
+        properties.setClientHeader("X-Api-Key");
+        properties.setTrustForwardedFor(true);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, properties);
+
+        MockHttpServletRequest withKey = new MockHttpServletRequest("GET", "/s/abc");
+        withKey.addHeader("X-Api-Key", "key-1");
+        withKey.addHeader("X-Forwarded-For", "203.0.113.7");
+        filter.doFilter(withKey, new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletRequest withoutKey = new MockHttpServletRequest("GET", "/s/abc");
+        withoutKey.addHeader("X-Forwarded-For", "198.51.100.9, 203.0.113.7");
+        filter.doFilter(withoutKey, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).check("GET", "/s/abc", "key-1");
+        verify(rateLimiter).check("GET", "/s/abc", "203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("默认不信任X-Forwarded-For，防止客户端伪造地址绕过限流")
+    void shouldIgnoreForwardedForByDefault() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/s/abc");
+        request.setRemoteAddr("198.51.100.1");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        new RateLimitFilter(rateLimiter, properties)
+                .doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimiter).check("GET", "/s/abc", "198.51.100.1");
+    }
+
+    @Test
+    @DisplayName("应该按可信代理层数从右往左取地址，客户端伪造的左侧地址不影响分桶")
+    void shouldCountTrustedProxiesFromTheRight() throws Exception {
+        properties.setTrustForwardedFor(true);
+        properties.setTrustedProxies(2);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, properties);
+
+        for (String spoofed : new String[] {"1.1.1.1", "2.2.2.2, 3.3.3.3"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/s/abc");
+            request.addHeader("X-Forwarded-For", spoofed + ", 203.0.113.7");
+            // 第二层代理另起一行追加
+            request.addHeader("X-Forwarded-For", "10.0.0.1");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        verify(rateLimiter, times(2)).check("GET", "/s/abc", "203.0.113.7");
+    }
+}
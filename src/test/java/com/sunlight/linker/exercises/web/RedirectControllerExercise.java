@@ -1,6 +1,8 @@
 package com.sunlight.linker.exercises.web;
 
+import com.sunlight.linker.application.RedirectTarget;
 import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.domain.RedirectPolicy;
 import com.sunlight.linker.web.RedirectController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,11 +13,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -96,8 +100,8 @@ class RedirectControllerExercise {
     @DisplayName("有效短码应该重定向到长链接")
     void shouldRedirectToLongUrlSuccessfully() throws Exception {
         // TODO: Given - Mock Service返回长链接
-         when(shortLinkService.getLongUrl(VALID_SHORT_CODE))
-             .thenReturn(Optional.of(VALID_LONG_URL));
+         when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+             .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
         
          // TODO: When & Then - 执行请求并验证重定向
          mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
@@ -105,7 +109,7 @@ class RedirectControllerExercise {
              .andExpect(header().string("Location", VALID_LONG_URL));
         
          // TODO: 验证Service方法调用
-         verify(shortLinkService, times(1)).getLongUrl(VALID_SHORT_CODE);
+         verify(shortLinkService, times(1)).resolveRedirect(VALID_SHORT_CODE);
     }
     
     /**
@@ -117,7 +121,7 @@ class RedirectControllerExercise {
     @DisplayName("不存在的短码应该返回404")
     void shouldReturn404ForNonExistentShortCode() throws Exception {
         // TODO: Given - Mock Service返回空Optional
-        when(shortLinkService.getLongUrl(anyString()))
+        when(shortLinkService.resolveRedirect(anyString()))
                 .thenReturn(Optional.empty());
         // TODO: When & Then - 验证404响应
         // 验证状态码为404 Not Found
@@ -126,7 +130,18 @@ class RedirectControllerExercise {
                 .andExpect(status().isNotFound())
                 .andExpect(header().doesNotExist("Location"));
     }
-    
+
+    @Test
+    @DisplayName("近端缓存记录为已过期的短码应该返回410")
+    void shouldReturn410ForExpiredShortCode() throws Exception {
+        when(shortLinkService.resolveRedirect("expired1")).thenReturn(Optional.empty());
+        when(shortLinkService.isExpired("expired1")).thenReturn(true);
+
+        mockMvc.perform(get(REDIRECT_PATH + "expired1"))
+                .andExpect(status().isGone())
+                .andExpect(header().doesNotExist("Location"));
+    }
+
     /**
      * 【练习5.3】各种短码格式测试
      * 
@@ -147,7 +162,7 @@ class RedirectControllerExercise {
         // 3. 验证重定向成功
         String numericCode = "12345";
         String numericUrl = "https://example.com/numeric";
-        when(shortLinkService.getLongUrl(numericCode)).thenReturn(Optional.of(numericUrl));
+        when(shortLinkService.resolveRedirect(numericCode)).thenReturn(Optional.of(RedirectTarget.temporary(numericUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + numericCode))
                 .andExpect(status().isFound())
@@ -156,7 +171,7 @@ class RedirectControllerExercise {
         // 场景2: 测试字母数字混合短码
         String alphanumericCode = "a1B2c3D4";
         String alphanumericUrl = "https://example.com/alphanumeric";
-        when(shortLinkService.getLongUrl(alphanumericCode)).thenReturn(Optional.of(alphanumericUrl));
+        when(shortLinkService.resolveRedirect(alphanumericCode)).thenReturn(Optional.of(RedirectTarget.temporary(alphanumericUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + alphanumericCode))
                 .andExpect(status().isFound())
@@ -165,7 +180,7 @@ class RedirectControllerExercise {
         // 场景3: 测试单字符短码
         String singleChar = "Z";
         String singleCharUrl = "https://example.com/singlechar";
-        when(shortLinkService.getLongUrl(singleChar)).thenReturn(Optional.of(singleCharUrl));
+        when(shortLinkService.resolveRedirect(singleChar)).thenReturn(Optional.of(RedirectTarget.temporary(singleCharUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + singleChar))
                 .andExpect(status().isFound())
@@ -174,7 +189,7 @@ class RedirectControllerExercise {
         // 场景4: (新增) 测试最大长度短码 (20个字符)
         String maxLengthCode = "AbcDef123GhijKl456Mn"; // 一个20个字符的字符串
         String maxLengthUrl = "https://example.com/max-length";
-        when(shortLinkService.getLongUrl(maxLengthCode)).thenReturn(Optional.of(maxLengthUrl));
+        when(shortLinkService.resolveRedirect(maxLengthCode)).thenReturn(Optional.of(RedirectTarget.temporary(maxLengthUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + maxLengthCode))
                 .andExpect(status().isFound())
@@ -197,7 +212,7 @@ class RedirectControllerExercise {
         // - 包含特殊符号的短码  
         // - 包含URL编码字符的短码
         // 模拟对于任何无效/恶意的输入，服务层都返回空
-        when(shortLinkService.getLongUrl(anyString())).thenReturn(Optional.empty());
+        when(shortLinkService.resolveRedirect(anyString())).thenReturn(Optional.empty());
 
         // 测试用例1: 包含空格的短码
         mockMvc.perform(get(REDIRECT_PATH + "invalid code"))
@@ -229,7 +244,7 @@ class RedirectControllerExercise {
         // 验证系统能够正确处理而不会出现异常
         String veryLongCode = "a".repeat(100);
 
-        when(shortLinkService.getLongUrl(veryLongCode))
+        when(shortLinkService.resolveRedirect(veryLongCode))
                 .thenReturn(Optional.empty());
 
         // 期望控制器能够优雅地处理这个超长输入，并返回 404
@@ -246,11 +261,11 @@ class RedirectControllerExercise {
     @DisplayName("Service异常应该被适当处理")
     void shouldHandleServiceExceptions() throws Exception {
         // TODO: Mock Service抛出RuntimeException
-        // when(shortLinkService.getLongUrl(anyString()))
+        // when(shortLinkService.resolveRedirect(anyString()))
         //     .thenThrow(new RuntimeException("数据库连接失败"));
         
         // TODO: 验证异常被正确处理
-        when(shortLinkService.getLongUrl(anyString()))
+        when(shortLinkService.resolveRedirect(anyString()))
                 .thenThrow(new RuntimeException("数据库连接失败"));
 
         mockMvc.perform(get(REDIRECT_PATH + "anycode"))
@@ -275,7 +290,7 @@ class RedirectControllerExercise {
         // 场景1: 测试 JavaScript 伪协议 (XSS风险)
         String xssUrl = "javascript:alert('xss')";
         String xssCode = "xss-code";
-        when(shortLinkService.getLongUrl(xssCode)).thenReturn(Optional.of(xssUrl));
+        when(shortLinkService.resolveRedirect(xssCode)).thenReturn(Optional.of(RedirectTarget.temporary(xssUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + xssCode))
                 .andExpect(status().isFound()) // 控制器仍然会发出302重定向
@@ -284,7 +299,7 @@ class RedirectControllerExercise {
         // 场景2: 测试 data: 协议 (XSS风险)
         String dataProtocolUrl = "data:text/html,<script>alert('xss')</script>";
         String dataProtocolCode = "data-protocol-code";
-        when(shortLinkService.getLongUrl(dataProtocolCode)).thenReturn(Optional.of(dataProtocolUrl));
+        when(shortLinkService.resolveRedirect(dataProtocolCode)).thenReturn(Optional.of(RedirectTarget.temporary(dataProtocolUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + dataProtocolCode))
                 .andExpect(status().isInternalServerError());
@@ -292,7 +307,7 @@ class RedirectControllerExercise {
         // 场景3: 测试 file: 协议 (本地文件泄露风险)
         String fileProtocolUrl = "file:///etc/passwd";
         String fileProtocolCode = "file-protocol-code";
-        when(shortLinkService.getLongUrl(fileProtocolCode)).thenReturn(Optional.of(fileProtocolUrl));
+        when(shortLinkService.resolveRedirect(fileProtocolCode)).thenReturn(Optional.of(RedirectTarget.temporary(fileProtocolUrl)));
 
         mockMvc.perform(get(REDIRECT_PATH + fileProtocolCode))
                 .andExpect(status().isFound())
@@ -308,19 +323,19 @@ class RedirectControllerExercise {
     @DisplayName("成功重定向应该触发访问计数增加")
     void shouldTriggerAccessCountIncrement() throws Exception {
         // TODO: 这是一个集成性测试
-        // 1. Mock Service.getLongUrl()返回URL
+        // 1. Mock Service.resolveRedirect()返回URL
         // 2. 发送重定向请求
-        // 3. 验证Service.getLongUrl()被调用（间接验证计数逻辑）
+        // 3. 验证Service.resolveRedirect()被调用（间接验证计数逻辑）
         
         // 注意：由于我们Mock了Service，无法直接测试计数增加
         // 这里主要验证方法调用的正确性
 
-        when(shortLinkService.getLongUrl(VALID_SHORT_CODE))
-                .thenReturn(Optional.of(VALID_LONG_URL));
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
 
         mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE));
 
-        verify(shortLinkService, times(1)).getLongUrl(VALID_SHORT_CODE);
+        verify(shortLinkService, times(1)).resolveRedirect(VALID_SHORT_CODE);
     }
     
     /**
@@ -339,14 +354,14 @@ class RedirectControllerExercise {
         String targetUrl = "https://example.com/decoded-url";
 
         // Mock Service期望接收到的是已经被解码后的原始字符串
-        when(shortLinkService.getLongUrl(decodedShortCode)).thenReturn(Optional.of(targetUrl));
+        when(shortLinkService.resolveRedirect(decodedShortCode)).thenReturn(Optional.of(RedirectTarget.temporary(targetUrl)));
 
         // MockMvc 会自动将其正确编码为 /s/test%20code 或 /s/test+code 并发送请求。
         mockMvc.perform(get(REDIRECT_PATH + "{shortCode}", decodedShortCode))
                 .andExpect(status().isFound())
                 .andExpect(header().string("Location", targetUrl));
 
-        verify(shortLinkService, times(1)).getLongUrl(decodedShortCode);
+        verify(shortLinkService, times(1)).resolveRedirect(decodedShortCode);
 
     }
     
@@ -388,8 +403,8 @@ class RedirectControllerExercise {
         // 验证所有请求都能正确处理
         // Given - 准备测试数据和Mock行为
         // 模拟Service层对于有效的短码总是返回同一个长链接
-        when(shortLinkService.getLongUrl(VALID_SHORT_CODE))
-                .thenReturn(Optional.of(VALID_LONG_URL));
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
 
         int concurrentRequests = 20; // 定义并发请求的数量
         List<CompletableFuture<Void>> futures = new ArrayList<>();
@@ -416,7 +431,7 @@ class RedirectControllerExercise {
 
         // Then - 验证Service方法被调用的总次数
         // 这是关键一步：确认即使在并发情况下，每个请求都正确地调用了Service层一次
-        verify(shortLinkService, times(concurrentRequests)).getLongUrl(VALID_SHORT_CODE);
+        verify(shortLinkService, times(concurrentRequests)).resolveRedirect(VALID_SHORT_CODE);
     }
     
     /**
@@ -432,12 +447,96 @@ class RedirectControllerExercise {
         // 2. Cache-Control头（如果有的话）
         // 3. 其他相关的响应头
 
-        when(shortLinkService.getLongUrl(VALID_SHORT_CODE))
-                .thenReturn(Optional.of(VALID_LONG_URL));
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
 
         mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
                 .andExpect(status().isFound())
                 .andExpect(header().string("Location", VALID_LONG_URL))
                 .andReturn();
     }
+    
+    /**
+     * 【练习5.13】重定向策略与缓存头测试
+     * 
+     * 验证不同重定向策略对应的状态码、Cache-Control与条件请求
+     */
+    @Test
+    @DisplayName("302重定向应该禁止缓存")
+    void shouldDisableCachingForTemporaryRedirect() throws Exception {
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    @DisplayName("307重定向应该保持方法并禁止缓存")
+    void shouldReturnTemporaryRedirectWithoutCaching() throws Exception {
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(new RedirectTarget(VALID_LONG_URL, RedirectPolicy.TEMPORARY_REDIRECT)));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", VALID_LONG_URL))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    @DisplayName("301重定向应该允许公共缓存并附带ETag")
+    void shouldReturnCacheablePermanentRedirect() throws Exception {
+        RedirectTarget target = new RedirectTarget(VALID_LONG_URL, RedirectPolicy.MOVED_PERMANENTLY);
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE)).thenReturn(Optional.of(target));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", VALID_LONG_URL))
+                .andExpect(header().string("Cache-Control", "max-age=86400, public"))
+                .andExpect(header().string("ETag", target.etag()));
+    }
+
+    @Test
+    @DisplayName("即将过期的301重定向缓存时长不应该超过剩余有效期，剩余不足1秒时禁止缓存")
+    void shouldCapMaxAgeAtRemainingLifetime() throws Exception {
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE)).thenReturn(Optional.of(new RedirectTarget(
+                VALID_LONG_URL, RedirectPolicy.MOVED_PERMANENTLY, LocalDateTime.now().plusHours(1))));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Cache-Control", matchesPattern("max-age=(3599|3600), public")));
+
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE)).thenReturn(Optional.of(new RedirectTarget(
+                VALID_LONG_URL, RedirectPolicy.MOVED_PERMANENTLY, LocalDateTime.now().plusNanos(500_000_000))));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    @DisplayName("308重定向命中If-None-Match时应该返回304")
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        RedirectTarget target = new RedirectTarget(VALID_LONG_URL, RedirectPolicy.PERMANENT_REDIRECT);
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE)).thenReturn(Optional.of(target));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE).header("If-None-Match", "W/" + target.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", target.etag()));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE).header("If-None-Match", "\"stale\""))
+                .andExpect(status().isPermanentRedirect());
+    }
+
+    @Test
+    @DisplayName("临时重定向忽略条件请求")
+    void shouldIgnoreConditionalRequestForTemporaryRedirect() throws Exception {
+        when(shortLinkService.resolveRedirect(VALID_SHORT_CODE))
+                .thenReturn(Optional.of(RedirectTarget.temporary(VALID_LONG_URL)));
+
+        mockMvc.perform(get(REDIRECT_PATH + VALID_SHORT_CODE).header("If-None-Match", "*"))
+                .andExpect(status().isFound());
+    }
 }
@@ -2,6 +2,7 @@ package com.sunlight.linker.exercises.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sunlight.linker.application.ShortLinkService;
+import com.sunlight.linker.domain.RedirectPolicy;
 import com.sunlight.linker.domain.ShortLink;
 import com.sunlight.linker.web.ShortLinkController;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,9 +23,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -283,6 +286,51 @@ class ShortLinkControllerExercise {
         }
     }
 
+    /**
+     * 重定向策略API测试组
+     */
+    @Nested
+    @DisplayName("重定向策略API测试")
+    class RedirectPolicyTests {
+
+        @Test
+        @DisplayName("应该修改重定向策略并返回最新信息")
+        void shouldUpdateRedirectPolicy() throws Exception {
+            testShortLink.setRedirectPolicy(RedirectPolicy.MOVED_PERMANENTLY);
+            when(shortLinkService.updateRedirectPolicy(VALID_SHORT_CODE, RedirectPolicy.MOVED_PERMANENTLY))
+                    .thenReturn(Optional.of(testShortLink));
+
+            mockMvc.perform(put(API_BASE_PATH + "/" + VALID_SHORT_CODE + "/redirect-policy")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"redirectPolicy\":\"MOVED_PERMANENTLY\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.redirectPolicy").value("MOVED_PERMANENTLY"));
+        }
+
+        @Test
+        @DisplayName("不存在的短码应该返回404")
+        void shouldReturn404WhenUpdatingUnknownCode() throws Exception {
+            when(shortLinkService.updateRedirectPolicy(anyString(), any(RedirectPolicy.class)))
+                    .thenReturn(Optional.empty());
+
+            mockMvc.perform(put(API_BASE_PATH + "/nothere/redirect-policy")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"redirectPolicy\":\"PERMANENT_REDIRECT\"}"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("缺少策略应该返回400")
+        void shouldRejectMissingPolicy() throws Exception {
+            mockMvc.perform(put(API_BASE_PATH + "/" + VALID_SHORT_CODE + "/redirect-policy")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(shortLinkService, never()).updateRedirectPolicy(anyString(), any());
+        }
+    }
+
     /**
      * 热门链接API测试组
      */
@@ -451,6 +499,59 @@ class ShortLinkControllerExercise {
             mockMvc.perform(get(API_BASE_PATH + "/check-availability"))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("已占用短码应该附带可用的别名建议")
+        void shouldSuggestAlternativesForOccupiedShortCode() throws Exception {
+            when(shortLinkService.isShortCodeAvailable("promo")).thenReturn(false);
+            when(shortLinkService.suggestAliases("promo", 3)).thenReturn(List.of("promo1", "promo3", "promo4"));
+
+            mockMvc.perform(get(API_BASE_PATH + "/check-availability")
+                            .param("shortCode", "promo")
+                            .param("suggestions", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.available").value(false))
+                    .andExpect(jsonPath("$.suggestions", contains("promo1", "promo3", "promo4")));
+        }
+
+        @Test
+        @DisplayName("请求的建议数应该被限制在上限以内")
+        void shouldCapSuggestionCount() throws Exception {
+            when(shortLinkService.isShortCodeAvailable("promo")).thenReturn(false);
+
+            mockMvc.perform(get(API_BASE_PATH + "/check-availability")
+                            .param("shortCode", "promo")
+                            .param("suggestions", "100"))
+                    .andExpect(status().isOk());
+            verify(shortLinkService).suggestAliases("promo", ShortLinkService.MAX_SUGGESTIONS);
+        }
+
+        @Test
+        @DisplayName("批量检查应该按请求顺序返回每个短码的可用性")
+        void shouldCheckAvailabilityInBatch() throws Exception {
+            when(shortLinkService.findUnavailable(List.of("promo", "promo2026"))).thenReturn(Set.of("promo"));
+
+            mockMvc.perform(post(API_BASE_PATH + "/check-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"shortCodes\": [\"promo\", \"promo2026\"]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].shortCode").value("promo"))
+                    .andExpect(jsonPath("$[0].available").value(false))
+                    .andExpect(jsonPath("$[1].available").value(true));
+            verify(shortLinkService, never()).suggestAliases(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("批量检查超过100个短码应该返回400错误")
+        void shouldRejectOversizedBatch() throws Exception {
+            String codes = String.join(",", Collections.nCopies(101, "\"code\""));
+
+            mockMvc.perform(post(API_BASE_PATH + "/check-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"shortCodes\": [" + codes + "]}"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     /**
@@ -0,0 +1,188 @@
+package com.sunlight.linker.jfr;
+
+import com.sunlight.linker.util.LatencyHistogram;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JFR记录分析工具
+ *
+ * 【使用方式】：
+ * <pre>
+ *   # 录制：应用事件与GC、分配采样在同一个记录中
+ *   java -XX:StartFlightRecording=settings=profile,filename=linker.jfr,\
+ *        com.sunlight.linker.ShortLinkResolved#threshold=0ms -jar quality-gate-linker.jar
+ *
+ *   # 分析（测试类路径）
+ *   java -cp target/classes:target/test-classes com.sunlight.linker.jfr.JfrReport linker.jfr
+ * </pre>
+ *
+ * 【输出内容】：
+ * - 短码解析：按命中层分组的次数与 p50/p99/p99.9/max
+ * - 缓存击穿：发生次数与并发回源最多的短码
+ * - 计数写回：批次数、点击总数、失败次数与耗时分布
+ * - 同一时间段的GC停顿与分配采样，便于判断慢解析是否与GC重叠
+ *
+ * @author 测试实践学习项目
+ * @version 1.0
+ */
+public final class JfrReport {
+
+    public static final String RESOLVED = "com.sunlight.linker.ShortLinkResolved";
+    public static final String CREATED = "com.sunlight.linker.ShortLinkCreated";
+    public static final String STAMPEDE = "com.sunlight.linker.CacheStampede";
+    public static final String COUNTER_FLUSH = "com.sunlight.linker.CounterFlush";
+
+    private static final int TOP_STAMPEDES = 10;
+
+    final Map<String, Long> eventCounts = new TreeMap<>();
+    final Map<String, LatencyHistogram> resolvedByTier = new TreeMap<>();
+    final Map<String, Integer> stampedesByCode = new HashMap<>();
+    final LatencyHistogram flushDuration = new LatencyHistogram();
+    long createdCount;
+    long deduplicatedCount;
+    long flushedClicks;
+    long failedFlushes;
+    long gcCount;
+    Duration gcPauseTotal = Duration.ZERO;
+    Duration gcPauseMax = Duration.ZERO;
+    long sampledAllocationBytes;
+    Instant firstEvent;
+    Instant lastEvent;
+
+    private JfrReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("用法: JfrReport <recording.jfr>");
+            System.exit(1);
+        }
+        System.out.println(analyze(Path.of(args[0])).render());
+    }
+
+    /**
+     * 读取并汇总一个JFR记录文件
+     *
+     * @param recording 记录文件路径
+     * @return 汇总结果
+     * @throws IOException 当文件无法读取或格式不正确时抛出
+     */
+    public static JfrReport analyze(Path recording) throws IOException {
+        JfrReport report = new JfrReport();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                report.accept(file.readEvent());
+            }
+        }
+        return report;
+    }
+
+    private void accept(RecordedEvent event) {
+        String name = event.getEventType().getName();
+        Instant time = event.getStartTime();
+        if (firstEvent == null || time.isBefore(firstEvent)) {
+            firstEvent = time;
+        }
+        if (lastEvent == null || event.getEndTime().isAfter(lastEvent)) {
+            lastEvent = event.getEndTime();
+        }
+
+        switch (name) {
+            case RESOLVED -> {
+                String tier = event.getBoolean("found") ? event.getString("tier") : event.getString("tier") + "(not found)";
+                resolvedByTier.computeIfAbsent(tier, key -> new LatencyHistogram())
+                        .recordValue(event.getDuration().toNanos());
+            }
+            case CREATED -> {
+                createdCount++;
+                if (event.getBoolean("deduplicated")) {
+                    deduplicatedCount++;
+                }
+            }
+            case STAMPEDE -> stampedesByCode.merge(event.getString("shortCode"), event.getInt("concurrentLoads"), Math::max);
+            case COUNTER_FLUSH -> {
+                flushDuration.recordValue(event.getDuration().toNanos());
+                flushedClicks += event.getLong("clicks");
+                if (!event.getBoolean("succeeded")) {
+                    failedFlushes++;
+                }
+            }
+            case "jdk.GarbageCollection" -> {
+                gcCount++;
+                Duration pause = event.getDuration("sumOfPauses");
+                gcPauseTotal = gcPauseTotal.plus(pause);
+                Duration longest = event.getDuration("longestPause");
+                if (longest.compareTo(gcPauseMax) > 0) {
+                    gcPauseMax = longest;
+                }
+            }
+            case "jdk.ObjectAllocationSample" -> sampledAllocationBytes += event.getLong("weight");
+            default -> {
+                return;
+            }
+        }
+        eventCounts.merge(name, 1L, Long::sum);
+    }
+
+    public long getEventCount(String eventName) {
+        return eventCounts.getOrDefault(eventName, 0L);
+    }
+
+    public Map<String, LatencyHistogram> getResolvedByTier() {
+        return resolvedByTier;
+    }
+
+    public Map<String, Integer> getStampedesByCode() {
+        return stampedesByCode;
+    }
+
+    public long getFlushedClicks() {
+        return flushedClicks;
+    }
+
+    public long getDeduplicatedCount() {
+        return deduplicatedCount;
+    }
+
+    /**
+     * 输出文本报告
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append("=== JFR报告 ===\n");
+        if (firstEvent != null) {
+            out.append("时间范围: ").append(firstEvent).append(" ~ ").append(lastEvent).append('\n');
+        }
+        eventCounts.forEach((name, count) -> out.append(String.format("  %-40s %d%n", name, count)));
+
+        out.append("\n--- 短码解析（按命中层） ---\n");
+        resolvedByTier.forEach((tier, histogram) ->
+                out.append(String.format("  %-22s %s%n", tier, histogram.summary(TimeUnit.MICROSECONDS))));
+
+        out.append(String.format("%n--- 创建 ---%n  total=%d, deduplicated=%d%n", createdCount, deduplicatedCount));
+
+        out.append("\n--- 缓存击穿（并发回源最多的短码） ---\n");
+        stampedesByCode.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_STAMPEDES)
+                .forEach(entry -> out.append(String.format("  %-22s concurrentLoads=%d%n", entry.getKey(), entry.getValue())));
+
+        out.append(String.format("%n--- 计数写回 ---%n  clicks=%d, failed=%d, %s%n",
+                flushedClicks, failedFlushes, flushDuration.summary(TimeUnit.MILLISECONDS)));
+
+        out.append(String.format("%n--- 同期GC与分配 ---%n  gc=%d, pauseTotal=%dms, pauseMax=%dms, sampledAllocation=%dMB%n",
+                gcCount, gcPauseTotal.toMillis(), gcPauseMax.toMillis(), sampledAllocationBytes / (1024 * 1024)));
+        return out.toString();
+    }
+}